@@ -0,0 +1,35 @@
+package com.fulfilment.application.monolith.benchmarks;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** {@link LocationResolver} over a generated set of locations. */
+public class InMemoryLocationResolver implements LocationResolver {
+
+  private final Map<String, Location> locations = new HashMap<>();
+
+  public void add(Location location) {
+    locations.put(location.identification, location);
+  }
+
+  @Override
+  public Location resolveByIdentifier(String identifier) {
+    return locations.get(identifier);
+  }
+
+  @Override
+  public Map<String, Location> resolveAll(Collection<String> identifiers) {
+    Map<String, Location> resolved = new LinkedHashMap<>();
+    for (String identifier : identifiers) {
+      Location location = locations.get(identifier);
+      if (location != null) {
+        resolved.put(identifier, location);
+      }
+    }
+    return resolved;
+  }
+}
@@ -0,0 +1,68 @@
+package com.fulfilment.application.monolith.benchmarks;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUsage;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import io.smallrye.mutiny.Uni;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@link ReactiveWarehouseStore} over an {@link InMemoryWarehouseStore}: every call completes
+ * immediately, so a benchmark of the reactive use case measures the domain code plus the cost of its
+ * Mutiny pipeline, next to the blocking use case on the same data.
+ */
+public class InMemoryReactiveWarehouseStore
+    implements ReactiveWarehouseStore, ReactiveWarehouseStore.Transaction {
+
+  private final InMemoryWarehouseStore store;
+
+  public InMemoryReactiveWarehouseStore(InMemoryWarehouseStore store) {
+    this.store = store;
+  }
+
+  @Override
+  public Uni<List<Warehouse>> findActivePage(Long afterId, int limit) {
+    return Uni.createFrom().item(store.findActivePage(afterId, limit));
+  }
+
+  @Override
+  public Uni<Warehouse> findWarehouseById(Long id) {
+    return Uni.createFrom().item(store.findWarehouseById(id));
+  }
+
+  @Override
+  public <T> Uni<T> inTransaction(Function<Transaction, Uni<T>> work) {
+    // benchmarks roll the store back themselves
+    return work.apply(this);
+  }
+
+  @Override
+  public Uni<Warehouse> findByBusinessUnitCode(String buCode) {
+    return Uni.createFrom().item(store.findByBusinessUnitCode(buCode));
+  }
+
+  @Override
+  public Uni<LocationUsage> getLocationUsage(String locationIdentifier) {
+    return Uni.createFrom().item(store.getLocationUsage(locationIdentifier));
+  }
+
+  @Override
+  public Uni<Void> lockLocations(Collection<String> locationIdentifiers) {
+    store.lockLocations(locationIdentifiers);
+    return Uni.createFrom().voidItem();
+  }
+
+  @Override
+  public Uni<Void> create(Warehouse warehouse) {
+    store.create(warehouse);
+    return Uni.createFrom().voidItem();
+  }
+
+  @Override
+  public Uni<Void> update(Warehouse warehouse) {
+    store.update(warehouse);
+    return Uni.createFrom().voidItem();
+  }
+}
@@ -0,0 +1,243 @@
+package com.fulfilment.application.monolith.benchmarks;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUsage;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCapacity;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseConflictException;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link WarehouseStore} kept in hash maps, indexed the way the database is: by id, by business
+ * unit code and by location. Every change is recorded in an undo log so a benchmark can roll the
+ * store back to its initial state after each operation, like a rolled back transaction, and keep
+ * the data size fixed for the whole run.
+ */
+public class InMemoryWarehouseStore implements WarehouseStore {
+
+  private final Map<Long, Warehouse> byId = new HashMap<>();
+  private final Map<String, Warehouse> byBusinessUnitCode = new HashMap<>();
+  private final Map<String, List<Warehouse>> byLocation = new HashMap<>();
+  private final Deque<Runnable> undoLog = new ArrayDeque<>();
+  private long nextId = 1;
+
+  /** Adds a warehouse as initial data; not recorded in the undo log. */
+  public void load(Warehouse warehouse) {
+    insert(warehouse);
+    undoLog.clear();
+  }
+
+  /** Reverts every change made since the last rollback or load. */
+  public void rollback() {
+    while (!undoLog.isEmpty()) {
+      undoLog.pop().run();
+    }
+  }
+
+  @Override
+  public List<Warehouse> getAll() {
+    return new ArrayList<>(byId.values());
+  }
+
+  @Override
+  public List<Warehouse> findActive() {
+    return active().toList();
+  }
+
+  @Override
+  public Set<String> findActiveBusinessUnitCodes() {
+    return active().map(w -> w.businessUnitCode).collect(Collectors.toSet());
+  }
+
+  @Override
+  public List<WarehouseCapacity> findActiveCapacities() {
+    return active()
+        .map(w -> new WarehouseCapacity(w.businessUnitCode, w.location, w.capacity, w.stock))
+        .toList();
+  }
+
+  @Override
+  public List<Warehouse> findActivePage(Long afterId, int limit) {
+    long after = afterId != null ? afterId : Long.MIN_VALUE;
+    return active().filter(w -> w.id > after).limit(limit).toList();
+  }
+
+  @Override
+  public Map<Long, Long> findActivePageVersions(Long afterId, int limit) {
+    Map<Long, Long> versions = new LinkedHashMap<>();
+    findActivePage(afterId, limit)
+        .forEach(w -> versions.put(w.id, w.version));
+    return versions;
+  }
+
+  @Override
+  public Stream<Warehouse> streamActive() {
+    return active();
+  }
+
+  @Override
+  public void create(Warehouse warehouse) {
+    insert(warehouse);
+  }
+
+  @Override
+  public void createAll(List<Warehouse> warehouses) {
+    warehouses.forEach(this::insert);
+  }
+
+  @Override
+  public void update(Warehouse warehouse) {
+    Warehouse stored = byId.get(warehouse.id);
+    if (stored == null || !stored.version.equals(warehouse.version)) {
+      throw new WarehouseConflictException(warehouse.businessUnitCode);
+    }
+    apply(stored, warehouse);
+    warehouse.version = stored.version;
+  }
+
+  @Override
+  public void updateAll(List<Warehouse> warehouses) {
+    warehouses.forEach(warehouse -> apply(byId.get(warehouse.id), warehouse));
+  }
+
+  private void apply(Warehouse stored, Warehouse warehouse) {
+    if (stored == null) {
+      return;
+    }
+    String location = stored.location;
+    Integer capacity = stored.capacity;
+    Integer stock = stored.stock;
+    var archivedAt = stored.archivedAt;
+    Long version = stored.version;
+    undoLog.push(
+        () -> {
+          stored.location = location;
+          stored.capacity = capacity;
+          stored.stock = stock;
+          stored.archivedAt = archivedAt;
+          stored.version = version;
+        });
+    stored.location = warehouse.location;
+    stored.capacity = warehouse.capacity;
+    stored.stock = warehouse.stock;
+    stored.archivedAt = warehouse.archivedAt;
+    stored.version = version + 1;
+  }
+
+  @Override
+  public Warehouse findWarehouseById(Long id) {
+    return copy(byId.get(id));
+  }
+
+  @Override
+  public Warehouse findByBusinessUnitCode(String buCode) {
+    return copy(byBusinessUnitCode.get(buCode));
+  }
+
+  @Override
+  public List<Warehouse> findHistory(String buCode) {
+    return byId.values().stream()
+        .filter(w -> w.businessUnitCode.equals(buCode))
+        .sorted(Comparator.comparing(w -> w.id))
+        .map(InMemoryWarehouseStore::copy)
+        .toList();
+  }
+
+  @Override
+  public Map<String, Warehouse> findByBusinessUnitCodes(Collection<String> buCodes) {
+    Map<String, Warehouse> found = new HashMap<>();
+    for (String buCode : buCodes) {
+      Warehouse warehouse = byBusinessUnitCode.get(buCode);
+      if (warehouse != null) {
+        found.put(buCode, copy(warehouse));
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public Map<String, LocationUsage> getLocationUsages(Collection<String> locationIdentifiers) {
+    Map<String, LocationUsage> usages = new HashMap<>();
+    for (String identifier : locationIdentifiers) {
+      usages.put(identifier, getLocationUsage(identifier));
+    }
+    return usages;
+  }
+
+  @Override
+  public LocationUsage getLocationUsage(String locationIdentifier) {
+    int count = 0;
+    int capacity = 0;
+    for (Warehouse warehouse : byLocation.getOrDefault(locationIdentifier, List.of())) {
+      if (warehouse.archivedAt == null) {
+        count++;
+        capacity += warehouse.capacity;
+      }
+    }
+    return new LocationUsage(locationIdentifier, count, capacity);
+  }
+
+  @Override
+  public void lockLocations(Collection<String> locationIdentifiers) {
+    // benchmarks run single-threaded against their own store
+  }
+
+  private Stream<Warehouse> active() {
+    return byId.values().stream()
+        .filter(w -> w.archivedAt == null)
+        .sorted(Comparator.comparing(w -> w.id));
+  }
+
+  private void insert(Warehouse warehouse) {
+    Warehouse stored = copy(warehouse);
+    stored.id = nextId++;
+    stored.version = 0L;
+    warehouse.id = stored.id;
+    warehouse.version = stored.version;
+
+    Warehouse previous = byBusinessUnitCode.put(stored.businessUnitCode, stored);
+    byId.put(stored.id, stored);
+    List<Warehouse> atLocation = byLocation.computeIfAbsent(stored.location, l -> new ArrayList<>());
+    atLocation.add(stored);
+
+    undoLog.push(
+        () -> {
+          atLocation.remove(atLocation.size() - 1);
+          byId.remove(stored.id);
+          if (previous != null) {
+            byBusinessUnitCode.put(previous.businessUnitCode, previous);
+          } else {
+            byBusinessUnitCode.remove(stored.businessUnitCode);
+          }
+          nextId--;
+        });
+  }
+
+  // callers get a detached copy, as they would from the database adapter
+  private static Warehouse copy(Warehouse source) {
+    if (source == null) {
+      return null;
+    }
+    Warehouse copy = new Warehouse();
+    copy.id = source.id;
+    copy.businessUnitCode = source.businessUnitCode;
+    copy.location = source.location;
+    copy.capacity = source.capacity;
+    copy.stock = source.stock;
+    copy.createdAt = source.createdAt;
+    copy.archivedAt = source.archivedAt;
+    copy.version = source.version;
+    return copy;
+  }
+}
@@ -0,0 +1,63 @@
+package com.fulfilment.application.monolith.benchmarks;
+
+import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.products.ProductSearchIndex;
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A {@link ProductSearchIndex} over {@code products} generated products. Names and descriptions
+ * are drawn from a vocabulary of {@value #VOCABULARY} made-up words, so each word is shared by
+ * about {@code products * 8 / VOCABULARY} products; prices are spread evenly up to 1000.
+ */
+@State(Scope.Benchmark)
+public class ProductCatalog {
+
+  static final int VOCABULARY = 8000;
+  private static final String[] SYLLABLES = {
+    "ka", "lo", "ber", "sta", "ton", "mal", "hem", "nes", "bil", "ly",
+    "pax", "ri", "dul", "vik", "sun", "fa", "gor", "mo", "tra", "ek"
+  };
+
+  @Param({"1000", "1000000"})
+  public int products;
+
+  public ProductSearchIndex index;
+
+  final String[] words = new String[VOCABULARY];
+
+  @Setup(Level.Trial)
+  public void load() {
+    for (int i = 0; i < VOCABULARY; i++) {
+      words[i] =
+          SYLLABLES[i % 20] + SYLLABLES[(i / 20) % 20] + SYLLABLES[(i / 400) % 20];
+    }
+    SplittableRandom random = new SplittableRandom(42);
+    // the repository is only used to load the index at application startup
+    index = new ProductSearchIndex(null);
+    index.load(IntStream.rangeClosed(1, products).mapToObj(id -> product(id, random)));
+  }
+
+  private Product product(long id, SplittableRandom random) {
+    Product product = new Product(word(random) + " " + word(random));
+    product.id = id;
+    StringBuilder description = new StringBuilder();
+    for (int i = 0; i < 6; i++) {
+      description.append(word(random)).append(' ');
+    }
+    product.description = description.toString().trim();
+    product.price = BigDecimal.valueOf(random.nextInt(1, 100_000), 2);
+    product.stock = random.nextInt(4) == 0 ? 0 : random.nextInt(1, 100);
+    return product;
+  }
+
+  private String word(SplittableRandom random) {
+    return words[random.nextInt(VOCABULARY)];
+  }
+}
@@ -0,0 +1,71 @@
+package com.fulfilment.application.monolith.benchmarks;
+
+import com.fulfilment.application.monolith.products.Product;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Searches of the {@code ProductSearchIndex}, each returning a page of up to 100 products. */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dorg.jboss.logging.provider=jdk"})
+public class ProductSearchBenchmark {
+
+  private static final int PAGE = 100;
+  private static final BigDecimal LOW = new BigDecimal("100.00");
+  private static final BigDecimal HIGH = new BigDecimal("200.00");
+
+  /** Walks through the vocabulary, so every search looks up another word. */
+  @State(Scope.Thread)
+  public static class Terms {
+    private int cursor;
+
+    String next(ProductCatalog catalog) {
+      cursor = (cursor + 7919) % ProductCatalog.VOCABULARY;
+      return catalog.words[cursor];
+    }
+  }
+
+  @Benchmark
+  public List<Product> word(ProductCatalog catalog, Terms terms) {
+    return catalog.index.search(terms.next(catalog), null, null, false, null, PAGE);
+  }
+
+  @Benchmark
+  public List<Product> wordPrefix(ProductCatalog catalog, Terms terms) {
+    // four letters cover the twenty words sharing their first two syllables
+    return catalog.index.search(terms.next(catalog).substring(0, 4), null, null, false, null, PAGE);
+  }
+
+  @Benchmark
+  public List<Product> twoWords(ProductCatalog catalog, Terms terms) {
+    String query = terms.next(catalog) + " " + terms.next(catalog);
+    return catalog.index.search(query, null, null, false, null, PAGE);
+  }
+
+  @Benchmark
+  public List<Product> wordInPriceRangeInStock(ProductCatalog catalog, Terms terms) {
+    return catalog.index.search(terms.next(catalog), LOW, HIGH, true, null, PAGE);
+  }
+
+  @Benchmark
+  public List<Product> priceRange(ProductCatalog catalog) {
+    return catalog.index.search(null, LOW, LOW.add(BigDecimal.ONE), false, null, PAGE);
+  }
+
+  @Benchmark
+  public List<Product> inStockPage(ProductCatalog catalog) {
+    return catalog.index.search(null, null, null, true, 500L, PAGE);
+  }
+}
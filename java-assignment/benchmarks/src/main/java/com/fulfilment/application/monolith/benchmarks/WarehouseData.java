@@ -0,0 +1,154 @@
+package com.fulfilment.application.monolith.benchmarks;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventPublisher;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.ArchiveWarehouseUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.CreateWarehouseUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.ReactiveWarehouseUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.ReplaceWarehouseUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.WarehouseConflictRetry;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.WarehouseValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Warehouses spread over locations of {@value #WAREHOUSES_PER_LOCATION} each, of which {@code
+ * archivedRatio} are archived history. Every location has room for one more warehouse, so the use
+ * cases take their success path; benchmarks roll the store back after each operation.
+ */
+@State(Scope.Thread)
+public class WarehouseData {
+
+  static final int WAREHOUSES_PER_LOCATION = 10;
+  static final int WAREHOUSE_CAPACITY = 100;
+  static final int WAREHOUSE_STOCK = 10;
+  private static final int NEW_CODES = 1024;
+
+  // the use cases log every operation at INFO; writing that to the console would dominate the
+  // measurements, so only warnings are kept (held here so the logger is not garbage collected)
+  private static final java.util.logging.Logger APPLICATION_LOGGER =
+      java.util.logging.Logger.getLogger("com.fulfilment");
+
+  @Param({"10", "1000", "100000", "1000000"})
+  public int warehouses;
+
+  @Param({"0.0", "0.5", "0.9"})
+  public double archivedRatio;
+
+  public InMemoryWarehouseStore store;
+  public InMemoryLocationResolver locationResolver;
+  public WarehouseValidator validator;
+  public CreateWarehouseUseCase createUseCase;
+  public ReplaceWarehouseUseCase replaceUseCase;
+  public ArchiveWarehouseUseCase archiveUseCase;
+  public ReactiveWarehouseUseCase reactiveUseCase;
+
+  private String[] locations;
+  private String[] activeCodes;
+  private String[] newCodes;
+  private int cursor;
+
+  @Setup(Level.Trial)
+  public void load() {
+    APPLICATION_LOGGER.setLevel(java.util.logging.Level.WARNING);
+    // outside Quarkus, context propagation wraps every Mutiny operator through its slow generic
+    // path; the application sets it up at build time, so leave it out rather than measure it
+    Infrastructure.clearInterceptors();
+    store = new InMemoryWarehouseStore();
+    locationResolver = new InMemoryLocationResolver();
+
+    int locationCount = Math.max(1, warehouses / WAREHOUSES_PER_LOCATION);
+    locations = new String[locationCount];
+    for (int i = 0; i < locationCount; i++) {
+      locations[i] = "LOC-" + i;
+      locationResolver.add(
+          new Location(
+              locations[i],
+              WAREHOUSES_PER_LOCATION + 1,
+              (WAREHOUSES_PER_LOCATION + 1) * WAREHOUSE_CAPACITY));
+    }
+
+    List<String> active = new ArrayList<>();
+    LocalDateTime createdAt = LocalDateTime.now().minusYears(1);
+    for (int i = 0; i < warehouses; i++) {
+      Warehouse warehouse = new Warehouse();
+      warehouse.businessUnitCode = "MWH." + i;
+      warehouse.location = locations[i % locationCount];
+      warehouse.capacity = WAREHOUSE_CAPACITY;
+      warehouse.stock = WAREHOUSE_STOCK;
+      warehouse.createdAt = createdAt;
+      // spreads exactly archivedRatio * warehouses archived rows evenly over the data set
+      if (Math.floor((i + 1) * archivedRatio) > Math.floor(i * archivedRatio)) {
+        warehouse.archivedAt = createdAt.plusDays(1);
+      } else {
+        active.add(warehouse.businessUnitCode);
+      }
+      store.load(warehouse);
+    }
+    if (active.isEmpty()) {
+      throw new IllegalStateException("No active warehouses to benchmark with " + archivedRatio);
+    }
+    activeCodes = active.toArray(String[]::new);
+
+    newCodes = new String[NEW_CODES];
+    for (int i = 0; i < NEW_CODES; i++) {
+      newCodes[i] = "MWH.NEW." + i;
+    }
+
+    validator = new WarehouseValidator(store, locationResolver, new SimpleMeterRegistry());
+    // events have no listeners here, as when nothing observes them in the application
+    WarehouseEventPublisher events = event -> {};
+    // single-threaded, so no update ever conflicts and the retry only costs its bookkeeping
+    WarehouseConflictRetry conflictRetry =
+        new WarehouseConflictRetry(new SimpleMeterRegistry(), 3, Duration.ofMillis(5));
+    createUseCase = new CreateWarehouseUseCase(store, validator, events);
+    replaceUseCase = new ReplaceWarehouseUseCase(store, validator, events, conflictRetry);
+    archiveUseCase = new ArchiveWarehouseUseCase(store, validator, events, conflictRetry);
+    reactiveUseCase =
+        new ReactiveWarehouseUseCase(
+            new InMemoryReactiveWarehouseStore(store), validator, events, conflictRetry);
+  }
+
+  /** A warehouse that does not exist yet, at a location with room for it. */
+  public Warehouse newWarehouse() {
+    int next = cursor++;
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = newCodes[next & (NEW_CODES - 1)];
+    warehouse.location = locations[Math.floorMod(next, locations.length)];
+    warehouse.capacity = WAREHOUSE_CAPACITY;
+    warehouse.stock = 0;
+    return warehouse;
+  }
+
+  /** A valid replacement for one of the active warehouses, cycling through all of them. */
+  public Warehouse replacement() {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = activeCode();
+    warehouse.location = locations[Math.floorMod(cursor, locations.length)];
+    warehouse.capacity = WAREHOUSE_CAPACITY;
+    warehouse.stock = WAREHOUSE_STOCK;
+    return warehouse;
+  }
+
+  public String activeCode() {
+    return activeCodes[Math.floorMod(cursor++, activeCodes.length)];
+  }
+
+  public String location() {
+    return locations[Math.floorMod(cursor++, locations.length)];
+  }
+
+  public String newCode() {
+    return newCodes[cursor++ & (NEW_CODES - 1)];
+  }
+}
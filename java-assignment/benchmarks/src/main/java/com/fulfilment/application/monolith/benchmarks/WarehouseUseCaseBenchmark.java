@@ -0,0 +1,75 @@
+package com.fulfilment.application.monolith.benchmarks;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Create, replace and archive use cases end to end against the in-memory store. Each operation is
+ * followed by a rollback of the store, which is part of the measured time but does the same small
+ * amount of work for every data size. The {@code reactive*} benchmarks run the same operations
+ * through {@code ReactiveWarehouseUseCase}, so the two variants can be compared on the same data.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Dorg.jboss.logging.provider=jdk"})
+public class WarehouseUseCaseBenchmark {
+
+  @Benchmark
+  public Warehouse create(WarehouseData data) {
+    Warehouse warehouse = data.newWarehouse();
+    data.createUseCase.create(warehouse);
+    data.store.rollback();
+    return warehouse;
+  }
+
+  @Benchmark
+  public Warehouse replace(WarehouseData data) {
+    Warehouse warehouse = data.replacement();
+    data.replaceUseCase.replace(warehouse);
+    data.store.rollback();
+    return warehouse;
+  }
+
+  @Benchmark
+  public Warehouse archive(WarehouseData data) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = data.activeCode();
+    data.archiveUseCase.archive(warehouse);
+    data.store.rollback();
+    return warehouse;
+  }
+
+  @Benchmark
+  public Warehouse reactiveCreate(WarehouseData data) {
+    Warehouse warehouse = data.newWarehouse();
+    data.reactiveUseCase.create(warehouse).await().indefinitely();
+    data.store.rollback();
+    return warehouse;
+  }
+
+  @Benchmark
+  public Warehouse reactiveReplace(WarehouseData data) {
+    Warehouse warehouse = data.replacement();
+    data.reactiveUseCase.replace(warehouse).await().indefinitely();
+    data.store.rollback();
+    return warehouse;
+  }
+
+  @Benchmark
+  public Warehouse reactiveArchive(WarehouseData data) {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = data.activeCode();
+    data.reactiveUseCase.archive(warehouse).await().indefinitely();
+    data.store.rollback();
+    return warehouse;
+  }
+}
@@ -0,0 +1,37 @@
+package com.fulfilment.application.monolith.benchmarks;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** The individual {@code WarehouseValidator} checks, all on their passing path. */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Dorg.jboss.logging.provider=jdk"})
+public class WarehouseValidatorBenchmark {
+
+  @Benchmark
+  public void validateBusinessUnitCodeIsUnique(WarehouseData data) {
+    data.validator.validateBusinessUnitCodeIsUnique(data.newCode());
+  }
+
+  @Benchmark
+  public Location validateLocationExists(WarehouseData data) {
+    return data.validator.validateLocationExists(data.location());
+  }
+
+  @Benchmark
+  public void validateLocationCapacity(WarehouseData data) {
+    String identifier = data.location();
+    Location location = data.locationResolver.resolveByIdentifier(identifier);
+    data.validator.validateLocationCapacity(identifier, location, WarehouseData.WAREHOUSE_CAPACITY);
+  }
+}
@@ -0,0 +1,256 @@
+package com.fulfilment.application.monolith.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.ws.rs.WebApplicationException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jboss.logging.Logger;
+
+/**
+ * Imports rows of one entity from CSV or newline-delimited JSON.
+ *
+ * <p>The input is parsed as it is read, one row at a time. Valid rows are collected in chunks of
+ * {@value #CHUNK_SIZE}; the names of a chunk are checked against the stored ones with one query,
+ * and the chunk is inserted in its own transaction, which Hibernate sends in JDBC batches and ends
+ * with an empty persistence context. Memory use does not depend on the size of the import. An
+ * import is not atomic: the chunks committed before the input breaks off stay.
+ *
+ * <p>Rows that do not parse, break a rule or repeat a name are skipped and reported with their
+ * line. When a chunk fails to insert anyway, as when a concurrent request took one of its names,
+ * its rows are inserted one by one so that only the failing ones are rejected.
+ */
+public abstract class BulkImport<T> {
+
+  private static final Logger LOGGER = Logger.getLogger(BulkImport.class.getName());
+
+  static final int CHUNK_SIZE = 1000;
+
+  private final ObjectMapper objectMapper;
+  private final Class<T> type;
+  private final String entityName;
+  private final List<String> columns;
+
+  /**
+   * @param entityName as used in messages, e.g. "Product"
+   * @param columns the CSV columns a header may name
+   */
+  protected BulkImport(
+      ObjectMapper objectMapper, Class<T> type, String entityName, List<String> columns) {
+    this.objectMapper = objectMapper;
+    this.type = type;
+    this.entityName = entityName;
+    this.columns = columns;
+  }
+
+  /** Reads a row from a CSV record. */
+  protected abstract T fromCsv(CsvRow row);
+
+  /** Returns why the row cannot be imported, or null. */
+  protected abstract String check(T row);
+
+  /** The name of the row, unique among all rows of the entity. */
+  protected abstract String name(T row);
+
+  /** Returns those of the names that are taken; called within a transaction. */
+  protected abstract Collection<String> findExistingNames(Collection<String> names);
+
+  /** Inserts the rows; called within a transaction. */
+  protected abstract void insert(List<T> rows);
+
+  /** Clears what a failed insert assigned to the row, so it can be inserted again. */
+  protected abstract void reset(T row);
+
+  /** Imports newline-delimited JSON, one row per line, in the format of the single endpoints. */
+  public ImportResult importNdjson(InputStream input) {
+    Chunk chunk = new Chunk();
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      long lineNumber = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) {
+          continue;
+        }
+        T row;
+        try {
+          row = objectMapper.readValue(line, type);
+        } catch (JsonProcessingException e) {
+          chunk.result.reject(
+              lineNumber,
+              "Line is not a valid " + entityName.toLowerCase() + ": " + e.getOriginalMessage());
+          continue;
+        }
+        chunk.add(lineNumber, row);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read " + entityName.toLowerCase() + " import", e);
+    }
+    return chunk.finish();
+  }
+
+  /**
+   * Imports CSV whose first record is a header naming the columns, in any order; columns left out
+   * are read as empty.
+   */
+  public ImportResult importCsv(InputStream input) {
+    Chunk chunk = new Chunk();
+    try (CsvReader csv =
+        new CsvReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      List<String> header = csv.next();
+      if (header == null) {
+        return chunk.finish();
+      }
+      Map<String, Integer> positions = positions(header);
+      while (true) {
+        List<String> values;
+        try {
+          values = csv.next();
+        } catch (IllegalArgumentException e) {
+          chunk.result.reject(csv.line(), e.getMessage());
+          break;
+        }
+        if (values == null) {
+          break;
+        }
+        if (values.size() == 1 && values.get(0).isEmpty()) {
+          continue;
+        }
+        if (values.size() != header.size()) {
+          chunk.result.reject(
+              csv.line(),
+              "Row has " + values.size() + " fields, the header has " + header.size() + ".");
+          continue;
+        }
+        T row;
+        try {
+          row = fromCsv(new CsvRow(positions, values));
+        } catch (IllegalArgumentException e) {
+          chunk.result.reject(csv.line(), e.getMessage());
+          continue;
+        }
+        chunk.add(csv.line(), row);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read " + entityName.toLowerCase() + " import", e);
+    }
+    return chunk.finish();
+  }
+
+  private Map<String, Integer> positions(List<String> header) {
+    Map<String, Integer> positions = new HashMap<>();
+    for (int i = 0; i < header.size(); i++) {
+      // spreadsheet programs start UTF-8 files with a byte order mark
+      String column = header.get(i).replace("\uFEFF", "").trim();
+      if (!columns.contains(column)) {
+        throw new WebApplicationException(
+            "Unknown CSV column '" + column + "'; the columns are " + String.join(", ", columns)
+                + ".",
+            400);
+      }
+      if (positions.put(column, i) != null) {
+        throw new WebApplicationException("CSV column " + column + " is repeated.", 400);
+      }
+    }
+    return positions;
+  }
+
+  private static String rootMessage(Throwable failure) {
+    Throwable cause = failure;
+    while (cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    String message = String.valueOf(cause.getMessage());
+    int lineBreak = message.indexOf('\n');
+    return lineBreak < 0 ? message : message.substring(0, lineBreak);
+  }
+
+  /** The rows waiting to be inserted, with the lines they were read from. */
+  private final class Chunk {
+
+    final ImportResult result = new ImportResult();
+    private final List<T> rows = new ArrayList<>(CHUNK_SIZE);
+    private final long[] lines = new long[CHUNK_SIZE];
+
+    void add(long line, T row) {
+      String error = check(row);
+      if (error != null) {
+        result.reject(line, error);
+        return;
+      }
+      lines[rows.size()] = line;
+      rows.add(row);
+      if (rows.size() == CHUNK_SIZE) {
+        flush();
+      }
+    }
+
+    ImportResult finish() {
+      flush();
+      // repeated names are only found when their chunk is inserted
+      result.errors.sort(Comparator.comparingLong(error -> error.line));
+      LOGGER.infof(
+          "Imported %d %s rows, rejected %d", result.imported, entityName.toLowerCase(),
+          result.rejected);
+      return result;
+    }
+
+    private void flush() {
+      if (rows.isEmpty()) {
+        return;
+      }
+      List<String> names = rows.stream().map(BulkImport.this::name).toList();
+      Set<String> taken =
+          new HashSet<>(QuarkusTransaction.requiringNew().call(() -> findExistingNames(names)));
+
+      List<T> accepted = new ArrayList<>(rows.size());
+      long[] acceptedLines = new long[rows.size()];
+      for (int i = 0; i < rows.size(); i++) {
+        // also rejects a name repeated within the chunk
+        if (!taken.add(names.get(i))) {
+          result.reject(
+              lines[i], entityName + " with name " + names.get(i) + " already exists.");
+          continue;
+        }
+        acceptedLines[accepted.size()] = lines[i];
+        accepted.add(rows.get(i));
+      }
+      rows.clear();
+
+      try {
+        QuarkusTransaction.requiringNew().run(() -> insert(accepted));
+        result.imported += accepted.size();
+      } catch (RuntimeException e) {
+        LOGGER.warnf(
+            "Failed to insert a chunk of %d %s rows, inserting them one by one: %s",
+            accepted.size(), entityName.toLowerCase(), rootMessage(e));
+        for (int i = 0; i < accepted.size(); i++) {
+          T row = accepted.get(i);
+          reset(row);
+          try {
+            QuarkusTransaction.requiringNew().run(() -> insert(List.of(row)));
+            result.imported++;
+          } catch (RuntimeException rowFailure) {
+            result.reject(
+                acceptedLines[i],
+                entityName + " could not be stored: " + rootMessage(rowFailure));
+          }
+        }
+      }
+    }
+  }
+}
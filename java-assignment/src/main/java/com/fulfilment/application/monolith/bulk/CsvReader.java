@@ -0,0 +1,114 @@
+package com.fulfilment.application.monolith.bulk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads CSV as in RFC 4180 one record at a time: fields separated by commas, optionally quoted with
+ * {@code "}, quotes inside quoted fields doubled, and quoted fields may span lines. Records end
+ * with CRLF or LF. Only the record being read is held in memory.
+ */
+public final class CsvReader implements Closeable {
+
+  private final Reader reader;
+  private final char[] buffer = new char[8192];
+  private int position;
+  private int limit;
+
+  private long line = 1;
+  private long recordLine;
+
+  public CsvReader(Reader reader) {
+    this.reader = reader;
+  }
+
+  /**
+   * Returns the fields of the next record, or null at the end of the input.
+   *
+   * @throws IllegalArgumentException when the input ends inside a quoted field
+   */
+  public List<String> next() throws IOException {
+    recordLine = line;
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    boolean empty = true;
+    while (true) {
+      int c = read();
+      if (c == -1) {
+        if (quoted) {
+          throw new IllegalArgumentException(
+              "Quoted field starting on line " + recordLine + " is not closed.");
+        }
+        if (empty) {
+          return null;
+        }
+        fields.add(field.toString());
+        return fields;
+      }
+      empty = false;
+      if (quoted) {
+        if (c == '"') {
+          if (peek() == '"') {
+            read();
+            field.append('"');
+          } else {
+            quoted = false;
+          }
+        } else {
+          if (c == '\n') {
+            line++;
+          }
+          field.append((char) c);
+        }
+      } else if (c == '"' && field.length() == 0) {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\n' || c == '\r') {
+        if (c == '\r' && peek() == '\n') {
+          read();
+        }
+        line++;
+        fields.add(field.toString());
+        return fields;
+      } else {
+        field.append((char) c);
+      }
+    }
+  }
+
+  /** The line on which the record last returned by {@link #next()} starts. */
+  public long line() {
+    return recordLine;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private int read() throws IOException {
+    int c = peek();
+    if (c != -1) {
+      position++;
+    }
+    return c;
+  }
+
+  private int peek() throws IOException {
+    if (position == limit) {
+      limit = reader.read(buffer, 0, buffer.length);
+      position = 0;
+      if (limit <= 0) {
+        limit = 0;
+        return -1;
+      }
+    }
+    return buffer[position];
+  }
+}
@@ -0,0 +1,62 @@
+package com.fulfilment.application.monolith.bulk;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A CSV record read against the header of its import. Columns that are missing from the header or
+ * left empty read as null; a value that does not parse throws an {@link IllegalArgumentException}
+ * whose message is reported for the row.
+ */
+public final class CsvRow {
+
+  private final Map<String, Integer> columns;
+  private final List<String> values;
+
+  CsvRow(Map<String, Integer> columns, List<String> values) {
+    this.columns = columns;
+    this.values = values;
+  }
+
+  public String text(String column) {
+    Integer index = columns.get(column);
+    if (index == null) {
+      return null;
+    }
+    String value = values.get(index);
+    return value.isEmpty() ? null : value;
+  }
+
+  public Long longValue(String column) {
+    String value = text(column);
+    try {
+      return value == null ? null : Long.valueOf(value.trim());
+    } catch (NumberFormatException e) {
+      throw notA("a whole number", column, value);
+    }
+  }
+
+  public Integer intValue(String column) {
+    String value = text(column);
+    try {
+      return value == null ? null : Integer.valueOf(value.trim());
+    } catch (NumberFormatException e) {
+      throw notA("a whole number", column, value);
+    }
+  }
+
+  public BigDecimal decimal(String column) {
+    String value = text(column);
+    try {
+      return value == null ? null : new BigDecimal(value.trim());
+    } catch (NumberFormatException e) {
+      throw notA("a number", column, value);
+    }
+  }
+
+  private static IllegalArgumentException notA(String kind, String column, String value) {
+    return new IllegalArgumentException(
+        "Column " + column + " is not " + kind + ": '" + value + "'.");
+  }
+}
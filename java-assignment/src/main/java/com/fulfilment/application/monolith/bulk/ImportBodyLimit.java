@@ -0,0 +1,76 @@
+package com.fulfilment.application.monolith.bulk;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.quarkus.runtime.configuration.MemorySize;
+import io.quarkus.vertx.http.runtime.RouteConstants;
+import io.quarkus.vertx.http.runtime.VertxHttpRecorder;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.util.List;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Lets the bulk import routes, which read their body as a stream, accept bodies of up to {@code
+ * bulk.import.max-body-size}, while every other route keeps {@code
+ * quarkus.http.limits.max-body-size}.
+ *
+ * <p>Quarkus applies its limit twice: a router handler answers 413 to a request that declares a
+ * longer Content-Length, and the stream a resource reads its body from fails once more than the
+ * limit that handler leaves in the routing context was read. For the import routes, a handler
+ * ahead of it checks the declared length against the import limit instead and keeps it from the
+ * generic check, and one after it replaces the limit in the routing context, so the body is still
+ * bounded as it is read.
+ */
+@ApplicationScoped
+public class ImportBodyLimit {
+
+  static final List<String> PATHS = List.of("/product/import", "/store/import");
+
+  // the router order of the Quarkus body size check, and the routing context entry it leaves;
+  // ImportBodyLimitTest fails when either stops matching what Quarkus does
+  private static final int BODY_SIZE_CHECK_ORDER = RouteConstants.ROUTE_ORDER_UPLOAD_LIMIT;
+  private static final String MAX_REQUEST_SIZE = VertxHttpRecorder.MAX_REQUEST_SIZE_KEY;
+
+  private final long maxBodySize;
+
+  @Inject
+  public ImportBodyLimit(
+      @ConfigProperty(name = "bulk.import.max-body-size", defaultValue = "1G")
+          MemorySize maxBodySize) {
+    this.maxBodySize = maxBodySize.asLongValue();
+  }
+
+  void install(@Observes Router router) {
+    for (String path : PATHS) {
+      router.post(path).order(BODY_SIZE_CHECK_ORDER - 1).handler(this::checkDeclaredLength);
+      router
+          .post(path)
+          .order(BODY_SIZE_CHECK_ORDER + 1)
+          .handler(
+              context -> {
+                context.put(MAX_REQUEST_SIZE, maxBodySize);
+                context.next();
+              });
+    }
+  }
+
+  private void checkDeclaredLength(RoutingContext context) {
+    String declared = context.request().getHeader(HttpHeaderNames.CONTENT_LENGTH);
+    if (declared != null && Long.parseLong(declared) > maxBodySize) {
+      // as Quarkus does: the body is not read, so the connection cannot be reused
+      context
+          .response()
+          .putHeader(HttpHeaderNames.CONNECTION, "close")
+          .setStatusCode(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code())
+          .end();
+      return;
+    }
+    // the body was framed when the request was decoded; the header is only read by the checks
+    context.request().headers().remove(HttpHeaderNames.CONTENT_LENGTH);
+    context.next();
+  }
+}
@@ -0,0 +1,39 @@
+package com.fulfilment.application.monolith.bulk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Outcome of a bulk product or store import. */
+public class ImportResult {
+
+  static final int MAX_REPORTED_ERRORS = 100;
+
+  public long imported;
+
+  public long rejected;
+
+  // rejected rows in line order, at most MAX_REPORTED_ERRORS of them
+  public List<RowError> errors = new ArrayList<>();
+
+  void reject(long line, String error) {
+    rejected++;
+    if (errors.size() < MAX_REPORTED_ERRORS) {
+      errors.add(new RowError(line, error));
+    }
+  }
+
+  public static class RowError {
+
+    // 1-based line of the import on which the row starts; the CSV header is line 1
+    public long line;
+
+    public String error;
+
+    public RowError() {}
+
+    public RowError(long line, String error) {
+      this.line = line;
+      this.error = error;
+    }
+  }
+}
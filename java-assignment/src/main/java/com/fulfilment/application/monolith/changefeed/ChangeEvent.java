@@ -0,0 +1,24 @@
+package com.fulfilment.application.monolith.changefeed;
+
+/** One event of the {@link ChangeFeed}, ready to be sent as a server-sent event. */
+public class ChangeEvent {
+
+  // the entity that changed ("warehouse", "store", "product"), or "reset"
+  public final String name;
+
+  // resumable position in the feed, sent back by clients in Last-Event-ID
+  public final String id;
+
+  // JSON document with the type of change, the key of the entity and its state after the change
+  public final String data;
+
+  // position of the event in the feed, 0 for a reset
+  final long offset;
+
+  ChangeEvent(String name, String id, String data, long offset) {
+    this.name = name;
+    this.id = id;
+    this.data = data;
+    this.offset = offset;
+  }
+}
@@ -0,0 +1,294 @@
+package com.fulfilment.application.monolith.changefeed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fulfilment.application.monolith.products.ProductEvent;
+import com.fulfilment.application.monolith.stores.StoreEvent;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Publishes every committed change of a warehouse, store or product to long-lived subscribers, so
+ * dashboards can follow the data instead of polling the list endpoints.
+ *
+ * <p>The last {@code changefeed.buffer-size} events are kept in a ring buffer, numbered from the
+ * start of the application ({@code <epoch>-<offset>}). A subscriber that sends back the id of the
+ * last event it received resumes right after it while that event is still in the buffer; otherwise
+ * it first gets a {@code reset} event, after which it should reload what it shows, and then the new
+ * changes. A subscriber may have at most {@code changefeed.max-pending} events sent but not yet
+ * written to its connection; a slower one is disconnected instead of being buffered without bound,
+ * and resumes from its last event when it reconnects. Disconnects are counted in {@code
+ * changefeed.evictions}.
+ *
+ * <p>The feed is in-process, so it only sees the changes made through this instance.
+ */
+@ApplicationScoped
+public class ChangeFeed {
+
+  static final String WAREHOUSE = "warehouse";
+  static final String STORE = "store";
+  static final String PRODUCT = "product";
+  static final String RESET = "reset";
+
+  public static final Set<String> ENTITIES = Set.of(WAREHOUSE, STORE, PRODUCT);
+
+  private static final Logger LOGGER = Logger.getLogger(ChangeFeed.class.getName());
+
+  private final ObjectMapper objectMapper;
+  private final int maxPending;
+  private final Counter evictions;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final ChangeEvent[] buffer;
+  private final String epoch = Long.toString(System.currentTimeMillis());
+  // offset of the newest event, 0 before the first one
+  private long head;
+
+  private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+  @Inject
+  public ChangeFeed(
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @ConfigProperty(name = "changefeed.buffer-size", defaultValue = "10000") int bufferSize,
+      @ConfigProperty(name = "changefeed.max-pending", defaultValue = "1000") int maxPending) {
+    this.objectMapper = objectMapper;
+    this.buffer = new ChangeEvent[bufferSize];
+    this.maxPending = maxPending;
+    this.evictions =
+        Counter.builder("changefeed.evictions")
+            .description("Change feed subscribers disconnected for falling behind")
+            .register(meterRegistry);
+    Gauge.builder("changefeed.subscribers", subscriptions, Set::size)
+        .description("Open change feed subscriptions")
+        .register(meterRegistry);
+  }
+
+  void onWarehouseEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseEvent event) {
+    append(WAREHOUSE, event.type.name(), event.warehouse.businessUnitCode, event.warehouse);
+  }
+
+  void onStoreEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) StoreEvent event) {
+    append(STORE, event.type.name(), event.store.id, event.store);
+  }
+
+  void onProductEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductEvent event) {
+    append(PRODUCT, event.type.name(), event.product.id, event.product);
+  }
+
+  /** Adds a change to the feed and hands it to the subscribers. */
+  void append(String entity, String type, Object key, Object state) {
+    String data;
+    try {
+      // serialised once, at the time of the change, for all subscribers
+      ObjectNode node = objectMapper.createObjectNode();
+      node.put("type", type);
+      node.putPOJO("key", key);
+      node.put("at", LocalDateTime.now().toString());
+      node.set("data", objectMapper.valueToTree(state));
+      data = objectMapper.writeValueAsString(node);
+    } catch (JsonProcessingException | IllegalArgumentException e) {
+      LOGGER.errorf(e, "Failed to add %s %s of %s to the change feed", entity, type, key);
+      return;
+    }
+
+    lock.lock();
+    try {
+      head++;
+      buffer[index(head)] = new ChangeEvent(entity, idOf(head), data, head);
+    } finally {
+      lock.unlock();
+    }
+    subscriptions.forEach(Subscription::drain);
+  }
+
+  /**
+   * Starts sending the events of the given entities to the sink: those after {@code lastEventId}
+   * when it can be resumed from, otherwise a reset followed by the new events.
+   */
+  public Subscription subscribe(String lastEventId, Set<String> entities, Sink sink) {
+    Subscription subscription;
+    lock.lock();
+    try {
+      Long resumeAfter = resumeOffset(lastEventId);
+      subscription =
+          new Subscription(entities, sink, resumeAfter != null ? resumeAfter : head);
+      subscription.resetPending = resumeAfter == null;
+      subscriptions.add(subscription);
+    } finally {
+      lock.unlock();
+    }
+    subscription.drain();
+    return subscription;
+  }
+
+  // the offset to continue after, or null when the client missed events it cannot get anymore
+  private Long resumeOffset(String lastEventId) {
+    if (lastEventId == null || lastEventId.isBlank()) {
+      return head;
+    }
+    int separator = lastEventId.lastIndexOf('-');
+    if (separator > 0 && lastEventId.substring(0, separator).equals(epoch)) {
+      try {
+        long offset = Long.parseLong(lastEventId.substring(separator + 1));
+        if (offset <= head && offset >= oldest() - 1) {
+          return offset;
+        }
+      } catch (NumberFormatException e) {
+        // not an id of this feed
+      }
+    }
+    return null;
+  }
+
+  // the events after the offset still in the buffer, or null when some were overwritten already
+  private List<ChangeEvent> eventsAfter(long offset) {
+    lock.lock();
+    try {
+      if (offset < oldest() - 1) {
+        return null;
+      }
+      List<ChangeEvent> events = new ArrayList<>((int) (head - offset));
+      for (long next = offset + 1; next <= head; next++) {
+        events.add(buffer[index(next)]);
+      }
+      return events;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private long oldest() {
+    return Math.max(1, head - buffer.length + 1);
+  }
+
+  private int index(long offset) {
+    return (int) (offset % buffer.length);
+  }
+
+  private String idOf(long offset) {
+    return epoch + "-" + offset;
+  }
+
+  /** Where a subscription writes its events; a server-sent event stream outside of tests. */
+  public interface Sink {
+
+    /** Writes the event; the stage completes once it is written to the connection. */
+    CompletionStage<?> send(ChangeEvent event);
+
+    boolean isClosed();
+
+    void close();
+  }
+
+  /** A subscriber's position in the feed. */
+  public final class Subscription {
+
+    private final Set<String> entities;
+    private final Sink sink;
+
+    // serialises deliveries triggered from several threads; see drain
+    private final AtomicInteger work = new AtomicInteger();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private long sent;
+    private long cursor;
+    private boolean resetPending;
+
+    private Subscription(Set<String> entities, Sink sink, long cursor) {
+      this.entities = entities;
+      this.sink = sink;
+      this.cursor = cursor;
+    }
+
+    /**
+     * Sends the events the subscriber has not had yet. Appends on other threads that arrive while
+     * a delivery runs make it go round again instead of sending concurrently.
+     */
+    void drain() {
+      if (work.getAndIncrement() != 0) {
+        return;
+      }
+      int missed = 1;
+      do {
+        deliver();
+        missed = work.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void deliver() {
+      if (closed.get()) {
+        return;
+      }
+      if (sink.isClosed()) {
+        close();
+        return;
+      }
+      if (resetPending) {
+        resetPending = false;
+        send(new ChangeEvent(RESET, idOf(cursor), "{\"type\":\"RESET\"}", 0));
+      }
+      List<ChangeEvent> events = eventsAfter(cursor);
+      if (events == null) {
+        evict();
+        return;
+      }
+      for (ChangeEvent event : events) {
+        cursor = event.offset;
+        if (!entities.contains(event.name)) {
+          continue;
+        }
+        if (sent - written.get() >= maxPending) {
+          evict();
+          return;
+        }
+        send(event);
+      }
+    }
+
+    private void send(ChangeEvent event) {
+      sent++;
+      sink.send(event)
+          .whenComplete(
+              (ignored, failure) -> {
+                if (failure != null) {
+                  close();
+                } else {
+                  written.incrementAndGet();
+                }
+              });
+    }
+
+    private void evict() {
+      LOGGER.warnf("Disconnecting a change feed subscriber %d events behind", sent - written.get());
+      evictions.increment();
+      close();
+    }
+
+    public void close() {
+      if (closed.compareAndSet(false, true)) {
+        subscriptions.remove(this);
+        sink.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.fulfilment.application.monolith.changefeed;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Serves the {@link ChangeFeed} as server-sent events. Each event is named after the entity that
+ * changed and carries the id to send back in {@code Last-Event-ID} on reconnect; {@code entity}
+ * restricts the stream to some of warehouse, store and product.
+ */
+@Path("changes")
+@ApplicationScoped
+public class ChangeFeedResource {
+
+  @Inject ChangeFeed changeFeed;
+
+  @GET
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  public void stream(
+      @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+      @QueryParam("entity") List<String> entities,
+      @Context SseEventSink eventSink,
+      @Context Sse sse) {
+    changeFeed.subscribe(lastEventId, checkEntities(entities), new SseSink(eventSink, sse));
+  }
+
+  static Set<String> checkEntities(List<String> entities) {
+    if (entities == null || entities.isEmpty()) {
+      return ChangeFeed.ENTITIES;
+    }
+    Set<String> selected = new HashSet<>();
+    for (String entity : entities) {
+      for (String name : entity.split(",")) {
+        if (!ChangeFeed.ENTITIES.contains(name.trim())) {
+          throw new WebApplicationException(
+              "Query parameter entity must be one of " + ChangeFeed.ENTITIES + ".", 400);
+        }
+        selected.add(name.trim());
+      }
+    }
+    return selected;
+  }
+
+  private static final class SseSink implements ChangeFeed.Sink {
+
+    private final SseEventSink eventSink;
+    private final Sse sse;
+
+    private SseSink(SseEventSink eventSink, Sse sse) {
+      this.eventSink = eventSink;
+      this.sse = sse;
+    }
+
+    @Override
+    public CompletionStage<?> send(ChangeEvent event) {
+      return eventSink.send(
+          sse.newEventBuilder()
+              .name(event.name)
+              .id(event.id)
+              .data(event.data)
+              .build());
+    }
+
+    @Override
+    public boolean isClosed() {
+      return eventSink.isClosed();
+    }
+
+    @Override
+    public void close() {
+      eventSink.close();
+    }
+  }
+}
@@ -3,6 +3,7 @@ package com.fulfilment.application.monolith.exception;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
@@ -23,6 +24,9 @@ public class GlobalExceptionMapper implements ExceptionMapper<Exception> {
     int code = 500;
     if (exception instanceof WebApplicationException) {
       code = ((WebApplicationException) exception).getResponse().getStatus();
+    } else if (exception instanceof OptimisticLockException) {
+      // the row was updated by someone else between reading and writing it
+      code = 409;
     }
 
     ObjectNode exceptionJson = objectMapper.createObjectNode();
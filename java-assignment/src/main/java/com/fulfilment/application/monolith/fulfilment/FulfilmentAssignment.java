@@ -0,0 +1,43 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.LocalDateTime;
+
+/** A warehouse fulfilling a product for a store. */
+@Entity
+@Table(
+    name = "fulfilment_assignment",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_fulfilment_assignment",
+            columnNames = {"storeId", "productId", "warehouseBusinessUnitCode"}))
+public class FulfilmentAssignment {
+
+  @Id @GeneratedValue public Long id;
+
+  @Column(nullable = false)
+  public Long productId;
+
+  @Column(nullable = false)
+  public Long storeId;
+
+  // the active warehouse of the business unit code; its assignments end when it is archived or
+  // replaced
+  @Column(nullable = false)
+  public String warehouseBusinessUnitCode;
+
+  public LocalDateTime createdAt;
+
+  public FulfilmentAssignment() {}
+
+  public FulfilmentAssignment(Long productId, Long storeId, String warehouseBusinessUnitCode) {
+    this.productId = productId;
+    this.storeId = storeId;
+    this.warehouseBusinessUnitCode = warehouseBusinessUnitCode;
+  }
+}
@@ -0,0 +1,67 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import com.fulfilment.application.monolith.rest.Pagination;
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.AvailableHints;
+
+@ApplicationScoped
+@Timed(value = "repository.query", histogram = true)
+public class FulfilmentAssignmentRepository implements PanacheRepository<FulfilmentAssignment> {
+
+  private static final int STREAM_FETCH_SIZE = 500;
+
+  /** Returns up to {@code limit} assignments with an id greater than {@code afterId}, ordered by id. */
+  public List<FulfilmentAssignment> findPage(Long afterId, int limit) {
+    return find("id > ?1", Sort.by("id"), Pagination.after(afterId)).page(0, limit).list();
+  }
+
+  /** Streams all assignments ordered by id; must be consumed and closed within a transaction. */
+  public Stream<FulfilmentAssignment> streamAll() {
+    return findAll(Sort.by("id"))
+        .withHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+        .withHint(AvailableHints.HINT_READ_ONLY, true)
+        .withHint(AvailableHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+        .stream()
+        .map(
+            assignment -> {
+              getEntityManager().detach(assignment);
+              return assignment;
+            });
+  }
+
+  /** Inserts the assignments in JDBC batches and clears them from the session afterwards. */
+  public void persistAll(List<FulfilmentAssignment> assignments) {
+    EntityManager entityManager = getEntityManager();
+    assignments.forEach(entityManager::persist);
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  /** Deletes the assignments whose {@code field} has the value and returns them. */
+  public List<FulfilmentAssignment> deleteAllBy(String field, Object value) {
+    List<FulfilmentAssignment> assignments = list(field, value);
+    if (!assignments.isEmpty()) {
+      delete(field, value);
+    }
+    return assignments;
+  }
+
+  public Set<Long> findProductIds() {
+    return new HashSet<>(
+        getEntityManager().createQuery("select p.id from Product p", Long.class).getResultList());
+  }
+
+  public Set<Long> findStoreIds() {
+    return new HashSet<>(
+        getEntityManager().createQuery("select s.id from Store s", Long.class).getResultList());
+  }
+}
@@ -0,0 +1,167 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps counters of the current fulfilment assignments so the fulfilment rules can be checked
+ * without counting rows:
+ *
+ * <ol>
+ *   <li>a product is fulfilled by at most 2 different warehouses per store,
+ *   <li>a store is fulfilled by at most 3 different warehouses,
+ *   <li>a warehouse stores at most 5 different products.
+ * </ol>
+ *
+ * <p>Distinct warehouses per store and products per warehouse are tracked by reference-counting the
+ * (store, warehouse) and (warehouse, product) pairs, so adding or removing an assignment is a fixed
+ * number of hash map updates. {@link FulfilmentService} rebuilds the counters from the database at
+ * startup, reserves an assignment here before storing it and releases it again if storing fails.
+ * The counters only see the assignments written through this instance.
+ */
+@ApplicationScoped
+public class FulfilmentConstraints {
+
+  static final int MAX_WAREHOUSES_PER_PRODUCT_AND_STORE = 2;
+  static final int MAX_WAREHOUSES_PER_STORE = 3;
+  static final int MAX_PRODUCTS_PER_WAREHOUSE = 5;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Set<Link> links = new HashSet<>();
+  private final Map<ProductStore, Integer> warehousesByProductAndStore = new HashMap<>();
+  private final Map<StoreWarehouse, Integer> linksByStoreAndWarehouse = new HashMap<>();
+  private final Map<Long, Integer> warehousesByStore = new HashMap<>();
+  private final Map<WarehouseProduct, Integer> linksByWarehouseAndProduct = new HashMap<>();
+  private final Map<String, Integer> productsByWarehouse = new HashMap<>();
+
+  /**
+   * Counts the assignment in if it breaks no rule.
+   *
+   * @return {@code null} when reserved, otherwise why the assignment is not allowed
+   */
+  public String tryReserve(long productId, long storeId, String warehouse) {
+    Link link = new Link(productId, storeId, warehouse);
+    ProductStore productStore = new ProductStore(productId, storeId);
+    StoreWarehouse storeWarehouse = new StoreWarehouse(storeId, warehouse);
+    WarehouseProduct warehouseProduct = new WarehouseProduct(warehouse, productId);
+
+    lock.lock();
+    try {
+      if (links.contains(link)) {
+        return "Product " + productId + " is already fulfilled by warehouse " + warehouse
+            + " for store " + storeId + ".";
+      }
+      if (warehousesByProductAndStore.getOrDefault(productStore, 0)
+          >= MAX_WAREHOUSES_PER_PRODUCT_AND_STORE) {
+        return "Product " + productId + " is already fulfilled by "
+            + MAX_WAREHOUSES_PER_PRODUCT_AND_STORE + " warehouses for store " + storeId + ".";
+      }
+      if (!linksByStoreAndWarehouse.containsKey(storeWarehouse)
+          && warehousesByStore.getOrDefault(storeId, 0) >= MAX_WAREHOUSES_PER_STORE) {
+        return "Store " + storeId + " is already fulfilled by " + MAX_WAREHOUSES_PER_STORE
+            + " warehouses.";
+      }
+      if (!linksByWarehouseAndProduct.containsKey(warehouseProduct)
+          && productsByWarehouse.getOrDefault(warehouse, 0) >= MAX_PRODUCTS_PER_WAREHOUSE) {
+        return "Warehouse " + warehouse + " already stores " + MAX_PRODUCTS_PER_WAREHOUSE
+            + " products.";
+      }
+      add(link, productStore, storeWarehouse, warehouseProduct);
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Counts an assignment in without checking the rules, e.g. one that is already stored. */
+  public void load(long productId, long storeId, String warehouse) {
+    lock.lock();
+    try {
+      Link link = new Link(productId, storeId, warehouse);
+      if (!links.contains(link)) {
+        add(
+            link,
+            new ProductStore(productId, storeId),
+            new StoreWarehouse(storeId, warehouse),
+            new WarehouseProduct(warehouse, productId));
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Counts an assignment out again; does nothing if it is not counted. */
+  public void release(long productId, long storeId, String warehouse) {
+    lock.lock();
+    try {
+      if (!links.remove(new Link(productId, storeId, warehouse))) {
+        return;
+      }
+      decrement(warehousesByProductAndStore, new ProductStore(productId, storeId));
+      if (decrement(linksByStoreAndWarehouse, new StoreWarehouse(storeId, warehouse))) {
+        decrement(warehousesByStore, storeId);
+      }
+      if (decrement(linksByWarehouseAndProduct, new WarehouseProduct(warehouse, productId))) {
+        decrement(productsByWarehouse, warehouse);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void clear() {
+    lock.lock();
+    try {
+      links.clear();
+      warehousesByProductAndStore.clear();
+      linksByStoreAndWarehouse.clear();
+      warehousesByStore.clear();
+      linksByWarehouseAndProduct.clear();
+      productsByWarehouse.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int size() {
+    lock.lock();
+    try {
+      return links.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void add(
+      Link link,
+      ProductStore productStore,
+      StoreWarehouse storeWarehouse,
+      WarehouseProduct warehouseProduct) {
+    links.add(link);
+    warehousesByProductAndStore.merge(productStore, 1, Integer::sum);
+    if (linksByStoreAndWarehouse.merge(storeWarehouse, 1, Integer::sum) == 1) {
+      warehousesByStore.merge(link.storeId(), 1, Integer::sum);
+    }
+    if (linksByWarehouseAndProduct.merge(warehouseProduct, 1, Integer::sum) == 1) {
+      productsByWarehouse.merge(link.warehouse(), 1, Integer::sum);
+    }
+  }
+
+  // returns whether the last reference to the key was removed
+  private static <K> boolean decrement(Map<K, Integer> counts, K key) {
+    return counts.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1) == null;
+  }
+
+  private record Link(long productId, long storeId, String warehouse) {}
+
+  private record ProductStore(long productId, long storeId) {}
+
+  private record StoreWarehouse(long storeId, String warehouse) {}
+
+  private record WarehouseProduct(String warehouse, long productId) {}
+}
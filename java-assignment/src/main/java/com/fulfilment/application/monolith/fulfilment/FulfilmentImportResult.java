@@ -0,0 +1,39 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Outcome of a bulk assignment import. */
+public class FulfilmentImportResult {
+
+  static final int MAX_REPORTED_ERRORS = 100;
+
+  public long imported;
+
+  public long rejected;
+
+  // the first rejected lines, at most MAX_REPORTED_ERRORS of them
+  public List<LineError> errors = new ArrayList<>();
+
+  void reject(long line, String error) {
+    rejected++;
+    if (errors.size() < MAX_REPORTED_ERRORS) {
+      errors.add(new LineError(line, error));
+    }
+  }
+
+  public static class LineError {
+
+    // 1-based line number in the import
+    public long line;
+
+    public String error;
+
+    public LineError() {}
+
+    public LineError(long line, String error) {
+      this.line = line;
+      this.error = error;
+    }
+  }
+}
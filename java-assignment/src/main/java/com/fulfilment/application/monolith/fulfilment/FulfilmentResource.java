@@ -0,0 +1,76 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.rest.NdjsonOutput;
+import com.fulfilment.application.monolith.rest.Pagination;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.InputStream;
+import java.util.List;
+
+@Path("fulfilment")
+@ApplicationScoped
+@Produces("application/json")
+@Consumes("application/json")
+public class FulfilmentResource {
+
+  @Inject FulfilmentService fulfilmentService;
+
+  @Inject FulfilmentAssignmentRepository assignmentRepository;
+
+  @Inject ObjectMapper objectMapper;
+
+  @GET
+  public List<FulfilmentAssignment> get(
+      @QueryParam("after") Long after,
+      @QueryParam("limit") @DefaultValue(Pagination.DEFAULT_LIMIT) int limit) {
+    return assignmentRepository.findPage(after, Pagination.checkLimit(limit));
+  }
+
+  @GET
+  @Produces(NdjsonOutput.MEDIA_TYPE)
+  public StreamingOutput stream() {
+    return NdjsonOutput.of(objectMapper, assignmentRepository::streamAll);
+  }
+
+  @GET
+  @Path("{id}")
+  public FulfilmentAssignment getSingle(Long id) {
+    FulfilmentAssignment entity = assignmentRepository.findById(id);
+    if (entity == null) {
+      throw new WebApplicationException(
+          "Fulfilment assignment with id of " + id + " does not exist.", 404);
+    }
+    return entity;
+  }
+
+  @POST
+  public Response create(FulfilmentAssignment assignment) {
+    return Response.ok(fulfilmentService.assign(assignment)).status(201).build();
+  }
+
+  @POST
+  @Path("import")
+  @Consumes(NdjsonOutput.MEDIA_TYPE)
+  public FulfilmentImportResult importAll(InputStream input) {
+    return fulfilmentService.importAll(input);
+  }
+
+  @DELETE
+  @Path("{id}")
+  public Response delete(Long id) {
+    fulfilmentService.unassign(id);
+    return Response.status(204).build();
+  }
+}
@@ -0,0 +1,319 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.products.ProductEvent;
+import com.fulfilment.application.monolith.products.ProductRepository;
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.stores.StoreEvent;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.ws.rs.WebApplicationException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.jboss.logging.Logger;
+
+/**
+ * Assigns warehouses to fulfil products for stores, enforcing the rules kept by {@link
+ * FulfilmentConstraints}.
+ *
+ * <p>An assignment is reserved in the constraints first and then stored in its own transaction; if
+ * storing fails the reservation is released, so the counters only ever include committed or
+ * in-flight assignments. A bulk import reads newline-delimited JSON line by line and stores the
+ * accepted assignments in chunks of {@value #IMPORT_CHUNK_SIZE}, so its memory use does not depend
+ * on the size of the import.
+ *
+ * <p>Assignments end with what they reference: deleting a product or store, or archiving or
+ * replacing a warehouse, deletes its assignments in the same transaction, and their reservations
+ * are released once that transaction has committed.
+ */
+@ApplicationScoped
+public class FulfilmentService {
+
+  private static final Logger LOGGER = Logger.getLogger(FulfilmentService.class.getName());
+
+  static final int IMPORT_CHUNK_SIZE = 1000;
+
+  private final FulfilmentAssignmentRepository assignmentRepository;
+  private final FulfilmentConstraints constraints;
+  private final ProductRepository productRepository;
+  private final WarehouseStore warehouseStore;
+  private final ObjectMapper objectMapper;
+  private final TransactionSynchronizationRegistry transactions;
+
+  @Inject
+  public FulfilmentService(
+      FulfilmentAssignmentRepository assignmentRepository,
+      FulfilmentConstraints constraints,
+      ProductRepository productRepository,
+      WarehouseStore warehouseStore,
+      ObjectMapper objectMapper,
+      TransactionSynchronizationRegistry transactions) {
+    this.assignmentRepository = assignmentRepository;
+    this.constraints = constraints;
+    this.productRepository = productRepository;
+    this.warehouseStore = warehouseStore;
+    this.objectMapper = objectMapper;
+    this.transactions = transactions;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    rebuild();
+  }
+
+  /** Reloads the constraint counters from the stored assignments. */
+  public void rebuild() {
+    QuarkusTransaction.requiringNew()
+        .run(
+            () -> {
+              constraints.clear();
+              try (Stream<FulfilmentAssignment> assignments = assignmentRepository.streamAll()) {
+                assignments.forEach(
+                    a -> constraints.load(a.productId, a.storeId, a.warehouseBusinessUnitCode));
+              }
+            });
+    LOGGER.infof("Loaded %d fulfilment assignments", constraints.size());
+  }
+
+  public FulfilmentAssignment assign(FulfilmentAssignment assignment) {
+    LOGGER.infof("Assigning warehouse %s to product %s for store %s",
+        assignment.warehouseBusinessUnitCode, assignment.productId, assignment.storeId);
+
+    String error = checkRequest(assignment);
+    if (error != null) {
+      throw new WebApplicationException(error, 422);
+    }
+    if (productRepository.findById(assignment.productId) == null) {
+      throw new WebApplicationException(
+          "Product with id of " + assignment.productId + " does not exist.", 400);
+    }
+    if (Store.findById(assignment.storeId) == null) {
+      throw new WebApplicationException(
+          "Store with id of " + assignment.storeId + " does not exist.", 400);
+    }
+    Warehouse warehouse = warehouseStore.findByBusinessUnitCode(assignment.warehouseBusinessUnitCode);
+    if (warehouse == null || warehouse.archivedAt != null) {
+      throw new WebApplicationException(
+          "Warehouse with business unit code " + assignment.warehouseBusinessUnitCode
+              + " does not exist.", 400);
+    }
+
+    error = reserve(assignment);
+    if (error != null) {
+      throw new WebApplicationException(error, 400);
+    }
+    assignment.createdAt = LocalDateTime.now();
+    try {
+      QuarkusTransaction.requiringNew().run(() -> assignmentRepository.persist(assignment));
+    } catch (RuntimeException e) {
+      release(List.of(assignment));
+      throw e;
+    }
+    return assignment;
+  }
+
+  public void unassign(Long id) {
+    FulfilmentAssignment removed =
+        QuarkusTransaction.requiringNew()
+            .call(
+                () -> {
+                  FulfilmentAssignment entity = assignmentRepository.findById(id);
+                  if (entity == null) {
+                    throw new WebApplicationException(
+                        "Fulfilment assignment with id of " + id + " does not exist.", 404);
+                  }
+                  assignmentRepository.delete(entity);
+                  return entity;
+                });
+    // released after the commit, so a concurrent assignment can never overshoot a rule
+    constraints.release(removed.productId, removed.storeId, removed.warehouseBusinessUnitCode);
+  }
+
+  void onProductEvent(@Observes ProductEvent event) {
+    if (event.type == ProductEvent.Type.DELETED) {
+      unassignAll("productId", event.product.id);
+    }
+  }
+
+  void onStoreEvent(@Observes StoreEvent event) {
+    if (event.type == StoreEvent.Type.DELETED) {
+      unassignAll("storeId", event.store.id);
+    }
+  }
+
+  void onWarehouseEvent(@Observes WarehouseEvent event) {
+    switch (event.type) {
+      case REPLACED -> unassignAll("warehouseBusinessUnitCode", event.replaced.businessUnitCode);
+      case ARCHIVED -> unassignAll("warehouseBusinessUnitCode", event.warehouse.businessUnitCode);
+      default -> {}
+    }
+  }
+
+  /**
+   * Imports assignments from newline-delimited JSON, one assignment per line. Lines that are
+   * malformed, reference unknown products, stores or warehouses, or break a rule are skipped and
+   * reported; the rest are stored.
+   */
+  public FulfilmentImportResult importAll(InputStream input) {
+    // existence checks against sets loaded once, rather than a lookup per line
+    Set<Long> productIds = QuarkusTransaction.requiringNew().call(assignmentRepository::findProductIds);
+    Set<Long> storeIds = QuarkusTransaction.requiringNew().call(assignmentRepository::findStoreIds);
+    Set<String> warehouseCodes =
+        QuarkusTransaction.requiringNew().call(warehouseStore::findActiveBusinessUnitCodes);
+
+    FulfilmentImportResult result = new FulfilmentImportResult();
+    List<FulfilmentAssignment> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+    LocalDateTime now = LocalDateTime.now();
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      long lineNumber = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) {
+          continue;
+        }
+
+        FulfilmentAssignment assignment;
+        try {
+          assignment = objectMapper.readValue(line, FulfilmentAssignment.class);
+        } catch (JsonProcessingException e) {
+          result.reject(lineNumber, "Line is not a valid assignment: " + e.getOriginalMessage());
+          continue;
+        }
+
+        String error = checkRequest(assignment);
+        if (error == null) {
+          error = checkReferences(assignment, productIds, storeIds, warehouseCodes);
+        }
+        if (error == null) {
+          error = reserve(assignment);
+        }
+        if (error != null) {
+          result.reject(lineNumber, error);
+          continue;
+        }
+
+        assignment.createdAt = now;
+        chunk.add(assignment);
+        if (chunk.size() == IMPORT_CHUNK_SIZE) {
+          result.imported += store(chunk);
+        }
+      }
+      result.imported += store(chunk);
+    } catch (IOException e) {
+      release(chunk);
+      throw new UncheckedIOException("Failed to read fulfilment assignment import", e);
+    }
+
+    LOGGER.infof("Imported %d fulfilment assignments, rejected %d", result.imported, result.rejected);
+    return result;
+  }
+
+  /**
+   * Deletes the assignments with the reference in the transaction that changed it, and releases them
+   * after it has committed.
+   */
+  private void unassignAll(String reference, Object value) {
+    if (!QuarkusTransaction.isActive()) {
+      // the reactive warehouse adapter publishes once its own transaction has committed, on the
+      // event loop
+      Infrastructure.getDefaultWorkerPool()
+          .execute(() -> QuarkusTransaction.requiringNew().run(() -> unassignAll(reference, value)));
+      return;
+    }
+    List<FulfilmentAssignment> removed = assignmentRepository.deleteAllBy(reference, value);
+    if (removed.isEmpty()) {
+      return;
+    }
+    LOGGER.infof("Removing %d fulfilment assignments of %s %s", removed.size(), reference, value);
+    transactions.registerInterposedSynchronization(
+        new Synchronization() {
+          @Override
+          public void beforeCompletion() {}
+
+          @Override
+          public void afterCompletion(int status) {
+            if (status == Status.STATUS_COMMITTED) {
+              release(removed);
+            }
+          }
+        });
+  }
+
+  private String reserve(FulfilmentAssignment assignment) {
+    return constraints.tryReserve(
+        assignment.productId, assignment.storeId, assignment.warehouseBusinessUnitCode);
+  }
+
+  // stores a chunk of reserved assignments and empties it; releases them again if that fails
+  private int store(List<FulfilmentAssignment> chunk) {
+    if (chunk.isEmpty()) {
+      return 0;
+    }
+    try {
+      QuarkusTransaction.requiringNew().run(() -> assignmentRepository.persistAll(chunk));
+    } catch (RuntimeException e) {
+      release(chunk);
+      chunk.clear();
+      throw e;
+    }
+    int stored = chunk.size();
+    chunk.clear();
+    return stored;
+  }
+
+  private void release(List<FulfilmentAssignment> assignments) {
+    assignments.forEach(
+        a -> constraints.release(a.productId, a.storeId, a.warehouseBusinessUnitCode));
+  }
+
+  private static String checkRequest(FulfilmentAssignment assignment) {
+    if (assignment.id != null) {
+      return "Id was invalidly set on request.";
+    }
+    if (assignment.productId == null
+        || assignment.storeId == null
+        || assignment.warehouseBusinessUnitCode == null) {
+      return "Assignment productId, storeId and warehouseBusinessUnitCode must all be set.";
+    }
+    return null;
+  }
+
+  private static String checkReferences(
+      FulfilmentAssignment assignment,
+      Set<Long> productIds,
+      Set<Long> storeIds,
+      Set<String> warehouseCodes) {
+    if (!productIds.contains(assignment.productId)) {
+      return "Product with id of " + assignment.productId + " does not exist.";
+    }
+    if (!storeIds.contains(assignment.storeId)) {
+      return "Store with id of " + assignment.storeId + " does not exist.";
+    }
+    if (!warehouseCodes.contains(assignment.warehouseBusinessUnitCode)) {
+      return "Warehouse with business unit code " + assignment.warehouseBusinessUnitCode
+          + " does not exist.";
+    }
+    return null;
+  }
+}
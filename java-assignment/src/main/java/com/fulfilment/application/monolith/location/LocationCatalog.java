@@ -0,0 +1,77 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable, hash-indexed snapshot of the known locations.
+ *
+ * <p>Catalog files are CSV with one {@code identification,maxNumberOfWarehouses,maxCapacity} row
+ * per location. Blank lines, {@code #} comments and a first row that is the header are ignored.
+ */
+public final class LocationCatalog {
+
+  private static final String HEADER = "identification,maxNumberOfWarehouses,maxCapacity";
+
+  private final Map<String, Location> locationsByIdentifier;
+
+  private LocationCatalog(Map<String, Location> locationsByIdentifier) {
+    this.locationsByIdentifier = Map.copyOf(locationsByIdentifier);
+  }
+
+  public static LocationCatalog parse(Reader source) throws IOException {
+    Map<String, Location> index = new HashMap<>();
+    BufferedReader reader = new BufferedReader(source);
+    String line;
+    int lineNumber = 0;
+    boolean firstRow = true;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      line = line.strip();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      // only the first row can be the header; an identifier may well start with its first column
+      boolean header = firstRow && line.equals(HEADER);
+      firstRow = false;
+      if (header) {
+        continue;
+      }
+
+      String[] columns = line.split(",");
+      if (columns.length != 3) {
+        throw new IllegalArgumentException(
+            "Line " + lineNumber + " must have 3 columns but has " + columns.length + ".");
+      }
+
+      Location location;
+      try {
+        location =
+            new Location(
+                columns[0].strip(),
+                Integer.parseInt(columns[1].strip()),
+                Integer.parseInt(columns[2].strip()));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Line " + lineNumber + " has a non-numeric limit.", e);
+      }
+
+      if (index.putIfAbsent(location.identification, location) != null) {
+        throw new IllegalArgumentException(
+            "Line " + lineNumber + " duplicates location " + location.identification + ".");
+      }
+    }
+    return new LocationCatalog(index);
+  }
+
+  public Location get(String identifier) {
+    return identifier != null ? locationsByIdentifier.get(identifier) : null;
+  }
+
+  public int size() {
+    return locationsByIdentifier.size();
+  }
+}
@@ -3,30 +3,169 @@ package com.fulfilment.application.monolith.location;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import jakarta.enterprise.context.ApplicationScoped;
-import java.util.ArrayList;
-import java.util.List;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 
+/**
+ * Resolves locations from a {@link LocationCatalog}.
+ *
+ * <p>The catalog is read from {@code location.catalog.path} when set, otherwise from the bundled
+ * {@code locations.csv}. An external file is checked for changes at most once per {@code
+ * location.catalog.refresh-interval}; a changed file is parsed into a new catalog that replaces the
+ * current one atomically, so lookups never see a half-loaded catalog. A file that fails to parse is
+ * logged and the previous catalog stays in use.
+ */
 @ApplicationScoped
 public class LocationGateway implements LocationResolver {
 
-  private static final List<Location> locations = new ArrayList<>();
+  private static final Logger LOGGER = Logger.getLogger(LocationGateway.class.getName());
 
-  static {
-    locations.add(new Location("ZWOLLE-001", 1, 40));
-    locations.add(new Location("ZWOLLE-002", 2, 50));
-    locations.add(new Location("AMSTERDAM-001", 5, 100));
-    locations.add(new Location("AMSTERDAM-002", 3, 75));
-    locations.add(new Location("TILBURG-001", 1, 40));
-    locations.add(new Location("HELMOND-001", 1, 45));
-    locations.add(new Location("EINDHOVEN-001", 2, 70));
-    locations.add(new Location("VETSBY-001", 1, 90));
+  static final String DEFAULT_CATALOG_RESOURCE = "locations.csv";
+
+  private final Path catalogFile;
+  private final long refreshIntervalNanos;
+  private final AtomicReference<LoadedCatalog> current = new AtomicReference<>();
+  private final ReentrantLock reloadLock = new ReentrantLock();
+
+  public LocationGateway() {
+    this(Optional.empty(), Duration.ofSeconds(30));
+  }
+
+  @Inject
+  public LocationGateway(
+      @ConfigProperty(name = "location.catalog.path") Optional<String> catalogPath,
+      @ConfigProperty(name = "location.catalog.refresh-interval", defaultValue = "30s")
+          Duration refreshInterval) {
+    this.catalogFile = catalogPath.map(Path::of).orElse(null);
+    this.refreshIntervalNanos = refreshInterval.toNanos();
   }
 
   @Override
   public Location resolveByIdentifier(String identifier) {
-    return locations.stream()
-        .filter(location -> location.identification.equals(identifier))
-        .findFirst()
-        .orElse(null);
+    return catalog().get(identifier);
+  }
+
+  @Override
+  public Map<String, Location> resolveAll(Collection<String> identifiers) {
+    LocationCatalog catalog = catalog();
+    Map<String, Location> resolved = new LinkedHashMap<>();
+    for (String identifier : identifiers) {
+      Location location = catalog.get(identifier);
+      if (location != null) {
+        resolved.put(identifier, location);
+      }
+    }
+    return resolved;
+  }
+
+  private LocationCatalog catalog() {
+    LoadedCatalog loaded = current.get();
+    if (loaded == null || isDue(loaded)) {
+      loaded = reload();
+    }
+    return loaded.catalog;
+  }
+
+  private boolean isDue(LoadedCatalog loaded) {
+    return catalogFile != null && System.nanoTime() - loaded.checkedAt >= refreshIntervalNanos;
+  }
+
+  private LoadedCatalog reload() {
+    LoadedCatalog loaded = current.get();
+    if (loaded != null && !reloadLock.tryLock()) {
+      // another thread is already reloading, keep serving the current catalog meanwhile
+      return loaded;
+    }
+    if (loaded == null) {
+      reloadLock.lock();
+    }
+    try {
+      loaded = current.get();
+      if (loaded != null && !isDue(loaded)) {
+        return loaded;
+      }
+      LoadedCatalog next = loaded == null ? loadInitial() : refresh(loaded);
+      current.set(next);
+      return next;
+    } finally {
+      reloadLock.unlock();
+    }
+  }
+
+  private LoadedCatalog loadInitial() {
+    if (catalogFile == null) {
+      return new LoadedCatalog(loadBundled(), null, System.nanoTime());
+    }
+    try {
+      FileTime modified = Files.getLastModifiedTime(catalogFile);
+      LoadedCatalog loaded = new LoadedCatalog(loadFile(), modified, System.nanoTime());
+      LOGGER.infof("Loaded %d locations from %s", loaded.catalog.size(), catalogFile);
+      return loaded;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to load location catalog " + catalogFile, e);
+    }
+  }
+
+  private LoadedCatalog refresh(LoadedCatalog loaded) {
+    long now = System.nanoTime();
+    try {
+      FileTime modified = Files.getLastModifiedTime(catalogFile);
+      if (modified.equals(loaded.modifiedAt)) {
+        return new LoadedCatalog(loaded.catalog, loaded.modifiedAt, now);
+      }
+      LocationCatalog catalog = loadFile();
+      LOGGER.infof("Reloaded %d locations from %s", catalog.size(), catalogFile);
+      return new LoadedCatalog(catalog, modified, now);
+    } catch (IOException | IllegalArgumentException e) {
+      LOGGER.errorf(e, "Failed to reload location catalog %s, keeping the previous one", catalogFile);
+      return new LoadedCatalog(loaded.catalog, loaded.modifiedAt, now);
+    }
+  }
+
+  private LocationCatalog loadFile() throws IOException {
+    try (Reader reader = Files.newBufferedReader(catalogFile, StandardCharsets.UTF_8)) {
+      return LocationCatalog.parse(reader);
+    }
+  }
+
+  private static LocationCatalog loadBundled() {
+    try (InputStream in =
+        LocationGateway.class.getClassLoader().getResourceAsStream(DEFAULT_CATALOG_RESOURCE)) {
+      if (in == null) {
+        throw new IllegalStateException("Missing bundled " + DEFAULT_CATALOG_RESOURCE);
+      }
+      return LocationCatalog.parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to load bundled " + DEFAULT_CATALOG_RESOURCE, e);
+    }
+  }
+
+  private static final class LoadedCatalog {
+    final LocationCatalog catalog;
+    final FileTime modifiedAt;
+    final long checkedAt;
+
+    LoadedCatalog(LocationCatalog catalog, FileTime modifiedAt, long checkedAt) {
+      this.catalog = catalog;
+      this.modifiedAt = modifiedAt;
+      this.checkedAt = checkedAt;
+    }
   }
 }
@@ -0,0 +1,36 @@
+package com.fulfilment.application.monolith.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+/**
+ * Metrics are scraped by Prometheus from {@code /q/metrics}. Request timings per endpoint come from
+ * the Quarkus HTTP server binder as {@code http.server.requests}, tagged with the method, the path
+ * template and the status; this filter makes them publish histogram buckets so latency percentiles
+ * can be aggregated across instances.
+ */
+public class MetricsConfiguration {
+
+  static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+
+  @Produces
+  @Singleton
+  public MeterFilter httpServerRequestHistograms() {
+    return new MeterFilter() {
+      @Override
+      public DistributionStatisticConfig configure(
+          Meter.Id id, DistributionStatisticConfig config) {
+        if (id.getName().equals(HTTP_SERVER_REQUESTS)) {
+          return DistributionStatisticConfig.builder()
+              .percentilesHistogram(true)
+              .build()
+              .merge(config);
+        }
+        return config;
+      }
+    };
+  }
+}
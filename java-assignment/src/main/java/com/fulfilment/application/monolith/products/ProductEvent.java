@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.products;
+
+public class ProductEvent {
+
+  public enum Type {
+    CREATED,
+    UPDATED,
+    DELETED
+  }
+
+  public final Product product;
+  public final Type type;
+
+  public ProductEvent(Product product, Type type) {
+    this.product = product;
+    this.type = type;
+  }
+}
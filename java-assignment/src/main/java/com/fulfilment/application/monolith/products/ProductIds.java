@@ -0,0 +1,148 @@
+package com.fulfilment.application.monolith.products;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
+
+/**
+ * A sorted set of product ids in a plain {@code long[]}: a posting list of the search index. At 8
+ * bytes an id it stays small for tokens shared by many products, and sorted lists can be merged,
+ * intersected and paged without sorting.
+ */
+final class ProductIds {
+
+  private long[] ids = new long[2];
+  private int size;
+
+  int size() {
+    return size;
+  }
+
+  long get(int index) {
+    return ids[index];
+  }
+
+  void add(long id) {
+    // ids mostly arrive in increasing order, while the index is loaded and as products are created
+    if (size == 0 || ids[size - 1] < id) {
+      grow();
+      ids[size++] = id;
+      return;
+    }
+    int index = Arrays.binarySearch(ids, 0, size, id);
+    if (index >= 0) {
+      return;
+    }
+    int insertAt = -index - 1;
+    grow();
+    System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+    ids[insertAt] = id;
+    size++;
+  }
+
+  void remove(long id) {
+    int index = Arrays.binarySearch(ids, 0, size, id);
+    if (index >= 0) {
+      System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+      size--;
+    }
+  }
+
+  /** Position of the first id greater than {@code after}. */
+  int indexAfter(long after) {
+    int index = Arrays.binarySearch(ids, 0, size, after);
+    return index >= 0 ? index + 1 : -index - 1;
+  }
+
+  /**
+   * Position of the first id not less than {@code id}, searching from {@code from} with steps that
+   * double, so walking the set with increasing ids costs the distance walked rather than a full
+   * binary search each time.
+   */
+  int indexAtLeast(long id, int from) {
+    int step = 1;
+    int low = from;
+    while (low + step < size && ids[low + step] < id) {
+      low += step;
+      step <<= 1;
+    }
+    int index = Arrays.binarySearch(ids, low, Math.min(low + step + 1, size), id);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  private void grow() {
+    if (size == ids.length) {
+      ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+    }
+  }
+
+  /**
+   * Walks the union of several sets in increasing order from the first id greater than {@code
+   * after}, without copying them, so taking a page of it costs the page and not the sets.
+   */
+  static PrimitiveIterator.OfLong merge(Collection<ProductIds> sets, long after) {
+    return new Merge(sets, after);
+  }
+
+  private static final class Merge implements PrimitiveIterator.OfLong {
+
+    private final PriorityQueue<Cursor> heads =
+        new PriorityQueue<>(Comparator.comparingLong(Cursor::id));
+    private long last;
+
+    Merge(Collection<ProductIds> sets, long after) {
+      for (ProductIds set : sets) {
+        Cursor cursor = new Cursor(set, set.indexAfter(after));
+        if (cursor.index < set.size) {
+          heads.add(cursor);
+        }
+      }
+      last = after;
+    }
+
+    @Override
+    public boolean hasNext() {
+      // a product with several words of a prefix is in several of the sets
+      while (!heads.isEmpty() && heads.peek().id() == last) {
+        advance(heads.poll());
+      }
+      return !heads.isEmpty();
+    }
+
+    @Override
+    public long nextLong() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Cursor cursor = heads.poll();
+      last = cursor.id();
+      advance(cursor);
+      return last;
+    }
+
+    private void advance(Cursor cursor) {
+      cursor.index++;
+      if (cursor.index < cursor.set.size) {
+        heads.add(cursor);
+      }
+    }
+  }
+
+  private static final class Cursor {
+
+    final ProductIds set;
+    int index;
+
+    Cursor(ProductIds set, int index) {
+      this.set = set;
+      this.index = index;
+    }
+
+    long id() {
+      return set.ids[index];
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.fulfilment.application.monolith.products;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.bulk.BulkImport;
+import com.fulfilment.application.monolith.bulk.CsvRow;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Imports products in bulk. Every imported product is announced with a {@link ProductEvent}, like
+ * one created through {@code POST /product}, so the search index and the change feed follow.
+ */
+@Singleton
+public class ProductImport extends BulkImport<Product> {
+
+  static final List<String> COLUMNS = List.of("id", "name", "description", "price", "stock");
+
+  private static final int MAX_NAME_LENGTH = 40;
+  // the price column is numeric(10, 2)
+  private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+  private final ProductRepository productRepository;
+  private final Event<ProductEvent> productEvent;
+
+  @Inject
+  public ProductImport(
+      ObjectMapper objectMapper,
+      ProductRepository productRepository,
+      Event<ProductEvent> productEvent) {
+    super(objectMapper, Product.class, "Product", COLUMNS);
+    this.productRepository = productRepository;
+    this.productEvent = productEvent;
+  }
+
+  @Override
+  protected Product fromCsv(CsvRow row) {
+    Product product = new Product(row.text("name"));
+    product.id = row.longValue("id");
+    product.description = row.text("description");
+    product.price = row.decimal("price");
+    Integer stock = row.intValue("stock");
+    product.stock = stock != null ? stock : 0;
+    return product;
+  }
+
+  @Override
+  protected String check(Product product) {
+    if (product.id != null) {
+      return "Id was invalidly set on the row.";
+    }
+    if (product.name == null || product.name.isBlank()) {
+      return "Product Name was not set on the row.";
+    }
+    if (product.name.length() > MAX_NAME_LENGTH) {
+      return "Product Name is longer than " + MAX_NAME_LENGTH + " characters.";
+    }
+    if (product.price != null
+        && (product.price.signum() < 0
+            || product.price.compareTo(MAX_PRICE) > 0
+            || product.price.stripTrailingZeros().scale() > 2)) {
+      return "Product price must be between 0 and " + MAX_PRICE + " with at most 2 decimals.";
+    }
+    if (product.stock < 0) {
+      return "Product stock must not be negative.";
+    }
+    return null;
+  }
+
+  @Override
+  protected String name(Product product) {
+    return product.name;
+  }
+
+  @Override
+  protected Collection<String> findExistingNames(Collection<String> names) {
+    return productRepository.findExistingNames(names);
+  }
+
+  @Override
+  protected void insert(List<Product> products) {
+    productRepository.persistAll(products);
+    products.forEach(
+        product -> productEvent.fire(new ProductEvent(product, ProductEvent.Type.CREATED)));
+  }
+
+  @Override
+  protected void reset(Product product) {
+    product.id = null;
+    product.version = 0;
+  }
+}
@@ -1,7 +1,121 @@
 package com.fulfilment.application.monolith.products;
 
+import com.fulfilment.application.monolith.rest.Pagination;
+import com.fulfilment.application.monolith.stock.StockAdjustmentResult;
+import com.fulfilment.application.monolith.stock.StockAdjustments;
+import io.micrometer.core.annotation.Timed;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.AvailableHints;
 
 @ApplicationScoped
-public class ProductRepository implements PanacheRepository<Product> {}
+@Timed(value = "repository.query", histogram = true)
+public class ProductRepository implements PanacheRepository<Product> {
+
+  private static final int STREAM_FETCH_SIZE = 500;
+
+  // second-level cache region of the cacheable product queries, bounded in application.properties
+  static final String QUERY_CACHE_REGION = "product-queries";
+
+  private static final StockAdjustments<Product> STOCK_ADJUSTMENTS =
+      new StockAdjustments<>(
+          Product.class,
+          "product",
+          "stock",
+          QUERY_CACHE_REGION,
+          List.of("name", "description", "price"),
+          row -> {
+            Product product = new Product((String) row[3]);
+            product.id = ((Number) row[0]).longValue();
+            product.stock = ((Number) row[1]).intValue();
+            product.version = ((Number) row[2]).longValue();
+            product.description = (String) row[4];
+            product.price = (BigDecimal) row[5];
+            return product;
+          });
+
+  /**
+   * Returns up to {@code limit} products with an id greater than {@code afterId}, ordered by id.
+   * Pages are cached until the next change to the product table.
+   */
+  public List<Product> findPage(Long afterId, int limit) {
+    return find("id > ?1", Sort.by("id"), Pagination.after(afterId))
+        .withHint(AvailableHints.HINT_CACHEABLE, true)
+        .withHint(AvailableHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
+        .page(0, limit)
+        .list();
+  }
+
+  /**
+   * Returns the version of each product on the page {@link #findPage} returns, by id in page order,
+   * without loading the products; cached like the page.
+   */
+  public Map<Long, Long> findPageVersions(Long afterId, int limit) {
+    Map<Long, Long> versions = new LinkedHashMap<>();
+    getEntityManager()
+        .createQuery(
+            "select p.id, p.version from Product p where p.id > ?1 order by p.id", Object[].class)
+        .setParameter(1, Pagination.after(afterId))
+        .setMaxResults(limit)
+        .setHint(AvailableHints.HINT_CACHEABLE, true)
+        .setHint(AvailableHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
+        .getResultList()
+        .forEach(row -> versions.put((Long) row[0], (Long) row[1]));
+    return versions;
+  }
+
+  /** Streams all products ordered by id; must be consumed and closed within a transaction. */
+  public Stream<Product> streamAll() {
+    return findAll(Sort.by("id"))
+        .withHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+        .withHint(AvailableHints.HINT_READ_ONLY, true)
+        .withHint(AvailableHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+        .stream()
+        .map(
+            product -> {
+              getEntityManager().detach(product);
+              return product;
+            });
+  }
+
+  /**
+   * Adds the deltas to the stock of the products, by id, in one statement that refuses to take a
+   * stock below zero; products loaded earlier in the transaction are not refreshed. Every adjusted
+   * product is handed to {@code onAdjusted}, detached, as the statement returned it.
+   */
+  public List<StockAdjustmentResult> adjustStock(
+      Map<Long, Long> deltas, Consumer<Product> onAdjusted) {
+    return STOCK_ADJUSTMENTS.apply(getEntityManager(), deltas, onAdjusted);
+  }
+
+  /** Returns those of the names that are taken by a product. */
+  public List<String> findExistingNames(Collection<String> names) {
+    return getEntityManager()
+        .createQuery("select p.name from Product p where p.name in ?1", String.class)
+        .setParameter(1, names)
+        .getResultList();
+  }
+
+  /**
+   * Inserts the products in JDBC batches and empties the persistence context; the new products are
+   * not put in the second-level cache, so a bulk import does not push out the cached ones.
+   */
+  public void persistAll(List<Product> products) {
+    EntityManager entityManager = getEntityManager();
+    entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+    products.forEach(entityManager::persist);
+    entityManager.flush();
+    entityManager.clear();
+  }
+}
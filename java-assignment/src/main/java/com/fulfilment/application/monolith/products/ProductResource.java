@@ -2,22 +2,41 @@ package com.fulfilment.application.monolith.products;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import io.quarkus.panache.common.Sort;
+import com.fulfilment.application.monolith.bulk.ImportResult;
+import com.fulfilment.application.monolith.rest.CsvOutput;
+import com.fulfilment.application.monolith.rest.EntityTags;
+import com.fulfilment.application.monolith.rest.NdjsonOutput;
+import com.fulfilment.application.monolith.rest.Pagination;
+import com.fulfilment.application.monolith.stock.StockAdjustment;
+import com.fulfilment.application.monolith.stock.StockAdjustmentResult;
+import com.fulfilment.application.monolith.stock.StockAdjustments;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import jakarta.ws.rs.ext.ExceptionMapper;
 import jakarta.ws.rs.ext.Provider;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import org.jboss.logging.Logger;
 
 @Path("product")
@@ -28,21 +47,92 @@ public class ProductResource {
 
   @Inject ProductRepository productRepository;
 
+  @Inject Event<ProductEvent> productEvent;
+
+  @Inject ProductSearchIndex productSearchIndex;
+
+  @Inject ProductImport productImport;
+
+  @Inject ObjectMapper objectMapper;
+
   private static final Logger LOGGER = Logger.getLogger(ProductResource.class.getName());
 
   @GET
-  public List<Product> get() {
-    return productRepository.listAll(Sort.by("name"));
+  public Response get(
+      @QueryParam("after") Long after,
+      @QueryParam("limit") @DefaultValue(Pagination.DEFAULT_LIMIT) int limit,
+      @Context Request request) {
+    Pagination.checkLimit(limit);
+    // the tag only needs the ids and versions, so a poll of an unchanged page is answered with 304
+    // before any product is loaded or serialised
+    EntityTag tag = EntityTags.ofPage(productRepository.findPageVersions(after, limit));
+    Response notModified = EntityTags.evaluate(request, tag);
+    if (notModified != null) {
+      return notModified;
+    }
+    return Response.ok(productRepository.findPage(after, limit)).tag(tag).build();
+  }
+
+  @GET
+  @Produces(NdjsonOutput.MEDIA_TYPE)
+  public StreamingOutput stream() {
+    return NdjsonOutput.of(objectMapper, productRepository::streamAll);
+  }
+
+  @GET
+  @Path("export")
+  @Produces(CsvOutput.MEDIA_TYPE)
+  public StreamingOutput exportCsv() {
+    return CsvOutput.of(
+        ProductImport.COLUMNS,
+        productRepository::streamAll,
+        product ->
+            Arrays.asList(
+                product.id, product.name, product.description, product.price, product.stock));
+  }
+
+  @POST
+  @Path("import")
+  @Consumes(NdjsonOutput.MEDIA_TYPE)
+  public ImportResult importNdjson(InputStream input) {
+    return productImport.importNdjson(input);
+  }
+
+  @POST
+  @Path("import")
+  @Consumes(CsvOutput.MEDIA_TYPE)
+  public ImportResult importCsv(InputStream input) {
+    return productImport.importCsv(input);
+  }
+
+  @GET
+  @Path("search")
+  public List<Product> search(
+      @QueryParam("q") String query,
+      @QueryParam("minPrice") BigDecimal minPrice,
+      @QueryParam("maxPrice") BigDecimal maxPrice,
+      @QueryParam("inStock") boolean inStock,
+      @QueryParam("after") Long after,
+      @QueryParam("limit") @DefaultValue(Pagination.DEFAULT_LIMIT) int limit) {
+    Pagination.checkLimit(limit);
+    if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+      throw new WebApplicationException(
+          "Query parameter minPrice must not be greater than maxPrice.", 400);
+    }
+    // answered by the in-memory index, which follows the committed product changes
+    return productSearchIndex.search(query, minPrice, maxPrice, inStock, after, limit);
   }
 
   @GET
   @Path("{id}")
-  public Product getSingle(Long id) {
+  public Response getSingle(Long id, @Context Request request) {
     Product entity = productRepository.findById(id);
     if (entity == null) {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
-    return entity;
+    EntityTag tag = EntityTags.of(entity.id, entity.version);
+    Response notModified = EntityTags.evaluate(request, tag);
+    return notModified != null ? notModified : Response.ok(entity).tag(tag).build();
   }
 
   @POST
@@ -53,13 +143,16 @@ public class ProductResource {
     }
 
     productRepository.persist(product);
+
+    productEvent.fire(new ProductEvent(product, ProductEvent.Type.CREATED));
+
     return Response.ok(product).status(201).build();
   }
 
   @PUT
   @Path("{id}")
   @Transactional
-  public Product update(Long id, Product product) {
+  public Response update(Long id, Product product, @Context Request request) {
     if (product.name == null) {
       throw new WebApplicationException("Product Name was not set on request.", 422);
     }
@@ -69,15 +162,55 @@ public class ProductResource {
     if (entity == null) {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
+    EntityTags.checkIfMatch(request, EntityTags.of(entity.id, entity.version), "Product " + id);
 
     entity.name = product.name;
     entity.description = product.description;
     entity.price = product.price;
     entity.stock = product.stock;
 
-    productRepository.persist(entity);
+    // flushed here so the response carries the version the update produces; a concurrent update
+    // of the same product fails the version check with an OptimisticLockException (409)
+    productRepository.persistAndFlush(entity);
+
+    productEvent.fire(new ProductEvent(entity, ProductEvent.Type.UPDATED));
+
+    return Response.ok(entity).tag(EntityTags.of(entity.id, entity.version)).build();
+  }
+
+  @POST
+  @Path("{id}/stock/adjust")
+  @Transactional
+  public Response adjustStock(Long id, StockAdjustment adjustment) {
+    if (adjustment == null || adjustment.delta == null) {
+      throw new WebApplicationException("Stock delta was not set on request.", 422);
+    }
+    if (adjustment.id != null && !adjustment.id.equals(id)) {
+      throw new WebApplicationException("Id was invalidly set on request.", 422);
+    }
+
+    // applied by the database without reading the product, so concurrent adjustments never
+    // overwrite each other and need no If-Match
+    StockAdjustmentResult result =
+        productRepository
+            .adjustStock(Map.of(id, adjustment.delta.longValue()), this::adjusted)
+            .get(0);
+    if (!result.isApplied()) {
+      throw new WebApplicationException(result.error, result.status);
+    }
+    return Response.ok(result).tag(EntityTags.of(result.id, result.version)).build();
+  }
+
+  @POST
+  @Path("stock/adjust")
+  @Transactional
+  public List<StockAdjustmentResult> adjustStockInBulk(List<StockAdjustment> adjustments) {
+    return productRepository.adjustStock(StockAdjustments.net(adjustments), this::adjusted);
+  }
 
-    return entity;
+  private void adjusted(Product product) {
+    // the change feed reports the adjusted products like any other update
+    productEvent.fire(new ProductEvent(product, ProductEvent.Type.UPDATED));
   }
 
   @DELETE
@@ -89,6 +222,7 @@ public class ProductResource {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
     productRepository.delete(entity);
+    productEvent.fire(new ProductEvent(entity, ProductEvent.Type.DELETED));
     return Response.status(204).build();
   }
 
@@ -104,6 +238,9 @@ public class ProductResource {
       int code = 500;
       if (exception instanceof WebApplicationException) {
         code = ((WebApplicationException) exception).getResponse().getStatus();
+      } else if (exception instanceof OptimisticLockException) {
+        // the row was updated by someone else between reading and writing it
+        code = 409;
       }
 
       ObjectNode exceptionJson = objectMapper.createObjectNode();
@@ -0,0 +1,332 @@
+package com.fulfilment.application.monolith.products;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PrimitiveIterator;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.jboss.logging.Logger;
+
+/**
+ * Answers product searches from memory, so searching never reads the product table.
+ *
+ * <p>The words of the name and description of every product are kept in an inverted index, sorted
+ * so that all words with a given prefix are one range of it, and the prices in a sorted index. Each
+ * word and price points to the sorted ids of its products. A search walks the ids of its most
+ * selective word (or of its price range when it has no words) in id order, merging the lists of the
+ * words sharing its prefix, looks each id up in the lists of its other words and checks stock and
+ * price on the products left until the page is full. It never copies or sorts a list, so its cost
+ * follows the ids it walks to fill the page, not the size of the catalog.
+ *
+ * <p>The index is loaded once at startup and then follows the {@link ProductEvent}s of committed
+ * changes; it only sees the changes made through this instance.
+ */
+@ApplicationScoped
+public class ProductSearchIndex {
+
+  private static final Logger LOGGER = Logger.getLogger(ProductSearchIndex.class.getName());
+
+  private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+  // a term with up to this many words is checked by looking the id up in each of their postings
+  private static final int MAX_LOOKED_UP_WORDS = 16;
+  // a price range with up to this many prices is merged instead of filtering all products
+  private static final int MAX_MERGED_PRICES = 1024;
+
+  private final ProductRepository productRepository;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<Long, Entry> products = new HashMap<>();
+  private ProductIds ids = new ProductIds();
+  private final TreeMap<String, ProductIds> words = new TreeMap<>();
+  private final TreeMap<BigDecimal, ProductIds> prices = new TreeMap<>();
+
+  @Inject
+  public ProductSearchIndex(ProductRepository productRepository) {
+    this.productRepository = productRepository;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    QuarkusTransaction.requiringNew()
+        .run(
+            () -> {
+              try (Stream<Product> all = productRepository.streamAll()) {
+                load(all);
+              }
+            });
+  }
+
+  void onProductEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductEvent event) {
+    apply(event);
+  }
+
+  /** Replaces the index with the given products. */
+  public void load(Stream<Product> all) {
+    lock.writeLock().lock();
+    try {
+      products.clear();
+      ids = new ProductIds();
+      words.clear();
+      prices.clear();
+      all.forEach(this::add);
+      LOGGER.infof("Indexed %d products with %d words for search", products.size(), words.size());
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void apply(ProductEvent event) {
+    Product product = event.product;
+    lock.writeLock().lock();
+    try {
+      Entry current = products.get(product.id);
+      if (event.type == ProductEvent.Type.DELETED) {
+        remove(product.id);
+      } else if (current == null || current.product.version <= product.version) {
+        // events of concurrent updates may arrive out of order; the older one is dropped
+        add(product);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns up to {@code limit} products with an id greater than {@code afterId}, in id order, that
+   * have a word starting with every word of {@code query} in their name or description, a price
+   * within the given bounds and, with {@code inStock}, a positive stock. Products without a price
+   * only match when no bound is given.
+   */
+  public List<Product> search(
+      String query, BigDecimal minPrice, BigDecimal maxPrice, boolean inStock, Long afterId,
+      int limit) {
+    List<String> terms = words(query);
+    boolean priced = minPrice != null || maxPrice != null;
+    long after = afterId != null ? afterId : Long.MIN_VALUE;
+    List<Product> page = new ArrayList<>(Math.min(limit, 100));
+
+    lock.readLock().lock();
+    try {
+      List<Term> ranked = new ArrayList<>(terms.size());
+      for (String term : terms) {
+        ranked.add(new Term(term, words.subMap(term, true, term + Character.MAX_VALUE, false)));
+      }
+      ranked.sort(Comparator.comparingInt(term -> term.size));
+
+      PrimitiveIterator.OfLong candidates;
+      if (!ranked.isEmpty()) {
+        candidates = ProductIds.merge(ranked.get(0).range.values(), after);
+      } else if (priced
+          && countUpTo(priceRange(minPrice, maxPrice), MAX_MERGED_PRICES) < MAX_MERGED_PRICES) {
+        candidates = ProductIds.merge(priceRange(minPrice, maxPrice).values(), after);
+      } else {
+        // a wide price range has too many prices to merge; walking all products is cheaper
+        candidates = ProductIds.merge(List.of(ids), after);
+      }
+
+      while (page.size() < limit && candidates.hasNext()) {
+        long id = candidates.nextLong();
+        if (!inPostings(ranked, id)) {
+          continue;
+        }
+        Entry entry = products.get(id);
+        if (entry.matches(ranked)
+            && (!inStock || entry.product.stock > 0)
+            && (!priced || inRange(entry.product.price, minPrice, maxPrice))) {
+          page.add(entry.product);
+        }
+      }
+      return page;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // the first term gives the candidates; the other narrow ones are checked in their postings,
+  // which is cheaper than loading the product
+  private static boolean inPostings(List<Term> ranked, long id) {
+    for (int i = 1; i < ranked.size(); i++) {
+      Term term = ranked.get(i);
+      if (term.narrow && !term.contains(id)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private NavigableMap<BigDecimal, ProductIds> priceRange(
+      BigDecimal minPrice, BigDecimal maxPrice) {
+    if (minPrice != null && maxPrice != null) {
+      return prices.subMap(minPrice, true, maxPrice, true);
+    }
+    return minPrice != null ? prices.tailMap(minPrice, true) : prices.headMap(maxPrice, true);
+  }
+
+  private void add(Product product) {
+    remove(product.id);
+    Entry entry = new Entry(copy(product));
+    products.put(product.id, entry);
+    ids.add(product.id);
+    for (String word : entry.words) {
+      words.computeIfAbsent(word, w -> new ProductIds()).add(product.id);
+    }
+    if (product.price != null) {
+      prices.computeIfAbsent(product.price, p -> new ProductIds()).add(product.id);
+    }
+  }
+
+  private void remove(Long id) {
+    Entry entry = products.remove(id);
+    if (entry == null) {
+      return;
+    }
+    ids.remove(id);
+    for (String word : entry.words) {
+      removeFrom(words, word, id);
+    }
+    if (entry.product.price != null) {
+      removeFrom(prices, entry.product.price, id);
+    }
+  }
+
+  private static <K> void removeFrom(Map<K, ProductIds> index, K key, long id) {
+    ProductIds ids = index.get(key);
+    if (ids != null) {
+      ids.remove(id);
+      if (ids.size() == 0) {
+        index.remove(key);
+      }
+    }
+  }
+
+  private static int size(Map<?, ProductIds> range) {
+    int size = 0;
+    for (ProductIds ids : range.values()) {
+      size += ids.size();
+    }
+    return size;
+  }
+
+  private static int countUpTo(Map<?, ?> range, int max) {
+    int count = 0;
+    for (var iterator = range.keySet().iterator(); count < max && iterator.hasNext(); count++) {
+      iterator.next();
+    }
+    return count;
+  }
+
+  private static boolean inRange(BigDecimal price, BigDecimal minPrice, BigDecimal maxPrice) {
+    return price != null
+        && (minPrice == null || price.compareTo(minPrice) >= 0)
+        && (maxPrice == null || price.compareTo(maxPrice) <= 0);
+  }
+
+  // the index keeps its own copy, as the entity may be changed after the event
+  private static Product copy(Product product) {
+    Product copy = new Product(product.name);
+    copy.id = product.id;
+    copy.description = product.description;
+    copy.price = product.price;
+    copy.stock = product.stock;
+    copy.version = product.version;
+    return copy;
+  }
+
+  /** Lower-case words without diacritics, so "besta" finds "BESTÅ". */
+  static List<String> words(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    String plain =
+        DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+    LinkedHashSet<String> words = new LinkedHashSet<>();
+    for (String word : WORD_SEPARATOR.split(plain.toLowerCase(Locale.ROOT))) {
+      if (!word.isEmpty()) {
+        words.add(word);
+      }
+    }
+    return new ArrayList<>(words);
+  }
+
+  private static final class Entry {
+
+    final Product product;
+    final String[] words;
+
+    Entry(Product product) {
+      this.product = product;
+      List<String> all = new ArrayList<>(ProductSearchIndex.words(product.name));
+      all.addAll(ProductSearchIndex.words(product.description));
+      this.words = all.stream().distinct().toArray(String[]::new);
+    }
+
+    /** Checks the terms that were too wide to check in their postings. */
+    boolean matches(List<Term> terms) {
+      for (Term term : terms) {
+        if (!term.narrow && !hasWordStartingWith(term.prefix)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean hasWordStartingWith(String term) {
+      for (String word : words) {
+        if (word.startsWith(term)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /** A word of the query, with the words of the index that start with it. */
+  private static final class Term {
+
+    final String prefix;
+    final NavigableMap<String, ProductIds> range;
+    final int size;
+    final boolean narrow;
+    private ProductIds[] postings;
+    private int[] positions;
+
+    Term(String prefix, NavigableMap<String, ProductIds> range) {
+      this.prefix = prefix;
+      this.range = range;
+      this.size = size(range);
+      this.narrow = countUpTo(range, MAX_LOOKED_UP_WORDS + 1) <= MAX_LOOKED_UP_WORDS;
+    }
+
+    /** Whether one of the words has the id; the ids asked for must increase. */
+    boolean contains(long id) {
+      if (postings == null) {
+        postings = range.values().toArray(ProductIds[]::new);
+        positions = new int[postings.length];
+      }
+      boolean found = false;
+      for (int i = 0; i < postings.length; i++) {
+        ProductIds ids = postings[i];
+        positions[i] = ids.indexAtLeast(id, positions[i]);
+        found |= positions[i] < ids.size() && ids.get(positions[i]) == id;
+      }
+      return found;
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.fulfilment.application.monolith.rest;
+
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a database stream to the response as CSV (RFC 4180): a header, then one record per row.
+ *
+ * <p>Like {@link NdjsonOutput}, the stream is opened in its own transaction, with the export
+ * timeout, when the response body is written and rows are written as they are read, so memory use
+ * does not depend on the number of rows.
+ */
+public final class CsvOutput {
+
+  public static final String MEDIA_TYPE = "text/csv";
+
+  private CsvOutput() {}
+
+  public static <T> StreamingOutput of(
+      List<String> header, Supplier<Stream<T>> rows, Function<T, List<?>> fields) {
+    return output ->
+        NdjsonOutput.inTransaction(
+            () -> {
+              Writer writer =
+                  new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+              try (Stream<T> stream = rows.get()) {
+                writeRecord(writer, header);
+                stream.forEach(row -> writeRecord(writer, fields.apply(row)));
+                writer.flush();
+              } catch (IOException e) {
+                throw new UncheckedIOException(e);
+              }
+            });
+  }
+
+  static void writeRecord(Writer writer, List<?> fields) {
+    try {
+      for (int i = 0; i < fields.size(); i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        writeField(writer, fields.get(i));
+      }
+      writer.write("\r\n");
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void writeField(Writer writer, Object value) throws IOException {
+    if (value == null) {
+      return;
+    }
+    String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+    if (text.indexOf(',') < 0
+        && text.indexOf('"') < 0
+        && text.indexOf('\n') < 0
+        && text.indexOf('\r') < 0) {
+      writer.write(text);
+      return;
+    }
+    writer.write('"');
+    writer.write(text.replace("\"", "\"\""));
+    writer.write('"');
+  }
+}
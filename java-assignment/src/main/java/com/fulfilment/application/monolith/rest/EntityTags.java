@@ -0,0 +1,71 @@
+package com.fulfilment.application.monolith.rest;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Strong ETags built from the {@code @Version} of rows rather than from response bodies, so a
+ * conditional request is answered without loading or serialising the entities: {@code
+ * If-None-Match} on reads gets a 304, a stale {@code If-Match} on writes a 412.
+ */
+public final class EntityTags {
+
+  // a truncated SHA-256 keeps page tags short while collisions stay out of reach
+  private static final int PAGE_TAG_BYTES = 16;
+
+  private EntityTags() {}
+
+  /** Tag of one entity; changes on every update of it. */
+  public static EntityTag of(Long id, long version) {
+    return new EntityTag(id + "-" + version);
+  }
+
+  /**
+   * Tag of a page from the id and version of each of its rows, in page order: changes when a row
+   * on the page is updated, or a row joins or leaves the page.
+   */
+  public static EntityTag ofPage(Map<Long, Long> versionsById) {
+    MessageDigest digest = sha256();
+    ByteBuffer row = ByteBuffer.allocate(2 * Long.BYTES);
+    versionsById.forEach(
+        (id, version) -> {
+          row.clear();
+          row.putLong(id).putLong(version);
+          digest.update(row.array());
+        });
+    return new EntityTag(HexFormat.of().formatHex(digest.digest(), 0, PAGE_TAG_BYTES));
+  }
+
+  /**
+   * Evaluates the request's conditional headers against the current tag of a resource that is
+   * read. Returns the 304 (or 412) response to send instead of the resource, or null when the
+   * resource must be sent.
+   */
+  public static Response evaluate(Request request, EntityTag tag) {
+    Response.ResponseBuilder precondition = request.evaluatePreconditions(tag);
+    return precondition != null ? precondition.tag(tag).build() : null;
+  }
+
+  /** Fails with 412 when the request's conditional headers do not match the current tag. */
+  public static void checkIfMatch(Request request, EntityTag tag, String resource) {
+    if (request.evaluatePreconditions(tag) != null) {
+      throw new WebApplicationException(
+          resource + " was modified since it was read; fetch it again for its current ETag.", 412);
+    }
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is required of every Java platform", e);
+    }
+  }
+}
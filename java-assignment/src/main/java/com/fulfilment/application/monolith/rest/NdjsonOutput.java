@@ -0,0 +1,64 @@
+package com.fulfilment.application.monolith.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+/**
+ * Writes a database stream to the response as newline-delimited JSON, one row per line.
+ *
+ * <p>The stream is opened when the response body is written, inside its own transaction so the
+ * underlying cursor stays open while rows are serialised. Rows are written as they are read, so
+ * memory use does not depend on the number of rows. The transaction lasts as long as the client
+ * takes to read the rows, so its timeout is {@code export.transaction-timeout} rather than the
+ * default of the transaction manager.
+ */
+public final class NdjsonOutput {
+
+  public static final String MEDIA_TYPE = "application/x-ndjson";
+
+  static final String TRANSACTION_TIMEOUT = "export.transaction-timeout";
+
+  private NdjsonOutput() {}
+
+  public static <T, R> StreamingOutput of(
+      ObjectMapper objectMapper, Supplier<Stream<T>> rows, Function<T, R> mapper) {
+    return output ->
+        inTransaction(
+            () -> {
+              try (Stream<T> stream = rows.get()) {
+                stream.forEach(row -> writeLine(objectMapper, output, mapper.apply(row)));
+              }
+            });
+  }
+
+  public static <T> StreamingOutput of(ObjectMapper objectMapper, Supplier<Stream<T>> rows) {
+    return of(objectMapper, rows, Function.identity());
+  }
+
+  /** Runs the writing of a response body in a new transaction with the export timeout. */
+  static void inTransaction(Runnable work) {
+    Duration timeout =
+        ConfigProvider.getConfig()
+            .getOptionalValue(TRANSACTION_TIMEOUT, Duration.class)
+            .orElse(Duration.ofHours(1));
+    QuarkusTransaction.requiringNew().timeout(Math.toIntExact(timeout.toSeconds())).run(work);
+  }
+
+  static void writeLine(ObjectMapper objectMapper, OutputStream output, Object value) {
+    try {
+      output.write(objectMapper.writeValueAsBytes(value));
+      output.write('\n');
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
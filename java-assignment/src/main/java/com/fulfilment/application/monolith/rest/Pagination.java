@@ -0,0 +1,29 @@
+package com.fulfilment.application.monolith.rest;
+
+import jakarta.ws.rs.WebApplicationException;
+
+/**
+ * Keyset pagination for list endpoints: a page holds up to {@code limit} rows with an id greater
+ * than {@code after}, ordered by id. Clients pass the id of the last row they received as {@code
+ * after} to get the next page.
+ */
+public final class Pagination {
+
+  public static final String DEFAULT_LIMIT = "100";
+  public static final int MAX_LIMIT = 1000;
+
+  private Pagination() {}
+
+  public static int checkLimit(int limit) {
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new WebApplicationException(
+          "Query parameter limit must be between 1 and " + MAX_LIMIT + ".", 400);
+    }
+    return limit;
+  }
+
+  /** The lowest id that sorts before every row, used when no cursor is given. */
+  public static long after(Long after) {
+    return after != null ? after : Long.MIN_VALUE;
+  }
+}
@@ -0,0 +1,110 @@
+package com.fulfilment.application.monolith.routing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable road distances in kilometres between locations, indexed so a lookup is two array reads.
+ *
+ * <p>Distance files are CSV with one {@code from,to,distance} row per pair of locations; distances
+ * are symmetric, so each pair is listed once. Blank lines, {@code #} comments and a first row that is the
+ * header are ignored. A location is at distance 0 from itself; pairs that are not listed are unknown.
+ */
+public final class DistanceMatrix {
+
+  public static final int UNKNOWN = -1;
+
+  private static final String HEADER = "from,to,distance";
+
+  private final Map<String, Integer> indexByLocation;
+  private final int[][] distances;
+
+  private DistanceMatrix(Map<String, Integer> indexByLocation, int[][] distances) {
+    this.indexByLocation = Map.copyOf(indexByLocation);
+    this.distances = distances;
+  }
+
+  public static DistanceMatrix parse(Reader source) throws IOException {
+    Map<String, Integer> index = new HashMap<>();
+    List<int[]> pairs = new ArrayList<>();
+    BufferedReader reader = new BufferedReader(source);
+    String line;
+    int lineNumber = 0;
+    boolean firstRow = true;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      line = line.strip();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      // a later row starting with "from" is a location such as frome-001, not a header
+      boolean header = firstRow && line.equals(HEADER);
+      firstRow = false;
+      if (header) {
+        continue;
+      }
+
+      String[] columns = line.split(",");
+      if (columns.length != 3) {
+        throw new IllegalArgumentException(
+            "Line " + lineNumber + " must have 3 columns but has " + columns.length + ".");
+      }
+
+      int distance;
+      try {
+        distance = Integer.parseInt(columns[2].strip());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException(
+            "Line " + lineNumber + " has a non-numeric distance.", e);
+      }
+      if (distance < 0) {
+        throw new IllegalArgumentException("Line " + lineNumber + " has a negative distance.");
+      }
+
+      int from = index.computeIfAbsent(columns[0].strip(), location -> index.size());
+      int to = index.computeIfAbsent(columns[1].strip(), location -> index.size());
+      pairs.add(new int[] {from, to, distance, lineNumber});
+    }
+
+    int[][] distances = new int[index.size()][index.size()];
+    for (int i = 0; i < distances.length; i++) {
+      Arrays.fill(distances[i], UNKNOWN);
+      distances[i][i] = 0;
+    }
+    for (int[] pair : pairs) {
+      int from = pair[0];
+      int to = pair[1];
+      if (from == to || distances[from][to] != UNKNOWN) {
+        throw new IllegalArgumentException(
+            "Line " + pair[3] + " repeats a distance that is already known.");
+      }
+      distances[from][to] = pair[2];
+      distances[to][from] = pair[2];
+    }
+    return new DistanceMatrix(index, distances);
+  }
+
+  /** Index of the location in this matrix, or {@link #UNKNOWN}. */
+  public int indexOf(String location) {
+    return location != null ? indexByLocation.getOrDefault(location, UNKNOWN) : UNKNOWN;
+  }
+
+  /** Distance between two location indexes, or {@link #UNKNOWN}. */
+  public int distance(int from, int to) {
+    return from == UNKNOWN || to == UNKNOWN ? UNKNOWN : distances[from][to];
+  }
+
+  public int distance(String from, String to) {
+    return distance(indexOf(from), indexOf(to));
+  }
+
+  public int size() {
+    return distances.length;
+  }
+}
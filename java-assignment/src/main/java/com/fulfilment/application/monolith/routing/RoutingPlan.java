@@ -0,0 +1,16 @@
+package com.fulfilment.application.monolith.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Shipments that cover the store demand, and whatever demand could not be covered. */
+public class RoutingPlan {
+
+  public List<Shipment> shipments = new ArrayList<>();
+
+  // demand left open, either for lack of stock or because no warehouse can reach the store
+  public List<StoreDemand> unfulfilled = new ArrayList<>();
+
+  // sum of quantity times distance over all shipments, the cost the plan minimises
+  public long transportCost;
+}
@@ -0,0 +1,101 @@
+package com.fulfilment.application.monolith.routing;
+
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.annotation.Timed;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Plans store replenishment from the stock of the active warehouses.
+ *
+ * <p>Distances are read once from {@code routing.distances.path} when set, otherwise from the
+ * bundled {@code distances.csv}. Stores whose location has no known distance to any warehouse
+ * with stock are reported as unfulfilled.
+ */
+@ApplicationScoped
+@Timed(value = "routing.plan", histogram = true)
+public class RoutingPlanner {
+
+  private static final Logger LOGGER = Logger.getLogger(RoutingPlanner.class.getName());
+
+  static final String DEFAULT_DISTANCES_RESOURCE = "distances.csv";
+
+  public static final int MAX_DEMANDS = 50_000;
+
+  private final WarehouseStore warehouseStore;
+  private final RoutingSolver solver;
+
+  @Inject
+  public RoutingPlanner(
+      WarehouseStore warehouseStore,
+      @ConfigProperty(name = "routing.distances.path") Optional<String> distancesPath) {
+    this.warehouseStore = warehouseStore;
+    this.solver = new RoutingSolver(load(distancesPath.map(Path::of).orElse(null)));
+  }
+
+  public RoutingPlan plan(List<StoreDemand> demands) {
+    if (demands == null || demands.isEmpty() || demands.size() > MAX_DEMANDS) {
+      throw new WebApplicationException(
+          "A routing plan needs between 1 and " + MAX_DEMANDS + " store demands.", 400);
+    }
+    for (StoreDemand demand : demands) {
+      if (demand == null || demand.location == null || demand.quantity <= 0) {
+        throw new WebApplicationException(
+            "Every store demand needs a location and a positive quantity.", 400);
+      }
+    }
+
+    List<WarehouseSupply> supplies =
+        warehouseStore.findActive().stream()
+            .filter(warehouse -> warehouse.stock != null && warehouse.stock > 0)
+            .map(
+                warehouse ->
+                    new WarehouseSupply(
+                        warehouse.businessUnitCode, warehouse.location, warehouse.stock))
+            .toList();
+
+    RoutingPlan plan = solver.solve(supplies, demands);
+    LOGGER.infof(
+        "Planned %d shipments from %d warehouses for %d stores, transport cost %d, %d stores short",
+        plan.shipments.size(),
+        supplies.size(),
+        demands.size(),
+        plan.transportCost,
+        plan.unfulfilled.size());
+    return plan;
+  }
+
+  private static DistanceMatrix load(Path file) {
+    if (file != null) {
+      try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+        DistanceMatrix distances = DistanceMatrix.parse(reader);
+        LOGGER.infof("Loaded distances between %d locations from %s", distances.size(), file);
+        return distances;
+      } catch (IOException e) {
+        throw new UncheckedIOException("Unable to load distances " + file, e);
+      }
+    }
+    try (InputStream in =
+        RoutingPlanner.class.getClassLoader().getResourceAsStream(DEFAULT_DISTANCES_RESOURCE)) {
+      if (in == null) {
+        throw new IllegalStateException("Missing bundled " + DEFAULT_DISTANCES_RESOURCE);
+      }
+      return DistanceMatrix.parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to load bundled " + DEFAULT_DISTANCES_RESOURCE, e);
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package com.fulfilment.application.monolith.routing;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import java.util.List;
+
+@Path("routing")
+@ApplicationScoped
+@Produces("application/json")
+@Consumes("application/json")
+public class RoutingResource {
+
+  @Inject RoutingPlanner routingPlanner;
+
+  @POST
+  @Path("plan")
+  public RoutingPlan plan(List<StoreDemand> demands) {
+    return routingPlanner.plan(demands);
+  }
+}
@@ -0,0 +1,420 @@
+package com.fulfilment.application.monolith.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Plans which warehouses replenish which stores so that as much demand as possible is covered at
+ * the lowest transport cost, quantity times road distance.
+ *
+ * <p>This is the transportation problem, solved as a min-cost flow in two phases:
+ *
+ * <ol>
+ *   <li>Greedy: store-warehouse pairs are filled cheapest first, each store moving on to its next
+ *       nearest warehouse once the current one runs out. This is usually close to optimal, which
+ *       keeps the second phase short.
+ *   <li>Improvement: the greedy plan is improved on a residual graph over the warehouses only, with
+ *       a source for spare stock and a sink for open demand. An edge from warehouse a to b stands
+ *       for the store that gains most by taking a unit from a instead of b. Negative cycles are
+ *       cancelled and remaining demand is augmented along shortest paths until neither is left, at
+ *       which point the plan is optimal.
+ * </ol>
+ *
+ * <p>The shortest-path searches only involve the warehouses, so the cost of a step lies in keeping
+ * the edges up to date. Only the edges into warehouses whose shipments changed are rebuilt, one
+ * scan over the stores each, in parallel on the common fork-join pool.
+ */
+public final class RoutingSolver {
+
+  // safety net only: every step lowers the cost or raises the covered demand, so steps run out
+  static final int MAX_IMPROVEMENT_STEPS = 100_000;
+
+  private static final long NONE = Long.MAX_VALUE;
+
+  private final DistanceMatrix distances;
+
+  public RoutingSolver(DistanceMatrix distances) {
+    this.distances = distances;
+  }
+
+  public RoutingPlan solve(List<WarehouseSupply> supplies, List<StoreDemand> demands) {
+    return new Solution(supplies, demands).solve();
+  }
+
+  /**
+   * State of one solve. Stores are indexed by {@code i}; warehouses by {@code w}, with two extra
+   * graph nodes after them for the source and the sink.
+   */
+  private final class Solution {
+
+    private final List<WarehouseSupply> supplies;
+    private final List<StoreDemand> demands;
+    private final int stores;
+    private final int warehouses;
+    private final int source;
+    private final int sink;
+    private final int nodes;
+
+    // distance from warehouse w to store i, or UNKNOWN when there is no route
+    private final int[][] cost;
+    // reachable warehouses of each store, nearest first
+    private final int[][] ranking;
+    // quantity shipped from warehouse w to store i
+    private final int[][] shipped;
+    // stock each warehouse has left
+    private final int[] spare;
+    // stock each warehouse ships
+    private final int[] used;
+    // demand each store has left
+    private final int[] unmet;
+
+    // residual graph over the warehouses, source and sink
+    private final Graph graph;
+    // warehouses whose shipments changed since the graph was last refreshed, and whether open
+    // demand did
+    private final boolean[] dirty;
+    private boolean sinkDirty;
+
+    Solution(List<WarehouseSupply> supplies, List<StoreDemand> demands) {
+      this.supplies = supplies;
+      this.demands = demands;
+      this.stores = demands.size();
+      this.warehouses = supplies.size();
+      this.source = warehouses;
+      this.sink = warehouses + 1;
+      this.nodes = warehouses + 2;
+      this.cost = new int[stores][];
+      this.ranking = new int[stores][];
+      this.shipped = new int[stores][warehouses];
+      this.spare = supplies.stream().mapToInt(supply -> Math.max(supply.stock, 0)).toArray();
+      this.used = new int[warehouses];
+      this.unmet = demands.stream().mapToInt(demand -> Math.max(demand.quantity, 0)).toArray();
+      this.graph = new Graph(nodes);
+      this.dirty = new boolean[warehouses];
+    }
+
+    RoutingPlan solve() {
+      int[] warehouseIndex =
+          supplies.stream().mapToInt(supply -> distances.indexOf(supply.location)).toArray();
+      IntStream.range(0, stores).parallel().forEach(i -> rank(i, warehouseIndex));
+
+      assignGreedily();
+      Arrays.fill(dirty, true);
+      sinkDirty = true;
+      refreshGraph();
+      for (int step = 0; step < MAX_IMPROVEMENT_STEPS; step++) {
+        // cycles without nodes in common stay valid together, so cancel all that can be found
+        Graph search = graph.copy();
+        boolean cancelled = false;
+        int[] cycle = findNegativeCycle(search);
+        while (cycle != null) {
+          apply(search, cycle);
+          search.remove(cycle);
+          cancelled = true;
+          cycle = findNegativeCycle(search);
+        }
+        if (!cancelled) {
+          int[] path = findShortestAugmentingPath(graph);
+          if (path == null) {
+            break;
+          }
+          apply(graph, path);
+        }
+        refreshGraph();
+      }
+      return plan();
+    }
+
+    private void rank(int i, int[] warehouseIndex) {
+      int storeIndex = distances.indexOf(demands.get(i).location);
+      int[] row = new int[warehouses];
+      // distance in the high bits and warehouse in the low bits, so sorting orders by distance
+      long[] keys = new long[warehouses];
+      int reachable = 0;
+      for (int w = 0; w < warehouses; w++) {
+        row[w] = distances.distance(storeIndex, warehouseIndex[w]);
+        if (row[w] != DistanceMatrix.UNKNOWN) {
+          keys[reachable++] = ((long) row[w] << 32) | w;
+        }
+      }
+      Arrays.sort(keys, 0, reachable);
+      int[] ranked = new int[reachable];
+      for (int k = 0; k < reachable; k++) {
+        ranked[k] = (int) keys[k];
+      }
+      cost[i] = row;
+      ranking[i] = ranked;
+    }
+
+    private void assignGreedily() {
+      // cheapest store-warehouse pairs first: a queue holding each store's next nearest warehouse
+      int[] next = new int[stores];
+      PriorityQueue<Long> queue = new PriorityQueue<>();
+      for (int i = 0; i < stores; i++) {
+        if (ranking[i].length > 0 && unmet[i] > 0) {
+          queue.add(((long) cost[i][ranking[i][0]] << 32) | i);
+        }
+      }
+      while (!queue.isEmpty()) {
+        int i = (int) (long) queue.poll();
+        int w = ranking[i][next[i]++];
+        int quantity = Math.min(spare[w], unmet[i]);
+        if (quantity > 0) {
+          ship(i, w, quantity);
+        }
+        if (unmet[i] > 0 && next[i] < ranking[i].length) {
+          queue.add(((long) cost[i][ranking[i][next[i]]] << 32) | i);
+        }
+      }
+    }
+
+    /*
+     * Edges, with the store they go through where there is one:
+     *   a -> b      store i served by b takes a unit from a instead: cost(i, a) - cost(i, b)
+     *   a -> sink   store i with open demand takes a unit from a: cost(i, a)
+     *   sink -> b   store i served by b gives up a unit: -cost(i, b)
+     *   source -> a a ships a unit of spare stock: 0
+     *   a -> source a ships a unit less: 0
+     */
+    private void refreshGraph() {
+      // edges into a warehouse only depend on the stores it serves, so only changed warehouses
+      // are rebuilt; each task writes the edges into its own warehouse
+      IntStream.range(0, warehouses)
+          .filter(w -> dirty[w])
+          .parallel()
+          .forEach(this::rebuildEdgesInto);
+      if (sinkDirty) {
+        IntStream.range(0, warehouses).parallel().forEach(this::rebuildEdgeToSink);
+      }
+      for (int w = 0; w < warehouses; w++) {
+        graph.cost[source][w] = spare[w] > 0 ? 0 : NONE;
+        graph.cost[w][source] = used[w] > 0 ? 0 : NONE;
+      }
+      Arrays.fill(dirty, false);
+      sinkDirty = false;
+    }
+
+    private void rebuildEdgesInto(int b) {
+      graph.clearEdgesInto(b);
+      for (int i = 0; i < stores; i++) {
+        if (shipped[i][b] == 0) {
+          continue;
+        }
+        graph.relax(sink, b, -cost[i][b], i);
+        for (int a : ranking[i]) {
+          if (a != b) {
+            graph.relax(a, b, (long) cost[i][a] - cost[i][b], i);
+          }
+        }
+      }
+    }
+
+    private void rebuildEdgeToSink(int a) {
+      graph.cost[a][sink] = NONE;
+      for (int i = 0; i < stores; i++) {
+        if (unmet[i] > 0 && cost[i][a] != DistanceMatrix.UNKNOWN) {
+          graph.relax(a, sink, cost[i][a], i);
+        }
+      }
+    }
+
+    /** Bellman-Ford from every node at once; returns the nodes of a negative cycle in order. */
+    private int[] findNegativeCycle(Graph graph) {
+      long[] distance = new long[nodes];
+      int[] predecessor = new int[nodes];
+      Arrays.fill(predecessor, -1);
+      int relaxed = -1;
+      for (int round = 0; round < nodes; round++) {
+        relaxed = relaxAll(graph, distance, predecessor);
+        if (relaxed < 0) {
+          return null;
+        }
+      }
+
+      // walking back from a node relaxed in the last round always ends up on the cycle
+      int node = relaxed;
+      for (int k = 0; k < nodes; k++) {
+        node = predecessor[node];
+      }
+      List<Integer> cycle = new ArrayList<>();
+      int current = node;
+      do {
+        cycle.add(current);
+        current = predecessor[current];
+      } while (current != node);
+      cycle.add(node);
+      // predecessors lead backwards, so reverse into the direction of the edges
+      int[] path = new int[cycle.size()];
+      for (int k = 0; k < path.length; k++) {
+        path[k] = cycle.get(path.length - 1 - k);
+      }
+      return path;
+    }
+
+    /** Cheapest path from the source to the sink, or {@code null} if no more demand can be met. */
+    private int[] findShortestAugmentingPath(Graph graph) {
+      long[] distance = new long[nodes];
+      Arrays.fill(distance, NONE);
+      distance[source] = 0;
+      int[] predecessor = new int[nodes];
+      Arrays.fill(predecessor, -1);
+      for (int round = 0; round < nodes; round++) {
+        if (relaxAll(graph, distance, predecessor) < 0) {
+          break;
+        }
+      }
+      if (distance[sink] == NONE) {
+        return null;
+      }
+
+      List<Integer> path = new ArrayList<>();
+      for (int node = sink; node != -1; node = predecessor[node]) {
+        path.add(node);
+      }
+      int[] ordered = new int[path.size()];
+      for (int k = 0; k < ordered.length; k++) {
+        ordered[k] = path.get(ordered.length - 1 - k);
+      }
+      return ordered;
+    }
+
+    // one Bellman-Ford round; returns the last node whose distance went down, or -1
+    private int relaxAll(Graph graph, long[] distance, int[] predecessor) {
+      int relaxed = -1;
+      for (int from = 0; from < nodes; from++) {
+        if (distance[from] == NONE) {
+          continue;
+        }
+        for (int to = 0; to < nodes; to++) {
+          long edge = graph.cost[from][to];
+          if (edge != NONE && distance[from] + edge < distance[to]) {
+            distance[to] = distance[from] + edge;
+            predecessor[to] = from;
+            relaxed = to;
+          }
+        }
+      }
+      return relaxed;
+    }
+
+    private void apply(Graph graph, int[] path) {
+      int quantity = Integer.MAX_VALUE;
+      for (int k = 0; k + 1 < path.length; k++) {
+        int store = graph.store[path[k]][path[k + 1]];
+        quantity = Math.min(quantity, capacity(path[k], path[k + 1], store));
+      }
+      for (int k = 0; k + 1 < path.length; k++) {
+        move(path[k], path[k + 1], graph.store[path[k]][path[k + 1]], quantity);
+      }
+    }
+
+    private int capacity(int from, int to, int store) {
+      if (from == source) {
+        return spare[to];
+      }
+      if (to == source) {
+        return used[from];
+      }
+      if (to == sink) {
+        return unmet[store];
+      }
+      return shipped[store][to];
+    }
+
+    private void move(int from, int to, int store, int quantity) {
+      if (from == source) {
+        spare[to] -= quantity;
+        used[to] += quantity;
+      } else if (to == source) {
+        spare[from] += quantity;
+        used[from] -= quantity;
+      } else if (to == sink) {
+        shipped[store][from] += quantity;
+        unmet[store] -= quantity;
+        dirty[from] = true;
+        sinkDirty = true;
+      } else if (from == sink) {
+        shipped[store][to] -= quantity;
+        unmet[store] += quantity;
+        dirty[to] = true;
+        sinkDirty = true;
+      } else {
+        shipped[store][from] += quantity;
+        shipped[store][to] -= quantity;
+        dirty[from] = true;
+        dirty[to] = true;
+      }
+    }
+
+    private void ship(int i, int w, int quantity) {
+      shipped[i][w] += quantity;
+      spare[w] -= quantity;
+      used[w] += quantity;
+      unmet[i] -= quantity;
+    }
+
+    private RoutingPlan plan() {
+      RoutingPlan plan = new RoutingPlan();
+      for (int i = 0; i < stores; i++) {
+        StoreDemand demand = demands.get(i);
+        for (int w : ranking[i]) {
+          if (shipped[i][w] > 0) {
+            plan.shipments.add(new Shipment(demand, supplies.get(w), shipped[i][w], cost[i][w]));
+            plan.transportCost += (long) shipped[i][w] * cost[i][w];
+          }
+        }
+        if (unmet[i] > 0) {
+          plan.unfulfilled.add(new StoreDemand(demand.storeId, demand.location, unmet[i]));
+        }
+      }
+      return plan;
+    }
+  }
+
+  /** Cheapest edge between each pair of nodes, with the store it goes through. */
+  private static final class Graph {
+    final long[][] cost;
+    final int[][] store;
+
+    Graph(int nodes) {
+      cost = new long[nodes][nodes];
+      store = new int[nodes][nodes];
+      for (long[] row : cost) {
+        Arrays.fill(row, NONE);
+      }
+    }
+
+    void relax(int from, int to, long edge, int via) {
+      if (edge < cost[from][to]) {
+        cost[from][to] = edge;
+        store[from][to] = via;
+      }
+    }
+
+    Graph copy() {
+      Graph copy = new Graph(cost.length);
+      for (int from = 0; from < cost.length; from++) {
+        System.arraycopy(cost[from], 0, copy.cost[from], 0, cost.length);
+        System.arraycopy(store[from], 0, copy.store[from], 0, cost.length);
+      }
+      return copy;
+    }
+
+    void clearEdgesInto(int node) {
+      for (long[] row : cost) {
+        row[node] = NONE;
+      }
+    }
+
+    // drops every edge touching the nodes
+    void remove(int[] nodes) {
+      for (int node : nodes) {
+        Arrays.fill(cost[node], NONE);
+        clearEdgesInto(node);
+      }
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package com.fulfilment.application.monolith.routing;
+
+/** Quantity shipped from one warehouse to one store in a {@link RoutingPlan}. */
+public class Shipment {
+
+  public Long storeId;
+
+  public String storeLocation;
+
+  public String warehouseBusinessUnitCode;
+
+  public String warehouseLocation;
+
+  public int quantity;
+
+  // road distance in kilometres
+  public int distance;
+
+  public Shipment() {}
+
+  public Shipment(StoreDemand demand, WarehouseSupply supply, int quantity, int distance) {
+    this.storeId = demand.storeId;
+    this.storeLocation = demand.location;
+    this.warehouseBusinessUnitCode = supply.businessUnitCode;
+    this.warehouseLocation = supply.location;
+    this.quantity = quantity;
+    this.distance = distance;
+  }
+}
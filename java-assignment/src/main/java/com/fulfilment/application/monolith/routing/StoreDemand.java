@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.routing;
+
+/** Quantity a store needs delivered to its location. */
+public class StoreDemand {
+
+  public Long storeId;
+
+  public String location;
+
+  public int quantity;
+
+  public StoreDemand() {}
+
+  public StoreDemand(Long storeId, String location, int quantity) {
+    this.storeId = storeId;
+    this.location = location;
+    this.quantity = quantity;
+  }
+}
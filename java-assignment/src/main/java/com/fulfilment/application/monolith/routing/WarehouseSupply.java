@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.routing;
+
+/** Stock a warehouse can ship from its location. */
+public class WarehouseSupply {
+
+  public String businessUnitCode;
+
+  public String location;
+
+  public int stock;
+
+  public WarehouseSupply() {}
+
+  public WarehouseSupply(String businessUnitCode, String location, int stock) {
+    this.businessUnitCode = businessUnitCode;
+    this.location = location;
+    this.stock = stock;
+  }
+}
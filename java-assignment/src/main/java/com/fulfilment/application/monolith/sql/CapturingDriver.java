@@ -0,0 +1,61 @@
+package com.fulfilment.application.monolith.sql;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * JDBC driver of the datasource ({@code quarkus.datasource.jdbc.driver}): opens connections with
+ * the PostgreSQL driver and wraps them so that every statement they execute is timed and recorded
+ * in the {@link SlowQueryLog}. Connections opened before the application runs are not wrapped.
+ */
+public class CapturingDriver implements Driver {
+
+  private final Driver delegate = new org.postgresql.Driver();
+
+  @Override
+  public Connection connect(String url, Properties info) throws SQLException {
+    Connection connection = delegate.connect(url, info);
+    ArcContainer container = Arc.container();
+    if (connection == null || container == null) {
+      return connection;
+    }
+    return StatementCapture.connection(connection, container.instance(SlowQueryLog.class).get());
+  }
+
+  @Override
+  public boolean acceptsURL(String url) throws SQLException {
+    return delegate.acceptsURL(url);
+  }
+
+  @Override
+  public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+    return delegate.getPropertyInfo(url, info);
+  }
+
+  @Override
+  public int getMajorVersion() {
+    return delegate.getMajorVersion();
+  }
+
+  @Override
+  public int getMinorVersion() {
+    return delegate.getMinorVersion();
+  }
+
+  @Override
+  public boolean jdbcCompliant() {
+    return delegate.jdbcCompliant();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return delegate.getParentLogger();
+  }
+}
@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.sql;
+
+/** A statement execution written to the log as JSON, because it was slow or sampled. */
+public class QueryExecution {
+
+  public String fingerprint;
+
+  public double durationMs;
+
+  // rows read or changed; null when the driver does not tell
+  public Long rows;
+
+  // method and path template of the REST endpoint that ran the statement; null outside requests
+  public String endpoint;
+
+  // true when logged because it was slow, false when only sampled
+  public boolean slow;
+}
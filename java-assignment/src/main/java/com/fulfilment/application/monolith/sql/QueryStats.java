@@ -0,0 +1,21 @@
+package com.fulfilment.application.monolith.sql;
+
+/** Executions of one statement fingerprint since the start or the last reset. */
+public class QueryStats {
+
+  public String fingerprint;
+
+  public long executions;
+
+  public double totalMs;
+
+  public double meanMs;
+
+  public double maxMs;
+
+  // rows read or changed, over all executions that reported them
+  public long rows;
+
+  // endpoint of the slowest execution; null when it ran outside a request
+  public String slowestEndpoint;
+}
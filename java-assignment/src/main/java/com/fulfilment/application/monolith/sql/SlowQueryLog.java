@@ -0,0 +1,202 @@
+package com.fulfilment.application.monolith.sql;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.server.core.CurrentRequestManager;
+import org.jboss.resteasy.reactive.server.core.ResteasyReactiveRequestContext;
+import org.jboss.resteasy.reactive.server.mapping.RuntimeResource;
+
+/**
+ * Receives every statement execution timed by {@link CapturingDriver} and keeps, per {@link
+ * SqlFingerprint}, the number of executions, their total and longest duration, the rows and the
+ * endpoint of the slowest one, for {@code GET /admin/slow-queries}.
+ *
+ * <p>Executions that take {@code sql.slow-query.threshold} or longer are logged as JSON at WARN,
+ * and a {@code sql.slow-query.sample-rate} fraction of the others at INFO, instead of every
+ * statement being formatted into the log. At most {@code sql.slow-query.max-fingerprints}
+ * fingerprints are tracked; executions of further ones are only logged and counted in {@code
+ * sql.statements.untracked}.
+ */
+@Singleton
+public class SlowQueryLog {
+
+  private static final Logger LOGGER = Logger.getLogger(SlowQueryLog.class.getName());
+
+  private final ObjectMapper objectMapper;
+  private final long thresholdNanos;
+  private final double sampleRate;
+  private final int maxFingerprints;
+  private final Counter slowStatements;
+  private final Counter untrackedStatements;
+
+  // fingerprints of the statement texts seen, which are mostly the same few hundred strings
+  private final ConcurrentHashMap<String, String> fingerprints = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Stats> stats = new ConcurrentHashMap<>();
+
+  @Inject
+  public SlowQueryLog(
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @ConfigProperty(name = "sql.slow-query.threshold", defaultValue = "200ms") Duration threshold,
+      @ConfigProperty(name = "sql.slow-query.sample-rate", defaultValue = "0") double sampleRate,
+      @ConfigProperty(name = "sql.slow-query.max-fingerprints", defaultValue = "1000")
+          int maxFingerprints) {
+    this.objectMapper = objectMapper;
+    this.thresholdNanos = threshold.toNanos();
+    this.sampleRate = sampleRate;
+    this.maxFingerprints = maxFingerprints;
+    this.slowStatements =
+        Counter.builder("sql.statements.slow")
+            .description("Statement executions that took sql.slow-query.threshold or longer")
+            .register(meterRegistry);
+    this.untrackedStatements =
+        Counter.builder("sql.statements.untracked")
+            .description("Statement executions of fingerprints beyond sql.slow-query.max-fingerprints")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Records an execution; called on the thread that ran it.
+   *
+   * @param nanos time spent in the driver, executing and fetching the rows
+   * @param rows rows read or changed, or -1 when unknown
+   */
+  public void record(String sql, long nanos, long rows) {
+    String fingerprint = fingerprint(sql);
+    boolean slow = nanos >= thresholdNanos;
+    boolean sampled =
+        !slow && sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    // the endpoint is only looked up for the executions that report it
+    String endpoint = slow || sampled ? currentEndpoint() : null;
+
+    Stats fingerprintStats = stats.get(fingerprint);
+    if (fingerprintStats == null && stats.size() < maxFingerprints) {
+      fingerprintStats = stats.computeIfAbsent(fingerprint, Stats::new);
+    }
+    if (fingerprintStats == null) {
+      untrackedStatements.increment();
+    } else if (fingerprintStats.add(nanos, rows)) {
+      fingerprintStats.slowestEndpoint = slow || sampled ? endpoint : currentEndpoint();
+    }
+
+    if (slow) {
+      slowStatements.increment();
+      LOGGER.warn(toJson(fingerprint, nanos, rows, endpoint, true));
+    } else if (sampled) {
+      LOGGER.info(toJson(fingerprint, nanos, rows, endpoint, false));
+    }
+  }
+
+  /** The {@code limit} fingerprints with the slowest executions, slowest first. */
+  public List<QueryStats> slowest(int limit) {
+    return stats.values().stream()
+        .map(Stats::toQueryStats)
+        .sorted(Comparator.comparingDouble((QueryStats s) -> s.maxMs).reversed())
+        .limit(limit)
+        .toList();
+  }
+
+  /** Forgets the executions recorded so far. */
+  public void reset() {
+    stats.clear();
+  }
+
+  private String fingerprint(String sql) {
+    String fingerprint = fingerprints.get(sql);
+    if (fingerprint == null) {
+      fingerprint = SqlFingerprint.of(sql);
+      // statements with inlined values can each be new; those are not kept
+      if (fingerprints.size() < maxFingerprints * 10) {
+        fingerprints.put(sql, fingerprint);
+      }
+    }
+    return fingerprint;
+  }
+
+  private String toJson(String fingerprint, long nanos, long rows, String endpoint, boolean slow) {
+    QueryExecution execution = new QueryExecution();
+    execution.fingerprint = fingerprint;
+    execution.durationMs = millis(nanos);
+    execution.rows = rows < 0 ? null : rows;
+    execution.endpoint = endpoint;
+    execution.slow = slow;
+    try {
+      return objectMapper.writeValueAsString(execution);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to write a query execution as JSON", e);
+    }
+  }
+
+  /** Method and path template of the REST endpoint being served on this thread, or null. */
+  static String currentEndpoint() {
+    ArcContainer container = Arc.container();
+    if (container == null || !container.requestContext().isActive()) {
+      return null;
+    }
+    ResteasyReactiveRequestContext request = CurrentRequestManager.get();
+    RuntimeResource target = request != null ? request.getTarget() : null;
+    if (target == null) {
+      return null;
+    }
+    String classPath = target.getClassPath() != null ? target.getClassPath().template : "";
+    // "/" for a method without a path of its own
+    String path = target.getPath().template.equals("/") ? "" : target.getPath().template;
+    return target.getHttpMethod() + " " + classPath + path;
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+
+  private static final class Stats {
+
+    private final String fingerprint;
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong(-1);
+    // set after maxNanos, so under concurrent executions it may briefly be that of the one before
+    private volatile String slowestEndpoint;
+
+    Stats(String fingerprint) {
+      this.fingerprint = fingerprint;
+    }
+
+    /** Adds the execution; returns whether it is the slowest so far. */
+    boolean add(long nanos, long rowCount) {
+      executions.increment();
+      totalNanos.add(nanos);
+      if (rowCount > 0) {
+        rows.add(rowCount);
+      }
+      return maxNanos.getAndAccumulate(nanos, Math::max) < nanos;
+    }
+
+    QueryStats toQueryStats() {
+      QueryStats queryStats = new QueryStats();
+      queryStats.fingerprint = fingerprint;
+      queryStats.executions = executions.sum();
+      queryStats.totalMs = millis(totalNanos.sum());
+      queryStats.meanMs = queryStats.executions > 0 ? queryStats.totalMs / queryStats.executions : 0;
+      queryStats.maxMs = millis(Math.max(maxNanos.get(), 0));
+      queryStats.rows = rows.sum();
+      queryStats.slowestEndpoint = slowestEndpoint;
+      return queryStats;
+    }
+  }
+}
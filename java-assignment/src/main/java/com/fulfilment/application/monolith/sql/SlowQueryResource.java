@@ -0,0 +1,36 @@
+package com.fulfilment.application.monolith.sql;
+
+import com.fulfilment.application.monolith.rest.Pagination;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import java.util.List;
+
+/**
+ * Management endpoint of the {@link SlowQueryLog}: the statement fingerprints with the slowest
+ * executions since the start or the last reset.
+ */
+@Path("admin/slow-queries")
+@ApplicationScoped
+@Produces("application/json")
+public class SlowQueryResource {
+
+  static final String DEFAULT_LIMIT = "20";
+
+  @Inject SlowQueryLog slowQueryLog;
+
+  @GET
+  public List<QueryStats> slowest(@QueryParam("limit") @DefaultValue(DEFAULT_LIMIT) int limit) {
+    return slowQueryLog.slowest(Pagination.checkLimit(limit));
+  }
+
+  @DELETE
+  public void reset() {
+    slowQueryLog.reset();
+  }
+}
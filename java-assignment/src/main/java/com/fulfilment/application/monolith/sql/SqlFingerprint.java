@@ -0,0 +1,72 @@
+package com.fulfilment.application.monolith.sql;
+
+import java.util.regex.Pattern;
+
+/**
+ * The fingerprint of a SQL statement: its text with string and number literals replaced by {@code
+ * ?}, {@code in} lists of parameters collapsed to one and whitespace normalised, so that executions
+ * of the same statement with other values or list lengths are counted together.
+ */
+public final class SqlFingerprint {
+
+  private static final Pattern IN_LIST =
+      Pattern.compile("\\b(in) ?\\( ?\\?(?: ?, ?\\?)* ?\\)", Pattern.CASE_INSENSITIVE);
+
+  private SqlFingerprint() {}
+
+  public static String of(String sql) {
+    StringBuilder fingerprint = new StringBuilder(sql.length());
+    int i = 0;
+    while (i < sql.length()) {
+      char c = sql.charAt(i);
+      if (Character.isWhitespace(c)) {
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+          i++;
+        }
+        if (fingerprint.length() > 0 && i < sql.length()) {
+          fingerprint.append(' ');
+        }
+      } else if (c == '\'') {
+        // '' inside a literal is a quote
+        i++;
+        while (i < sql.length()) {
+          if (sql.charAt(i) == '\'') {
+            if (i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+              i += 2;
+              continue;
+            }
+            break;
+          }
+          i++;
+        }
+        i++;
+        fingerprint.append('?');
+      } else if (Character.isDigit(c) && !endsWithIdentifier(fingerprint)) {
+        while (i < sql.length() && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+          i++;
+        }
+        fingerprint.append('?');
+      } else if (Character.isLetter(c) || c == '_' || c == '"') {
+        // identifiers and keywords, whose digits (as in p1_0) are kept
+        int start = i;
+        i++;
+        while (i < sql.length() && isIdentifierPart(sql.charAt(i))) {
+          i++;
+        }
+        fingerprint.append(sql, start, i);
+      } else {
+        fingerprint.append(c);
+        i++;
+      }
+    }
+    return IN_LIST.matcher(fingerprint).replaceAll("$1 (?, ...)");
+  }
+
+  private static boolean endsWithIdentifier(StringBuilder fingerprint) {
+    return fingerprint.length() > 0 && isIdentifierPart(fingerprint.charAt(fingerprint.length() - 1));
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '"';
+  }
+}
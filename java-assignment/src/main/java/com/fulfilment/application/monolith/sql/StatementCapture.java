@@ -0,0 +1,177 @@
+package com.fulfilment.application.monolith.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * Wraps a JDBC connection, and the statements and result sets it creates, in proxies that time
+ * each statement execution and report it to the {@link SlowQueryLog}.
+ *
+ * <p>The time of an execution is the time spent in the driver: executing, plus fetching the rows of
+ * a query in {@link ResultSet#next()}, so rows streamed with a fetch size count but the work of the
+ * caller between rows does not. A query is reported once its rows are read or its result set is
+ * closed; updates and batches when they return.
+ */
+final class StatementCapture {
+
+  private StatementCapture() {}
+
+  static Connection connection(Connection connection, SlowQueryLog log) {
+    return proxy(
+        Connection.class,
+        (proxy, method, args) -> {
+          Object result = invoke(proxy, connection, method, args);
+          return switch (method.getName()) {
+            case "prepareStatement", "prepareCall" ->
+                proxy(
+                    method.getReturnType(),
+                    new StatementHandler((Statement) result, (String) args[0], log));
+            case "createStatement" ->
+                proxy(Statement.class, new StatementHandler((Statement) result, null, log));
+            default -> result;
+          };
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    return (T)
+        Proxy.newProxyInstance(
+            StatementCapture.class.getClassLoader(), new Class<?>[] {type}, handler);
+  }
+
+  /** Calls the method on the target, except equals and hashCode, which are the proxy's own. */
+  private static Object invoke(Object proxy, Object target, Method method, Object[] args)
+      throws Throwable {
+    if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+      return proxy == args[0];
+    }
+    if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+      return System.identityHashCode(proxy);
+    }
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static final class StatementHandler implements InvocationHandler {
+
+    private final Statement statement;
+    // the SQL of a prepared statement; null for a plain one, which gets it with each execution
+    private final String preparedSql;
+    private final SlowQueryLog log;
+    // first statement added to the batch of a plain statement
+    private String batchSql;
+
+    StatementHandler(Statement statement, String preparedSql, SlowQueryLog log) {
+      this.statement = statement;
+      this.preparedSql = preparedSql;
+      this.log = log;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if (!name.startsWith("execute")) {
+        if (name.equals("addBatch") && args != null && batchSql == null) {
+          batchSql = (String) args[0];
+        }
+        return StatementCapture.invoke(proxy, statement, method, args);
+      }
+
+      String sql;
+      if (args != null && args.length > 0 && args[0] instanceof String text) {
+        sql = text;
+      } else if (batchSql != null && name.endsWith("Batch")) {
+        sql = batchSql;
+        batchSql = null;
+      } else {
+        sql = preparedSql;
+      }
+      long start = System.nanoTime();
+      Object result = StatementCapture.invoke(proxy, statement, method, args);
+      long nanos = System.nanoTime() - start;
+      if (sql == null) {
+        return result;
+      }
+
+      switch (name) {
+        case "executeQuery" -> {
+          return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, sql, nanos, log));
+        }
+        case "executeUpdate" -> log.record(sql, nanos, (Integer) result);
+        case "executeLargeUpdate" -> log.record(sql, nanos, (Long) result);
+        case "executeBatch" ->
+            log.record(sql, nanos, batchRows(Arrays.stream((int[]) result).asLongStream()));
+        case "executeLargeBatch" ->
+            log.record(sql, nanos, batchRows(Arrays.stream((long[]) result)));
+        // execute() may return a result set, whose rows are not counted
+        default -> log.record(sql, nanos, (Boolean) result ? -1 : statement.getUpdateCount());
+      }
+      return result;
+    }
+
+    private static long batchRows(LongStream counts) {
+      // SUCCESS_NO_INFO, as for the inserts the driver rewrites into one multi-row insert, is one row
+      return counts.map(count -> count >= 0 ? count : 1).sum();
+    }
+  }
+
+  private static final class ResultSetHandler implements InvocationHandler {
+
+    private final ResultSet resultSet;
+    private final String sql;
+    private final SlowQueryLog log;
+    private long nanos;
+    private long rows;
+    private boolean recorded;
+
+    ResultSetHandler(ResultSet resultSet, String sql, long nanos, SlowQueryLog log) {
+      this.resultSet = resultSet;
+      this.sql = sql;
+      this.nanos = nanos;
+      this.log = log;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "next" -> {
+          long start = System.nanoTime();
+          boolean next = resultSet.next();
+          nanos += System.nanoTime() - start;
+          if (next) {
+            rows++;
+          } else {
+            record();
+          }
+          return next;
+        }
+        case "close" -> {
+          resultSet.close();
+          record();
+          return null;
+        }
+        default -> {
+          return StatementCapture.invoke(proxy, resultSet, method, args);
+        }
+      }
+    }
+
+    private void record() {
+      if (!recorded) {
+        recorded = true;
+        log.record(sql, nanos, rows);
+      }
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.stock;
+
+/** A change to the stock of one product or store, as sent by a client or a point-of-sale feed. */
+public class StockAdjustment {
+
+  // taken from the path on the single adjustment endpoints
+  public Long id;
+
+  // added to the stock; negative to take stock out
+  public Integer delta;
+
+  public StockAdjustment() {}
+
+  public StockAdjustment(Long id, Integer delta) {
+    this.id = id;
+    this.delta = delta;
+  }
+}
@@ -0,0 +1,48 @@
+package com.fulfilment.application.monolith.stock;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/** Outcome of the adjustments of one product or store. */
+public class StockAdjustmentResult {
+
+  public Long id;
+
+  // sum of the deltas of the id in the request
+  public long delta;
+
+  // HTTP status the adjustment would have had as a single request
+  public int status;
+
+  // the stock after the adjustment when it was applied
+  public Integer stock;
+
+  // version of the row after the adjustment, the source of its ETag
+  @JsonIgnore public Long version;
+
+  // why the adjustment was rejected
+  public String error;
+
+  public static StockAdjustmentResult applied(Long id, long delta, int stock, long version) {
+    var result = new StockAdjustmentResult();
+    result.id = id;
+    result.delta = delta;
+    result.status = 200;
+    result.stock = stock;
+    result.version = version;
+    return result;
+  }
+
+  public static StockAdjustmentResult rejected(Long id, long delta, int status, String error) {
+    var result = new StockAdjustmentResult();
+    result.id = id;
+    result.delta = delta;
+    result.status = status;
+    result.error = error;
+    return result;
+  }
+
+  @JsonIgnore
+  public boolean isApplied() {
+    return error == null;
+  }
+}
@@ -0,0 +1,205 @@
+package com.fulfilment.application.monolith.stock;
+
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.hibernate.SessionFactory;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Applies stock deltas to the rows of one table in a single statement, without reading the rows
+ * first: {@code set stock = stock + delta where stock + delta >= 0}. A delta that would take the
+ * stock below zero (or beyond the range of an int) leaves its row unchanged and is reported as a
+ * 409, an unknown id as a 404; the other deltas of the batch are applied regardless.
+ *
+ * <p>The deltas of a batch are summed per id first, so a feed may send several lines for the same
+ * product. The rows are locked in id order before they are updated, so two batches touching
+ * overlapping rows wait for each other instead of deadlocking. Every adjusted row gets a new
+ * version, which fails a concurrent PUT of it with a 409 and changes its ETag.
+ *
+ * <p>The statement returns the adjusted rows, and each is handed to the caller as a detached entity
+ * built from the returned columns, e.g. for the events of the change, without reading it again.
+ *
+ * <p>The statement bypasses the persistence context: entities of the table already loaded in the
+ * transaction are not refreshed. The second-level cache entries of the adjusted rows and the query
+ * cache region of the table are evicted right away and again after the transaction completes, so
+ * neither a concurrent reader nor a rollback leaves the old stock cached.
+ */
+public final class StockAdjustments<T> {
+
+  public static final int MAX_BATCH_SIZE = 1000;
+
+  private final Class<T> entityClass;
+  private final String table;
+  private final String stockColumn;
+  private final String queryCacheRegion;
+  private final List<String> entityColumns;
+  private final Function<Object[], T> toEntity;
+
+  /**
+   * @param entityColumns the columns an adjusted row returns besides its id, stock and version
+   * @param toEntity builds the entity from a returned row: its id, stock, version and then the
+   *     {@code entityColumns}, in that order
+   */
+  public StockAdjustments(
+      Class<T> entityClass,
+      String table,
+      String stockColumn,
+      String queryCacheRegion,
+      List<String> entityColumns,
+      Function<Object[], T> toEntity) {
+    this.entityClass = entityClass;
+    this.table = table;
+    this.stockColumn = stockColumn;
+    this.queryCacheRegion = queryCacheRegion;
+    this.entityColumns = entityColumns;
+    this.toEntity = toEntity;
+  }
+
+  /**
+   * Sums the deltas of a batch per id, in order of first appearance.
+   *
+   * @throws WebApplicationException 400 for an empty or too large batch, or one with an adjustment
+   *     that lacks its id or delta
+   */
+  public static Map<Long, Long> net(List<StockAdjustment> adjustments) {
+    if (adjustments == null || adjustments.isEmpty() || adjustments.size() > MAX_BATCH_SIZE) {
+      throw new WebApplicationException(
+          "A stock adjustment batch must contain between 1 and " + MAX_BATCH_SIZE
+              + " adjustments.",
+          400);
+    }
+    Map<Long, Long> deltas = new LinkedHashMap<>();
+    for (StockAdjustment adjustment : adjustments) {
+      if (adjustment == null || adjustment.id == null || adjustment.delta == null) {
+        throw new WebApplicationException(
+            "Every stock adjustment of a batch must have an id and a delta.", 400);
+      }
+      deltas.merge(adjustment.id, adjustment.delta.longValue(), Long::sum);
+    }
+    return deltas;
+  }
+
+  /**
+   * Applies the deltas, by id, within the caller's transaction.
+   *
+   * @param onAdjusted receives every adjusted row as it now is
+   * @return the result of every id, in the order of {@code deltas}
+   */
+  public List<StockAdjustmentResult> apply(
+      EntityManager entityManager, Map<Long, Long> deltas, Consumer<? super T> onAdjusted) {
+    Map<Long, StockAdjustmentResult> adjusted = update(entityManager, deltas, onAdjusted);
+    if (!adjusted.isEmpty()) {
+      evictCached(entityManager, adjusted.keySet());
+    }
+
+    Map<Long, Integer> stockOfRejected =
+        adjusted.size() < deltas.size()
+            ? currentStock(entityManager, without(deltas, adjusted))
+            : Map.of();
+
+    List<StockAdjustmentResult> results = new ArrayList<>(deltas.size());
+    deltas.forEach(
+        (id, delta) -> {
+          StockAdjustmentResult result = adjusted.get(id);
+          results.add(result != null ? result : rejected(id, delta, stockOfRejected.get(id)));
+        });
+    return results;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<Long, StockAdjustmentResult> update(
+      EntityManager entityManager, Map<Long, Long> deltas, Consumer<? super T> onAdjusted) {
+    // the materialized CTE takes the row locks in id order before the update touches any row; the
+    // sums are bigint so that a delta beyond the range of the column is rejected, not an error
+    List<Object[]> rows =
+        entityManager
+            .createNativeQuery(
+                "with deltas as (select * from unnest(cast(?1 as bigint[]), cast(?2 as bigint[]))"
+                    + " as d(id, delta)),"
+                    + " locked as materialized (select t.id from " + table + " t"
+                    + " where t.id in (select id from deltas) order by t.id for update)"
+                    + " update " + table + " t set " + stockColumn + " = t." + stockColumn
+                    + " + d.delta, version = t.version + 1 from deltas d"
+                    + " where t.id = d.id and t.id in (select id from locked)"
+                    + " and t." + stockColumn + " + d.delta between 0 and " + Integer.MAX_VALUE
+                    + " returning t.id, t." + stockColumn + ", t.version"
+                    + entityColumns.stream().map(column -> ", t." + column).collect(Collectors.joining()))
+            .unwrap(NativeQuery.class)
+            // flushes pending changes of the entity before the statement, and only those
+            .addSynchronizedEntityClass(entityClass)
+            .setParameter(1, deltas.keySet().toArray(Long[]::new))
+            .setParameter(2, deltas.values().toArray(Long[]::new))
+            .getResultList();
+
+    Map<Long, StockAdjustmentResult> adjusted = new HashMap<>();
+    for (Object[] row : rows) {
+      Long id = ((Number) row[0]).longValue();
+      adjusted.put(
+          id,
+          StockAdjustmentResult.applied(
+              id, deltas.get(id), ((Number) row[1]).intValue(), ((Number) row[2]).longValue()));
+      onAdjusted.accept(toEntity.apply(row));
+    }
+    return adjusted;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<Long, Integer> currentStock(EntityManager entityManager, List<Long> ids) {
+    List<Object[]> rows =
+        entityManager
+            .createNativeQuery(
+                "select id, " + stockColumn + " from " + table
+                    + " where id = any(cast(?1 as bigint[]))")
+            .setParameter(1, ids.toArray(Long[]::new))
+            .getResultList();
+    Map<Long, Integer> stock = new HashMap<>();
+    for (Object[] row : rows) {
+      stock.put(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+    }
+    return stock;
+  }
+
+  private StockAdjustmentResult rejected(Long id, long delta, Integer stock) {
+    String name = entityClass.getSimpleName();
+    if (stock == null) {
+      return StockAdjustmentResult.rejected(
+          id, delta, 404, name + " with id of " + id + " does not exist.");
+    }
+    return StockAdjustmentResult.rejected(
+        id,
+        delta,
+        409,
+        "Stock of " + name + " " + id + " is " + stock + " and cannot be adjusted by " + delta
+            + ".");
+  }
+
+  private void evictCached(EntityManager entityManager, Iterable<Long> ids) {
+    SessionFactory sessionFactory =
+        entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+    Runnable evict =
+        () -> {
+          ids.forEach(id -> sessionFactory.getCache().evictEntityData(entityClass, id));
+          sessionFactory.getCache().evictQueryRegion(queryCacheRegion);
+        };
+    evict.run();
+    // again once the transaction is over, as Hibernate does after a bulk update: a concurrent
+    // reader may have cached the old row before the commit
+    entityManager
+        .unwrap(EventSource.class)
+        .getActionQueue()
+        .registerProcess((success, session) -> evict.run());
+  }
+
+  private static List<Long> without(Map<Long, Long> deltas, Map<Long, ?> adjusted) {
+    return deltas.keySet().stream().filter(id -> !adjusted.containsKey(id)).toList();
+  }
+}
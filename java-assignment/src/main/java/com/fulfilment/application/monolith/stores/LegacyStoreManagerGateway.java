@@ -1,48 +1,50 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.enterprise.event.Observes;
-import jakarta.enterprise.event.TransactionPhase;
-import java.nio.file.Files;
-import java.nio.file.Path;
-
+import jakarta.inject.Inject;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Hands store events over to the legacy store manager by appending them, as one JSON document per
+ * record, to the {@link StoreEventJournal} it tails. Called by {@link StoreOutboxDispatcher} off
+ * the request thread; a failure is rethrown so the batch is retried.
+ *
+ * <p>A batch is forced to disk before {@link #deliver} returns, once for all its events, so the
+ * dispatcher only deletes outbox entries whose events survive a crash of the machine.
+ */
 @ApplicationScoped
 public class LegacyStoreManagerGateway {
 
-  public void onStoreEvent(
-      @Observes(during = TransactionPhase.AFTER_SUCCESS) StoreEvent event) {
-    writeToFile(event.store);
-  }
-
-  private void writeToFile(Store store) {
-    try {
-      // Step 1: Create a temporary file
-      Path tempFile;
-
-      tempFile = Files.createTempFile(store.name, ".txt");
-
-      System.out.println("Temporary file created at: " + tempFile.toString());
+  private final StoreEventJournal journal;
+  private final ObjectMapper objectMapper;
 
-      // Step 2: Write data to the temporary file
-      String content =
-          "Store created. [ name ="
-              + store.name
-              + " ] [ items on stock ="
-              + store.quantityProductsInStock
-              + "]";
-      Files.write(tempFile, content.getBytes());
-      System.out.println("Data written to temporary file.");
-
-      // Step 3: Optionally, read the data back to verify
-      String readContent = new String(Files.readAllBytes(tempFile));
-      System.out.println("Data read from temporary file: " + readContent);
+  @Inject
+  public LegacyStoreManagerGateway(StoreEventJournal journal, ObjectMapper objectMapper) {
+    this.journal = journal;
+    this.objectMapper = objectMapper;
+  }
 
-      // Step 4: Delete the temporary file when done
-      Files.delete(tempFile);
-      System.out.println("Temporary file deleted.");
+  public void deliver(List<StoreEvent> events) {
+    for (StoreEvent event : events) {
+      journal.append(toRecord(event));
+    }
+    journal.flush();
+  }
 
-    } catch (Exception e) {
-      e.printStackTrace();
+  private byte[] toRecord(StoreEvent event) {
+    ObjectNode record = objectMapper.createObjectNode();
+    record.put("type", event.type.name());
+    record.put("storeId", event.store.id);
+    record.put("name", event.store.name);
+    record.put("quantityProductsInStock", event.store.quantityProductsInStock);
+    try {
+      return objectMapper.writeValueAsBytes(record);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException("Failed to serialise store event for " + event.store.name, e);
     }
   }
 }
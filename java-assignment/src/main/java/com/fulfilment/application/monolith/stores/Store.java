@@ -1,22 +1,135 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fulfilment.application.monolith.rest.Pagination;
+import com.fulfilment.application.monolith.stock.StockAdjustmentResult;
+import com.fulfilment.application.monolith.stock.StockAdjustments;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import io.quarkus.panache.common.Sort;
 import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Version;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.AvailableHints;
 
 @Entity
 @Cacheable
 public class Store extends PanacheEntity {
 
+  private static final int STREAM_FETCH_SIZE = 500;
+
+  // second-level cache region of the cacheable store queries, bounded in application.properties
+  static final String QUERY_CACHE_REGION = "store-queries";
+
+  private static final StockAdjustments<Store> STOCK_ADJUSTMENTS =
+      new StockAdjustments<>(
+          Store.class,
+          "store",
+          "quantityProductsInStock",
+          QUERY_CACHE_REGION,
+          List.of("name"),
+          row -> {
+            Store store = new Store((String) row[3]);
+            store.id = ((Number) row[0]).longValue();
+            store.quantityProductsInStock = ((Number) row[1]).intValue();
+            store.version = ((Number) row[2]).longValue();
+            return store;
+          });
+
   @Column(length = 40, unique = true)
   public String name;
 
   public int quantityProductsInStock;
 
+  // optimistic lock, and the source of the store's ETag rather than part of its body
+  @Version @JsonIgnore public long version;
+
   public Store() {}
 
   public Store(String name) {
     this.name = name;
   }
+
+  /**
+   * Returns up to {@code limit} stores with an id greater than {@code afterId}, ordered by id.
+   * Pages are cached until the next change to the store table.
+   */
+  public static List<Store> findPage(Long afterId, int limit) {
+    return Store.<Store>find("id > ?1", Sort.by("id"), Pagination.after(afterId))
+        .withHint(AvailableHints.HINT_CACHEABLE, true)
+        .withHint(AvailableHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
+        .page(0, limit)
+        .list();
+  }
+
+  /**
+   * Returns the version of each store on the page {@link #findPage} returns, by id in page order,
+   * without loading the stores; cached like the page.
+   */
+  public static Map<Long, Long> findPageVersions(Long afterId, int limit) {
+    Map<Long, Long> versions = new LinkedHashMap<>();
+    getEntityManager()
+        .createQuery(
+            "select s.id, s.version from Store s where s.id > ?1 order by s.id", Object[].class)
+        .setParameter(1, Pagination.after(afterId))
+        .setMaxResults(limit)
+        .setHint(AvailableHints.HINT_CACHEABLE, true)
+        .setHint(AvailableHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
+        .getResultList()
+        .forEach(row -> versions.put((Long) row[0], (Long) row[1]));
+    return versions;
+  }
+
+  /** Streams all stores ordered by id; must be consumed and closed within a transaction. */
+  public static Stream<Store> streamAllById() {
+    return Store.<Store>findAll(Sort.by("id"))
+        .withHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+        .withHint(AvailableHints.HINT_READ_ONLY, true)
+        .withHint(AvailableHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+        .stream()
+        .map(
+            store -> {
+              getEntityManager().detach(store);
+              return store;
+            });
+  }
+
+  /**
+   * Adds the deltas to the stock of the stores, by id, in one statement that refuses to take a
+   * stock below zero; stores loaded earlier in the transaction are not refreshed. Every adjusted
+   * store is handed to {@code onAdjusted}, detached, as the statement returned it.
+   */
+  public static List<StockAdjustmentResult> adjustStock(
+      Map<Long, Long> deltas, Consumer<Store> onAdjusted) {
+    return STOCK_ADJUSTMENTS.apply(getEntityManager(), deltas, onAdjusted);
+  }
+
+  /** Returns those of the names that are taken by a store. */
+  public static List<String> findExistingNames(Collection<String> names) {
+    return getEntityManager()
+        .createQuery("select s.name from Store s where s.name in ?1", String.class)
+        .setParameter(1, names)
+        .getResultList();
+  }
+
+  /**
+   * Inserts the stores in JDBC batches and empties the persistence context; the new stores are not
+   * put in the second-level cache, so a bulk import does not push out the cached ones.
+   */
+  public static void persistAll(List<Store> stores) {
+    EntityManager entityManager = getEntityManager();
+    entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+    stores.forEach(entityManager::persist);
+    entityManager.flush();
+    entityManager.clear();
+  }
 }
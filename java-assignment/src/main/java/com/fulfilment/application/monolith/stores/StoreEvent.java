@@ -4,7 +4,8 @@ public class StoreEvent {
 
   public enum Type {
     CREATED,
-    UPDATED
+    UPDATED,
+    DELETED
   }
 
   public final Store store;
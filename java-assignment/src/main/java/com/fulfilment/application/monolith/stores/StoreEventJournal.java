@@ -0,0 +1,113 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fulfilment.application.monolith.stores.journal.Journal;
+import com.fulfilment.application.monolith.stores.journal.JournalReader;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * The journal the legacy store manager tails for store events. Records are forced to disk every
+ * {@code store.journal.flush-every} appends, and by a timer of its own once {@code
+ * store.journal.flush-interval} has passed, which can be shorter than the one second the Quarkus
+ * scheduler allows.
+ */
+@ApplicationScoped
+public class StoreEventJournal {
+
+  private static final Logger LOGGER = Logger.getLogger(StoreEventJournal.class.getName());
+
+  private final Path directory;
+  private final int segmentSize;
+  private final int flushEvery;
+  private final Duration flushInterval;
+
+  private Journal journal;
+  private ScheduledExecutorService flusher;
+
+  @Inject
+  public StoreEventJournal(
+      @ConfigProperty(name = "store.journal.directory", defaultValue = "data/store-journal")
+          String directory,
+      @ConfigProperty(name = "store.journal.segment-size", defaultValue = "64M")
+          MemorySize segmentSize,
+      @ConfigProperty(name = "store.journal.flush-every", defaultValue = "64") int flushEvery,
+      @ConfigProperty(name = "store.journal.flush-interval", defaultValue = "0.2s")
+          Duration flushInterval) {
+    this.directory = Path.of(directory);
+    this.segmentSize = Math.toIntExact(segmentSize.asLongValue());
+    this.flushEvery = flushEvery;
+    this.flushInterval = flushInterval;
+  }
+
+  @PostConstruct
+  void open() {
+    try {
+      journal = Journal.open(directory, segmentSize, flushEvery, flushInterval);
+      LOGGER.infof("Store event journal opened at %s, next offset %d", directory, journal.endOffset());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to open store event journal " + directory, e);
+    }
+    flusher =
+        Executors.newSingleThreadScheduledExecutor(
+            task -> {
+              Thread thread = new Thread(task, "store-journal-flush");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long interval = flushInterval.toNanos();
+    flusher.scheduleWithFixedDelay(this::flushIfDue, interval, interval, TimeUnit.NANOSECONDS);
+  }
+
+  @PreDestroy
+  void close() {
+    flusher.shutdownNow();
+    try {
+      flusher.awaitTermination(flushInterval.toMillis() + 1000, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    try {
+      journal.close();
+    } catch (IOException e) {
+      LOGGER.warnf(e, "Failed to close store event journal %s", directory);
+    }
+  }
+
+  public long append(byte[] record) {
+    try {
+      return journal.append(record);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to append to store event journal " + directory, e);
+    }
+  }
+
+  /** Forces the records appended so far to disk. */
+  public void flush() {
+    journal.flush();
+  }
+
+  private void flushIfDue() {
+    try {
+      journal.flushIfDue();
+    } catch (RuntimeException e) {
+      // a failed task would not be run again
+      LOGGER.warnf(e, "Failed to flush store event journal %s", directory);
+    }
+  }
+
+  public JournalReader reader() {
+    return journal.reader();
+  }
+}
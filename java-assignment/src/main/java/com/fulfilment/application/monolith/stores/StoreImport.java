@@ -0,0 +1,79 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.bulk.BulkImport;
+import com.fulfilment.application.monolith.bulk.CsvRow;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Imports stores in bulk. Every imported store is announced with a {@link StoreEvent}, like one
+ * created through {@code POST /store}, so it is recorded in the outbox for the legacy store manager
+ * in the transaction of its chunk.
+ */
+@Singleton
+public class StoreImport extends BulkImport<Store> {
+
+  static final List<String> COLUMNS = List.of("id", "name", "quantityProductsInStock");
+
+  private static final int MAX_NAME_LENGTH = 40;
+
+  private final Event<StoreEvent> storeEvent;
+
+  @Inject
+  public StoreImport(ObjectMapper objectMapper, Event<StoreEvent> storeEvent) {
+    super(objectMapper, Store.class, "Store", COLUMNS);
+    this.storeEvent = storeEvent;
+  }
+
+  @Override
+  protected Store fromCsv(CsvRow row) {
+    Store store = new Store(row.text("name"));
+    store.id = row.longValue("id");
+    Integer quantity = row.intValue("quantityProductsInStock");
+    store.quantityProductsInStock = quantity != null ? quantity : 0;
+    return store;
+  }
+
+  @Override
+  protected String check(Store store) {
+    if (store.id != null) {
+      return "Id was invalidly set on the row.";
+    }
+    if (store.name == null || store.name.isBlank()) {
+      return "Store Name was not set on the row.";
+    }
+    if (store.name.length() > MAX_NAME_LENGTH) {
+      return "Store Name is longer than " + MAX_NAME_LENGTH + " characters.";
+    }
+    if (store.quantityProductsInStock < 0) {
+      return "Store quantityProductsInStock must not be negative.";
+    }
+    return null;
+  }
+
+  @Override
+  protected String name(Store store) {
+    return store.name;
+  }
+
+  @Override
+  protected Collection<String> findExistingNames(Collection<String> names) {
+    return Store.findExistingNames(names);
+  }
+
+  @Override
+  protected void insert(List<Store> stores) {
+    Store.persistAll(stores);
+    stores.forEach(store -> storeEvent.fire(new StoreEvent(store, StoreEvent.Type.CREATED)));
+  }
+
+  @Override
+  protected void reset(Store store) {
+    store.id = null;
+    store.version = 0;
+  }
+}
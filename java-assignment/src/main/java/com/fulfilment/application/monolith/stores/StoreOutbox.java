@@ -0,0 +1,29 @@
+package com.fulfilment.application.monolith.stores;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+
+/**
+ * Records every {@link StoreEvent} in the outbox table as part of the transaction that fired it, so
+ * the event is stored if and only if the store change commits. The legacy store manager is only told
+ * about created and updated stores, so deletions are not recorded.
+ */
+@ApplicationScoped
+public class StoreOutbox {
+
+  private final StoreOutboxRepository outboxRepository;
+
+  @Inject
+  public StoreOutbox(StoreOutboxRepository outboxRepository) {
+    this.outboxRepository = outboxRepository;
+  }
+
+  public void onStoreEvent(@Observes StoreEvent event) {
+    if (event.type == StoreEvent.Type.DELETED) {
+      return;
+    }
+    outboxRepository.persist(StoreOutboxEntry.from(event, LocalDateTime.now()));
+  }
+}
@@ -0,0 +1,111 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Drains the store outbox in the background and hands the events to the legacy store manager in
+ * batches. A failed batch is retried with exponential backoff until {@code
+ * store.outbox.max-attempts} is reached; entries that exhaust their attempts stay in the table for
+ * inspection.
+ *
+ * <p>{@code store.outbox.dispatch.lag} records how long each delivered event waited in the outbox,
+ * and {@code store.outbox.dispatch.failures} counts the batches that failed.
+ */
+@ApplicationScoped
+public class StoreOutboxDispatcher {
+
+  private static final Logger LOGGER = Logger.getLogger(StoreOutboxDispatcher.class.getName());
+
+  private static final int MAX_ERROR_LENGTH = 500;
+
+  private final StoreOutboxRepository outboxRepository;
+  private final LegacyStoreManagerGateway legacyStoreManagerGateway;
+  private final int batchSize;
+  private final int maxAttempts;
+  private final Duration backoffBase;
+  private final Duration backoffMax;
+  private final Timer dispatchLag;
+  private final Counter dispatchFailures;
+
+  @Inject
+  public StoreOutboxDispatcher(
+      StoreOutboxRepository outboxRepository,
+      LegacyStoreManagerGateway legacyStoreManagerGateway,
+      MeterRegistry meterRegistry,
+      @ConfigProperty(name = "store.outbox.batch-size", defaultValue = "100") int batchSize,
+      @ConfigProperty(name = "store.outbox.max-attempts", defaultValue = "10") int maxAttempts,
+      @ConfigProperty(name = "store.outbox.backoff-base", defaultValue = "1s") Duration backoffBase,
+      @ConfigProperty(name = "store.outbox.backoff-max", defaultValue = "5m") Duration backoffMax) {
+    this.outboxRepository = outboxRepository;
+    this.legacyStoreManagerGateway = legacyStoreManagerGateway;
+    this.batchSize = batchSize;
+    this.maxAttempts = maxAttempts;
+    this.backoffBase = backoffBase;
+    this.backoffMax = backoffMax;
+    this.dispatchLag =
+        Timer.builder("store.outbox.dispatch.lag")
+            .description("Time from a store event entering the outbox to its delivery")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    this.dispatchFailures =
+        Counter.builder("store.outbox.dispatch.failures")
+            .description("Outbox batches the legacy store manager failed to accept")
+            .register(meterRegistry);
+  }
+
+  @Scheduled(
+      every = "${store.outbox.dispatch-interval:1s}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  @Transactional
+  public void dispatch() {
+    LocalDateTime now = LocalDateTime.now();
+    List<StoreOutboxEntry> due = outboxRepository.findDue(now, maxAttempts, batchSize);
+    if (due.isEmpty()) {
+      return;
+    }
+
+    try {
+      legacyStoreManagerGateway.deliver(due.stream().map(StoreOutboxEntry::toStoreEvent).toList());
+    } catch (RuntimeException e) {
+      LOGGER.warnf(e, "Delivery of %d store events to the legacy store manager failed", due.size());
+      dispatchFailures.increment();
+      due.forEach(entry -> scheduleRetry(entry, e, now));
+      return;
+    }
+
+    LocalDateTime delivered = LocalDateTime.now();
+    due.forEach(entry -> dispatchLag.record(Duration.between(entry.createdAt, delivered)));
+    outboxRepository.deleteDelivered(due.stream().map(entry -> entry.id).toList());
+    LOGGER.debugf("Delivered %d store events to the legacy store manager", due.size());
+  }
+
+  private void scheduleRetry(StoreOutboxEntry entry, RuntimeException failure, LocalDateTime now) {
+    entry.attempts++;
+    entry.nextAttemptAt = now.plus(backoff(entry.attempts));
+    String message = String.valueOf(failure.getMessage());
+    entry.lastError =
+        message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    if (entry.attempts >= maxAttempts) {
+      LOGGER.errorf(
+          "Giving up on store event outbox id=%s storeId=%s after %d attempts",
+          entry.id, entry.storeId, entry.attempts);
+    }
+  }
+
+  Duration backoff(int attempts) {
+    // base * 2^(attempts - 1), capped; the shift is bounded so it cannot overflow
+    Duration delay = backoffBase.multipliedBy(1L << Math.min(attempts - 1, 20));
+    return delay.compareTo(backoffMax) > 0 ? backoffMax : delay;
+  }
+}
@@ -0,0 +1,63 @@
+package com.fulfilment.application.monolith.stores;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/** A {@link StoreEvent} waiting to be delivered to the legacy store manager. */
+@Entity
+@Table(
+    name = "store_outbox",
+    indexes = @Index(name = "ix_store_outbox_next_attempt", columnList = "nextAttemptAt"))
+public class StoreOutboxEntry {
+
+  @Id @GeneratedValue public Long id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 10, nullable = false)
+  public StoreEvent.Type type;
+
+  public Long storeId;
+
+  @Column(length = 40)
+  public String storeName;
+
+  public int quantityProductsInStock;
+
+  @Column(nullable = false)
+  public LocalDateTime createdAt;
+
+  public int attempts;
+
+  @Column(nullable = false)
+  public LocalDateTime nextAttemptAt;
+
+  @Column(length = 500)
+  public String lastError;
+
+  public StoreOutboxEntry() {}
+
+  public static StoreOutboxEntry from(StoreEvent event, LocalDateTime now) {
+    var entry = new StoreOutboxEntry();
+    entry.type = event.type;
+    entry.storeId = event.store.id;
+    entry.storeName = event.store.name;
+    entry.quantityProductsInStock = event.store.quantityProductsInStock;
+    entry.createdAt = now;
+    entry.nextAttemptAt = now;
+    return entry;
+  }
+
+  public StoreEvent toStoreEvent() {
+    var store = new Store(this.storeName);
+    store.id = this.storeId;
+    store.quantityProductsInStock = this.quantityProductsInStock;
+    return new StoreEvent(store, this.type);
+  }
+}
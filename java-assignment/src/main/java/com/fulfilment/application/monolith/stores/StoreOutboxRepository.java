@@ -0,0 +1,30 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@ApplicationScoped
+@Timed(value = "repository.query", histogram = true)
+public class StoreOutboxRepository implements PanacheRepository<StoreOutboxEntry> {
+
+  // Hibernate's LockOptions.SKIP_LOCKED: rows claimed by another dispatcher are skipped, not awaited
+  private static final int SKIP_LOCKED = -2;
+
+  /** Locks and returns the oldest entries that are due for (re)delivery. */
+  public List<StoreOutboxEntry> findDue(LocalDateTime now, int maxAttempts, int limit) {
+    return find("nextAttemptAt <= ?1 and attempts < ?2", Sort.by("id"), now, maxAttempts)
+        .withLock(LockModeType.PESSIMISTIC_WRITE)
+        .withHint("jakarta.persistence.lock.timeout", SKIP_LOCKED)
+        .page(0, limit)
+        .list();
+  }
+
+  public void deleteDelivered(List<Long> ids) {
+    delete("id in ?1", ids);
+  }
+}
@@ -1,21 +1,38 @@
 package com.fulfilment.application.monolith.stores;
 
-import io.quarkus.panache.common.Sort;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.bulk.ImportResult;
+import com.fulfilment.application.monolith.rest.CsvOutput;
+import com.fulfilment.application.monolith.rest.EntityTags;
+import com.fulfilment.application.monolith.rest.NdjsonOutput;
+import com.fulfilment.application.monolith.rest.Pagination;
+import com.fulfilment.application.monolith.stock.StockAdjustment;
+import com.fulfilment.application.monolith.stock.StockAdjustmentResult;
+import com.fulfilment.application.monolith.stock.StockAdjustments;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.PATCH;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import org.jboss.logging.Logger;
 
 @Path("store")
@@ -28,21 +45,68 @@ public class StoreResource {
 
   @Inject Event<StoreEvent> storeEvent;
 
+  @Inject StoreImport storeImport;
+
+  @Inject ObjectMapper objectMapper;
+
   private static final Logger LOGGER = Logger.getLogger(StoreResource.class.getName());
 
   @GET
-  public List<Store> get() {
-    return Store.listAll(Sort.by("name"));
+  public Response get(
+      @QueryParam("after") Long after,
+      @QueryParam("limit") @DefaultValue(Pagination.DEFAULT_LIMIT) int limit,
+      @Context Request request) {
+    Pagination.checkLimit(limit);
+    // the tag only needs the ids and versions, so a poll of an unchanged page is answered with 304
+    // before any store is loaded or serialised
+    EntityTag tag = EntityTags.ofPage(Store.findPageVersions(after, limit));
+    Response notModified = EntityTags.evaluate(request, tag);
+    if (notModified != null) {
+      return notModified;
+    }
+    return Response.ok(Store.findPage(after, limit)).tag(tag).build();
+  }
+
+  @GET
+  @Produces(NdjsonOutput.MEDIA_TYPE)
+  public StreamingOutput stream() {
+    return NdjsonOutput.of(objectMapper, Store::streamAllById);
+  }
+
+  @GET
+  @Path("export")
+  @Produces(CsvOutput.MEDIA_TYPE)
+  public StreamingOutput exportCsv() {
+    return CsvOutput.of(
+        StoreImport.COLUMNS,
+        Store::streamAllById,
+        store -> Arrays.asList(store.id, store.name, store.quantityProductsInStock));
+  }
+
+  @POST
+  @Path("import")
+  @Consumes(NdjsonOutput.MEDIA_TYPE)
+  public ImportResult importNdjson(InputStream input) {
+    return storeImport.importNdjson(input);
+  }
+
+  @POST
+  @Path("import")
+  @Consumes(CsvOutput.MEDIA_TYPE)
+  public ImportResult importCsv(InputStream input) {
+    return storeImport.importCsv(input);
   }
 
   @GET
   @Path("{id}")
-  public Store getSingle(Long id) {
+  public Response getSingle(Long id, @Context Request request) {
     Store entity = Store.findById(id);
     if (entity == null) {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
-    return entity;
+    EntityTag tag = EntityTags.of(entity.id, entity.version);
+    Response notModified = EntityTags.evaluate(request, tag);
+    return notModified != null ? notModified : Response.ok(entity).tag(tag).build();
   }
 
   @POST
@@ -62,7 +126,7 @@ public class StoreResource {
   @PUT
   @Path("{id}")
   @Transactional
-  public Store update(Long id, Store updatedStore) {
+  public Response update(Long id, Store updatedStore, @Context Request request) {
     if (updatedStore.name == null) {
       throw new WebApplicationException("Store Name was not set on request.", 422);
     }
@@ -72,19 +136,20 @@ public class StoreResource {
     if (entity == null) {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
+    EntityTags.checkIfMatch(request, EntityTags.of(entity.id, entity.version), "Store " + id);
 
     entity.name = updatedStore.name;
     entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
 
     storeEvent.fire(new StoreEvent(entity, StoreEvent.Type.UPDATED));
 
-    return entity;
+    return updated(entity);
   }
 
   @PATCH
   @Path("{id}")
   @Transactional
-  public Store patch(Long id, Store updatedStore) {
+  public Response patch(Long id, Store updatedStore, @Context Request request) {
     if (updatedStore.name == null) {
       throw new WebApplicationException("Store Name was not set on request.", 422);
     }
@@ -94,6 +159,7 @@ public class StoreResource {
     if (entity == null) {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
+    EntityTags.checkIfMatch(request, EntityTags.of(entity.id, entity.version), "Store " + id);
 
     if (entity.name != null) {
       entity.name = updatedStore.name;
@@ -105,7 +171,47 @@ public class StoreResource {
 
     storeEvent.fire(new StoreEvent(entity, StoreEvent.Type.UPDATED));
 
-    return entity;
+    return updated(entity);
+  }
+
+  private static Response updated(Store entity) {
+    // flushed here so the response carries the version the update produces; a concurrent update
+    // of the same store fails the version check with an OptimisticLockException (409)
+    Store.flush();
+    return Response.ok(entity).tag(EntityTags.of(entity.id, entity.version)).build();
+  }
+
+  @POST
+  @Path("{id}/stock/adjust")
+  @Transactional
+  public Response adjustStock(Long id, StockAdjustment adjustment) {
+    if (adjustment == null || adjustment.delta == null) {
+      throw new WebApplicationException("Stock delta was not set on request.", 422);
+    }
+    if (adjustment.id != null && !adjustment.id.equals(id)) {
+      throw new WebApplicationException("Id was invalidly set on request.", 422);
+    }
+
+    // applied by the database without reading the store, so concurrent adjustments never
+    // overwrite each other and need no If-Match
+    StockAdjustmentResult result =
+        Store.adjustStock(Map.of(id, adjustment.delta.longValue()), this::adjusted).get(0);
+    if (!result.isApplied()) {
+      throw new WebApplicationException(result.error, result.status);
+    }
+    return Response.ok(result).tag(EntityTags.of(result.id, result.version)).build();
+  }
+
+  @POST
+  @Path("stock/adjust")
+  @Transactional
+  public List<StockAdjustmentResult> adjustStockInBulk(List<StockAdjustment> adjustments) {
+    return Store.adjustStock(StockAdjustments.net(adjustments), this::adjusted);
+  }
+
+  private void adjusted(Store store) {
+    // the legacy store manager and the change feed hear of every stock change, as of a PUT
+    storeEvent.fire(new StoreEvent(store, StoreEvent.Type.UPDATED));
   }
 
   @DELETE
@@ -117,6 +223,7 @@ public class StoreResource {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
     entity.delete();
+    storeEvent.fire(new StoreEvent(entity, StoreEvent.Type.DELETED));
     return Response.status(204).build();
   }
 }
@@ -0,0 +1,249 @@
+package com.fulfilment.application.monolith.stores.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal stored in fixed-size, memory-mapped segment files.
+ *
+ * <p>Each record is written as {@code [int length][int crc32][payload]}. Offsets are byte positions
+ * in the journal as a whole: a segment file is named after the offset of its first byte, and a
+ * segment that has no room left is sealed with a {@code -1} length marker before the next one is
+ * started. The length is written last, so a record becomes visible to readers only once complete.
+ *
+ * <p>Writes go to the page cache and are forced to disk in groups: after {@code flushEvery} records
+ * or once {@code flushInterval} has passed since the last force, whichever comes first. On open, the
+ * last segment is scanned to find the end of the valid records and anything after it (a torn write
+ * from a crash) is cleared.
+ */
+public final class Journal implements Closeable {
+
+  static final String SEGMENT_SUFFIX = ".seg";
+  static final int HEADER_SIZE = 8;
+  static final int END_OF_SEGMENT = -1;
+
+  private final Path directory;
+  private final int segmentSize;
+  private final int flushEvery;
+  private final long flushIntervalNanos;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private FileChannel channel;
+  private MappedByteBuffer segment;
+  private long segmentBase;
+  private int position;
+  private int flushedPosition;
+  private int unflushed;
+  private long lastFlushNanos;
+  private boolean closed;
+
+  private Journal(Path directory, int segmentSize, int flushEvery, Duration flushInterval) {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.flushEvery = flushEvery;
+    this.flushIntervalNanos = flushInterval.toNanos();
+  }
+
+  public static Journal open(Path directory, int segmentSize, int flushEvery, Duration flushInterval)
+      throws IOException {
+    if (segmentSize <= HEADER_SIZE) {
+      throw new IllegalArgumentException("Segment size must be larger than " + HEADER_SIZE + " bytes.");
+    }
+    Files.createDirectories(directory);
+    Journal journal = new Journal(directory, segmentSize, flushEvery, flushInterval);
+    NavigableMap<Long, Path> segments = listSegments(directory);
+    journal.map(segments.isEmpty() ? 0L : segments.lastKey());
+    journal.recover();
+    return journal;
+  }
+
+  /** Appends a record and returns its offset. */
+  public long append(byte[] payload) throws IOException {
+    if (payload.length == 0 || payload.length > segmentSize - HEADER_SIZE) {
+      throw new IllegalArgumentException(
+          "Record size must be between 1 and " + (segmentSize - HEADER_SIZE) + " bytes.");
+    }
+    lock.lock();
+    try {
+      if (closed) {
+        throw new IllegalStateException("Journal " + directory + " is closed.");
+      }
+      if (position + HEADER_SIZE + payload.length > segment.capacity()) {
+        roll();
+      }
+
+      int start = position;
+      segment.put(start + HEADER_SIZE, payload);
+      segment.putInt(start + 4, crc(payload));
+      segment.putInt(start, payload.length);
+      position = start + HEADER_SIZE + payload.length;
+
+      unflushed++;
+      if (unflushed >= flushEvery || System.nanoTime() - lastFlushNanos >= flushIntervalNanos) {
+        force();
+      }
+      return segmentBase + start;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Forces all appended records to disk. */
+  public void flush() {
+    lock.lock();
+    try {
+      if (!closed) {
+        force();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Forces pending records to disk if the flush interval has elapsed since the last force. */
+  public void flushIfDue() {
+    lock.lock();
+    try {
+      if (!closed && unflushed > 0 && System.nanoTime() - lastFlushNanos >= flushIntervalNanos) {
+        force();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Offset the next record will be written at. */
+  public long endOffset() {
+    lock.lock();
+    try {
+      return segmentBase + position;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public JournalReader reader() {
+    return new JournalReader(directory);
+  }
+
+  @Override
+  public void close() throws IOException {
+    lock.lock();
+    try {
+      if (!closed) {
+        force();
+        channel.close();
+        closed = true;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void roll() throws IOException {
+    if (position + 4 <= segment.capacity()) {
+      segment.putInt(position, END_OF_SEGMENT);
+      position += 4;
+    }
+    force();
+    channel.close();
+    map(segmentBase + segment.capacity());
+  }
+
+  private void force() {
+    if (position > flushedPosition) {
+      segment.force(flushedPosition, position - flushedPosition);
+      flushedPosition = position;
+    }
+    unflushed = 0;
+    lastFlushNanos = System.nanoTime();
+  }
+
+  private void map(long base) throws IOException {
+    Path file = segmentPath(directory, base);
+    channel =
+        FileChannel.open(
+            file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    long size = Math.max(channel.size(), segmentSize);
+    segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    segmentBase = base;
+    position = 0;
+    flushedPosition = 0;
+    lastFlushNanos = System.nanoTime();
+  }
+
+  private void recover() throws IOException {
+    int capacity = segment.capacity();
+    int pos = 0;
+    while (pos + HEADER_SIZE <= capacity) {
+      int length = segment.getInt(pos);
+      if (length == END_OF_SEGMENT) {
+        channel.close();
+        map(segmentBase + capacity);
+        return;
+      }
+      if (length <= 0 || pos + HEADER_SIZE + length > capacity) {
+        break;
+      }
+      byte[] payload = new byte[length];
+      segment.get(pos + HEADER_SIZE, payload);
+      if (crc(payload) != segment.getInt(pos + 4)) {
+        break;
+      }
+      pos += HEADER_SIZE + length;
+    }
+
+    boolean torn = false;
+    for (int i = pos; i < capacity; i++) {
+      if (segment.get(i) != 0) {
+        segment.put(i, (byte) 0);
+        torn = true;
+      }
+    }
+    position = pos;
+    flushedPosition = pos;
+    if (torn) {
+      segment.force(pos, capacity - pos);
+    }
+  }
+
+  static int crc(byte[] payload) {
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+    return (int) crc.getValue();
+  }
+
+  static Path segmentPath(Path directory, long base) {
+    return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+  }
+
+  static NavigableMap<Long, Path> listSegments(Path directory) throws IOException {
+    NavigableMap<Long, Path> segments = new TreeMap<>();
+    if (!Files.isDirectory(directory)) {
+      return segments;
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      files
+          .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+          .forEach(
+              file -> {
+                String name = file.getFileName().toString();
+                segments.put(
+                    Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())),
+                    file);
+              });
+    }
+    return segments;
+  }
+}
@@ -0,0 +1,74 @@
+package com.fulfilment.application.monolith.stores.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * Reads records from a {@link Journal} directory without taking part in writing, so it can be used
+ * by a separate process tailing the journal. Reading stops at the first incomplete record, which
+ * is where the writer currently is.
+ */
+public final class JournalReader {
+
+  private final Path directory;
+
+  public JournalReader(Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Returns up to {@code maxRecords} records starting at {@code fromOffset}, which must be 0 or an
+   * offset previously returned by the journal. Continue with the {@code nextOffset} of the last
+   * record returned.
+   */
+  public List<JournalRecord> read(long fromOffset, int maxRecords) throws IOException {
+    List<JournalRecord> records = new ArrayList<>();
+    NavigableMap<Long, Path> segments = Journal.listSegments(directory);
+    Map.Entry<Long, Path> segment = segments.floorEntry(fromOffset);
+    long offset = fromOffset;
+
+    while (segment != null && records.size() < maxRecords) {
+      long base = segment.getKey();
+      boolean sealed = false;
+      int pos = (int) (offset - base);
+      try (FileChannel channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ)) {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        int capacity = buffer.capacity();
+        while (records.size() < maxRecords && pos + Journal.HEADER_SIZE <= capacity) {
+          int length = buffer.getInt(pos);
+          if (length == Journal.END_OF_SEGMENT) {
+            sealed = true;
+            break;
+          }
+          if (length <= 0 || pos + Journal.HEADER_SIZE + length > capacity) {
+            break;
+          }
+          byte[] payload = new byte[length];
+          buffer.get(pos + Journal.HEADER_SIZE, payload);
+          if (Journal.crc(payload) != buffer.getInt(pos + 4)) {
+            break;
+          }
+          long recordOffset = base + pos;
+          pos += Journal.HEADER_SIZE + length;
+          records.add(new JournalRecord(recordOffset, base + pos, payload));
+        }
+        if (!sealed && pos + Journal.HEADER_SIZE <= capacity) {
+          // reached the tail of the live segment
+          break;
+        }
+      }
+      segment = segments.higherEntry(base);
+      if (segment != null) {
+        offset = segment.getKey();
+      }
+    }
+    return records;
+  }
+}
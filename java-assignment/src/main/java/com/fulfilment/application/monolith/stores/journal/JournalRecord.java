@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.stores.journal;
+
+public class JournalRecord {
+
+  // offset of this record in the journal
+  public final long offset;
+
+  // offset to continue reading from after this record
+  public final long nextOffset;
+
+  public final byte[] payload;
+
+  public JournalRecord(long offset, long nextOffset, byte[] payload) {
+    this.offset = offset;
+    this.nextOffset = nextOffset;
+    this.payload = payload;
+  }
+}
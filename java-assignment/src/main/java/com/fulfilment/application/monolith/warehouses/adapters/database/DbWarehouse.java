@@ -6,9 +6,11 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 
 @Entity
+// partial and covering indexes are created by the migrations in db/migration, as JPA cannot express them
 @Table(name = "warehouse")
 @Cacheable
 public class DbWarehouse {
@@ -27,6 +29,8 @@ public class DbWarehouse {
 
   public LocalDateTime archivedAt;
 
+  @Version public long version;
+
   public DbWarehouse() {}
 
   public Warehouse toWarehouse() {
@@ -38,6 +42,7 @@ public class DbWarehouse {
     warehouse.stock = this.stock;
     warehouse.createdAt = this.createdAt;
     warehouse.archivedAt = this.archivedAt;
+    warehouse.version = this.version;
     return warehouse;
   }
 }
@@ -0,0 +1,201 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.rest.Pagination;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUsage;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseConflictException;
+import io.micrometer.core.annotation.Timed;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.pgclient.PgPool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.SqlConnection;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@link ReactiveWarehouseStore} on the reactive PostgreSQL client. It works on the same table as
+ * {@link WarehouseRepository}, with plain SQL, as Hibernate Reactive cannot share the entities with
+ * Hibernate ORM in this Quarkus version; queries are answered by the same indexes.
+ */
+@ApplicationScoped
+@Timed(value = "repository.query", histogram = true)
+public class ReactiveWarehouseRepository implements ReactiveWarehouseStore {
+
+  private static final String COLUMNS =
+      "id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, version";
+
+  // same advisory lock key space as WarehouseRepository, so both adapters serialise on a location
+  private static final int LOCATION_LOCK_SPACE = 1001;
+
+  private final PgPool pool;
+  private final SessionFactory sessionFactory;
+
+  @Inject
+  public ReactiveWarehouseRepository(PgPool pool, SessionFactory sessionFactory) {
+    this.pool = pool;
+    this.sessionFactory = sessionFactory;
+  }
+
+  @Override
+  public Uni<List<Warehouse>> findActivePage(Long afterId, int limit) {
+    return pool.preparedQuery(
+            "select " + COLUMNS + " from warehouse where archivedAt is null and id > $1"
+                + " order by id limit $2")
+        .execute(Tuple.of(Pagination.after(afterId), limit))
+        .map(ReactiveWarehouseRepository::toWarehouses);
+  }
+
+  @Override
+  public Uni<Warehouse> findWarehouseById(Long id) {
+    return pool.preparedQuery("select " + COLUMNS + " from warehouse where id = $1")
+        .execute(Tuple.of(id))
+        .map(ReactiveWarehouseRepository::toFirstWarehouse);
+  }
+
+  @Override
+  public <T> Uni<T> inTransaction(Function<Transaction, Uni<T>> work) {
+    return pool.withTransaction(connection -> work.apply(new PgTransaction(connection)))
+        .invoke(this::evictCachedWarehouses);
+  }
+
+  private void evictCachedWarehouses() {
+    // the rows changed behind Hibernate's back, so drop what its second-level cache holds about
+    // warehouses; both are in-memory operations
+    sessionFactory.getCache().evictEntityData(DbWarehouse.class);
+    sessionFactory.getCache().evictQueryRegion(WarehouseRepository.QUERY_CACHE_REGION);
+  }
+
+  private static final class PgTransaction implements Transaction {
+
+    private final SqlConnection connection;
+
+    private PgTransaction(SqlConnection connection) {
+      this.connection = connection;
+    }
+
+    @Override
+    public Uni<Warehouse> findByBusinessUnitCode(String buCode) {
+      // as in WarehouseRepository.findByBusinessUnitCode: the newest generation, read from the end
+      // of ix_warehouse_history
+      return connection
+          .preparedQuery(
+              "select " + COLUMNS + " from warehouse where businessUnitCode = $1"
+                  + " order by createdAt desc, id desc limit 1")
+          .execute(Tuple.of(buCode))
+          .map(ReactiveWarehouseRepository::toFirstWarehouse);
+    }
+
+    @Override
+    public Uni<LocationUsage> getLocationUsage(String locationIdentifier) {
+      return connection
+          .preparedQuery(
+              "select count(*), coalesce(sum(capacity), 0) from warehouse"
+                  + " where location = $1 and archivedAt is null")
+          .execute(Tuple.of(locationIdentifier))
+          .map(
+              rows -> {
+                Row row = rows.iterator().next();
+                return new LocationUsage(
+                    locationIdentifier, row.getLong(0).intValue(), row.getLong(1).intValue());
+              });
+    }
+
+    @Override
+    public Uni<Void> lockLocations(Collection<String> locationIdentifiers) {
+      if (locationIdentifiers.isEmpty()) {
+        return Uni.createFrom().voidItem();
+      }
+      // the statement of WarehouseRepository.lockLocations: all keys at once, in key order
+      return connection
+          .preparedQuery(
+              "select count(*) from (select pg_advisory_xact_lock($1, k) from"
+                  + " (select distinct hashtext(l) as k from unnest($2::text[]) l"
+                  + " order by k) keys) locks")
+          .execute(Tuple.of(LOCATION_LOCK_SPACE, locationIdentifiers.toArray(String[]::new)))
+          .replaceWithVoid();
+    }
+
+    @Override
+    public Uni<Void> create(Warehouse warehouse) {
+      // Hibernate hands out ids from blocks of warehouse_seq (pooled-lo, increment 50); taking a
+      // whole block for one row keeps the ids of both adapters apart
+      return connection
+          .preparedQuery(
+              "insert into warehouse (" + COLUMNS + ")"
+                  + " values (nextval('warehouse_seq'), $1, $2, $3, $4, $5, $6, 0) returning id")
+          .execute(
+              Tuple.of(
+                  warehouse.businessUnitCode,
+                  warehouse.location,
+                  warehouse.capacity,
+                  warehouse.stock,
+                  warehouse.createdAt,
+                  warehouse.archivedAt))
+          .invoke(
+              rows -> {
+                warehouse.id = rows.iterator().next().getLong(0);
+                warehouse.version = 0L;
+              })
+          .replaceWithVoid();
+    }
+
+    @Override
+    public Uni<Void> update(Warehouse warehouse) {
+      // the compare-and-set of WarehouseRepository.update; a lost one fails the transaction, which
+      // the use case then runs again
+      return connection
+          .preparedQuery(
+              "update warehouse set location = $2, capacity = $3, stock = $4, archivedAt = $5,"
+                  + " version = version + 1 where id = $1 and version = $6")
+          .execute(
+              Tuple.of(
+                  warehouse.id,
+                  warehouse.location,
+                  warehouse.capacity,
+                  warehouse.stock,
+                  warehouse.archivedAt,
+                  warehouse.version))
+          .invoke(
+              rows -> {
+                if (rows.rowCount() == 0) {
+                  throw new WarehouseConflictException(warehouse.businessUnitCode);
+                }
+                warehouse.version++;
+              })
+          .replaceWithVoid();
+    }
+  }
+
+  private static List<Warehouse> toWarehouses(RowSet<Row> rows) {
+    List<Warehouse> warehouses = new ArrayList<>(rows.size());
+    for (Row row : rows) {
+      warehouses.add(toWarehouse(row));
+    }
+    return warehouses;
+  }
+
+  private static Warehouse toFirstWarehouse(RowSet<Row> rows) {
+    return rows.size() > 0 ? toWarehouse(rows.iterator().next()) : null;
+  }
+
+  private static Warehouse toWarehouse(Row row) {
+    var warehouse = new Warehouse();
+    warehouse.id = row.getLong(0);
+    warehouse.businessUnitCode = row.getString(1);
+    warehouse.location = row.getString(2);
+    warehouse.capacity = row.getInteger(3);
+    warehouse.stock = row.getInteger(4);
+    warehouse.createdAt = row.getLocalDateTime(5);
+    warehouse.archivedAt = row.getLocalDateTime(6);
+    warehouse.version = row.getLong(7);
+    return warehouse;
+  }
+}
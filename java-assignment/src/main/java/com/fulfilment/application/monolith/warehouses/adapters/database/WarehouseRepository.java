@@ -1,19 +1,119 @@
 package com.fulfilment.application.monolith.warehouses.adapters.database;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUsage;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCapacity;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseConflictException;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.rest.Pagination;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
+import io.micrometer.core.annotation.Timed;
 import jakarta.enterprise.context.ApplicationScoped;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.AvailableHints;
 
 @ApplicationScoped
+@Timed(value = "repository.query", histogram = true)
 public class WarehouseRepository implements WarehouseStore, PanacheRepository<DbWarehouse> {
 
+  private static final int STREAM_FETCH_SIZE = 500;
+
+  // first half of the two-int advisory lock key, reserving a key space for warehouse locations
+  private static final int LOCATION_LOCK_SPACE = 1001;
+
+  // second-level cache region of the cacheable warehouse queries, bounded in application.properties
+  static final String QUERY_CACHE_REGION = "warehouse-queries";
+
   @Override
   public List<Warehouse> getAll() {
     return this.listAll().stream().map(DbWarehouse::toWarehouse).toList();
   }
 
+  // The active-warehouse queries below are served by the partial indexes of V2__index_hot_queries.sql,
+  // which only cover rows with archivedAt is null and so do not grow with the archived history.
+
+  @Override
+  public List<Warehouse> findActive() {
+    return find("archivedAt is null", Sort.by("id")).list().stream()
+        .map(DbWarehouse::toWarehouse)
+        .toList();
+  }
+
+  @Override
+  public Set<String> findActiveBusinessUnitCodes() {
+    return new HashSet<>(
+        getEntityManager()
+            .createQuery(
+                "select w.businessUnitCode from DbWarehouse w where w.archivedAt is null",
+                String.class)
+            .getResultList());
+  }
+
+  @Override
+  public List<WarehouseCapacity> findActiveCapacities() {
+    return getEntityManager()
+        .createQuery(
+            "select new " + WarehouseCapacity.class.getName()
+                + "(w.businessUnitCode, w.location, w.capacity, w.stock) from DbWarehouse w"
+                + " where w.archivedAt is null order by w.location, w.id",
+            WarehouseCapacity.class)
+        .getResultList();
+  }
+
+  @Override
+  public List<Warehouse> findActivePage(Long afterId, int limit) {
+    return find("archivedAt is null and id > ?1", Sort.by("id"), Pagination.after(afterId))
+        .withHint(AvailableHints.HINT_CACHEABLE, true)
+        .withHint(AvailableHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
+        .page(0, limit)
+        .list()
+        .stream()
+        .map(DbWarehouse::toWarehouse)
+        .toList();
+  }
+
+  @Override
+  public Map<Long, Long> findActivePageVersions(Long afterId, int limit) {
+    Map<Long, Long> versions = new LinkedHashMap<>();
+    getEntityManager()
+        .createQuery(
+            "select w.id, w.version from DbWarehouse w where w.archivedAt is null and w.id > ?1"
+                + " order by w.id",
+            Object[].class)
+        .setParameter(1, Pagination.after(afterId))
+        .setMaxResults(limit)
+        .setHint(AvailableHints.HINT_CACHEABLE, true)
+        .setHint(AvailableHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
+        .getResultList()
+        .forEach(row -> versions.put((Long) row[0], (Long) row[1]));
+    return versions;
+  }
+
+  @Override
+  public Stream<Warehouse> streamActive() {
+    // Scrolls through the result set with a bounded fetch size; each row is detached once mapped so
+    // the persistence context does not grow with the table, and the second-level cache is bypassed.
+    return find("archivedAt is null", Sort.by("id"))
+        .withHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+        .withHint(AvailableHints.HINT_READ_ONLY, true)
+        .withHint(AvailableHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+        .stream()
+        .map(
+            dbWarehouse -> {
+              getEntityManager().detach(dbWarehouse);
+              return dbWarehouse.toWarehouse();
+            });
+  }
+
   @Override
   public void create(Warehouse warehouse) {
     var dbWarehouse = new DbWarehouse();
@@ -24,28 +124,159 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
     dbWarehouse.createdAt = warehouse.createdAt;
     dbWarehouse.archivedAt = warehouse.archivedAt;
     this.persist(dbWarehouse);
+    warehouse.id = dbWarehouse.id;
+    warehouse.version = dbWarehouse.version;
+  }
+
+  @Override
+  public void createAll(List<Warehouse> warehouses) {
+    // ids come from the pooled sequence, so the inserts are sent as JDBC batches on flush
+    // (quarkus.hibernate-orm.jdbc.statement-batch-size)
+    warehouses.forEach(this::create);
+  }
+
+  @Override
+  public void updateAll(List<Warehouse> warehouses) {
+    if (warehouses.isEmpty()) {
+      return;
+    }
+    Map<Long, DbWarehouse> stored = new HashMap<>();
+    list("id in ?1", warehouses.stream().map(w -> w.id).toList())
+        .forEach(dbWarehouse -> stored.put(dbWarehouse.id, dbWarehouse));
+    for (Warehouse warehouse : warehouses) {
+      DbWarehouse dbWarehouse = stored.get(warehouse.id);
+      if (dbWarehouse != null) {
+        dbWarehouse.location = warehouse.location;
+        dbWarehouse.capacity = warehouse.capacity;
+        dbWarehouse.stock = warehouse.stock;
+        dbWarehouse.archivedAt = warehouse.archivedAt;
+      }
+    }
   }
 
   @Override
   public void update(Warehouse warehouse) {
-    DbWarehouse dbWarehouse = this.find("businessUnitCode", warehouse.businessUnitCode).firstResult();
-    if (dbWarehouse != null) {
-      dbWarehouse.location = warehouse.location;
-      dbWarehouse.capacity = warehouse.capacity;
-      dbWarehouse.stock = warehouse.stock;
-      dbWarehouse.archivedAt = warehouse.archivedAt;
+    // A compare-and-set on the version the warehouse was read with. Losing it throws, which rolls
+    // back the attempt's transaction; the use case is retried in a new one that reads again.
+    int updated =
+        update(
+            "location = ?1, capacity = ?2, stock = ?3, archivedAt = ?4, version = version + 1"
+                + " where id = ?5 and version = ?6",
+            warehouse.location,
+            warehouse.capacity,
+            warehouse.stock,
+            warehouse.archivedAt,
+            warehouse.id,
+            warehouse.version);
+    if (updated == 0) {
+      throw new WarehouseConflictException(warehouse.businessUnitCode);
     }
+    warehouse.version++;
   }
 
   @Override
   public Warehouse findWarehouseById(Long id) {
-    DbWarehouse dbWarehouse = this.find("id", id).firstResult();
+    // a lookup by primary key, answered from the second-level cache once the row was loaded
+    DbWarehouse dbWarehouse = findById(id);
     return dbWarehouse != null ? dbWarehouse.toWarehouse() : null;
   }
 
   @Override
   public Warehouse findByBusinessUnitCode(String buCode) {
-    DbWarehouse dbWarehouse = this.find("businessUnitCode", buCode).firstResult();
+    // a replacement is always created after the warehouse it archives, so the newest generation
+    // is the active one if there is one; read from the end of ix_warehouse_history. The result is
+    // cached until the next change to the warehouse table.
+    DbWarehouse dbWarehouse =
+        find("businessUnitCode", Sort.descending("createdAt", "id"), buCode)
+            .withHint(AvailableHints.HINT_CACHEABLE, true)
+            .withHint(AvailableHints.HINT_CACHE_REGION, QUERY_CACHE_REGION)
+            .firstResult();
     return dbWarehouse != null ? dbWarehouse.toWarehouse() : null;
   }
+
+  @Override
+  public List<Warehouse> findHistory(String buCode) {
+    // one range scan of ix_warehouse_history, which includes every column
+    return find("businessUnitCode", Sort.ascending("createdAt", "id"), buCode).list().stream()
+        .map(DbWarehouse::toWarehouse)
+        .toList();
+  }
+
+  @Override
+  public Map<String, Warehouse> findByBusinessUnitCodes(Collection<String> buCodes) {
+    Map<String, Warehouse> found = new HashMap<>();
+    if (buCodes.isEmpty()) {
+      return found;
+    }
+    for (DbWarehouse dbWarehouse : list("businessUnitCode in ?1", Sort.by("id"), buCodes)) {
+      // prefer the active warehouse of a code over its archived history
+      found.merge(
+          dbWarehouse.businessUnitCode,
+          dbWarehouse.toWarehouse(),
+          (current, next) -> current.archivedAt == null ? current : next);
+    }
+    return found;
+  }
+
+  @Override
+  public LocationUsage getLocationUsage(String locationIdentifier) {
+    // Aggregated in the database (an index-only scan of ix_warehouse_active_location) instead of
+    // loading every warehouse; the query auto-flushes, so archives done earlier in the transaction
+    // are excluded.
+    Object[] usage =
+        getEntityManager()
+            .createQuery(
+                "select count(w), coalesce(sum(w.capacity), 0) from DbWarehouse w"
+                    + " where w.location = ?1 and w.archivedAt is null",
+                Object[].class)
+            .setParameter(1, locationIdentifier)
+            .getSingleResult();
+    return new LocationUsage(
+        locationIdentifier, ((Number) usage[0]).intValue(), ((Number) usage[1]).intValue());
+  }
+
+  @Override
+  public Map<String, LocationUsage> getLocationUsages(Collection<String> locationIdentifiers) {
+    Map<String, LocationUsage> usages = new HashMap<>();
+    for (String identifier : locationIdentifiers) {
+      usages.put(identifier, new LocationUsage(identifier, 0, 0));
+    }
+    if (locationIdentifiers.isEmpty()) {
+      return usages;
+    }
+    List<Object[]> rows =
+        getEntityManager()
+            .createQuery(
+                "select w.location, count(w), coalesce(sum(w.capacity), 0) from DbWarehouse w"
+                    + " where w.location in ?1 and w.archivedAt is null group by w.location",
+                Object[].class)
+            .setParameter(1, locationIdentifiers)
+            .getResultList();
+    for (Object[] row : rows) {
+      String identifier = (String) row[0];
+      usages.put(
+          identifier,
+          new LocationUsage(
+              identifier, ((Number) row[1]).intValue(), ((Number) row[2]).intValue()));
+    }
+    return usages;
+  }
+
+  @Override
+  public void lockLocations(Collection<String> locationIdentifiers) {
+    if (locationIdentifiers.isEmpty()) {
+      return;
+    }
+    // Transaction-scoped advisory locks work across application instances and are released on
+    // commit or rollback. All keys are taken in one statement, in key order, so two transactions
+    // locking overlapping sets of locations cannot deadlock.
+    getEntityManager()
+        .createNativeQuery(
+            "select count(*) from (select pg_advisory_xact_lock(?1, k) from"
+                + " (select distinct hashtext(l) as k from unnest(cast(?2 as text[])) l"
+                + " order by k) keys) locks")
+        .setParameter(1, LOCATION_LOCK_SPACE)
+        .setParameter(2, locationIdentifiers.toArray(String[]::new))
+        .getSingleResult();
+  }
 }
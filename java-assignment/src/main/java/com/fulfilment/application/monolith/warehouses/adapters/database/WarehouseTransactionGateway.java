@@ -0,0 +1,15 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseTransactions;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/** Runs use case work in JTA transactions, as the {@link WarehouseRepository} takes part in them. */
+@ApplicationScoped
+public class WarehouseTransactionGateway implements WarehouseTransactions {
+
+  @Override
+  public void inNewTransaction(Runnable work) {
+    QuarkusTransaction.requiringNew().run(work);
+  }
+}
@@ -0,0 +1,27 @@
+package com.fulfilment.application.monolith.warehouses.adapters.events;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventPublisher;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+
+/**
+ * Fires warehouse events as CDI events. Observers declared with {@code during =
+ * TransactionPhase.AFTER_SUCCESS} are only notified once the change has committed.
+ */
+@ApplicationScoped
+public class WarehouseEventGateway implements WarehouseEventPublisher {
+
+  private final Event<WarehouseEvent> events;
+
+  @Inject
+  public WarehouseEventGateway(Event<WarehouseEvent> events) {
+    this.events = events;
+  }
+
+  @Override
+  public void publish(WarehouseEvent event) {
+    events.fire(event);
+  }
+}
@@ -0,0 +1,104 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import com.fulfilment.application.monolith.rest.Pagination;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseOperations;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import com.warehouse.api.beans.Warehouse;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.List;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.ResponseStatus;
+
+/**
+ * The single-warehouse operations of the Warehouse API on the non-blocking adapter, under {@code
+ * /reactive/warehouse}, with the same bodies and status codes as {@link WarehouseResourceImpl}. The
+ * methods return {@link Uni}, so they are served on the event loop without a worker thread per
+ * request. Only deployed when {@code warehouse.reactive.enabled} is true at build time.
+ */
+@Path("/reactive/warehouse")
+@RequestScoped
+@IfBuildProperty(name = "warehouse.reactive.enabled", stringValue = "true")
+public class ReactiveWarehouseResource {
+
+  private static final Logger LOGGER = Logger.getLogger(ReactiveWarehouseResource.class.getName());
+
+  @Inject private ReactiveWarehouseStore warehouseStore;
+  @Inject private ReactiveWarehouseOperations warehouseOperations;
+
+  @GET
+  @Produces("application/json")
+  public Uni<List<Warehouse>> listAllWarehousesUnits(
+      @QueryParam("after") Long after,
+      @QueryParam("limit") @DefaultValue(Pagination.DEFAULT_LIMIT) int limit) {
+    return warehouseStore
+        .findActivePage(after, Pagination.checkLimit(limit))
+        .map(page -> page.stream().map(WarehouseResourceImpl::toWarehouseResponse).toList());
+  }
+
+  @POST
+  @Produces("application/json")
+  @Consumes("application/json")
+  @ResponseStatus(201)
+  public Uni<Warehouse> createANewWarehouseUnit(@NotNull Warehouse data) {
+    LOGGER.infof("Creating warehouse with businessUnitCode=%s", data.getBusinessUnitCode());
+    var warehouse = WarehouseResourceImpl.toDomainWarehouse(data);
+    return warehouseOperations
+        .create(warehouse)
+        .map(ignored -> WarehouseResourceImpl.toWarehouseResponse(warehouse));
+  }
+
+  @Path("/{id}")
+  @GET
+  @Produces("application/json")
+  public Uni<Warehouse> getAWarehouseUnitByID(@PathParam("id") String id) {
+    return findExisting(id).map(WarehouseResourceImpl::toWarehouseResponse);
+  }
+
+  @Path("/{id}")
+  @DELETE
+  public Uni<Void> archiveAWarehouseUnitByID(@PathParam("id") String id) {
+    LOGGER.infof("Archiving warehouse with id=%s", id);
+    return findExisting(id).flatMap(warehouseOperations::archive);
+  }
+
+  @Path("/{businessUnitCode}/replacement")
+  @POST
+  @Produces("application/json")
+  @Consumes("application/json")
+  public Uni<Warehouse> replaceTheCurrentActiveWarehouse(
+      @PathParam("businessUnitCode") String businessUnitCode, @NotNull Warehouse data) {
+    LOGGER.infof("Replacing warehouse with businessUnitCode=%s", businessUnitCode);
+    var newWarehouse = WarehouseResourceImpl.toDomainWarehouse(data);
+    newWarehouse.businessUnitCode = businessUnitCode;
+    return warehouseOperations
+        .replace(newWarehouse)
+        .map(ignored -> WarehouseResourceImpl.toWarehouseResponse(newWarehouse));
+  }
+
+  private Uni<com.fulfilment.application.monolith.warehouses.domain.models.Warehouse> findExisting(
+      String id) {
+    return warehouseStore
+        .findWarehouseById(Long.parseLong(id))
+        .invoke(
+            warehouse -> {
+              if (warehouse == null) {
+                LOGGER.warnf("Warehouse not found: %s", id);
+                throw new WebApplicationException("Warehouse with id " + id + " does not exist.", 404);
+              }
+            });
+  }
+}
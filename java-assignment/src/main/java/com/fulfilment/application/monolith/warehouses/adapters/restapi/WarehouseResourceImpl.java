@@ -1,23 +1,41 @@
 package com.fulfilment.application.monolith.warehouses.adapters.restapi;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.rest.EntityTags;
+import com.fulfilment.application.monolith.rest.NdjsonOutput;
+import com.fulfilment.application.monolith.rest.Pagination;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.models.BulkItemResult;
 import com.warehouse.api.beans.Warehouse;
+import com.warehouse.api.beans.WarehouseBulkResult;
+import com.warehouse.api.beans.WarehouseGeneration;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import org.jboss.logging.Logger;
 import org.jboss.resteasy.reactive.ResponseStatus;
 
@@ -32,20 +50,42 @@ import org.jboss.resteasy.reactive.ResponseStatus;
 @RequestScoped
 public class WarehouseResourceImpl {
 
+  static final int MAX_BULK_SIZE = 1000;
+
   private static final Logger LOGGER = Logger.getLogger(WarehouseResourceImpl.class.getName());
 
   @Inject private WarehouseStore warehouseStore;
   @Inject private CreateWarehouseOperation createWarehouseOperation;
   @Inject private ReplaceWarehouseOperation replaceWarehouseOperation;
   @Inject private ArchiveWarehouseOperation archiveWarehouseOperation;
+  @Inject private ObjectMapper objectMapper;
 
   @GET
   @Produces("application/json")
-  public List<Warehouse> listAllWarehousesUnits() {
-    return warehouseStore.getAll().stream()
-        .filter(w -> w.archivedAt == null)
-        .map(this::toWarehouseResponse)
-        .toList();
+  public Response listAllWarehousesUnits(
+      @QueryParam("after") Long after,
+      @QueryParam("limit") @DefaultValue(Pagination.DEFAULT_LIMIT) int limit,
+      @Context Request request) {
+    Pagination.checkLimit(limit);
+    // the tag only needs the ids and versions, so a poll of an unchanged page is answered with 304
+    // before any warehouse is loaded or mapped
+    EntityTag tag = EntityTags.ofPage(warehouseStore.findActivePageVersions(after, limit));
+    Response notModified = EntityTags.evaluate(request, tag);
+    if (notModified != null) {
+      return notModified;
+    }
+    List<Warehouse> page =
+        warehouseStore.findActivePage(after, limit).stream()
+            .map(WarehouseResourceImpl::toWarehouseResponse)
+            .toList();
+    return Response.ok(page).tag(tag).build();
+  }
+
+  @GET
+  @Produces(NdjsonOutput.MEDIA_TYPE)
+  public StreamingOutput streamAllWarehousesUnits() {
+    return NdjsonOutput.of(
+        objectMapper, warehouseStore::streamActive, WarehouseResourceImpl::toWarehouseResponse);
   }
 
   @POST
@@ -60,21 +100,47 @@ public class WarehouseResourceImpl {
     return toWarehouseResponse(warehouse);
   }
 
+  @Path("/bulk")
+  @POST
+  @Produces("application/json")
+  @Consumes("application/json")
+  @Transactional
+  public List<WarehouseBulkResult> createWarehouseUnitsInBulk(@NotNull List<Warehouse> data) {
+    LOGGER.infof("Creating %d warehouses in bulk", data.size());
+    var results = createWarehouseOperation.createAll(toDomainWarehouses(data));
+    return results.stream().map(this::toBulkResponse).toList();
+  }
+
+  @Path("/replacements/bulk")
+  @POST
+  @Produces("application/json")
+  @Consumes("application/json")
+  @Transactional
+  public List<WarehouseBulkResult> replaceActiveWarehousesInBulk(@NotNull List<Warehouse> data) {
+    LOGGER.infof("Replacing %d warehouses in bulk", data.size());
+    var results = replaceWarehouseOperation.replaceAll(toDomainWarehouses(data));
+    return results.stream().map(this::toBulkResponse).toList();
+  }
+
   @Path("/{id}")
   @GET
   @Produces("application/json")
-  public Warehouse getAWarehouseUnitByID(@PathParam("id") String id) {
+  public Response getAWarehouseUnitByID(@PathParam("id") String id, @Context Request request) {
     var warehouse = warehouseStore.findWarehouseById(Long.parseLong(id));
     if (warehouse == null) {
       LOGGER.warnf("Warehouse not found: %s", id);
       throw new WebApplicationException("Warehouse with id " + id + " does not exist.", 404);
     }
-    return toWarehouseResponse(warehouse);
+    EntityTag tag = EntityTags.of(warehouse.id, warehouse.version);
+    Response notModified = EntityTags.evaluate(request, tag);
+    return notModified != null
+        ? notModified
+        : Response.ok(toWarehouseResponse(warehouse)).tag(tag).build();
   }
 
   @Path("/{id}")
   @DELETE
-  @Transactional
+  // not transactional: each attempt of the archive runs its own transaction
   public void archiveAWarehouseUnitByID(@PathParam("id") String id) {
     LOGGER.infof("Archiving warehouse with id=%s", id);
     var warehouse = warehouseStore.findWarehouseById(Long.parseLong(id));
@@ -85,11 +151,24 @@ public class WarehouseResourceImpl {
     archiveWarehouseOperation.archive(warehouse);
   }
 
+  @Path("/{businessUnitCode}/history")
+  @GET
+  @Produces("application/json")
+  public List<WarehouseGeneration> getTheHistoryOfABusinessUnitCode(
+      @PathParam("businessUnitCode") String businessUnitCode) {
+    var history = warehouseStore.findHistory(businessUnitCode);
+    if (history.isEmpty()) {
+      throw new WebApplicationException(
+          "Warehouse with business unit code " + businessUnitCode + " does not exist.", 404);
+    }
+    return history.stream().map(this::toGenerationResponse).toList();
+  }
+
   @Path("/{businessUnitCode}/replacement")
   @POST
   @Produces("application/json")
   @Consumes("application/json")
-  @Transactional
+  // not transactional: each attempt of the replacement runs its own transaction
   public Warehouse replaceTheCurrentActiveWarehouse(
       @PathParam("businessUnitCode") String businessUnitCode, @NotNull Warehouse data) {
     LOGGER.infof("Replacing warehouse with businessUnitCode=%s", businessUnitCode);
@@ -99,7 +178,29 @@ public class WarehouseResourceImpl {
     return toWarehouseResponse(newWarehouse);
   }
 
-  private com.fulfilment.application.monolith.warehouses.domain.models.Warehouse toDomainWarehouse(
+  private List<com.fulfilment.application.monolith.warehouses.domain.models.Warehouse>
+      toDomainWarehouses(List<Warehouse> data) {
+    if (data.isEmpty() || data.size() > MAX_BULK_SIZE) {
+      throw new WebApplicationException(
+          "A bulk request must contain between 1 and " + MAX_BULK_SIZE + " warehouses.", 400);
+    }
+    if (data.stream().anyMatch(Objects::isNull)) {
+      throw new WebApplicationException("A bulk request must not contain null warehouses.", 400);
+    }
+    return data.stream().map(WarehouseResourceImpl::toDomainWarehouse).toList();
+  }
+
+  private WarehouseBulkResult toBulkResponse(BulkItemResult result) {
+    var response = new WarehouseBulkResult();
+    response.setIndex(result.index);
+    response.setBusinessUnitCode(result.businessUnitCode);
+    response.setStatus(result.status);
+    response.setWarehouse(result.warehouse != null ? toWarehouseResponse(result.warehouse) : null);
+    response.setError(result.error);
+    return response;
+  }
+
+  static com.fulfilment.application.monolith.warehouses.domain.models.Warehouse toDomainWarehouse(
       Warehouse data) {
     var warehouse = new com.fulfilment.application.monolith.warehouses.domain.models.Warehouse();
     warehouse.businessUnitCode = data.getBusinessUnitCode();
@@ -109,7 +210,20 @@ public class WarehouseResourceImpl {
     return warehouse;
   }
 
-  private Warehouse toWarehouseResponse(
+  private WarehouseGeneration toGenerationResponse(
+      com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse) {
+    var response = new WarehouseGeneration();
+    response.setWarehouse(toWarehouseResponse(warehouse));
+    response.setCreatedAt(toDate(warehouse.createdAt));
+    response.setArchivedAt(toDate(warehouse.archivedAt));
+    return response;
+  }
+
+  private static Date toDate(LocalDateTime time) {
+    return time != null ? Date.from(time.atZone(ZoneId.systemDefault()).toInstant()) : null;
+  }
+
+  static Warehouse toWarehouseResponse(
       com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse) {
     var response = new Warehouse();
     response.setId(warehouse.id != null ? String.valueOf(warehouse.id) : null);
@@ -0,0 +1,171 @@
+package com.fulfilment.application.monolith.warehouses.analytics;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCapacity;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Keeps the utilisation of the active warehouses up to date in memory, so reports never read the
+ * warehouse table.
+ *
+ * <p>The model is loaded once at startup and then follows the {@link WarehouseEvent}s of committed
+ * changes: each one adjusts the running totals of the network and the locations involved, and
+ * moves the warehouse in a set ordered by utilisation, so the under-used warehouses are the head of
+ * that set. The model only sees the changes made through this instance.
+ */
+@ApplicationScoped
+public class UtilisationReadModel {
+
+  private static final Logger LOGGER = Logger.getLogger(UtilisationReadModel.class.getName());
+
+  private static final Comparator<WarehouseUtilisation> BY_UTILISATION =
+      Comparator.<WarehouseUtilisation>comparingDouble(w -> w.utilisation)
+          .thenComparing(w -> w.businessUnitCode);
+
+  private final WarehouseStore warehouseStore;
+  private final double underusedThreshold;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Map<String, WarehouseUtilisation> warehouses = new HashMap<>();
+  private final TreeSet<WarehouseUtilisation> byUtilisation = new TreeSet<>(BY_UTILISATION);
+  private final Map<String, Totals> locations = new TreeMap<>();
+  private final Totals network = new Totals();
+
+  @Inject
+  public UtilisationReadModel(
+      WarehouseStore warehouseStore,
+      @ConfigProperty(name = "warehouse.analytics.underused-threshold", defaultValue = "0.25")
+          double underusedThreshold) {
+    this.warehouseStore = warehouseStore;
+    this.underusedThreshold = underusedThreshold;
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    QuarkusTransaction.requiringNew().run(() -> load(warehouseStore.findActiveCapacities()));
+  }
+
+  void onWarehouseEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseEvent event) {
+    apply(event);
+  }
+
+  /** Replaces the model with the given active warehouses. */
+  public void load(List<WarehouseCapacity> capacities) {
+    lock.lock();
+    try {
+      warehouses.clear();
+      byUtilisation.clear();
+      locations.clear();
+      network.clear();
+      for (WarehouseCapacity capacity : capacities) {
+        add(capacity.businessUnitCode, capacity.location, capacity.capacity, capacity.stock);
+      }
+    } finally {
+      lock.unlock();
+    }
+    LOGGER.infof("Loaded utilisation of %d active warehouses", capacities.size());
+  }
+
+  public void apply(WarehouseEvent event) {
+    Warehouse warehouse = event.warehouse;
+    lock.lock();
+    try {
+      switch (event.type) {
+        case CREATED -> add(warehouse.businessUnitCode, warehouse.location, warehouse.capacity,
+            warehouse.stock);
+        case REPLACED -> {
+          remove(event.replaced.businessUnitCode);
+          add(warehouse.businessUnitCode, warehouse.location, warehouse.capacity, warehouse.stock);
+        }
+        case ARCHIVED -> remove(warehouse.businessUnitCode);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public UtilisationReport report() {
+    UtilisationReport report = new UtilisationReport();
+    report.underusedThreshold = underusedThreshold;
+    lock.lock();
+    try {
+      report.network = network.toTotals(null);
+      locations.forEach((location, totals) -> report.locations.add(totals.toTotals(location)));
+      for (WarehouseUtilisation warehouse : byUtilisation) {
+        if (warehouse.utilisation >= underusedThreshold) {
+          break;
+        }
+        report.underused.add(
+            new WarehouseUtilisation(
+                warehouse.businessUnitCode, warehouse.location, warehouse.capacity,
+                warehouse.stock));
+      }
+    } finally {
+      lock.unlock();
+    }
+    return report;
+  }
+
+  private void add(String businessUnitCode, String location, Integer capacity, Integer stock) {
+    // a replayed or duplicate event must not count the warehouse twice
+    remove(businessUnitCode);
+    WarehouseUtilisation warehouse =
+        new WarehouseUtilisation(
+            businessUnitCode, location, capacity != null ? capacity : 0, stock != null ? stock : 0);
+    warehouses.put(businessUnitCode, warehouse);
+    byUtilisation.add(warehouse);
+    locations.computeIfAbsent(location, l -> new Totals()).add(warehouse, 1);
+    network.add(warehouse, 1);
+  }
+
+  private void remove(String businessUnitCode) {
+    WarehouseUtilisation warehouse = warehouses.remove(businessUnitCode);
+    if (warehouse == null) {
+      return;
+    }
+    byUtilisation.remove(warehouse);
+    Totals totals = locations.get(warehouse.location);
+    totals.add(warehouse, -1);
+    if (totals.warehouses == 0) {
+      locations.remove(warehouse.location);
+    }
+    network.add(warehouse, -1);
+  }
+
+  private static final class Totals {
+    int warehouses;
+    long capacity;
+    long stock;
+
+    void add(WarehouseUtilisation warehouse, int sign) {
+      warehouses += sign;
+      capacity += sign * (long) warehouse.capacity;
+      stock += sign * (long) warehouse.stock;
+    }
+
+    void clear() {
+      warehouses = 0;
+      capacity = 0;
+      stock = 0;
+    }
+
+    UtilisationTotals toTotals(String location) {
+      return new UtilisationTotals(location, warehouses, capacity, stock);
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.warehouses.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Current utilisation of the network, per location, and the warehouses that are under-used. */
+public class UtilisationReport {
+
+  public UtilisationTotals network;
+
+  // ordered by location
+  public List<UtilisationTotals> locations = new ArrayList<>();
+
+  // warehouses below the under-used threshold, least used first
+  public List<WarehouseUtilisation> underused = new ArrayList<>();
+
+  public double underusedThreshold;
+}
@@ -0,0 +1,59 @@
+package com.fulfilment.application.monolith.warehouses.analytics;
+
+import com.fulfilment.application.monolith.rest.Pagination;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@Path("warehouse/analytics/utilisation")
+@ApplicationScoped
+@Produces("application/json")
+public class UtilisationResource {
+
+  static final int DEFAULT_RANGE_HOURS = 24;
+
+  @Inject UtilisationReadModel readModel;
+
+  @Inject UtilisationSnapshotRepository snapshotRepository;
+
+  @GET
+  public UtilisationReport get() {
+    return readModel.report();
+  }
+
+  /**
+   * Snapshots of the network, or of {@code location} when given, with a bucket starting between
+   * {@code from} and {@code to}; by default the last {@value #DEFAULT_RANGE_HOURS} hours.
+   */
+  @GET
+  @Path("snapshots")
+  public List<UtilisationSnapshot> snapshots(
+      @QueryParam("location") String location,
+      @QueryParam("from") String from,
+      @QueryParam("to") String to,
+      @QueryParam("limit") @DefaultValue(Pagination.DEFAULT_LIMIT) int limit) {
+    LocalDateTime end = to != null ? parse("to", to) : LocalDateTime.now();
+    LocalDateTime start = from != null ? parse("from", from) : end.minusHours(DEFAULT_RANGE_HOURS);
+    if (!start.isBefore(end)) {
+      throw new WebApplicationException("Query parameter from must be before to.", 400);
+    }
+    return snapshotRepository.findRange(location, start, end, Pagination.checkLimit(limit));
+  }
+
+  private static LocalDateTime parse(String name, String value) {
+    try {
+      return LocalDateTime.parse(value);
+    } catch (DateTimeParseException e) {
+      throw new WebApplicationException(
+          "Query parameter " + name + " must be a date-time such as 2024-07-01T12:00:00.", 400);
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.fulfilment.application.monolith.warehouses.analytics;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Utilisation of the network, or of one location, as last recorded within a time bucket. Rows are
+ * only ever written for the current bucket, so past buckets form the trend.
+ */
+@Entity
+@Table(
+    name = "warehouse_utilisation_snapshot",
+    indexes =
+        @Index(
+            name = "ix_warehouse_utilisation_snapshot_location_bucket",
+            columnList = "location, bucketStart"))
+public class UtilisationSnapshot {
+
+  @Id @GeneratedValue public Long id;
+
+  @Column(nullable = false)
+  public LocalDateTime bucketStart;
+
+  // null for the network
+  @Column(length = 40)
+  public String location;
+
+  public int warehouses;
+
+  public long capacity;
+
+  public long stock;
+
+  public double utilisation;
+
+  @Column(nullable = false)
+  public LocalDateTime recordedAt;
+
+  public UtilisationSnapshot() {}
+
+  public static UtilisationSnapshot of(LocalDateTime bucketStart, String location) {
+    var snapshot = new UtilisationSnapshot();
+    snapshot.bucketStart = bucketStart;
+    snapshot.location = location;
+    return snapshot;
+  }
+
+  void record(UtilisationTotals totals, LocalDateTime now) {
+    this.warehouses = totals.warehouses;
+    this.capacity = totals.capacity;
+    this.stock = totals.stock;
+    this.utilisation = totals.utilisation;
+    this.recordedAt = now;
+  }
+}
@@ -0,0 +1,86 @@
+package com.fulfilment.application.monolith.warehouses.analytics;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Copies the current utilisation from the {@link UtilisationReadModel} into the snapshot of the
+ * current time bucket, every {@code warehouse.analytics.snapshot-interval}. Each bucket ends up
+ * holding the last utilisation recorded within it, which is what the trend charts plot. Recording
+ * reads the read model and the snapshots of one bucket only, never the warehouse table.
+ */
+@ApplicationScoped
+public class UtilisationSnapshotRecorder {
+
+  private final UtilisationReadModel readModel;
+  private final UtilisationSnapshotRepository snapshotRepository;
+  private final long bucketSeconds;
+
+  @Inject
+  public UtilisationSnapshotRecorder(
+      UtilisationReadModel readModel,
+      UtilisationSnapshotRepository snapshotRepository,
+      @ConfigProperty(name = "warehouse.analytics.snapshot-bucket", defaultValue = "1h")
+          Duration bucket) {
+    this.readModel = readModel;
+    this.snapshotRepository = snapshotRepository;
+    this.bucketSeconds = bucket.toSeconds();
+  }
+
+  @Scheduled(
+      every = "${warehouse.analytics.snapshot-interval:5m}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  @Transactional
+  public void record() {
+    record(LocalDateTime.now());
+  }
+
+  @Transactional
+  public void record(LocalDateTime now) {
+    LocalDateTime bucketStart = bucketStart(now);
+    UtilisationReport report = readModel.report();
+
+    Map<String, UtilisationSnapshot> existing = new HashMap<>();
+    for (UtilisationSnapshot snapshot : snapshotRepository.findBucket(bucketStart)) {
+      existing.put(snapshot.location, snapshot);
+    }
+
+    write(existing.remove(null), bucketStart, report.network, now);
+    for (UtilisationTotals location : report.locations) {
+      write(existing.remove(location.location), bucketStart, location, now);
+    }
+    // locations whose last warehouse went away in this bucket
+    for (UtilisationSnapshot snapshot : existing.values()) {
+      snapshot.record(new UtilisationTotals(snapshot.location, 0, 0, 0), now);
+    }
+  }
+
+  /** Start of the bucket {@code time} falls in; buckets are aligned to the epoch. */
+  public LocalDateTime bucketStart(LocalDateTime time) {
+    long seconds = time.toEpochSecond(ZoneOffset.UTC);
+    long start = seconds - Math.floorMod(seconds, bucketSeconds);
+    return LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC);
+  }
+
+  private void write(
+      UtilisationSnapshot snapshot,
+      LocalDateTime bucketStart,
+      UtilisationTotals totals,
+      LocalDateTime now) {
+    if (snapshot == null) {
+      snapshot = UtilisationSnapshot.of(bucketStart, totals.location);
+      snapshot.record(totals, now);
+      snapshotRepository.persist(snapshot);
+    } else {
+      snapshot.record(totals, now);
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package com.fulfilment.application.monolith.warehouses.analytics;
+
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@ApplicationScoped
+@Timed(value = "repository.query", histogram = true)
+public class UtilisationSnapshotRepository implements PanacheRepository<UtilisationSnapshot> {
+
+  /** Returns the snapshots of the network and of every location recorded in a bucket. */
+  public List<UtilisationSnapshot> findBucket(LocalDateTime bucketStart) {
+    return list("bucketStart", bucketStart);
+  }
+
+  /**
+   * Returns up to {@code limit} snapshots of a location, or of the network when {@code location} is
+   * null, with a bucket starting in {@code [from, to)}, oldest first.
+   */
+  public List<UtilisationSnapshot> findRange(
+      String location, LocalDateTime from, LocalDateTime to, int limit) {
+    if (location == null) {
+      return find(
+              "location is null and bucketStart >= ?1 and bucketStart < ?2",
+              Sort.by("bucketStart"),
+              from,
+              to)
+          .page(0, limit)
+          .list();
+    }
+    return find(
+            "location = ?1 and bucketStart >= ?2 and bucketStart < ?3",
+            Sort.by("bucketStart"),
+            location,
+            from,
+            to)
+        .page(0, limit)
+        .list();
+  }
+}
@@ -0,0 +1,31 @@
+package com.fulfilment.application.monolith.warehouses.analytics;
+
+/** Summed stock and capacity of the active warehouses at a location, or in the whole network. */
+public class UtilisationTotals {
+
+  // null for the network
+  public String location;
+
+  public int warehouses;
+
+  public long capacity;
+
+  public long stock;
+
+  // stock / capacity, 0 when there is no capacity
+  public double utilisation;
+
+  public UtilisationTotals() {}
+
+  public UtilisationTotals(String location, int warehouses, long capacity, long stock) {
+    this.location = location;
+    this.warehouses = warehouses;
+    this.capacity = capacity;
+    this.stock = stock;
+    this.utilisation = ratio(stock, capacity);
+  }
+
+  static double ratio(long stock, long capacity) {
+    return capacity > 0 ? (double) stock / capacity : 0;
+  }
+}
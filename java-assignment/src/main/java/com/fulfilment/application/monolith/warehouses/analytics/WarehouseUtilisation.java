@@ -0,0 +1,26 @@
+package com.fulfilment.application.monolith.warehouses.analytics;
+
+/** Stock against capacity of one active warehouse. */
+public class WarehouseUtilisation {
+
+  public String businessUnitCode;
+
+  public String location;
+
+  public int capacity;
+
+  public int stock;
+
+  // stock / capacity, 0 for a warehouse without capacity
+  public double utilisation;
+
+  public WarehouseUtilisation() {}
+
+  public WarehouseUtilisation(String businessUnitCode, String location, int capacity, int stock) {
+    this.businessUnitCode = businessUnitCode;
+    this.location = location;
+    this.capacity = capacity;
+    this.stock = stock;
+    this.utilisation = UtilisationTotals.ratio(stock, capacity);
+  }
+}
@@ -0,0 +1,41 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+/** Outcome of one item of a bulk warehouse operation. */
+public class BulkItemResult {
+
+  // position of the item in the request
+  public int index;
+
+  public String businessUnitCode;
+
+  // HTTP status the item would have had as a single request
+  public int status;
+
+  // the stored warehouse when the item succeeded
+  public Warehouse warehouse;
+
+  // why the item was rejected
+  public String error;
+
+  public static BulkItemResult succeeded(int index, int status, Warehouse warehouse) {
+    var result = new BulkItemResult();
+    result.index = index;
+    result.businessUnitCode = warehouse.businessUnitCode;
+    result.status = status;
+    result.warehouse = warehouse;
+    return result;
+  }
+
+  public static BulkItemResult failed(int index, String businessUnitCode, int status, String error) {
+    var result = new BulkItemResult();
+    result.index = index;
+    result.businessUnitCode = businessUnitCode;
+    result.status = status;
+    result.error = error;
+    return result;
+  }
+
+  public boolean isSuccess() {
+    return error == null;
+  }
+}
@@ -0,0 +1,17 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+public class LocationUsage {
+  public String identification;
+
+  // number of active (not archived) warehouses in this location
+  public int activeWarehouses;
+
+  // sum of the capacities of the active warehouses in this location
+  public int totalCapacity;
+
+  public LocationUsage(String identification, int activeWarehouses, int totalCapacity) {
+    this.identification = identification;
+    this.activeWarehouses = activeWarehouses;
+    this.totalCapacity = totalCapacity;
+  }
+}
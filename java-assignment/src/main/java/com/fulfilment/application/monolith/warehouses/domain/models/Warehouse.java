@@ -18,4 +18,7 @@ public class Warehouse {
   public LocalDateTime createdAt;
 
   public LocalDateTime archivedAt;
+
+  // incremented on every change of the stored warehouse; null until it is stored
+  public Long version;
 }
@@ -0,0 +1,20 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+/** Capacity and stock of an active warehouse, without the rest of its state. */
+public class WarehouseCapacity {
+
+  public String businessUnitCode;
+
+  public String location;
+
+  public Integer capacity;
+
+  public Integer stock;
+
+  public WarehouseCapacity(String businessUnitCode, String location, Integer capacity, Integer stock) {
+    this.businessUnitCode = businessUnitCode;
+    this.location = location;
+    this.capacity = capacity;
+    this.stock = stock;
+  }
+}
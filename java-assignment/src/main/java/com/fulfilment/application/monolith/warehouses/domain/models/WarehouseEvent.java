@@ -0,0 +1,37 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+/** A change to the active warehouses, published by the use case that made it. */
+public class WarehouseEvent {
+
+  public enum Type {
+    CREATED,
+    REPLACED,
+    ARCHIVED
+  }
+
+  public final Type type;
+
+  // the created or replacing warehouse, or the one that was archived
+  public final Warehouse warehouse;
+
+  // the warehouse a replacement archived, null for the other types
+  public final Warehouse replaced;
+
+  private WarehouseEvent(Type type, Warehouse warehouse, Warehouse replaced) {
+    this.type = type;
+    this.warehouse = warehouse;
+    this.replaced = replaced;
+  }
+
+  public static WarehouseEvent created(Warehouse warehouse) {
+    return new WarehouseEvent(Type.CREATED, warehouse, null);
+  }
+
+  public static WarehouseEvent replaced(Warehouse replaced, Warehouse warehouse) {
+    return new WarehouseEvent(Type.REPLACED, warehouse, replaced);
+  }
+
+  public static WarehouseEvent archived(Warehouse warehouse) {
+    return new WarehouseEvent(Type.ARCHIVED, warehouse, null);
+  }
+}
@@ -1,7 +1,15 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.BulkItemResult;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.util.List;
 
 public interface CreateWarehouseOperation {
   void create(Warehouse warehouse);
+
+  /**
+   * Validates and creates a batch of warehouses; rejected items do not stop the others. Returns
+   * one result per item, in request order.
+   */
+  List<BulkItemResult> createAll(List<Warehouse> warehouses);
 }
@@ -1,7 +1,12 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.util.Collection;
+import java.util.Map;
 
 public interface LocationResolver {
   Location resolveByIdentifier(String identifier);
+
+  /** Resolves several identifiers at once; unknown identifiers are absent from the result. */
+  Map<String, Location> resolveAll(Collection<String> identifiers);
 }
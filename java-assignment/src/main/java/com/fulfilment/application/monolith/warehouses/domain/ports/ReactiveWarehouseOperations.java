@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Non-blocking counterparts of {@link CreateWarehouseOperation}, {@link ReplaceWarehouseOperation}
+ * and {@link ArchiveWarehouseOperation}, applying the same rules. Each emits once its change has
+ * committed, and fails with the same {@code WebApplicationException}s.
+ */
+public interface ReactiveWarehouseOperations {
+
+  Uni<Void> create(Warehouse warehouse);
+
+  Uni<Void> replace(Warehouse warehouse);
+
+  Uni<Void> archive(Warehouse warehouse);
+}
@@ -0,0 +1,46 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUsage;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.smallrye.mutiny.Uni;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Non-blocking counterpart of {@link WarehouseStore}, for callers running on the event loop. Reads
+ * run on their own; changes that depend on the location usage run inside {@link #inTransaction}.
+ */
+public interface ReactiveWarehouseStore {
+
+  /** Same as {@link WarehouseStore#findActivePage}. */
+  Uni<List<Warehouse>> findActivePage(Long afterId, int limit);
+
+  /** Emits null when there is no warehouse with this id. */
+  Uni<Warehouse> findWarehouseById(Long id);
+
+  /** Runs {@code work} in one database transaction, committed when the returned Uni succeeds. */
+  <T> Uni<T> inTransaction(Function<Transaction, Uni<T>> work);
+
+  /** The operations available inside {@link #inTransaction}. */
+  interface Transaction {
+
+    /** Same as {@link WarehouseStore#findByBusinessUnitCode}; emits null for an unknown code. */
+    Uni<Warehouse> findByBusinessUnitCode(String buCode);
+
+    /** Same as {@link WarehouseStore#getLocationUsage}. */
+    Uni<LocationUsage> getLocationUsage(String locationIdentifier);
+
+    /** Same as {@link WarehouseStore#lockLocations}, held until the transaction ends. */
+    Uni<Void> lockLocations(Collection<String> locationIdentifiers);
+
+    /** Creates the warehouse and sets its id and version. */
+    Uni<Void> create(Warehouse warehouse);
+
+    /**
+     * Same compare-and-set as {@link WarehouseStore#update}, but a {@link
+     * WarehouseConflictException} fails the transaction.
+     */
+    Uni<Void> update(Warehouse warehouse);
+  }
+}
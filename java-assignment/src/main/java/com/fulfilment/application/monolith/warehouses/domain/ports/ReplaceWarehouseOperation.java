@@ -1,7 +1,15 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.BulkItemResult;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.util.List;
 
 public interface ReplaceWarehouseOperation {
   void replace(Warehouse warehouse);
+
+  /**
+   * Validates and applies a batch of replacements; rejected items do not stop the others. Returns
+   * one result per item, in request order.
+   */
+  List<BulkItemResult> replaceAll(List<Warehouse> warehouses);
 }
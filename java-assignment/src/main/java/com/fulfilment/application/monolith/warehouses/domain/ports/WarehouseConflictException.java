@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import jakarta.ws.rs.WebApplicationException;
+
+/**
+ * Thrown by a store when a warehouse changed since it was read, so the update would have
+ * overwritten someone else's change. Use cases read the warehouse again and retry; when they give
+ * up it reaches the client as a 409.
+ */
+public class WarehouseConflictException extends WebApplicationException {
+
+  public WarehouseConflictException(String businessUnitCode) {
+    super(
+        "Warehouse with business unit code " + businessUnitCode
+            + " was changed concurrently; try again.",
+        409);
+  }
+}
@@ -0,0 +1,12 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+
+public interface WarehouseEventPublisher {
+
+  /**
+   * Publishes a change made in the current transaction. Listeners that keep derived state only see
+   * it once the transaction commits.
+   */
+  void publish(WarehouseEvent event);
+}
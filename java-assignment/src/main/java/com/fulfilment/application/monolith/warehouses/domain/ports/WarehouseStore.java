@@ -1,17 +1,96 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUsage;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCapacity;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface WarehouseStore {
 
   List<Warehouse> getAll();
 
+  /** Returns all active (not archived) warehouses ordered by id. */
+  List<Warehouse> findActive();
+
+  /** Returns the business unit codes of the active warehouses, without loading the warehouses. */
+  Set<String> findActiveBusinessUnitCodes();
+
+  /** Returns the capacity and stock of every active warehouse, ordered by location. */
+  List<WarehouseCapacity> findActiveCapacities();
+
+  /**
+   * Returns up to {@code limit} active warehouses with an id greater than {@code afterId}, ordered
+   * by id; a null {@code afterId} starts from the first one.
+   */
+  List<Warehouse> findActivePage(Long afterId, int limit);
+
+  /**
+   * Returns the version of each warehouse on the page {@link #findActivePage} returns, by id in page
+   * order, without loading the warehouses.
+   */
+  Map<Long, Long> findActivePageVersions(Long afterId, int limit);
+
+  /**
+   * Streams all active warehouses ordered by id without keeping them in memory. The stream must be
+   * consumed and closed within a transaction.
+   */
+  Stream<Warehouse> streamActive();
+
+  /** Stores a new warehouse and sets its id and version. */
   void create(Warehouse warehouse);
 
+  /**
+   * Updates the stored warehouse with the id of the given one, provided it still has the given
+   * version, and increments the version of both.
+   *
+   * @throws WarehouseConflictException when the warehouse changed since it was read; the
+   *     transaction of the attempt is rolled back and the use case retried in a new one
+   */
   void update(Warehouse warehouse);
 
+  /** Creates several warehouses in one go and sets their ids and versions. */
+  void createAll(List<Warehouse> warehouses);
+
+  /**
+   * Updates several existing warehouses, matched by id, in one go. A concurrent change of one of
+   * them is detected when the transaction is flushed and fails it as a whole (409).
+   */
+  void updateAll(List<Warehouse> warehouses);
+
   Warehouse findWarehouseById(Long id);
 
+  /**
+   * Returns the current generation of a business unit code: its active warehouse, or the one
+   * archived last when none is active.
+   */
   Warehouse findByBusinessUnitCode(String buCode);
+
+  /** Returns every warehouse that has held a business unit code, oldest first. */
+  List<Warehouse> findHistory(String buCode);
+
+  /**
+   * Looks up several business unit codes at once. A code with archived history maps to its active
+   * warehouse if it has one; unknown codes are absent from the result.
+   */
+  Map<String, Warehouse> findByBusinessUnitCodes(Collection<String> buCodes);
+
+  /**
+   * Returns the number of active warehouses and their summed capacity for a location, including
+   * changes made earlier in the current transaction.
+   */
+  LocationUsage getLocationUsage(String locationIdentifier);
+
+  /** Same as {@link #getLocationUsage} for several locations in one query; every one is present. */
+  Map<String, LocationUsage> getLocationUsages(Collection<String> locationIdentifiers);
+
+  /**
+   * Serialises capacity checks per location: blocks until no other transaction holds any of the
+   * given locations, and keeps them until the current transaction ends. Transactions working on
+   * other locations are not affected.
+   */
+  void lockLocations(Collection<String> locationIdentifiers);
 }
@@ -0,0 +1,12 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+/** Runs blocking use case work in transactions of its own. */
+@FunctionalInterface
+public interface WarehouseTransactions {
+
+  /**
+   * Runs {@code work} in a new transaction, committed when it returns and rolled back when it
+   * throws; a transaction of the caller is suspended meanwhile.
+   */
+  void inNewTransaction(Runnable work);
+}
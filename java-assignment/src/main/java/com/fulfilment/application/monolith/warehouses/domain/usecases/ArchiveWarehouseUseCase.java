@@ -1,8 +1,11 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventPublisher;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.annotation.Timed;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
@@ -10,23 +13,35 @@ import java.time.LocalDateTime;
 import org.jboss.logging.Logger;
 
 @ApplicationScoped
+@Timed(value = "warehouse.usecase", histogram = true)
 public class ArchiveWarehouseUseCase implements ArchiveWarehouseOperation {
 
   private static final Logger LOGGER = Logger.getLogger(ArchiveWarehouseUseCase.class.getName());
 
   private final WarehouseStore warehouseStore;
   private final WarehouseValidator validator;
+  private final WarehouseEventPublisher eventPublisher;
+  private final WarehouseConflictRetry conflictRetry;
 
   @Inject
-  public ArchiveWarehouseUseCase(WarehouseStore warehouseStore, WarehouseValidator validator) {
+  public ArchiveWarehouseUseCase(
+      WarehouseStore warehouseStore,
+      WarehouseValidator validator,
+      WarehouseEventPublisher eventPublisher,
+      WarehouseConflictRetry conflictRetry) {
     this.warehouseStore = warehouseStore;
     this.validator = validator;
+    this.eventPublisher = eventPublisher;
+    this.conflictRetry = conflictRetry;
   }
 
   @Override
   public void archive(Warehouse warehouse) {
     LOGGER.infof("Archiving warehouse businessUnitCode=%s", warehouse.businessUnitCode);
+    conflictRetry.run("archive", () -> archiveCurrent(warehouse));
+  }
 
+  private void archiveCurrent(Warehouse warehouse) {
     Warehouse existing = warehouseStore.findByBusinessUnitCode(warehouse.businessUnitCode);
     if (existing == null) {
       LOGGER.warnf("Warehouse not found for archiving: businessUnitCode=%s", warehouse.businessUnitCode);
@@ -34,10 +49,13 @@ public class ArchiveWarehouseUseCase implements ArchiveWarehouseOperation {
           "Warehouse with business unit code " + warehouse.businessUnitCode + " does not exist.", 404);
     }
 
+    // the addressed warehouse, not whichever generation of its code is current
+    validator.validateCurrentGeneration(warehouse, existing);
     validator.validateNotArchived(existing);
 
     existing.archivedAt = LocalDateTime.now();
     warehouseStore.update(existing);
+    eventPublisher.publish(WarehouseEvent.archived(existing));
     LOGGER.infof("Warehouse archived id=%s businessUnitCode=%s", existing.id, existing.businessUnitCode);
   }
 }
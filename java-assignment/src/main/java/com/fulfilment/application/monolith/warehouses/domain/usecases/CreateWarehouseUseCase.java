@@ -1,26 +1,44 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.BulkItemResult;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUsage;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventPublisher;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.annotation.Timed;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import org.jboss.logging.Logger;
 
 @ApplicationScoped
+@Timed(value = "warehouse.usecase", histogram = true)
 public class CreateWarehouseUseCase implements CreateWarehouseOperation {
 
   private static final Logger LOGGER = Logger.getLogger(CreateWarehouseUseCase.class.getName());
 
   private final WarehouseStore warehouseStore;
   private final WarehouseValidator validator;
+  private final WarehouseEventPublisher eventPublisher;
 
   @Inject
-  public CreateWarehouseUseCase(WarehouseStore warehouseStore, WarehouseValidator validator) {
+  public CreateWarehouseUseCase(
+      WarehouseStore warehouseStore,
+      WarehouseValidator validator,
+      WarehouseEventPublisher eventPublisher) {
     this.warehouseStore = warehouseStore;
     this.validator = validator;
+    this.eventPublisher = eventPublisher;
   }
 
   @Override
@@ -32,10 +50,63 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
 
     Location location = validator.validateLocationExists(warehouse.location);
 
+    // concurrent creates at the same location wait here, so each sees the others' capacity
+    warehouseStore.lockLocations(List.of(warehouse.location));
     validator.validateLocationCapacity(warehouse.location, location, warehouse.capacity);
 
     warehouse.createdAt = LocalDateTime.now();
     warehouseStore.create(warehouse);
+    eventPublisher.publish(WarehouseEvent.created(warehouse));
     LOGGER.infof("Warehouse created id=%s businessUnitCode=%s", warehouse.id, warehouse.businessUnitCode);
   }
+
+  @Override
+  public List<BulkItemResult> createAll(List<Warehouse> warehouses) {
+    LOGGER.infof("Creating %d warehouses in bulk", warehouses.size());
+
+    // one lookup each for codes, locations and location usage, whatever the size of the batch
+    Set<String> takenCodes =
+        new HashSet<>(
+            warehouseStore
+                .findByBusinessUnitCodes(
+                    warehouses.stream().map(w -> w.businessUnitCode).filter(Objects::nonNull).toList())
+                .keySet());
+    Map<String, Location> locations =
+        validator.resolveLocations(
+            warehouses.stream().map(w -> w.location).filter(Objects::nonNull).distinct().toList());
+    warehouseStore.lockLocations(locations.keySet());
+    Map<String, LocationUsage> usages = warehouseStore.getLocationUsages(locations.keySet());
+
+    List<BulkItemResult> results = new ArrayList<>(warehouses.size());
+    List<Warehouse> accepted = new ArrayList<>();
+    LocalDateTime now = LocalDateTime.now();
+    for (int i = 0; i < warehouses.size(); i++) {
+      Warehouse warehouse = warehouses.get(i);
+      try {
+        validator.validateComplete(warehouse);
+        validator.validateBusinessUnitCodeIsUnique(warehouse.businessUnitCode, takenCodes);
+        Location location = validator.validateLocationExists(warehouse.location, locations);
+        LocationUsage usage = usages.get(warehouse.location);
+        validator.validateLocationCapacity(warehouse.location, location, usage, warehouse.capacity);
+
+        // later items in the batch see the capacity and code taken by this one
+        usage.activeWarehouses++;
+        usage.totalCapacity += warehouse.capacity;
+        takenCodes.add(warehouse.businessUnitCode);
+
+        warehouse.createdAt = now;
+        accepted.add(warehouse);
+        results.add(BulkItemResult.succeeded(i, 201, warehouse));
+      } catch (WebApplicationException e) {
+        results.add(
+            BulkItemResult.failed(
+                i, warehouse.businessUnitCode, e.getResponse().getStatus(), e.getMessage()));
+      }
+    }
+
+    warehouseStore.createAll(accepted);
+    accepted.forEach(warehouse -> eventPublisher.publish(WarehouseEvent.created(warehouse)));
+    LOGGER.infof("Bulk create stored %d of %d warehouses", accepted.size(), warehouses.size());
+    return results;
+  }
 }
@@ -0,0 +1,184 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseOperations;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventPublisher;
+import io.micrometer.core.annotation.Timed;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import org.jboss.logging.Logger;
+
+/**
+ * The create, replace and archive use cases on top of {@link ReactiveWarehouseStore}, with the same
+ * steps and rules as {@link CreateWarehouseUseCase}, {@link ReplaceWarehouseUseCase} and {@link
+ * ArchiveWarehouseUseCase}. Events are published once the transaction has committed; a
+ * transaction that lost against a concurrent change of the warehouse is run again as a whole.
+ */
+@ApplicationScoped
+@Timed(value = "warehouse.usecase", histogram = true)
+public class ReactiveWarehouseUseCase implements ReactiveWarehouseOperations {
+
+  private static final Logger LOGGER = Logger.getLogger(ReactiveWarehouseUseCase.class.getName());
+
+  private final ReactiveWarehouseStore warehouseStore;
+  private final WarehouseValidator validator;
+  private final WarehouseEventPublisher eventPublisher;
+  private final WarehouseConflictRetry conflictRetry;
+
+  @Inject
+  public ReactiveWarehouseUseCase(
+      ReactiveWarehouseStore warehouseStore,
+      WarehouseValidator validator,
+      WarehouseEventPublisher eventPublisher,
+      WarehouseConflictRetry conflictRetry) {
+    this.warehouseStore = warehouseStore;
+    this.validator = validator;
+    this.eventPublisher = eventPublisher;
+    this.conflictRetry = conflictRetry;
+  }
+
+  @Override
+  public Uni<Void> create(Warehouse warehouse) {
+    LOGGER.infof("Creating warehouse businessUnitCode=%s location=%s capacity=%d",
+        warehouse.businessUnitCode, warehouse.location, warehouse.capacity);
+
+    return warehouseStore
+        .inTransaction(
+            tx ->
+                tx.findByBusinessUnitCode(warehouse.businessUnitCode)
+                    .invoke(
+                        existing ->
+                            validator.validateBusinessUnitCodeIsUnique(
+                                warehouse.businessUnitCode,
+                                existing != null ? Set.of(existing.businessUnitCode) : Set.of()))
+                    .map(ignored -> validator.validateLocationExists(warehouse.location))
+                    // concurrent creates at the same location wait here, so each sees the others
+                    .call(ignored -> tx.lockLocations(List.of(warehouse.location)))
+                    .call(location -> validateLocationCapacity(tx, warehouse, location))
+                    .call(
+                        ignored -> {
+                          warehouse.createdAt = LocalDateTime.now();
+                          return tx.create(warehouse);
+                        }))
+        .invoke(
+            ignored -> {
+              eventPublisher.publish(WarehouseEvent.created(warehouse));
+              LOGGER.infof("Warehouse created id=%s businessUnitCode=%s",
+                  warehouse.id, warehouse.businessUnitCode);
+            })
+        .replaceWithVoid();
+  }
+
+  @Override
+  public Uni<Void> replace(Warehouse newWarehouse) {
+    LOGGER.infof("Replacing warehouse businessUnitCode=%s with location=%s capacity=%d",
+        newWarehouse.businessUnitCode, newWarehouse.location, newWarehouse.capacity);
+
+    return conflictRetry
+        .retry("replace", () -> warehouseStore.inTransaction(tx -> replaceCurrent(tx, newWarehouse)))
+        .invoke(
+            existing -> {
+              eventPublisher.publish(WarehouseEvent.replaced(existing, newWarehouse));
+              LOGGER.infof("Created replacement warehouse id=%s businessUnitCode=%s",
+                  newWarehouse.id, newWarehouse.businessUnitCode);
+            })
+        .replaceWithVoid();
+  }
+
+  @Override
+  public Uni<Void> archive(Warehouse warehouse) {
+    LOGGER.infof("Archiving warehouse businessUnitCode=%s", warehouse.businessUnitCode);
+
+    return conflictRetry
+        .retry("archive", () -> warehouseStore.inTransaction(tx -> archiveCurrent(tx, warehouse)))
+        .invoke(
+            existing -> {
+              eventPublisher.publish(WarehouseEvent.archived(existing));
+              LOGGER.infof("Warehouse archived id=%s businessUnitCode=%s",
+                  existing.id, existing.businessUnitCode);
+            })
+        .replaceWithVoid();
+  }
+
+  private Uni<Warehouse> replaceCurrent(
+      ReactiveWarehouseStore.Transaction tx, Warehouse newWarehouse) {
+    return tx.findByBusinessUnitCode(newWarehouse.businessUnitCode)
+        .flatMap(
+            existing -> {
+              validateExists(existing, newWarehouse.businessUnitCode);
+              validator.validateNotArchived(existing);
+              Location location = validator.validateLocationExists(newWarehouse.location);
+              validateStock(existing, newWarehouse);
+
+              // both the location being left and the one being joined change usage
+              return tx.lockLocations(List.of(existing.location, newWarehouse.location))
+                  // archive the old warehouse first so its capacity is excluded from
+                  // the location capacity check
+                  .call(
+                      () -> {
+                        existing.archivedAt = LocalDateTime.now();
+                        return tx.update(existing);
+                      })
+                  .call(() -> validateLocationCapacity(tx, newWarehouse, location))
+                  .call(
+                      () -> {
+                        newWarehouse.createdAt = LocalDateTime.now();
+                        return tx.create(newWarehouse);
+                      })
+                  .replaceWith(existing);
+            });
+  }
+
+  private Uni<Warehouse> archiveCurrent(ReactiveWarehouseStore.Transaction tx, Warehouse warehouse) {
+    return tx.findByBusinessUnitCode(warehouse.businessUnitCode)
+        .map(
+            existing -> {
+              validateExists(existing, warehouse.businessUnitCode);
+              validator.validateCurrentGeneration(warehouse, existing);
+              validator.validateNotArchived(existing);
+              existing.archivedAt = LocalDateTime.now();
+              return existing;
+            })
+        .call(tx::update);
+  }
+
+  private void validateStock(Warehouse existing, Warehouse newWarehouse) {
+    // New warehouse capacity must accommodate the existing warehouse's stock
+    if (newWarehouse.capacity < existing.stock) {
+      throw new WebApplicationException(
+          "New warehouse capacity must be able to accommodate the current stock of " + existing.stock + ".", 400);
+    }
+
+    // Stock of new warehouse must match existing warehouse stock
+    if (!newWarehouse.stock.equals(existing.stock)) {
+      throw new WebApplicationException(
+          "New warehouse stock must match the existing warehouse stock of " + existing.stock + ".", 400);
+    }
+  }
+
+  private static void validateExists(Warehouse existing, String businessUnitCode) {
+    if (existing == null) {
+      LOGGER.warnf("Warehouse not found: businessUnitCode=%s", businessUnitCode);
+      throw new WebApplicationException(
+          "Warehouse with business unit code " + businessUnitCode + " does not exist.", 404);
+    }
+  }
+
+  private Uni<Void> validateLocationCapacity(
+      ReactiveWarehouseStore.Transaction tx, Warehouse warehouse, Location location) {
+    return tx.getLocationUsage(warehouse.location)
+        .invoke(
+            usage ->
+                validator.validateLocationCapacity(
+                    warehouse.location, location, usage, warehouse.capacity))
+        .replaceWithVoid();
+  }
+}
@@ -1,34 +1,60 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.BulkItemResult;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUsage;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventPublisher;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.annotation.Timed;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.jboss.logging.Logger;
 
 @ApplicationScoped
+@Timed(value = "warehouse.usecase", histogram = true)
 public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
 
   private static final Logger LOGGER = Logger.getLogger(ReplaceWarehouseUseCase.class.getName());
 
   private final WarehouseStore warehouseStore;
   private final WarehouseValidator validator;
+  private final WarehouseEventPublisher eventPublisher;
+  private final WarehouseConflictRetry conflictRetry;
 
   @Inject
-  public ReplaceWarehouseUseCase(WarehouseStore warehouseStore, WarehouseValidator validator) {
+  public ReplaceWarehouseUseCase(
+      WarehouseStore warehouseStore,
+      WarehouseValidator validator,
+      WarehouseEventPublisher eventPublisher,
+      WarehouseConflictRetry conflictRetry) {
     this.warehouseStore = warehouseStore;
     this.validator = validator;
+    this.eventPublisher = eventPublisher;
+    this.conflictRetry = conflictRetry;
   }
 
   @Override
   public void replace(Warehouse newWarehouse) {
     LOGGER.infof("Replacing warehouse businessUnitCode=%s with location=%s capacity=%d",
         newWarehouse.businessUnitCode, newWarehouse.location, newWarehouse.capacity);
+    conflictRetry.run("replace", () -> replaceCurrent(newWarehouse));
+  }
 
+  private void replaceCurrent(Warehouse newWarehouse) {
+    // read again on every attempt: the update below only applies to the version read here
     Warehouse existing = warehouseStore.findByBusinessUnitCode(newWarehouse.businessUnitCode);
     if (existing == null) {
       LOGGER.warnf("Warehouse not found for replacement: businessUnitCode=%s", newWarehouse.businessUnitCode);
@@ -40,17 +66,10 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
 
     Location location = validator.validateLocationExists(newWarehouse.location);
 
-    // New warehouse capacity must accommodate the existing warehouse's stock
-    if (newWarehouse.capacity < existing.stock) {
-      throw new WebApplicationException(
-          "New warehouse capacity must be able to accommodate the current stock of " + existing.stock + ".", 400);
-    }
+    validateStock(existing, newWarehouse);
 
-    // Stock of new warehouse must match existing warehouse stock
-    if (!newWarehouse.stock.equals(existing.stock)) {
-      throw new WebApplicationException(
-          "New warehouse stock must match the existing warehouse stock of " + existing.stock + ".", 400);
-    }
+    // Both the location being left and the one being joined change usage
+    warehouseStore.lockLocations(List.of(existing.location, newWarehouse.location));
 
     // Archive the old warehouse first so its capacity is excluded from the location capacity check
     existing.archivedAt = LocalDateTime.now();
@@ -63,6 +82,99 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
     // Create the new warehouse
     newWarehouse.createdAt = LocalDateTime.now();
     warehouseStore.create(newWarehouse);
+    eventPublisher.publish(WarehouseEvent.replaced(existing, newWarehouse));
     LOGGER.infof("Created replacement warehouse id=%s businessUnitCode=%s", newWarehouse.id, newWarehouse.businessUnitCode);
   }
+
+  @Override
+  public List<BulkItemResult> replaceAll(List<Warehouse> newWarehouses) {
+    LOGGER.infof("Replacing %d warehouses in bulk", newWarehouses.size());
+
+    Map<String, Warehouse> existing =
+        warehouseStore.findByBusinessUnitCodes(
+            newWarehouses.stream().map(w -> w.businessUnitCode).filter(Objects::nonNull).toList());
+    Map<String, Location> locations =
+        validator.resolveLocations(
+            newWarehouses.stream().map(w -> w.location).filter(Objects::nonNull).distinct().toList());
+    // usage of both the new locations and the ones the replaced warehouses are leaving
+    Set<String> touchedLocations =
+        Stream.concat(locations.keySet().stream(), existing.values().stream().map(w -> w.location))
+            .collect(Collectors.toSet());
+    warehouseStore.lockLocations(touchedLocations);
+    Map<String, LocationUsage> usages = warehouseStore.getLocationUsages(touchedLocations);
+
+    List<BulkItemResult> results = new ArrayList<>(newWarehouses.size());
+    Set<String> replacedCodes = new HashSet<>();
+    List<Warehouse> archived = new ArrayList<>();
+    List<Warehouse> created = new ArrayList<>();
+    LocalDateTime now = LocalDateTime.now();
+    for (int i = 0; i < newWarehouses.size(); i++) {
+      Warehouse newWarehouse = newWarehouses.get(i);
+      try {
+        validator.validateComplete(newWarehouse);
+        if (replacedCodes.contains(newWarehouse.businessUnitCode)) {
+          throw new WebApplicationException(
+              "Warehouse with business unit code " + newWarehouse.businessUnitCode
+                  + " is replaced more than once in this batch.", 400);
+        }
+        Warehouse current = existing.get(newWarehouse.businessUnitCode);
+        if (current == null) {
+          throw new WebApplicationException(
+              "Warehouse with business unit code " + newWarehouse.businessUnitCode + " does not exist.", 404);
+        }
+        validator.validateNotArchived(current);
+        Location location = validator.validateLocationExists(newWarehouse.location, locations);
+        validateStock(current, newWarehouse);
+
+        // the replaced warehouse no longer counts towards its location, as in the single replace
+        LocationUsage previousUsage = usages.get(current.location);
+        previousUsage.activeWarehouses--;
+        previousUsage.totalCapacity -= current.capacity;
+        LocationUsage usage = usages.get(newWarehouse.location);
+        try {
+          validator.validateLocationCapacity(
+              newWarehouse.location, location, usage, newWarehouse.capacity);
+        } catch (WebApplicationException e) {
+          previousUsage.activeWarehouses++;
+          previousUsage.totalCapacity += current.capacity;
+          throw e;
+        }
+        usage.activeWarehouses++;
+        usage.totalCapacity += newWarehouse.capacity;
+
+        replacedCodes.add(newWarehouse.businessUnitCode);
+        current.archivedAt = now;
+        archived.add(current);
+        newWarehouse.createdAt = now;
+        created.add(newWarehouse);
+        results.add(BulkItemResult.succeeded(i, 200, newWarehouse));
+      } catch (WebApplicationException e) {
+        results.add(
+            BulkItemResult.failed(
+                i, newWarehouse.businessUnitCode, e.getResponse().getStatus(), e.getMessage()));
+      }
+    }
+
+    warehouseStore.updateAll(archived);
+    warehouseStore.createAll(created);
+    for (int i = 0; i < created.size(); i++) {
+      eventPublisher.publish(WarehouseEvent.replaced(archived.get(i), created.get(i)));
+    }
+    LOGGER.infof("Bulk replace stored %d of %d warehouses", created.size(), newWarehouses.size());
+    return results;
+  }
+
+  private void validateStock(Warehouse existing, Warehouse newWarehouse) {
+    // New warehouse capacity must accommodate the existing warehouse's stock
+    if (newWarehouse.capacity < existing.stock) {
+      throw new WebApplicationException(
+          "New warehouse capacity must be able to accommodate the current stock of " + existing.stock + ".", 400);
+    }
+
+    // Stock of new warehouse must match existing warehouse stock
+    if (!newWarehouse.stock.equals(existing.stock)) {
+      throw new WebApplicationException(
+          "New warehouse stock must match the existing warehouse stock of " + existing.stock + ".", 400);
+    }
+  }
 }
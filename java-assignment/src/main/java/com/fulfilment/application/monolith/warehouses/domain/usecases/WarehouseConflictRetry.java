@@ -0,0 +1,116 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseConflictException;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseTransactions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Runs a use case again when its update lost against a concurrent change of the same warehouse
+ * ({@link WarehouseConflictException}), after a randomised exponential backoff, for at most {@code
+ * warehouse.conflict.max-attempts} attempts; the last conflict reaches the client as a 409. Every
+ * conflict is counted in {@code warehouse.conflicts}, tagged with the operation and whether it was
+ * retried or rejected, which next to {@code warehouse.usecase} gives the conflict rate.
+ */
+@ApplicationScoped
+public class WarehouseConflictRetry {
+
+  static final String CONFLICTS_METRIC = "warehouse.conflicts";
+
+  private static final Logger LOGGER = Logger.getLogger(WarehouseConflictRetry.class.getName());
+
+  private final MeterRegistry meterRegistry;
+  private final int maxAttempts;
+  private final Duration backoffBase;
+  private final WarehouseTransactions transactions;
+
+  @Inject
+  public WarehouseConflictRetry(
+      MeterRegistry meterRegistry,
+      @ConfigProperty(name = "warehouse.conflict.max-attempts", defaultValue = "3") int maxAttempts,
+      @ConfigProperty(name = "warehouse.conflict.backoff-base", defaultValue = "5ms")
+          Duration backoffBase,
+      WarehouseTransactions transactions) {
+    this.meterRegistry = meterRegistry;
+    this.maxAttempts = maxAttempts;
+    this.backoffBase = backoffBase;
+    this.transactions = transactions;
+  }
+
+  /**
+   * Runs blocking work in a new transaction per attempt, like {@link #retry} does for reactive work:
+   * a conflicting attempt is rolled back, releasing its connection and location locks, before the
+   * backoff, and the next attempt reads the warehouse and takes its locks afresh. The caller must
+   * not hold a transaction of its own, which would stay open across the backoff.
+   */
+  public void run(String operation, Runnable work) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        transactions.inNewTransaction(work);
+        return;
+      } catch (WarehouseConflictException e) {
+        if (!conflicted(operation, attempt)) {
+          throw e;
+        }
+        sleep(backoff(attempt));
+      }
+    }
+  }
+
+  /** Subscribes to the work again on a conflict, so each attempt runs its own transaction. */
+  public <T> Uni<T> retry(String operation, Supplier<Uni<T>> work) {
+    AtomicInteger attempt = new AtomicInteger();
+    return Uni.createFrom()
+        .deferred(
+            () -> {
+              attempt.incrementAndGet();
+              return work.get();
+            })
+        .onFailure(WarehouseConflictException.class)
+        .invoke(e -> conflicted(operation, attempt.get()))
+        .onFailure(WarehouseConflictException.class)
+        .retry()
+        .withBackOff(backoffBase)
+        .atMost(maxAttempts - 1);
+  }
+
+  /** Counts a conflict and returns whether the attempt it ended is followed by another one. */
+  private boolean conflicted(String operation, int attempt) {
+    boolean retried = attempt < maxAttempts;
+    Counter.builder(CONFLICTS_METRIC)
+        .description("Warehouse updates that lost against a concurrent change")
+        .tag("operation", operation)
+        .tag("outcome", retried ? "retried" : "rejected")
+        .register(meterRegistry)
+        .increment();
+    if (!retried) {
+      LOGGER.warnf("Giving up %s after %d conflicting attempts", operation, attempt);
+    }
+    return retried;
+  }
+
+  Duration backoff(int attempt) {
+    // full jitter over an exponentially growing window, so racing callers spread out
+    long window = backoffBase.toNanos() << Math.min(attempt - 1, 10);
+    return Duration.ofNanos(ThreadLocalRandom.current().nextLong(window + 1));
+  }
+
+  private static void sleep(Duration delay) {
+    try {
+      TimeUnit.NANOSECONDS.sleep(delay.toNanos());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while backing off a warehouse conflict", e);
+    }
+  }
+}
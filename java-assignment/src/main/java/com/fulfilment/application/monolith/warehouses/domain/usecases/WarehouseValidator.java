@@ -1,63 +1,132 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUsage;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.WebApplicationException;
-import java.util.List;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Business rules a warehouse must satisfy before it is stored. Every rejection is counted in {@code
+ * warehouse.validation.rejections}, tagged with the rule that failed.
+ */
 @ApplicationScoped
 public class WarehouseValidator {
 
+  static final String REJECTIONS_METRIC = "warehouse.validation.rejections";
+
   private final WarehouseStore warehouseStore;
   private final LocationResolver locationResolver;
+  private final MeterRegistry meterRegistry;
 
   @Inject
-  public WarehouseValidator(WarehouseStore warehouseStore, LocationResolver locationResolver) {
+  public WarehouseValidator(
+      WarehouseStore warehouseStore, LocationResolver locationResolver, MeterRegistry meterRegistry) {
     this.warehouseStore = warehouseStore;
     this.locationResolver = locationResolver;
+    this.meterRegistry = meterRegistry;
   }
 
   public void validateBusinessUnitCodeIsUnique(String businessUnitCode) {
     if (warehouseStore.findByBusinessUnitCode(businessUnitCode) != null) {
-      throw new WebApplicationException(
-          "Warehouse with business unit code " + businessUnitCode + " already exists.", 400);
+      throw reject(
+          "duplicate-business-unit-code",
+          "Warehouse with business unit code " + businessUnitCode + " already exists.");
+    }
+  }
+
+  /** Batch variant: {@code takenCodes} holds the codes already in use, including earlier items. */
+  public void validateBusinessUnitCodeIsUnique(String businessUnitCode, Set<String> takenCodes) {
+    if (takenCodes.contains(businessUnitCode)) {
+      throw reject(
+          "duplicate-business-unit-code",
+          "Warehouse with business unit code " + businessUnitCode + " already exists.");
+    }
+  }
+
+  /** Every field of a warehouse in a batch must be set, as one bad item must not fail the rest. */
+  public void validateComplete(Warehouse warehouse) {
+    if (warehouse.businessUnitCode == null
+        || warehouse.location == null
+        || warehouse.capacity == null
+        || warehouse.stock == null) {
+      throw reject(
+          "incomplete",
+          "Warehouse businessUnitCode, location, capacity and stock must all be set.");
+    }
+  }
+
+  public Map<String, Location> resolveLocations(Collection<String> locationIdentifiers) {
+    return locationResolver.resolveAll(locationIdentifiers);
+  }
+
+  /** Batch variant checking against locations resolved up front by {@link #resolveLocations}. */
+  public Location validateLocationExists(
+      String locationIdentifier, Map<String, Location> resolvedLocations) {
+    Location location = resolvedLocations.get(locationIdentifier);
+    if (location == null) {
+      throw reject("unknown-location", "Location " + locationIdentifier + " does not exist.");
     }
+    return location;
   }
 
   public Location validateLocationExists(String locationIdentifier) {
     Location location = locationResolver.resolveByIdentifier(locationIdentifier);
     if (location == null) {
-      throw new WebApplicationException(
-          "Location " + locationIdentifier + " does not exist.", 400);
+      throw reject("unknown-location", "Location " + locationIdentifier + " does not exist.");
     }
     return location;
   }
 
   public void validateNotArchived(Warehouse warehouse) {
     if (warehouse.archivedAt != null) {
-      throw new WebApplicationException(
-          "Warehouse with business unit code " + warehouse.businessUnitCode + " is already archived.", 400);
+      throw reject(
+          "already-archived",
+          "Warehouse with business unit code " + warehouse.businessUnitCode + " is already archived.");
+    }
+  }
+
+  /**
+   * Rejects a change addressed to an older generation of a business unit code, which the
+   * replacement that followed it archived; {@code current} is the newest generation.
+   */
+  public void validateCurrentGeneration(Warehouse addressed, Warehouse current) {
+    if (addressed.id != null && !addressed.id.equals(current.id)) {
+      throw reject("already-archived", "Warehouse with id " + addressed.id + " is already archived.");
     }
   }
 
   public void validateLocationCapacity(String locationIdentifier, Location location, int additionalCapacity) {
-    List<Warehouse> activeAtLocation = warehouseStore.getAll().stream()
-        .filter(w -> w.location.equals(locationIdentifier) && w.archivedAt == null)
-        .toList();
+    validateLocationCapacity(
+        locationIdentifier, location, warehouseStore.getLocationUsage(locationIdentifier), additionalCapacity);
+  }
 
-    if (activeAtLocation.size() >= location.maxNumberOfWarehouses) {
-      throw new WebApplicationException(
-          "Location " + locationIdentifier + " has reached its maximum number of warehouses.", 400);
+  /** Checks against a known usage, e.g. one a batch keeps up to date as it accepts items. */
+  public void validateLocationCapacity(
+      String locationIdentifier, Location location, LocationUsage usage, int additionalCapacity) {
+    if (usage.activeWarehouses >= location.maxNumberOfWarehouses) {
+      throw reject(
+          "location-warehouse-limit",
+          "Location " + locationIdentifier + " has reached its maximum number of warehouses.");
     }
 
-    int totalCapacity = activeAtLocation.stream().mapToInt(w -> w.capacity).sum();
-    if (totalCapacity + additionalCapacity > location.maxCapacity) {
-      throw new WebApplicationException(
-          "Warehouse capacity exceeds the maximum allowed capacity for location " + locationIdentifier + ".", 400);
+    if (usage.totalCapacity + additionalCapacity > location.maxCapacity) {
+      throw reject(
+          "location-capacity-limit",
+          "Warehouse capacity exceeds the maximum allowed capacity for location " + locationIdentifier + ".");
     }
   }
+
+  private WebApplicationException reject(String rule, String message) {
+    Counter.builder(REJECTIONS_METRIC).tag("rule", rule).register(meterRegistry).increment();
+    return new WebApplicationException(message, 400);
+  }
 }
@@ -0,0 +1,81 @@
+-- Tables and sequences of the entities. Ids come from the sequences in blocks of 50, which is the
+-- allocation size Hibernate expects for @GeneratedValue.
+
+create sequence product_seq start with 1 increment by 50;
+create sequence store_seq start with 1 increment by 50;
+create sequence store_outbox_seq start with 1 increment by 50;
+create sequence warehouse_seq start with 1 increment by 50;
+create sequence warehouse_utilisation_snapshot_seq start with 1 increment by 50;
+create sequence fulfilment_assignment_seq start with 1 increment by 50;
+
+create table product (
+    id bigint not null,
+    name varchar(40),
+    description varchar(255),
+    price numeric(10,2),
+    stock integer not null,
+    version bigint not null,
+    primary key (id),
+    constraint uk_product_name unique (name)
+);
+
+create table store (
+    id bigint not null,
+    name varchar(40),
+    quantityProductsInStock integer not null,
+    version bigint not null,
+    primary key (id),
+    constraint uk_store_name unique (name)
+);
+
+create table store_outbox (
+    id bigint not null,
+    type varchar(10) not null check (type in ('CREATED','UPDATED')),
+    storeId bigint,
+    storeName varchar(40),
+    quantityProductsInStock integer not null,
+    createdAt timestamp(6) not null,
+    attempts integer not null,
+    nextAttemptAt timestamp(6) not null,
+    lastError varchar(500),
+    primary key (id)
+);
+
+create index ix_store_outbox_next_attempt on store_outbox (nextAttemptAt);
+
+create table warehouse (
+    id bigint not null,
+    businessUnitCode varchar(255),
+    location varchar(255),
+    capacity integer,
+    stock integer,
+    createdAt timestamp(6),
+    archivedAt timestamp(6),
+    version bigint not null,
+    primary key (id)
+);
+
+create table warehouse_utilisation_snapshot (
+    id bigint not null,
+    location varchar(40),
+    bucketStart timestamp(6) not null,
+    recordedAt timestamp(6) not null,
+    warehouses integer not null,
+    capacity bigint not null,
+    stock bigint not null,
+    utilisation float(53) not null,
+    primary key (id)
+);
+
+create index ix_warehouse_utilisation_snapshot_location_bucket
+    on warehouse_utilisation_snapshot (location, bucketStart);
+
+create table fulfilment_assignment (
+    id bigint not null,
+    productId bigint not null,
+    storeId bigint not null,
+    warehouseBusinessUnitCode varchar(255) not null,
+    createdAt timestamp(6),
+    primary key (id),
+    constraint uk_fulfilment_assignment unique (storeId, productId, warehouseBusinessUnitCode)
+);
@@ -0,0 +1,14 @@
+-- Indexes of the hot queries. Lookups of stores and products by name use the indexes of their
+-- unique constraints.
+
+-- Partial indexes over active (archivedAt IS NULL) warehouses only, so lookups on the hot path stay
+-- small however much archived history accumulates: by id, and by location with the columns the
+-- capacity checks read.
+create index ix_warehouse_active_id on warehouse (id) where archivedAt is null;
+create index ix_warehouse_active_location on warehouse (location) include (capacity, stock)
+    where archivedAt is null;
+
+-- Every generation of a business unit code in creation order, for the history and the lookup of the
+-- current generation. Includes the remaining columns so both are answered from the index alone.
+create index ix_warehouse_history on warehouse (businessUnitCode, createdAt, id)
+    include (location, capacity, stock, archivedAt);
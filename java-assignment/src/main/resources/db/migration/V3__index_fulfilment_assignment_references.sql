@@ -0,0 +1,4 @@
+-- Assignments are deleted with the product or warehouse they reference; the unique constraint
+-- already indexes them by store.
+create index ix_fulfilment_assignment_product on fulfilment_assignment (productId);
+create index ix_fulfilment_assignment_warehouse on fulfilment_assignment (warehouseBusinessUnitCode);
@@ -0,0 +1,25 @@
+-- Demo data for dev and test only (see quarkus.flyway.locations). Applied after the versioned
+-- migrations, and again whenever this file changes, so rows that already exist are left alone.
+
+insert into store (id, name, quantityProductsInStock, version) values
+    (1, 'TONSTAD', 10, 0),
+    (2, 'KALLAX', 5, 0),
+    (3, 'BESTÅ', 3, 0)
+on conflict do nothing;
+
+insert into product (id, name, stock, version) values
+    (1, 'TONSTAD', 10, 0),
+    (2, 'KALLAX', 5, 0),
+    (3, 'BESTÅ', 3, 0)
+on conflict do nothing;
+
+insert into warehouse (id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, version) values
+    (1, 'MWH.001', 'ZWOLLE-001', 100, 10, '2024-07-01', null, 0),
+    (2, 'MWH.012', 'AMSTERDAM-001', 50, 5, '2023-07-01', null, 0),
+    (3, 'MWH.023', 'TILBURG-001', 30, 27, '2021-02-01', null, 0)
+on conflict do nothing;
+
+-- the next generated ids follow the seeded ones
+select setval('store_seq', (select max(id) + 1 from store), false);
+select setval('product_seq', (select max(id) + 1 from product), false);
+select setval('warehouse_seq', (select max(id) + 1 from warehouse), false);
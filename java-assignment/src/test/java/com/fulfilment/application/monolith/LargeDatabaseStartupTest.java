@@ -0,0 +1,175 @@
+package com.fulfilment.application.monolith;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.quarkus.test.common.DevServicesContext;
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.flywaydb.core.Flyway;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Starts the application on a database that already holds a large, fully migrated schema, as in
+ * production, and checks that startup stays fast: no migration is pending, and the startup loaders
+ * (product search index, fulfilment counters, utilisation read model) read the rows in one pass.
+ */
+@QuarkusTest
+@TestProfile(LargeDatabaseStartupTest.Profile.class)
+public class LargeDatabaseStartupTest {
+
+  private static final Logger LOGGER = Logger.getLogger(LargeDatabaseStartupTest.class.getName());
+
+  // generous for a loaded single-core CI machine, which takes about 35 s; loading the rows one
+  // query each, or any slow migration, takes far longer
+  private static final Duration MAX_STARTUP = Duration.ofSeconds(90);
+
+  static final int PRODUCTS = 200_000;
+  static final int STORES = 100_000;
+  static final int WAREHOUSE_CODES = 10_000;
+  static final int WAREHOUSE_GENERATIONS = 20;
+  static final int ASSIGNMENTS = 50_000;
+
+  @Test
+  public void testStartsQuicklyOnALargeDatabase() {
+    // System.nanoTime() when the database was ready, just before the application started
+    long readyAt = ConfigProvider.getConfig().getValue("large-database.ready-at", Long.class);
+    Duration startup = Duration.ofNanos(System.nanoTime() - readyAt);
+    LOGGER.infof(
+        "Started on a database of %d products, %d stores, %d warehouses and %d assignments in %d ms",
+        PRODUCTS, STORES, WAREHOUSE_CODES * WAREHOUSE_GENERATIONS, ASSIGNMENTS,
+        startup.toMillis());
+    assertTrue(
+        startup.compareTo(MAX_STARTUP) < 0,
+        "Startup took " + startup.toMillis() + " ms, more than " + MAX_STARTUP.toMillis() + " ms");
+
+    // the startup loaders saw every row, the seed data included
+    given()
+        .when()
+        .get("warehouse/analytics/utilisation")
+        .then()
+        .statusCode(200)
+        .body("network.warehouses", is(WAREHOUSE_CODES + 3));
+    given()
+        .queryParam("q", "large " + (PRODUCTS - 1))
+        .when()
+        .get("product/search")
+        .then()
+        .statusCode(200)
+        .body("name", contains("LARGE-" + (PRODUCTS - 1)));
+  }
+
+  public static class Profile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+      // keep what LargeDatabase prepared
+      return Map.of("quarkus.flyway.clean-at-start", "false");
+    }
+
+    @Override
+    public List<TestResourceEntry> testResources() {
+      return List.of(new TestResourceEntry(LargeDatabase.class));
+    }
+  }
+
+  /**
+   * Migrates an empty database with the application's migrations and seed, then fills it with
+   * generated rows in a few set-based statements.
+   */
+  public static class LargeDatabase
+      implements QuarkusTestResourceLifecycleManager, DevServicesContext.ContextAware {
+
+    private Map<String, String> devServicesProperties = Map.of();
+
+    @Override
+    public void setIntegrationTestContext(DevServicesContext context) {
+      devServicesProperties = context.devServicesProperties();
+    }
+
+    @Override
+    public Map<String, String> start() {
+      String url = property("quarkus.datasource.jdbc.url");
+      String username = property("quarkus.datasource.username");
+      String password = property("quarkus.datasource.password");
+
+      long start = System.nanoTime();
+      Flyway flyway =
+          Flyway.configure()
+              .dataSource(url, username, password)
+              .locations("db/migration", "db/seed")
+              .cleanDisabled(false)
+              .load();
+      flyway.clean();
+      flyway.migrate();
+      try (Connection connection = DriverManager.getConnection(url, username, password);
+          Statement statement = connection.createStatement()) {
+        fill(statement);
+      } catch (SQLException e) {
+        throw new IllegalStateException("Failed to fill the large database", e);
+      }
+      LOGGER.infof(
+          "Prepared the large database in %d ms",
+          Duration.ofNanos(System.nanoTime() - start).toMillis());
+
+      return Map.of("large-database.ready-at", String.valueOf(System.nanoTime()));
+    }
+
+    @Override
+    public void stop() {}
+
+    private String property(String name) {
+      String value = devServicesProperties.get(name);
+      return value != null ? value : ConfigProvider.getConfig().getValue(name, String.class);
+    }
+
+    private static void fill(Statement statement) throws SQLException {
+      // ids from 1000 on, clear of the seed data
+      statement.execute(
+          "insert into product (id, name, description, price, stock, version)"
+              + " select 1000 + i, 'LARGE-' || i, 'Generated product of range ' || (i % 1000),"
+              + " (i % 100000) / 100.0, i % 50, 0"
+              + " from generate_series(0, " + (PRODUCTS - 1) + ") i");
+      statement.execute(
+          "insert into store (id, name, quantityProductsInStock, version)"
+              + " select 1000 + i, 'LARGE-' || i, i % 100, 0"
+              + " from generate_series(0, " + (STORES - 1) + ") i");
+      // every business unit code has archived generations, one a minute, before its active one
+      statement.execute(
+          "insert into warehouse"
+              + " (id, businessUnitCode, location, capacity, stock, createdAt, archivedAt, version)"
+              + " select 1000 + g * " + WAREHOUSE_CODES + " + c, 'MWH.L' || c,"
+              + " (array['ZWOLLE-001', 'AMSTERDAM-001', 'TILBURG-001', 'EINDHOVEN-001'])[1 + c % 4],"
+              + " 100, c % 100, timestamp '2020-01-01' + g * interval '1 minute',"
+              + " case when g < " + (WAREHOUSE_GENERATIONS - 1)
+              + " then timestamp '2020-01-01' + (g + 1) * interval '1 minute' end, 0"
+              + " from generate_series(0, " + (WAREHOUSE_GENERATIONS - 1) + ") g,"
+              + " generate_series(0, " + (WAREHOUSE_CODES - 1) + ") c");
+      // three warehouses per store, five products per warehouse
+      statement.execute(
+          "insert into fulfilment_assignment"
+              + " (id, productId, storeId, warehouseBusinessUnitCode, createdAt)"
+              + " select 1000 + i, 1000 + i, 1000 + i / 3, 'MWH.L' || (i % " + WAREHOUSE_CODES
+              + "), timestamp '2024-01-01'"
+              + " from generate_series(0, " + (ASSIGNMENTS - 1) + ") i");
+      for (String sequence :
+          List.of("product_seq", "store_seq", "warehouse_seq", "fulfilment_assignment_seq")) {
+        statement.execute("select setval('" + sequence + "', 1000000)");
+      }
+      statement.execute("analyze");
+    }
+  }
+}
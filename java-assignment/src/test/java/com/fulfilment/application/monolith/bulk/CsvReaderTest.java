@@ -0,0 +1,51 @@
+package com.fulfilment.application.monolith.bulk;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class CsvReaderTest {
+
+  @Test
+  void shouldReadPlainAndQuotedFields() throws IOException {
+    CsvReader csv = new CsvReader(new StringReader("a,b,c\r\n1,\"x, \"\"y\"\"\",\n"));
+
+    assertEquals(List.of("a", "b", "c"), csv.next());
+    assertEquals(List.of("1", "x, \"y\"", ""), csv.next());
+    assertNull(csv.next());
+  }
+
+  @Test
+  void shouldReadQuotedLineBreaksAndTrackLines() throws IOException {
+    CsvReader csv = new CsvReader(new StringReader("name\n\"two\nlines\"\n\nlast"));
+
+    csv.next();
+    assertEquals(List.of("two\nlines"), csv.next());
+    assertEquals(2, csv.line());
+    // a blank line is a record with one empty field
+    assertEquals(List.of(""), csv.next());
+    assertEquals(List.of("last"), csv.next());
+    assertEquals(5, csv.line());
+    assertNull(csv.next());
+  }
+
+  @Test
+  void shouldRejectAnUnclosedQuote() throws IOException {
+    CsvReader csv = new CsvReader(new StringReader("name\n\"open,\n"));
+
+    csv.next();
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, csv::next);
+    assertTrue(e.getMessage().contains("line 2"));
+  }
+
+  @Test
+  void shouldReadPastTheBuffer() throws IOException {
+    String longField = "x".repeat(20_000);
+    CsvReader csv = new CsvReader(new StringReader("\"" + longField + "\",b\n"));
+
+    assertEquals(List.of(longField, "b"), csv.next());
+  }
+}
@@ -0,0 +1,72 @@
+package com.fulfilment.application.monolith.bulk;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+
+import io.quarkus.test.junit.QuarkusTest;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the parts of the Quarkus body size limit {@link ImportBodyLimit} relies on, with the 16 MB
+ * import limit of the test profile against the 10 MB of every other route.
+ */
+@QuarkusTest
+public class ImportBodyLimitTest {
+
+  private static final String ROW = "IMPORT-STORE-LIMIT,many\n";
+
+  @Test
+  public void testDeclaredLengthBeyondTheDefaultLimitIsAccepted() {
+    // fails when the Quarkus check runs before the import limit is applied
+    given()
+        .contentType("text/csv")
+        .body(csv(12))
+        .when()
+        .post("store/import")
+        .then()
+        .statusCode(200)
+        .body("imported", is(0));
+  }
+
+  @Test
+  public void testDeclaredLengthBeyondTheImportLimitIsRefused() {
+    given()
+        .header("Expect", "100-continue")
+        .contentType("text/csv")
+        .body(csv(20))
+        .when()
+        .post("store/import")
+        .then()
+        .statusCode(413);
+  }
+
+  @Test
+  public void testChunkedBodyIsBoundedByTheImportLimit() {
+    // without a Content-Length only the limit in the routing context bounds the body: the import
+    // one replaces the default one, and fails the read beyond it. The refused body only just passes
+    // the limit, so the socket buffers take the rest before the server closes the connection.
+    given()
+        .contentType("text/csv")
+        .body(new ByteArrayInputStream(csv(12)))
+        .when()
+        .post("store/import")
+        .then()
+        .statusCode(200)
+        .body("imported", is(0));
+
+    given()
+        .contentType("text/csv")
+        .body(new ByteArrayInputStream(csv(17)))
+        .when()
+        .post("store/import")
+        .then()
+        .statusCode(413);
+  }
+
+  private static byte[] csv(int megabytes) {
+    int rows = megabytes * 1024 * 1024 / ROW.length();
+    return ("name,quantityProductsInStock\n" + ROW.repeat(rows)).getBytes(StandardCharsets.UTF_8);
+  }
+}
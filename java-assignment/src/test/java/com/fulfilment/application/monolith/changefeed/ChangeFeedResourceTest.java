@@ -0,0 +1,107 @@
+package com.fulfilment.application.monolith.changefeed;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class ChangeFeedResourceTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @TestHTTPResource("changes")
+  URI changes;
+
+  private final HttpClient client = HttpClient.newHttpClient();
+
+  @Test
+  public void testCommittedChangesAreStreamedAndResumable() throws Exception {
+    String lastEventId;
+    try (Stream<String> stream = open("?entity=product", null)) {
+      Iterator<String> lines = stream.iterator();
+      createProduct("FEED-FIRST");
+      lastEventId = readEventContaining(lines, "FEED-FIRST");
+    }
+
+    // missed while disconnected, and sent on reconnect
+    createProduct("FEED-SECOND");
+    try (Stream<String> stream = open("?entity=product", lastEventId)) {
+      readEventContaining(stream.iterator(), "FEED-SECOND");
+    }
+  }
+
+  @Test
+  public void testAnUnknownLastEventIdGetsAReset() throws Exception {
+    try (Stream<String> stream = open("", "0-0")) {
+      Iterator<String> lines = stream.iterator();
+      assertTimeoutPreemptively(TIMEOUT, () -> assertEquals("event:reset", nextEventName(lines)));
+    }
+  }
+
+  @Test
+  public void testUnknownEntitiesAreRejected() {
+    given().when().get("changes?entity=customer").then().statusCode(400);
+  }
+
+  private Stream<String> open(String query, String lastEventId) throws Exception {
+    HttpRequest.Builder request =
+        HttpRequest.newBuilder(URI.create(changes + query)).header("Accept", "text/event-stream");
+    if (lastEventId != null) {
+      request.header("Last-Event-ID", lastEventId);
+    }
+    HttpResponse<Stream<String>> response =
+        client
+            .sendAsync(request.build(), HttpResponse.BodyHandlers.ofLines())
+            .get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+    assertEquals(200, response.statusCode());
+    return response.body();
+  }
+
+  private static String readEventContaining(Iterator<String> lines, String text) {
+    return assertTimeoutPreemptively(
+        TIMEOUT,
+        () -> {
+          String id = null;
+          while (true) {
+            String line = lines.next();
+            if (line.startsWith("id:")) {
+              id = line.substring(3).trim();
+            } else if (line.startsWith("data:") && line.contains(text)) {
+              return id;
+            }
+          }
+        });
+  }
+
+  private static String nextEventName(Iterator<String> lines) {
+    while (true) {
+      String line = lines.next();
+      if (line.startsWith("event:")) {
+        return line.replace(" ", "");
+      }
+    }
+  }
+
+  private static void createProduct(String name) {
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"name\": \"" + name + "\", \"stock\": 1}")
+        .when()
+        .post("product")
+        .then()
+        .statusCode(201);
+  }
+}
@@ -0,0 +1,153 @@
+package com.fulfilment.application.monolith.changefeed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.stores.StoreEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeFeedTest {
+
+  private MeterRegistry meterRegistry;
+  private ChangeFeed feed;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    feed = new ChangeFeed(new ObjectMapper(), meterRegistry, 3, 2);
+  }
+
+  @Test
+  void subscribersShouldGetTheNewChangesOfTheirEntities() {
+    RecordingSink stores = new RecordingSink();
+    RecordingSink all = new RecordingSink();
+    feed.subscribe(null, Set.of(ChangeFeed.STORE), stores);
+    feed.subscribe(null, ChangeFeed.ENTITIES, all);
+
+    Store store = new Store("KALLAX");
+    store.id = 2L;
+    feed.onStoreEvent(new StoreEvent(store, StoreEvent.Type.UPDATED));
+    feed.append(ChangeFeed.PRODUCT, "CREATED", 5L, Map.of("name", "TONSTAD"));
+
+    assertEquals(List.of("store"), stores.names());
+    assertEquals(List.of("store", "product"), all.names());
+    String data = stores.events.get(0).data;
+    assertTrue(data.contains("\"type\":\"UPDATED\""), data);
+    assertTrue(data.contains("\"key\":2"), data);
+    assertTrue(data.contains("\"name\":\"KALLAX\""), data);
+  }
+
+  @Test
+  void aSubscriberShouldResumeAfterTheLastEventItReceived() {
+    RecordingSink first = new RecordingSink();
+    feed.subscribe(null, ChangeFeed.ENTITIES, first);
+    feed.append(ChangeFeed.PRODUCT, "CREATED", 1L, Map.of());
+    first.close();
+    feed.append(ChangeFeed.PRODUCT, "UPDATED", 1L, Map.of());
+    feed.append(ChangeFeed.PRODUCT, "DELETED", 1L, Map.of());
+
+    RecordingSink resumed = new RecordingSink();
+    feed.subscribe(first.events.get(0).id, ChangeFeed.ENTITIES, resumed);
+
+    assertEquals(2, resumed.events.size());
+    assertTrue(resumed.events.get(0).data.contains("UPDATED"));
+    assertTrue(resumed.events.get(1).data.contains("DELETED"));
+  }
+
+  @Test
+  void aSubscriberShouldBeResetWhenItMissedEventsThatAreGone() {
+    RecordingSink first = new RecordingSink();
+    feed.subscribe(null, ChangeFeed.ENTITIES, first);
+    feed.append(ChangeFeed.PRODUCT, "CREATED", 1L, Map.of());
+    first.close();
+    // the buffer holds 3 events, so the one after the first is overwritten
+    for (int i = 0; i < 4; i++) {
+      feed.append(ChangeFeed.PRODUCT, "UPDATED", 1L, Map.of());
+    }
+
+    RecordingSink behind = new RecordingSink();
+    feed.subscribe(first.events.get(0).id, ChangeFeed.ENTITIES, behind);
+    RecordingSink unknown = new RecordingSink();
+    feed.subscribe("42-1", ChangeFeed.ENTITIES, unknown);
+    feed.append(ChangeFeed.STORE, "CREATED", 3L, Map.of());
+
+    assertEquals(List.of("reset", "store"), behind.names());
+    assertEquals(List.of("reset", "store"), unknown.names());
+
+    // the reset carries a position to resume from
+    RecordingSink resumed = new RecordingSink();
+    feed.subscribe(unknown.events.get(0).id, ChangeFeed.ENTITIES, resumed);
+    assertEquals(List.of("store"), resumed.names());
+  }
+
+  @Test
+  void aSlowSubscriberShouldBeDisconnected() {
+    RecordingSink slow = new RecordingSink();
+    slow.completeWrites = false;
+    feed.subscribe(null, ChangeFeed.ENTITIES, slow);
+
+    feed.append(ChangeFeed.PRODUCT, "CREATED", 1L, Map.of());
+    feed.append(ChangeFeed.PRODUCT, "CREATED", 2L, Map.of());
+    assertFalse(slow.closed);
+    feed.append(ChangeFeed.PRODUCT, "CREATED", 3L, Map.of());
+
+    assertTrue(slow.closed);
+    assertEquals(2, slow.events.size());
+    assertEquals(1.0, meterRegistry.get("changefeed.evictions").counter().count());
+    assertEquals(0.0, meterRegistry.get("changefeed.subscribers").gauge().value());
+  }
+
+  @Test
+  void aSubscriberShouldBeDroppedWhenAWriteFails() {
+    RecordingSink broken = new RecordingSink();
+    broken.failWrites = true;
+    feed.subscribe(null, ChangeFeed.ENTITIES, broken);
+
+    feed.append(ChangeFeed.PRODUCT, "CREATED", 1L, Map.of());
+
+    assertTrue(broken.closed);
+    assertEquals(0.0, meterRegistry.get("changefeed.subscribers").gauge().value());
+    assertEquals(0.0, meterRegistry.get("changefeed.evictions").counter().count());
+  }
+
+  private static final class RecordingSink implements ChangeFeed.Sink {
+
+    final List<ChangeEvent> events = new ArrayList<>();
+    boolean completeWrites = true;
+    boolean failWrites;
+    boolean closed;
+
+    @Override
+    public CompletionStage<?> send(ChangeEvent event) {
+      events.add(event);
+      if (failWrites) {
+        return CompletableFuture.failedFuture(new IllegalStateException("connection reset"));
+      }
+      return completeWrites ? CompletableFuture.completedFuture(null) : new CompletableFuture<>();
+    }
+
+    @Override
+    public boolean isClosed() {
+      return closed;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    List<String> names() {
+      return events.stream().map(event -> event.name).toList();
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FulfilmentConstraintsTest {
+
+  private FulfilmentConstraints constraints;
+
+  @BeforeEach
+  void setUp() {
+    constraints = new FulfilmentConstraints();
+  }
+
+  @Test
+  void shouldReserveAssignmentWithinTheRules() {
+    assertNull(constraints.tryReserve(1L, 1L, "MWH.001"));
+    assertEquals(1, constraints.size());
+  }
+
+  @Test
+  void shouldRejectDuplicateAssignment() {
+    constraints.tryReserve(1L, 1L, "MWH.001");
+
+    assertTrue(constraints.tryReserve(1L, 1L, "MWH.001").contains("already fulfilled by warehouse"));
+    assertEquals(1, constraints.size());
+  }
+
+  @Test
+  void shouldLimitWarehousesPerProductAndStore() {
+    assertNull(constraints.tryReserve(1L, 1L, "MWH.001"));
+    assertNull(constraints.tryReserve(1L, 1L, "MWH.002"));
+
+    assertTrue(constraints.tryReserve(1L, 1L, "MWH.003").contains("2 warehouses for store 1"));
+    // the same product may still be fulfilled by other warehouses for another store
+    assertNull(constraints.tryReserve(1L, 2L, "MWH.003"));
+  }
+
+  @Test
+  void shouldLimitDistinctWarehousesPerStore() {
+    assertNull(constraints.tryReserve(1L, 1L, "MWH.001"));
+    assertNull(constraints.tryReserve(2L, 1L, "MWH.002"));
+    assertNull(constraints.tryReserve(3L, 1L, "MWH.003"));
+
+    assertTrue(constraints.tryReserve(4L, 1L, "MWH.004").contains("Store 1 is already fulfilled by 3"));
+    // a warehouse the store already uses does not count again
+    assertNull(constraints.tryReserve(4L, 1L, "MWH.001"));
+  }
+
+  @Test
+  void shouldLimitDistinctProductsPerWarehouse() {
+    for (long product = 1; product <= 5; product++) {
+      assertNull(constraints.tryReserve(product, product, "MWH.001"));
+    }
+
+    assertTrue(constraints.tryReserve(6L, 6L, "MWH.001").contains("already stores 5 products"));
+    // a product the warehouse already stores does not count again
+    assertNull(constraints.tryReserve(1L, 6L, "MWH.001"));
+  }
+
+  @Test
+  void releaseShouldFreeTheSlotsTakenByAnAssignment() {
+    assertNull(constraints.tryReserve(1L, 1L, "MWH.001"));
+    assertNull(constraints.tryReserve(2L, 1L, "MWH.002"));
+    assertNull(constraints.tryReserve(3L, 1L, "MWH.003"));
+
+    constraints.release(3L, 1L, "MWH.003");
+
+    assertEquals(2, constraints.size());
+    assertNull(constraints.tryReserve(4L, 1L, "MWH.004"));
+  }
+
+  @Test
+  void releaseShouldKeepSharedPairsCountedUntilTheirLastAssignmentGoes() {
+    constraints.tryReserve(1L, 1L, "MWH.001");
+    constraints.tryReserve(2L, 1L, "MWH.001");
+    constraints.tryReserve(3L, 1L, "MWH.002");
+    constraints.tryReserve(4L, 1L, "MWH.003");
+
+    // MWH.001 still fulfils product 2 for store 1, so the store keeps using 3 warehouses
+    constraints.release(1L, 1L, "MWH.001");
+
+    assertNotNull(constraints.tryReserve(5L, 1L, "MWH.004"));
+  }
+
+  @Test
+  void releaseShouldIgnoreUnknownAssignment() {
+    constraints.tryReserve(1L, 1L, "MWH.001");
+
+    constraints.release(2L, 1L, "MWH.001");
+
+    assertEquals(1, constraints.size());
+  }
+
+  @Test
+  void loadShouldCountStoredAssignmentsWithoutCheckingRules() {
+    for (long product = 1; product <= 6; product++) {
+      constraints.load(product, product, "MWH.001");
+    }
+    constraints.load(1L, 1L, "MWH.001");
+
+    assertEquals(6, constraints.size());
+    assertNotNull(constraints.tryReserve(7L, 7L, "MWH.001"));
+
+    constraints.clear();
+    assertEquals(0, constraints.size());
+    assertNull(constraints.tryReserve(7L, 7L, "MWH.001"));
+  }
+}
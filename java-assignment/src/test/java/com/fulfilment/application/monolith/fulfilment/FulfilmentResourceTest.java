@@ -0,0 +1,311 @@
+package com.fulfilment.application.monolith.fulfilment;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class FulfilmentResourceTest {
+
+  private static final String PATH = "fulfilment";
+
+  @Test
+  public void testAssignAndUnassign() {
+    long store = createStore("FUL-STORE-1");
+    long product = createProduct("FUL-PRODUCT-1");
+
+    int id =
+        given()
+            .contentType(ContentType.JSON)
+            .body(assignment(product, store, "MWH.012"))
+            .when()
+            .post(PATH)
+            .then()
+            .statusCode(201)
+            .body("warehouseBusinessUnitCode", is("MWH.012"))
+            .extract()
+            .path("id");
+
+    given().when().get(PATH + "/" + id).then().statusCode(200).body("productId", is((int) product));
+
+    // the same assignment again
+    given()
+        .contentType(ContentType.JSON)
+        .body(assignment(product, store, "MWH.012"))
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(400)
+        .body(containsString("already fulfilled by warehouse MWH.012"));
+
+    given().when().delete(PATH + "/" + id).then().statusCode(204);
+    given().when().get(PATH + "/" + id).then().statusCode(404);
+    given().when().delete(PATH + "/" + id).then().statusCode(404);
+
+    // the slot is free again once unassigned
+    given()
+        .contentType(ContentType.JSON)
+        .body(assignment(product, store, "MWH.012"))
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(201);
+  }
+
+  @Test
+  public void testAssignmentIsRejectedWhenWarehouseStoresFiveProducts() {
+    long store = createStore("FUL-STORE-2");
+    for (int i = 1; i <= 5; i++) {
+      long product = createProduct("FUL-PRODUCT-2-" + i);
+      given()
+          .contentType(ContentType.JSON)
+          .body(assignment(product, store, "MWH.023"))
+          .when()
+          .post(PATH)
+          .then()
+          .statusCode(201);
+    }
+
+    long sixth = createProduct("FUL-PRODUCT-2-6");
+    given()
+        .contentType(ContentType.JSON)
+        .body(assignment(sixth, store, "MWH.023"))
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(400)
+        .body(containsString("Warehouse MWH.023 already stores 5 products"));
+  }
+
+  @Test
+  public void testAssignmentWithUnknownOrMissingReferencesIsRejected() {
+    long store = createStore("FUL-STORE-3");
+
+    given()
+        .contentType(ContentType.JSON)
+        .body(assignment(9999, store, "MWH.012"))
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(400)
+        .body(containsString("Product with id of 9999 does not exist."));
+
+    given()
+        .contentType(ContentType.JSON)
+        .body(assignment(2, store, "MWH.UNKNOWN"))
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(400)
+        .body(containsString("Warehouse with business unit code MWH.UNKNOWN does not exist."));
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"productId\": 2}")
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(422);
+  }
+
+  @Test
+  public void testImportStoresValidLinesAndReportsTheRest() {
+    long store = createStore("FUL-STORE-4");
+    long first = createProduct("FUL-PRODUCT-4-1");
+    long second = createProduct("FUL-PRODUCT-4-2");
+
+    String body =
+        String.join(
+            "\n",
+            assignment(first, store, "MWH.012"),
+            "{not json",
+            assignment(first, store, "MWH.012"),
+            "",
+            assignment(second, 9999, "MWH.012"),
+            assignment(second, store, "MWH.012"));
+
+    given()
+        .contentType("application/x-ndjson")
+        .body(body.getBytes(StandardCharsets.UTF_8))
+        .when()
+        .post(PATH + "/import")
+        .then()
+        .statusCode(200)
+        .body(
+            "imported", is(2),
+            "rejected", is(3),
+            "errors.line", is(List.of(2, 3, 5)),
+            "errors[1].error", containsString("already fulfilled"),
+            "errors[2].error", containsString("Store with id of 9999 does not exist."));
+
+    String exported =
+        given()
+            .accept("application/x-ndjson")
+            .when()
+            .get(PATH)
+            .then()
+            .statusCode(200)
+            .extract()
+            .asString();
+    assertEquals(
+        2,
+        exported.lines().filter(line -> line.contains("\"storeId\":" + store + ",")).count());
+  }
+
+  @Test
+  public void testAssignmentsOfADeletedProductAreRemoved() {
+    long store = createStore("FUL-STORE-5");
+    String warehouseId = createWarehouse("MWH.F05");
+    long first = createProduct("FUL-PRODUCT-5-1");
+    int id = assign(first, store, "MWH.F05");
+    for (int i = 2; i <= 5; i++) {
+      assign(createProduct("FUL-PRODUCT-5-" + i), store, "MWH.F05");
+    }
+
+    given().when().delete("product/" + first).then().statusCode(204);
+    given().when().get(PATH + "/" + id).then().statusCode(404);
+
+    // the warehouse has room for a fifth product again
+    assign(createProduct("FUL-PRODUCT-5-6"), store, "MWH.F05");
+
+    given().when().delete("warehouse/" + warehouseId).then().statusCode(204);
+  }
+
+  @Test
+  public void testAssignmentsOfADeletedStoreAreRemoved() {
+    long store = createStore("FUL-STORE-6");
+    String warehouseId = createWarehouse("MWH.F06");
+    long product = createProduct("FUL-PRODUCT-6");
+    int id = assign(product, store, "MWH.F06");
+    for (int i = 2; i <= 5; i++) {
+      assign(createProduct("FUL-PRODUCT-6-" + i), store, "MWH.F06");
+    }
+
+    given().when().delete("store/" + store).then().statusCode(204);
+    given().when().get(PATH + "/" + id).then().statusCode(404);
+
+    // the products of the deleted store no longer take up the warehouse
+    assign(createProduct("FUL-PRODUCT-6-6"), createStore("FUL-STORE-6-2"), "MWH.F06");
+
+    given().when().delete("warehouse/" + warehouseId).then().statusCode(204);
+  }
+
+  @Test
+  public void testAssignmentsOfAnArchivedWarehouseAreRemoved() {
+    long store = createStore("FUL-STORE-7");
+    long product = createProduct("FUL-PRODUCT-7");
+    String archivedId = createWarehouse("MWH.F07");
+    String otherId = createWarehouse("MWH.F07B");
+    int id = assign(product, store, "MWH.F07");
+    assign(product, store, "MWH.F07B");
+
+    given().when().delete("warehouse/" + archivedId).then().statusCode(204);
+    given().when().get(PATH + "/" + id).then().statusCode(404);
+
+    // the product is fulfilled by one warehouse for the store, so a second one is allowed again
+    String replacementId = createWarehouse("MWH.F07C");
+    assign(product, store, "MWH.F07C");
+
+    given().when().delete("warehouse/" + otherId).then().statusCode(204);
+    given().when().delete("warehouse/" + replacementId).then().statusCode(204);
+  }
+
+  @Test
+  public void testAssignmentsOfAReplacedWarehouseAreRemoved() {
+    long store = createStore("FUL-STORE-8");
+    createWarehouse("MWH.F08");
+    int id = assign(createProduct("FUL-PRODUCT-8-1"), store, "MWH.F08");
+    for (int i = 2; i <= 5; i++) {
+      assign(createProduct("FUL-PRODUCT-8-" + i), store, "MWH.F08");
+    }
+
+    String replacementId =
+        given()
+            .contentType(ContentType.JSON)
+            .body(warehouse("MWH.F08"))
+            .when()
+            .post("warehouse/MWH.F08/replacement")
+            .then()
+            .statusCode(200)
+            .extract()
+            .path("id")
+            .toString();
+    given().when().get(PATH + "/" + id).then().statusCode(404);
+
+    // the new warehouse starts without products
+    assign(createProduct("FUL-PRODUCT-8-6"), store, "MWH.F08");
+
+    given().when().delete("warehouse/" + replacementId).then().statusCode(204);
+  }
+
+  private static int assign(long product, long store, String warehouse) {
+    return given()
+        .contentType(ContentType.JSON)
+        .body(assignment(product, store, warehouse))
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(201)
+        .extract()
+        .path("id");
+  }
+
+  private static String assignment(long product, long store, String warehouse) {
+    return "{\"productId\": " + product + ", \"storeId\": " + store
+        + ", \"warehouseBusinessUnitCode\": \"" + warehouse + "\"}";
+  }
+
+  private static String warehouse(String businessUnitCode) {
+    return "{\"businessUnitCode\": \"" + businessUnitCode
+        + "\", \"location\": \"AMSTERDAM-002\", \"capacity\": 10, \"stock\": 0}";
+  }
+
+  // a warehouse of its own, as archiving or replacing a seeded one would affect other tests
+  private static String createWarehouse(String businessUnitCode) {
+    return given()
+        .contentType(ContentType.JSON)
+        .body(warehouse(businessUnitCode))
+        .when()
+        .post("warehouse")
+        .then()
+        .statusCode(201)
+        .extract()
+        .path("id")
+        .toString();
+  }
+
+  private static long createStore(String name) {
+    return ((Number)
+            given()
+                .contentType(ContentType.JSON)
+                .body("{\"name\": \"" + name + "\"}")
+                .when()
+                .post("store")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id"))
+        .longValue();
+  }
+
+  private static long createProduct(String name) {
+    return ((Number)
+            given()
+                .contentType(ContentType.JSON)
+                .body("{\"name\": \"" + name + "\"}")
+                .when()
+                .post("product")
+                .then()
+                .statusCode(201)
+                .extract()
+                .path("id"))
+        .longValue();
+  }
+}
@@ -0,0 +1,77 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocationCatalogTest {
+
+  @Test
+  void parseShouldIndexEveryRow() throws IOException {
+    LocationCatalog catalog = LocationCatalog.parse(new StringReader(
+        "identification,maxNumberOfWarehouses,maxCapacity\n"
+            + "ZWOLLE-001,1,40\n"
+            + "AMSTERDAM-001,5,100\n"));
+
+    assertEquals(2, catalog.size());
+    Location location = catalog.get("AMSTERDAM-001");
+    assertEquals("AMSTERDAM-001", location.identification);
+    assertEquals(5, location.maxNumberOfWarehouses);
+    assertEquals(100, location.maxCapacity);
+  }
+
+  @Test
+  void parseShouldSkipBlankLinesCommentsAndWhitespace() throws IOException {
+    LocationCatalog catalog = LocationCatalog.parse(new StringReader(
+        "# sites\n\n  ZWOLLE-001 , 1 , 40  \n"));
+
+    assertEquals(1, catalog.size());
+    assertEquals(40, catalog.get("ZWOLLE-001").maxCapacity);
+  }
+
+  @Test
+  void parseShouldOnlySkipAFirstRowThatIsTheHeader() throws IOException {
+    LocationCatalog catalog = LocationCatalog.parse(new StringReader(
+        "# sites\n"
+            + "identification,maxNumberOfWarehouses,maxCapacity\n"
+            + "identification-desk-001,1,40\n"));
+
+    assertEquals(1, catalog.size());
+    assertEquals(40, catalog.get("identification-desk-001").maxCapacity);
+
+    LocationCatalog withoutHeader =
+        LocationCatalog.parse(new StringReader("identification-desk-001,1,40\n"));
+    assertEquals(1, withoutHeader.size());
+  }
+
+  @Test
+  void getShouldReturnNullForUnknownOrNullIdentifier() throws IOException {
+    LocationCatalog catalog = LocationCatalog.parse(new StringReader("ZWOLLE-001,1,40\n"));
+
+    assertNull(catalog.get("UNKNOWN-001"));
+    assertNull(catalog.get(null));
+  }
+
+  @Test
+  void parseShouldRejectWrongColumnCount() {
+    IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+        () -> LocationCatalog.parse(new StringReader("ZWOLLE-001,1\n")));
+    assertTrue(ex.getMessage().contains("Line 1"));
+  }
+
+  @Test
+  void parseShouldRejectNonNumericLimits() {
+    assertThrows(IllegalArgumentException.class,
+        () -> LocationCatalog.parse(new StringReader("ZWOLLE-001,one,40\n")));
+  }
+
+  @Test
+  void parseShouldRejectDuplicateIdentifiers() {
+    IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+        () -> LocationCatalog.parse(new StringReader("ZWOLLE-001,1,40\nZWOLLE-001,2,50\n")));
+    assertTrue(ex.getMessage().contains("ZWOLLE-001"));
+  }
+}
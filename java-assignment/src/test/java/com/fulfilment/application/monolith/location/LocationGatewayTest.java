@@ -1,9 +1,20 @@
 package com.fulfilment.application.monolith.location;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class LocationGatewayTest {
 
@@ -77,4 +88,62 @@ public class LocationGatewayTest {
     assertEquals(1, location.maxNumberOfWarehouses);
     assertEquals(90, location.maxCapacity);
   }
+
+  @Test
+  public void testResolveAllReturnsOnlyKnownLocations() {
+    Map<String, Location> resolved =
+        locationGateway.resolveAll(List.of("ZWOLLE-001", "UNKNOWN-001", "TILBURG-001"));
+
+    assertEquals(List.of("ZWOLLE-001", "TILBURG-001"), List.copyOf(resolved.keySet()));
+    assertEquals(40, resolved.get("TILBURG-001").maxCapacity);
+  }
+
+  @Test
+  public void testLoadsCatalogFromConfiguredFile(@TempDir Path dir) throws IOException {
+    Path file = writeCatalog(dir, "ROTTERDAM-001,4,200\n", Instant.now());
+    LocationGateway gateway = new LocationGateway(Optional.of(file.toString()), Duration.ofHours(1));
+
+    assertEquals(200, gateway.resolveByIdentifier("ROTTERDAM-001").maxCapacity);
+    assertNull(gateway.resolveByIdentifier("ZWOLLE-001"));
+  }
+
+  @Test
+  public void testReloadsCatalogWhenFileChanges(@TempDir Path dir) throws IOException {
+    Instant modified = Instant.now().minusSeconds(60);
+    Path file = writeCatalog(dir, "ROTTERDAM-001,4,200\n", modified);
+    LocationGateway gateway = new LocationGateway(Optional.of(file.toString()), Duration.ZERO);
+    assertEquals(200, gateway.resolveByIdentifier("ROTTERDAM-001").maxCapacity);
+
+    writeCatalog(dir, "ROTTERDAM-001,4,250\nUTRECHT-001,2,80\n", modified.plusSeconds(30));
+
+    assertEquals(250, gateway.resolveByIdentifier("ROTTERDAM-001").maxCapacity);
+    assertEquals(80, gateway.resolveByIdentifier("UTRECHT-001").maxCapacity);
+  }
+
+  @Test
+  public void testKeepsPreviousCatalogWhenReloadFails(@TempDir Path dir) throws IOException {
+    Instant modified = Instant.now().minusSeconds(60);
+    Path file = writeCatalog(dir, "ROTTERDAM-001,4,200\n", modified);
+    LocationGateway gateway = new LocationGateway(Optional.of(file.toString()), Duration.ZERO);
+    assertEquals(200, gateway.resolveByIdentifier("ROTTERDAM-001").maxCapacity);
+
+    writeCatalog(dir, "ROTTERDAM-001,four,200\n", modified.plusSeconds(30));
+
+    assertEquals(200, gateway.resolveByIdentifier("ROTTERDAM-001").maxCapacity);
+  }
+
+  @Test
+  public void testMissingConfiguredFileFailsOnFirstLookup(@TempDir Path dir) {
+    LocationGateway gateway =
+        new LocationGateway(Optional.of(dir.resolve("missing.csv").toString()), Duration.ZERO);
+
+    assertThrows(RuntimeException.class, () -> gateway.resolveByIdentifier("ZWOLLE-001"));
+  }
+
+  private Path writeCatalog(Path dir, String rows, Instant modified) throws IOException {
+    Path file = dir.resolve("locations.csv");
+    Files.writeString(file, "identification,maxNumberOfWarehouses,maxCapacity\n" + rows);
+    Files.setLastModifiedTime(file, FileTime.from(modified));
+    return file;
+  }
 }
@@ -0,0 +1,45 @@
+package com.fulfilment.application.monolith.metrics;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.allOf;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class MetricsEndpointTest {
+
+  @Test
+  public void testScrapeEndpointExposesRequestUseCaseAndRepositoryMetrics() {
+    given().when().get("product").then().statusCode(200);
+    given().when().get("store").then().statusCode(200);
+    given().when().get("warehouse").then().statusCode(200);
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"businessUnitCode\": \"MWH.M01\", \"location\": \"INVALID-999\", \"capacity\": 10, \"stock\": 0}")
+        .when()
+        .post("warehouse")
+        .then()
+        .statusCode(400);
+
+    given()
+        .when()
+        .get("/q/metrics")
+        .then()
+        .statusCode(200)
+        .body(
+            allOf(
+                containsString("http_server_requests_seconds_bucket{"),
+                containsString("uri=\"/product\""),
+                containsString("uri=\"/store\""),
+                containsString("uri=\"/warehouse\""),
+                containsString("warehouse_usecase_seconds_bucket{"),
+                containsString("method=\"create\""),
+                containsString("repository_query_seconds_bucket{"),
+                containsString("warehouse_validation_rejections_total{rule=\"unknown-location\""),
+                containsString("hibernate_second_level_cache_requests_total{"),
+                containsString("hibernate_cache_query_requests_total{")));
+  }
+}
@@ -2,9 +2,22 @@ package com.fulfilment.application.monolith.products;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.hamcrest.core.IsNot.not;
 
 import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.Test;
 
 @QuarkusTest
@@ -33,4 +46,327 @@ public class ProductEndpointTest {
         .statusCode(200)
         .body(not(containsString("TONSTAD")), containsString("KALLAX"), containsString("BESTÅ"));
   }
+
+  @Test
+  public void testListProductsIsPagedAndStreamable() {
+    final String path = "product";
+
+    given()
+        .when()
+        .get(path + "?after=2&limit=1")
+        .then()
+        .statusCode(200)
+        .body("size()", is(1), "[0].name", is("BESTÅ"));
+
+    given().when().get(path + "?limit=-1").then().statusCode(400);
+
+    String body =
+        given()
+            .accept("application/x-ndjson")
+            .when()
+            .get(path)
+            .then()
+            .statusCode(200)
+            .contentType("application/x-ndjson")
+            .extract()
+            .asString();
+
+    int products = given().when().get(path + "?limit=1000").then().extract().path("size()");
+    assertEquals(products, body.lines().count());
+    assertTrue(body.contains("\"name\":\"KALLAX\""));
+  }
+
+  @Test
+  public void testConditionalRequestsUseTheProductVersion() {
+    int id =
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\": \"ETAG-PRODUCT\", \"stock\": 1}")
+            .when()
+            .post("product")
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+    String path = "product/" + id;
+
+    String etag = given().when().get(path).then().statusCode(200).extract().header("ETag");
+    given().header("If-None-Match", etag).when().get(path).then().statusCode(304);
+
+    String updated =
+        given()
+            .contentType(ContentType.JSON)
+            .header("If-Match", etag)
+            .body("{\"name\": \"ETAG-PRODUCT\", \"stock\": 2}")
+            .when()
+            .put(path)
+            .then()
+            .statusCode(200)
+            .extract()
+            .header("ETag");
+    assertNotEquals(etag, updated);
+
+    // the first tag is stale now
+    given()
+        .contentType(ContentType.JSON)
+        .header("If-Match", etag)
+        .body("{\"name\": \"ETAG-PRODUCT\", \"stock\": 3}")
+        .when()
+        .put(path)
+        .then()
+        .statusCode(412);
+    given().when().get(path).then().statusCode(200).body("stock", is(2));
+  }
+
+  @Test
+  public void testStockAdjustmentsNeverTakeTheStockBelowZero() {
+    int id = createProduct("ADJUST-PRODUCT", 5);
+    String path = "product/" + id;
+    String etag = given().when().get(path).then().statusCode(200).extract().header("ETag");
+
+    String adjusted =
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"delta\": -3}")
+            .when()
+            .post(path + "/stock/adjust")
+            .then()
+            .statusCode(200)
+            .body("stock", is(2), "delta", is(-3))
+            .extract()
+            .header("ETag");
+    assertNotEquals(etag, adjusted);
+    // the cached product was evicted, so the read and its tag follow the adjustment
+    given().header("If-None-Match", adjusted).when().get(path).then().statusCode(304);
+    given().when().get(path).then().statusCode(200).body("stock", is(2));
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"delta\": -3}")
+        .when()
+        .post(path + "/stock/adjust")
+        .then()
+        .statusCode(409)
+        .body("error", containsString("is 2"));
+    given().when().get(path).then().statusCode(200).body("stock", is(2));
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"delta\": 1}")
+        .when()
+        .post("product/999999/stock/adjust")
+        .then()
+        .statusCode(404);
+    given()
+        .contentType(ContentType.JSON)
+        .body("{}")
+        .when()
+        .post(path + "/stock/adjust")
+        .then()
+        .statusCode(422);
+  }
+
+  @Test
+  public void testStockAdjustmentBatchesAreNettedPerProduct() {
+    int first = createProduct("ADJUST-BATCH-1", 1);
+    int second = createProduct("ADJUST-BATCH-2", 0);
+
+    given()
+        .contentType(ContentType.JSON)
+        .body(
+            "[{\"id\": " + first + ", \"delta\": 2}, {\"id\": " + second + ", \"delta\": -1},"
+                + " {\"id\": " + first + ", \"delta\": -1}, {\"id\": 999999, \"delta\": 1}]")
+        .when()
+        .post("product/stock/adjust")
+        .then()
+        .statusCode(200)
+        .body(
+            "size()", is(3),
+            "[0].id", is(first), "[0].delta", is(1), "[0].status", is(200), "[0].stock", is(2),
+            "[1].id", is(second), "[1].status", is(409), "[1].stock", nullValue(),
+            "[2].id", is(999999), "[2].status", is(404));
+    given().when().get("product/" + second).then().statusCode(200).body("stock", is(0));
+
+    given().contentType(ContentType.JSON).body("[]").when().post("product/stock/adjust")
+        .then().statusCode(400);
+  }
+
+  @Test
+  public void testConcurrentStockAdjustmentsDoNotOversell() throws Exception {
+    int id = createProduct("ADJUST-RACE", 20);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Integer>> statuses = new ArrayList<>();
+      for (int i = 0; i < 30; i++) {
+        statuses.add(
+            executor.submit(
+                () ->
+                    given()
+                        .contentType(ContentType.JSON)
+                        .body("{\"delta\": -1}")
+                        .when()
+                        .post("product/" + id + "/stock/adjust")
+                        .then()
+                        .extract()
+                        .statusCode()));
+      }
+      int applied = 0;
+      for (Future<Integer> status : statuses) {
+        if (status.get() == 200) {
+          applied++;
+        } else {
+          assertEquals(409, status.get());
+        }
+      }
+      assertEquals(20, applied);
+    } finally {
+      executor.shutdown();
+    }
+    given().when().get("product/" + id).then().statusCode(200).body("stock", is(0));
+  }
+
+  private static int createProduct(String name, int stock) {
+    return given()
+        .contentType(ContentType.JSON)
+        .body("{\"name\": \"" + name + "\", \"stock\": " + stock + "}")
+        .when()
+        .post("product")
+        .then()
+        .statusCode(201)
+        .extract()
+        .path("id");
+  }
+
+  @Test
+  public void testSearchFollowsProductChanges() {
+    int id =
+        given()
+            .contentType(ContentType.JSON)
+            .body(
+                "{\"name\": \"SEARCH-LADA\", \"description\": \"Oak drawer\","
+                    + " \"price\": 42.50, \"stock\": 0}")
+            .when()
+            .post("product")
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+
+    given().queryParam("q", "lada oak").when().get("product/search?minPrice=40&maxPrice=45")
+        .then()
+        .statusCode(200).body("size()", is(1), "[0].id", is(id), "[0].name", is("SEARCH-LADA"));
+    given().when().get("product/search?q=lada&inStock=true").then()
+        .statusCode(200).body("size()", is(0));
+    given().when().get("product/search?q=kallax").then()
+        .statusCode(200).body("name", hasItem("KALLAX"));
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"delta\": 3}")
+        .when()
+        .post("product/" + id + "/stock/adjust")
+        .then()
+        .statusCode(200);
+    given().when().get("product/search?q=lada&inStock=true").then()
+        .statusCode(200).body("size()", is(1), "[0].stock", is(3));
+    // the adjusted product reaches the index whole, as the adjustment returned it
+    given().queryParam("q", "lada oak").when().get("product/search?minPrice=40&maxPrice=45")
+        .then()
+        .statusCode(200).body("size()", is(1), "[0].stock", is(3), "[0].name", is("SEARCH-LADA"));
+
+    given().when().delete("product/" + id).then().statusCode(204);
+    given().queryParam("q", "oak drawer").when().get("product/search").then()
+        .statusCode(200).body("size()", is(0));
+
+    given().when().get("product/search?minPrice=5&maxPrice=1").then().statusCode(400);
+  }
+
+  @Test
+  public void testImportAndExportCsv() {
+    String csv =
+        String.join(
+            "\n",
+            "name,price,stock,description",
+            "IMPORT-SKOGSTA,129.00,4,\"Dining table, acacia\"",
+            "IMPORT-NORDEN,abc,1,Gateleg table",
+            "IMPORT-SKOGSTA,99.00,1,Same name again",
+            "IMPORT-INGO,79.50,-2,Pine table",
+            "KALLAX,10.00,1,Taken name",
+            "IMPORT-LISABO,149.00,2",
+            "",
+            "IMPORT-MORBYLANGA,899.00,0,\"Oak table\nwith a quoted line break\"",
+            "IMPORT-EKEDALEN,\"199.00\",3,Extendable table");
+
+    given()
+        .contentType("text/csv")
+        .body(csv)
+        .when()
+        .post("product/import")
+        .then()
+        .statusCode(200)
+        .body(
+            "imported", is(3),
+            "rejected", is(5),
+            "errors.line", is(List.of(3, 4, 5, 6, 7)),
+            "errors[0].error", containsString("Column price is not a number"),
+            "errors[1].error", containsString("already exists"),
+            "errors[2].error", containsString("must not be negative"),
+            "errors[3].error", containsString("Product with name KALLAX already exists."),
+            "errors[4].error", containsString("fields"));
+
+    String exported =
+        given()
+            .accept("text/csv")
+            .when()
+            .get("product/export")
+            .then()
+            .statusCode(200)
+            .extract()
+            .asString();
+    assertTrue(exported.startsWith("id,name,description,price,stock\r\n"));
+    assertTrue(exported.contains(",IMPORT-SKOGSTA,\"Dining table, acacia\",129.00,4\r\n"));
+    assertTrue(exported.contains(",\"Oak table\nwith a quoted line break\",899.00,0\r\n"));
+
+    // imported products are announced like created ones
+    given().when().get("product/search?q=ekedalen").then()
+        .statusCode(200).body("size()", is(1), "[0].stock", is(3));
+
+    given().contentType("text/csv").body("name,colour\nX,red").when().post("product/import")
+        .then().statusCode(400);
+  }
+
+  @Test
+  public void testImportAndExportNdjson() {
+    String ndjson =
+        String.join(
+            "\n",
+            "{\"name\": \"NDJSON-HEMNES\", \"price\": 249.00, \"stock\": 2}",
+            "{not json",
+            "{\"id\": 77, \"name\": \"NDJSON-MALM\"}",
+            "{\"description\": \"No name\"}",
+            "{\"name\": \"NDJSON-BRIMNES\", \"price\": 1.234}");
+
+    given()
+        .contentType("application/x-ndjson")
+        .body(ndjson.getBytes(StandardCharsets.UTF_8))
+        .when()
+        .post("product/import")
+        .then()
+        .statusCode(200)
+        .body(
+            "imported", is(1),
+            "rejected", is(4),
+            "errors.line", is(List.of(2, 3, 4, 5)),
+            "errors[1].error", is("Id was invalidly set on the row."),
+            "errors[2].error", is("Product Name was not set on the row."),
+            "errors[3].error", containsString("at most 2 decimals"));
+
+    given()
+        .accept("application/x-ndjson")
+        .when()
+        .get("product")
+        .then()
+        .statusCode(200)
+        .body(containsString("\"name\":\"NDJSON-HEMNES\""));
+  }
 }
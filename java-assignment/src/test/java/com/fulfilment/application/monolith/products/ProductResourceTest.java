@@ -1,6 +1,12 @@
 package com.fulfilment.application.monolith.products;
 
+import com.fulfilment.application.monolith.stock.StockAdjustment;
+import com.fulfilment.application.monolith.stock.StockAdjustmentResult;
+import jakarta.enterprise.event.Event;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -9,6 +15,7 @@ import org.mockito.MockitoAnnotations;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -16,6 +23,9 @@ import static org.mockito.Mockito.*;
 public class ProductResourceTest {
 
   @Mock private ProductRepository productRepository;
+  @Mock private Request request;
+  @Mock private Event<ProductEvent> productEvent;
+  @Mock private ProductSearchIndex productSearchIndex;
 
   @InjectMocks private ProductResource resource;
 
@@ -45,13 +55,32 @@ public class ProductResourceTest {
   void getShouldReturnAllProducts() {
     Product p1 = new Product("KALLAX");
     Product p2 = new Product("BESTÅ");
-    when(productRepository.listAll(any())).thenReturn(List.of(p1, p2));
+    when(productRepository.findPage(null, 100)).thenReturn(List.of(p1, p2));
 
-    List<Product> result = resource.get();
+    List<Product> result = page(resource.get(null, 100, request));
 
     assertEquals(2, result.size());
   }
 
+  @Test
+  void getShouldPassCursorAndLimitToRepository() {
+    Product p = new Product("BESTÅ");
+    p.id = 3L;
+    when(productRepository.findPage(2L, 1)).thenReturn(List.of(p));
+
+    List<Product> result = page(resource.get(2L, 1, request));
+
+    assertEquals(List.of(p), result);
+    verify(productRepository).findPageVersions(2L, 1);
+  }
+
+  @Test
+  void getShouldThrow400WhenLimitIsOutOfRange() {
+    WebApplicationException ex = assertThrows(WebApplicationException.class, () -> resource.get(null, 0, request));
+    assertEquals(400, ex.getResponse().getStatus());
+    verifyNoInteractions(productRepository);
+  }
+
   // --- getSingle ---
 
   @Test
@@ -60,9 +89,10 @@ public class ProductResourceTest {
     product.id = 1L;
     when(productRepository.findById(1L)).thenReturn(product);
 
-    Product result = resource.getSingle(1L);
+    Response response = resource.getSingle(1L, request);
 
-    assertEquals("KALLAX", result.name);
+    assertEquals("KALLAX", ((Product) response.getEntity()).name);
+    assertEquals(new EntityTag("1-0"), response.getEntityTag());
   }
 
   @Test
@@ -70,10 +100,32 @@ public class ProductResourceTest {
     when(productRepository.findById(99L)).thenReturn(null);
 
     WebApplicationException ex = assertThrows(WebApplicationException.class,
-        () -> resource.getSingle(99L));
+        () -> resource.getSingle(99L, request));
     assertEquals(404, ex.getResponse().getStatus());
   }
 
+  // --- search ---
+
+  @Test
+  void searchShouldBeAnsweredByTheIndex() {
+    Product p = new Product("KALLAX");
+    BigDecimal max = new BigDecimal("100");
+    when(productSearchIndex.search("kal", null, max, true, 3L, 10)).thenReturn(List.of(p));
+
+    assertEquals(List.of(p), resource.search("kal", null, max, true, 3L, 10));
+    verifyNoInteractions(productRepository);
+  }
+
+  @Test
+  void searchShouldThrow400WhenThePriceRangeIsEmptyOrTheLimitOutOfRange() {
+    WebApplicationException range = assertThrows(WebApplicationException.class,
+        () -> resource.search(null, new BigDecimal("10"), new BigDecimal("5"), false, null, 100));
+    assertEquals(400, range.getResponse().getStatus());
+    WebApplicationException limit = assertThrows(WebApplicationException.class,
+        () -> resource.search(null, null, null, false, null, 0));
+    assertEquals(400, limit.getResponse().getStatus());
+  }
+
   // --- create ---
 
   @Test
@@ -83,6 +135,7 @@ public class ProductResourceTest {
     var response = resource.create(product);
 
     verify(productRepository).persist(product);
+    verify(productEvent).fire(argThat(e -> e.product == product && e.type == ProductEvent.Type.CREATED));
     assertEquals(201, response.getStatus());
   }
 
@@ -111,12 +164,28 @@ public class ProductResourceTest {
 
     when(productRepository.findById(1L)).thenReturn(existing);
 
-    Product result = resource.update(1L, updated);
+    Product result = (Product) resource.update(1L, updated, request).getEntity();
 
     assertEquals("KALLAX-V2", result.name);
     assertEquals("Updated", result.description);
     assertEquals(BigDecimal.valueOf(59.99), result.price);
     assertEquals(5, result.stock);
+    verify(productRepository).persistAndFlush(existing);
+  }
+
+  @Test
+  void updateShouldThrow412WithoutChangesWhenIfMatchIsStale() {
+    Product existing = new Product("KALLAX");
+    existing.id = 1L;
+    when(productRepository.findById(1L)).thenReturn(existing);
+    when(request.evaluatePreconditions(any(EntityTag.class)))
+        .thenReturn(Response.status(Response.Status.PRECONDITION_FAILED));
+
+    WebApplicationException ex = assertThrows(WebApplicationException.class,
+        () -> resource.update(1L, new Product("KALLAX-V2"), request));
+    assertEquals(412, ex.getResponse().getStatus());
+    assertEquals("KALLAX", existing.name);
+    verify(productRepository, never()).persistAndFlush(any());
   }
 
   @Test
@@ -125,7 +194,7 @@ public class ProductResourceTest {
     updated.name = null;
 
     WebApplicationException ex = assertThrows(WebApplicationException.class,
-        () -> resource.update(1L, updated));
+        () -> resource.update(1L, updated, request));
     assertEquals(422, ex.getResponse().getStatus());
   }
 
@@ -135,7 +204,7 @@ public class ProductResourceTest {
     when(productRepository.findById(99L)).thenReturn(null);
 
     WebApplicationException ex = assertThrows(WebApplicationException.class,
-        () -> resource.update(99L, updated));
+        () -> resource.update(99L, updated, request));
     assertEquals(404, ex.getResponse().getStatus());
   }
 
@@ -150,6 +219,7 @@ public class ProductResourceTest {
     var response = resource.delete(1L);
 
     verify(productRepository).delete(existing);
+    verify(productEvent).fire(argThat(e -> e.product == existing && e.type == ProductEvent.Type.DELETED));
     assertEquals(204, response.getStatus());
   }
 
@@ -161,4 +231,46 @@ public class ProductResourceTest {
         () -> resource.delete(99L));
     assertEquals(404, ex.getResponse().getStatus());
   }
+
+  // --- adjustStock ---
+
+  @Test
+  void adjustStockShouldReturnTheNewStockTaggedWithTheNewVersion() {
+    when(productRepository.adjustStock(eq(Map.of(1L, -2L)), any()))
+        .thenReturn(List.of(StockAdjustmentResult.applied(1L, -2L, 3, 4L)));
+
+    var response = resource.adjustStock(1L, new StockAdjustment(null, -2));
+
+    assertEquals(200, response.getStatus());
+    assertEquals(3, ((StockAdjustmentResult) response.getEntity()).stock);
+    assertEquals(new EntityTag("1-4"), response.getEntityTag());
+  }
+
+  @Test
+  void adjustStockShouldThrowTheStatusOfARejectedAdjustment() {
+    when(productRepository.adjustStock(eq(Map.of(1L, -9L)), any()))
+        .thenReturn(List.of(StockAdjustmentResult.rejected(1L, -9L, 409, "not enough")));
+
+    WebApplicationException ex = assertThrows(WebApplicationException.class,
+        () -> resource.adjustStock(1L, new StockAdjustment(null, -9)));
+    assertEquals(409, ex.getResponse().getStatus());
+  }
+
+  @Test
+  void adjustStockShouldThrow422WhenDeltaIsMissingOrIdDiffers() {
+    WebApplicationException missing = assertThrows(WebApplicationException.class,
+        () -> resource.adjustStock(1L, new StockAdjustment()));
+    assertEquals(422, missing.getResponse().getStatus());
+    WebApplicationException otherId = assertThrows(WebApplicationException.class,
+        () -> resource.adjustStock(1L, new StockAdjustment(2L, 1)));
+    assertEquals(422, otherId.getResponse().getStatus());
+    verify(productRepository, never()).adjustStock(any(), any());
+    verifyNoInteractions(productEvent);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Product> page(Response response) {
+    assertEquals(200, response.getStatus());
+    return (List<Product>) response.getEntity();
+  }
 }
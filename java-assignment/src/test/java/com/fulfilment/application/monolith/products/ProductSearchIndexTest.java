@@ -0,0 +1,116 @@
+package com.fulfilment.application.monolith.products;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class ProductSearchIndexTest {
+
+  private ProductSearchIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new ProductSearchIndex(mock(ProductRepository.class));
+    index.load(
+        Stream.of(
+            product(1L, "KALLAX", "Shelving unit, white", "79.99", 5),
+            product(2L, "BESTÅ", "TV bench with doors", "199.00", 0),
+            product(3L, "TONSTAD", "Sideboard with sliding doors", "349.00", 2),
+            product(4L, "KALLAX INSERT", null, null, 8)));
+  }
+
+  @Test
+  void searchShouldMatchWordPrefixesOfNameAndDescription() {
+    assertEquals(List.of(1L, 4L), ids(index.search("kall", null, null, false, null, 100)));
+    assertEquals(List.of(2L, 3L), ids(index.search("DOORS", null, null, false, null, 100)));
+    // every word has to match
+    assertEquals(List.of(3L), ids(index.search("slid door", null, null, false, null, 100)));
+    assertEquals(List.of(), ids(index.search("kallax doors", null, null, false, null, 100)));
+  }
+
+  @Test
+  void searchShouldIgnoreCaseAndDiacritics() {
+    assertEquals(List.of(2L), ids(index.search("besta", null, null, false, null, 100)));
+    assertEquals(List.of(2L), ids(index.search("Bestå", null, null, false, null, 100)));
+  }
+
+  @Test
+  void searchShouldFilterByPriceRangeAndStock() {
+    BigDecimal min = new BigDecimal("100");
+    BigDecimal max = new BigDecimal("349.00");
+    assertEquals(List.of(2L, 3L), ids(index.search(null, min, max, false, null, 100)));
+    assertEquals(List.of(3L), ids(index.search(null, min, null, true, null, 100)));
+    assertEquals(List.of(1L), ids(index.search("kallax", null, max, false, null, 100)));
+    assertEquals(List.of(1L, 3L, 4L), ids(index.search(null, null, null, true, null, 100)));
+  }
+
+  @Test
+  void searchShouldMergeTheWordsOfAPrefixWithoutDuplicates() {
+    // "sh" and "s" cover two words of product 1, and "s" more words than are looked up one by one
+    List<Product> extra = new ArrayList<>();
+    for (long id = 10; id < 40; id++) {
+      extra.add(product(id, "S" + id, null, null, 1));
+    }
+    extra.forEach(p -> index.apply(new ProductEvent(p, ProductEvent.Type.CREATED)));
+
+    assertEquals(List.of(1L), ids(index.search("sh un", null, null, false, null, 100)));
+    assertEquals(List.of(1L, 3L, 10L), ids(index.search("s", null, null, false, null, 3)));
+    assertEquals(List.of(1L), ids(index.search("kallax s", null, null, false, null, 100)));
+    assertEquals(List.of(3L), ids(index.search("door s", null, null, true, null, 100)));
+  }
+
+  @Test
+  void searchShouldPageInIdOrder() {
+    assertEquals(List.of(1L, 2L), ids(index.search(null, null, null, false, null, 2)));
+    assertEquals(List.of(3L, 4L), ids(index.search(null, null, null, false, 2L, 2)));
+    assertEquals(List.of(4L), ids(index.search("kallax", null, null, false, 1L, 2)));
+  }
+
+  @Test
+  void applyShouldFollowChangesAndIgnoreStaleUpdates() {
+    Product renamed = product(1L, "BILLY", "Bookcase", "59.00", 5);
+    renamed.version = 1;
+    index.apply(new ProductEvent(renamed, ProductEvent.Type.UPDATED));
+
+    assertEquals(List.of(4L), ids(index.search("kallax", null, null, false, null, 100)));
+    assertEquals(List.of(1L), ids(index.search("book", null, null, false, null, 100)));
+
+    // an event of an older version arriving late changes nothing
+    index.apply(new ProductEvent(product(1L, "KALLAX", null, null, 5), ProductEvent.Type.UPDATED));
+    assertEquals(List.of(1L), ids(index.search("billy", null, null, false, null, 100)));
+
+    index.apply(new ProductEvent(renamed, ProductEvent.Type.DELETED));
+    assertEquals(List.of(), ids(index.search("billy", null, null, false, null, 100)));
+    assertEquals(List.of(), ids(index.search(null, null, new BigDecimal("60"), false, null, 100)));
+
+    index.apply(new ProductEvent(product(9L, "MALM", "Bed frame", "149.00", 1),
+        ProductEvent.Type.CREATED));
+    assertEquals(List.of(9L), ids(index.search("malm bed", null, null, true, null, 100)));
+  }
+
+  @Test
+  void wordsShouldSplitOnPunctuationAndDropDuplicates() {
+    assertEquals(List.of("tv", "bench", "2"), ProductSearchIndex.words("TV-bench, TV  2"));
+    assertEquals(List.of(), ProductSearchIndex.words("  "));
+  }
+
+  private static Product product(
+      Long id, String name, String description, String price, int stock) {
+    Product product = new Product(name);
+    product.id = id;
+    product.description = description;
+    product.price = price != null ? new BigDecimal(price) : null;
+    product.stock = stock;
+    return product;
+  }
+
+  private static List<Long> ids(List<Product> products) {
+    return products.stream().map(product -> product.id).toList();
+  }
+}
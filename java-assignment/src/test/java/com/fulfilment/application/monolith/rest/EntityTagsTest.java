@@ -0,0 +1,37 @@
+package com.fulfilment.application.monolith.rest;
+
+import jakarta.ws.rs.core.EntityTag;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntityTagsTest {
+
+  @Test
+  void ofShouldBeStrongAndChangeWithTheVersion() {
+    EntityTag tag = EntityTags.of(7L, 0);
+    assertFalse(tag.isWeak());
+    assertEquals(tag, EntityTags.of(7L, 0));
+    assertNotEquals(tag, EntityTags.of(7L, 1));
+  }
+
+  @Test
+  void ofPageShouldChangeWhenARowChangesJoinsOrLeaves() {
+    EntityTag tag = EntityTags.ofPage(page(1L, 0L, 2L, 0L));
+
+    assertEquals(tag, EntityTags.ofPage(page(1L, 0L, 2L, 0L)));
+    assertNotEquals(tag, EntityTags.ofPage(page(1L, 0L, 2L, 1L)));
+    assertNotEquals(tag, EntityTags.ofPage(page(1L, 0L, 3L, 0L)));
+    assertNotEquals(tag, EntityTags.ofPage(Map.of(1L, 0L)));
+    assertEquals(32, tag.getValue().length());
+  }
+
+  private static Map<Long, Long> page(long id1, long version1, long id2, long version2) {
+    Map<Long, Long> page = new LinkedHashMap<>();
+    page.put(id1, version1);
+    page.put(id2, version2);
+    return page;
+  }
+}
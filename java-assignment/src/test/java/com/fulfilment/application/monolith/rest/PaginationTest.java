@@ -0,0 +1,30 @@
+package com.fulfilment.application.monolith.rest;
+
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PaginationTest {
+
+  @Test
+  void checkLimitShouldAcceptValuesWithinRange() {
+    assertEquals(1, Pagination.checkLimit(1));
+    assertEquals(Pagination.MAX_LIMIT, Pagination.checkLimit(Pagination.MAX_LIMIT));
+    assertEquals(Integer.parseInt(Pagination.DEFAULT_LIMIT),
+        Pagination.checkLimit(Integer.parseInt(Pagination.DEFAULT_LIMIT)));
+  }
+
+  @Test
+  void checkLimitShouldRejectValuesOutOfRange() {
+    WebApplicationException ex = assertThrows(WebApplicationException.class, () -> Pagination.checkLimit(0));
+    assertEquals(400, ex.getResponse().getStatus());
+    assertThrows(WebApplicationException.class, () -> Pagination.checkLimit(Pagination.MAX_LIMIT + 1));
+  }
+
+  @Test
+  void afterShouldStartBeforeEveryIdWhenNoCursorIsGiven() {
+    assertEquals(Long.MIN_VALUE, Pagination.after(null));
+    assertEquals(42L, Pagination.after(42L));
+  }
+}
@@ -0,0 +1,70 @@
+package com.fulfilment.application.monolith.routing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+public class DistanceMatrixTest {
+
+  @Test
+  void shouldParseSymmetricDistances() throws IOException {
+    DistanceMatrix distances = parse("from,to,distance\n# comment\n\nA,B,10\nB,C,20\n");
+
+    assertEquals(3, distances.size());
+    assertEquals(10, distances.distance("A", "B"));
+    assertEquals(10, distances.distance("B", "A"));
+    assertEquals(20, distances.distance("C", "B"));
+    assertEquals(0, distances.distance("A", "A"));
+  }
+
+  @Test
+  void shouldOnlySkipAFirstRowThatIsTheHeader() throws IOException {
+    DistanceMatrix distances = parse("from,to,distance\nfrome-001,A,10\nA,B,20\n");
+
+    assertEquals(3, distances.size());
+    assertEquals(10, distances.distance("frome-001", "A"));
+
+    assertEquals(10, parse("frome-001,A,10\n").distance("A", "frome-001"));
+  }
+
+  @Test
+  void shouldReportUnknownDistances() throws IOException {
+    DistanceMatrix distances = parse("A,B,10\nB,C,20\n");
+
+    assertEquals(DistanceMatrix.UNKNOWN, distances.distance("A", "C"));
+    assertEquals(DistanceMatrix.UNKNOWN, distances.distance("A", "NOWHERE"));
+    assertEquals(DistanceMatrix.UNKNOWN, distances.indexOf(null));
+  }
+
+  @Test
+  void shouldRejectMalformedLines() {
+    assertTrue(assertThrows(IllegalArgumentException.class, () -> parse("A,B\n"))
+        .getMessage().contains("3 columns"));
+    assertTrue(assertThrows(IllegalArgumentException.class, () -> parse("A,B,far\n"))
+        .getMessage().contains("non-numeric"));
+    assertTrue(assertThrows(IllegalArgumentException.class, () -> parse("A,B,-1\n"))
+        .getMessage().contains("negative"));
+    assertTrue(assertThrows(IllegalArgumentException.class, () -> parse("A,B,1\nB,A,2\n"))
+        .getMessage().contains("Line 2 repeats"));
+  }
+
+  @Test
+  void shouldLoadBundledDistances() throws IOException {
+    try (InputStream in = getClass().getClassLoader().getResourceAsStream("distances.csv")) {
+      DistanceMatrix distances =
+          DistanceMatrix.parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+      assertEquals(8, distances.size());
+      assertNotEquals(DistanceMatrix.UNKNOWN, distances.distance("AMSTERDAM-001", "TILBURG-001"));
+    }
+  }
+
+  private static DistanceMatrix parse(String csv) throws IOException {
+    return DistanceMatrix.parse(new StringReader(csv));
+  }
+}
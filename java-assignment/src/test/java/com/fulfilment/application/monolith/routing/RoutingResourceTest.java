@@ -0,0 +1,56 @@
+package com.fulfilment.application.monolith.routing;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.everyItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasSize;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class RoutingResourceTest {
+
+  private static final String PATH = "routing/plan";
+
+  @Test
+  public void testPlanCoversReachableStores() {
+    given()
+        .contentType(ContentType.JSON)
+        .body(
+            "[{\"storeId\": 1, \"location\": \"AMSTERDAM-002\", \"quantity\": 1},"
+                + " {\"storeId\": 2, \"location\": \"NOWHERE-001\", \"quantity\": 2}]")
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(200)
+        .body("shipments", hasSize(1))
+        .body("shipments.storeId", everyItem(is(1)))
+        .body("unfulfilled", hasSize(1))
+        .body("unfulfilled[0].location", is("NOWHERE-001"))
+        .body("unfulfilled[0].quantity", is(2));
+  }
+
+  @Test
+  public void testPlanRejectsInvalidDemand() {
+    given()
+        .contentType(ContentType.JSON)
+        .body("[]")
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(400)
+        .body(containsString("between 1 and"));
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("[{\"storeId\": 1, \"location\": \"AMSTERDAM-002\", \"quantity\": 0}]")
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(400)
+        .body(containsString("positive quantity"));
+  }
+}
@@ -0,0 +1,181 @@
+package com.fulfilment.application.monolith.routing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RoutingSolverTest {
+
+  private RoutingSolver solver;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    // three towns on a line: NORTH - 10 - MIDDLE - 10 - SOUTH
+    solver =
+        new RoutingSolver(
+            DistanceMatrix.parse(
+                new StringReader("NORTH,MIDDLE,10\nMIDDLE,SOUTH,10\nNORTH,SOUTH,20\n")));
+  }
+
+  @Test
+  void shouldServeStoreFromNearestWarehouse() {
+    RoutingPlan plan =
+        solver.solve(
+            List.of(supply("MWH.N", "NORTH", 10), supply("MWH.S", "SOUTH", 10)),
+            List.of(new StoreDemand(1L, "SOUTH", 4)));
+
+    assertEquals(1, plan.shipments.size());
+    assertEquals("MWH.S", plan.shipments.get(0).warehouseBusinessUnitCode);
+    assertEquals(4, plan.shipments.get(0).quantity);
+    assertEquals(0, plan.transportCost);
+    assertTrue(plan.unfulfilled.isEmpty());
+  }
+
+  @Test
+  void shouldSplitDemandWhenNearestWarehouseRunsShort() {
+    RoutingPlan plan =
+        solver.solve(
+            List.of(supply("MWH.N", "NORTH", 10), supply("MWH.M", "MIDDLE", 3)),
+            List.of(new StoreDemand(1L, "SOUTH", 5)));
+
+    assertEquals(2, plan.shipments.size());
+    assertEquals(3 * 10 + 2 * 20, plan.transportCost);
+    assertTrue(plan.unfulfilled.isEmpty());
+  }
+
+  @Test
+  void shouldReportUncoveredDemand() {
+    RoutingPlan plan =
+        solver.solve(
+            List.of(supply("MWH.N", "NORTH", 3)),
+            List.of(new StoreDemand(1L, "MIDDLE", 5), new StoreDemand(2L, "ELSEWHERE", 1)));
+
+    assertEquals(3, plan.shipments.get(0).quantity);
+    assertEquals(2, plan.unfulfilled.size());
+    assertEquals(2, plan.unfulfilled.get(0).quantity);
+    // no distance is known for this location, so no warehouse can serve it
+    assertEquals("ELSEWHERE", plan.unfulfilled.get(1).location);
+  }
+
+  @Test
+  void shouldGiveStockToTheStoreThatSavesMost() {
+    // a long road between the ends: the cheapest pair first would keep MIDDLE's stock for the
+    // MIDDLE store and leave the NORTH store to be served from SOUTH
+    RoutingSolver detour =
+        new RoutingSolver(parse("NORTH,MIDDLE,10\nMIDDLE,SOUTH,10\nNORTH,SOUTH,100\n"));
+
+    RoutingPlan plan =
+        detour.solve(
+            List.of(supply("MWH.M", "MIDDLE", 1), supply("MWH.S", "SOUTH", 1)),
+            List.of(new StoreDemand(1L, "NORTH", 1), new StoreDemand(2L, "MIDDLE", 1)));
+
+    assertEquals(10 + 10, plan.transportCost);
+    assertTrue(plan.unfulfilled.isEmpty());
+  }
+
+  @Test
+  void shouldCoverAsMuchDemandAsPossibleBeforeMinimisingCost() {
+    // NORTH has the only stock that can reach the store at the edge
+    RoutingSolver edge =
+        new RoutingSolver(parse("NORTH,MIDDLE,10\nMIDDLE,SOUTH,10\nNORTH,EDGE,50\n"));
+
+    RoutingPlan plan =
+        edge.solve(
+            List.of(supply("MWH.N", "NORTH", 1), supply("MWH.S", "SOUTH", 1)),
+            List.of(new StoreDemand(1L, "MIDDLE", 1), new StoreDemand(2L, "EDGE", 1)));
+
+    assertTrue(plan.unfulfilled.isEmpty());
+    assertEquals(50 + 10, plan.transportCost);
+  }
+
+  @Test
+  void shouldMatchBruteForceOnSmallInstances() {
+    Random random = new Random(42);
+    String[] towns = {"NORTH", "MIDDLE", "SOUTH"};
+    for (int round = 0; round < 200; round++) {
+      List<WarehouseSupply> supplies =
+          IntStream.range(0, 2)
+              .mapToObj(w -> supply("MWH." + w, towns[random.nextInt(3)], random.nextInt(4)))
+              .toList();
+      List<StoreDemand> demands =
+          IntStream.range(0, 3)
+              .mapToObj(
+                  i -> new StoreDemand((long) i, towns[random.nextInt(3)], 1 + random.nextInt(3)))
+              .toList();
+
+      RoutingPlan plan = solver.solve(supplies, demands);
+
+      long[] best = bruteForce(supplies, demands);
+      long shipped = plan.shipments.stream().mapToLong(shipment -> shipment.quantity).sum();
+      assertEquals(best[0], shipped, "round " + round);
+      assertEquals(best[1], plan.transportCost, "round " + round);
+    }
+  }
+
+  // most quantity shipped, then lowest cost, over every way of splitting the stock
+  private long[] bruteForce(List<WarehouseSupply> supplies, List<StoreDemand> demands) {
+    long[] best = {-1, 0};
+    search(supplies, demands, 0, new int[supplies.size()], 0, 0, best);
+    return best;
+  }
+
+  private void search(
+      List<WarehouseSupply> supplies,
+      List<StoreDemand> demands,
+      int store,
+      int[] used,
+      long shipped,
+      long cost,
+      long[] best) {
+    if (store == demands.size()) {
+      if (shipped > best[0] || (shipped == best[0] && cost < best[1])) {
+        best[0] = shipped;
+        best[1] = cost;
+      }
+      return;
+    }
+    StoreDemand demand = demands.get(store);
+    int first = Math.min(demand.quantity, supplies.get(0).stock - used[0]);
+    for (int a = 0; a <= first; a++) {
+      int second = Math.min(demand.quantity - a, supplies.get(1).stock - used[1]);
+      for (int b = 0; b <= second; b++) {
+        used[0] += a;
+        used[1] += b;
+        search(
+            supplies,
+            demands,
+            store + 1,
+            used,
+            shipped + a + b,
+            cost + a * distance(supplies.get(0), demand) + b * distance(supplies.get(1), demand),
+            best);
+        used[0] -= a;
+        used[1] -= b;
+      }
+    }
+  }
+
+  private static long distance(WarehouseSupply supply, StoreDemand demand) {
+    int from = "NORTH".equals(supply.location) ? 0 : "MIDDLE".equals(supply.location) ? 1 : 2;
+    int to = "NORTH".equals(demand.location) ? 0 : "MIDDLE".equals(demand.location) ? 1 : 2;
+    return 10L * Math.abs(from - to);
+  }
+
+  private static WarehouseSupply supply(String code, String location, int stock) {
+    return new WarehouseSupply(code, location, stock);
+  }
+
+  private static DistanceMatrix parse(String csv) {
+    try {
+      return DistanceMatrix.parse(new StringReader(csv));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
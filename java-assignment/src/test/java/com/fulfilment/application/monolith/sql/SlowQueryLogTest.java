@@ -0,0 +1,91 @@
+package com.fulfilment.application.monolith.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SlowQueryLogTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private SlowQueryLog log;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    log = new SlowQueryLog(new ObjectMapper(), meterRegistry, Duration.ofMillis(100), 0, 2);
+  }
+
+  @Test
+  void fingerprintShouldReplaceLiteralsAndCollapseParameterLists() {
+    assertEquals(
+        "select p1_0.id from product p1_0 where p1_0.name=? and p1_0.stock>? limit ?",
+        SqlFingerprint.of(
+            "select p1_0.id\n  from product p1_0\n where p1_0.name='it''s' and p1_0.stock>10.5 limit 20"));
+    assertEquals(
+        "select s1_0.id from store s1_0 where s1_0.id in (?, ...)",
+        SqlFingerprint.of("select s1_0.id from store s1_0 where s1_0.id in (?,?, ?)"));
+    assertEquals(
+        SqlFingerprint.of("update product set stock=stock+? where id in (?)"),
+        SqlFingerprint.of("update product set stock=stock+? where id in (?, ?, ?, ?)"));
+    // only in lists are collapsed
+    assertEquals(
+        "insert into store (id,name) values (?,?)",
+        SqlFingerprint.of("insert into store (id,name) values (?,?)"));
+  }
+
+  @Test
+  void slowestShouldOrderFingerprintsByTheirSlowestExecution() {
+    log.record("select * from store where id=?", millis(5), 1);
+    log.record("select * from product where id=?", millis(150), 1);
+    log.record("select * from store where id=?", millis(20), 0);
+
+    List<QueryStats> slowest = log.slowest(10);
+
+    assertEquals(2, slowest.size());
+    assertEquals("select * from product where id=?", slowest.get(0).fingerprint);
+    QueryStats store = slowest.get(1);
+    assertEquals("select * from store where id=?", store.fingerprint);
+    assertEquals(2, store.executions);
+    assertEquals(25.0, store.totalMs, 0.001);
+    assertEquals(12.5, store.meanMs, 0.001);
+    assertEquals(20.0, store.maxMs, 0.001);
+    assertEquals(1, store.rows);
+    // recorded outside a request
+    assertNull(store.slowestEndpoint);
+    assertEquals(1, log.slowest(1).size());
+    assertEquals(1.0, meterRegistry.counter("sql.statements.slow").count());
+  }
+
+  @Test
+  void executionsOfStatementsWithOtherLiteralsShouldShareTheirFingerprint() {
+    log.record("select * from warehouse where businessUnitCode='MWH.001'", millis(1), 1);
+    log.record("select * from warehouse where businessUnitCode='MWH.012'", millis(3), 1);
+
+    QueryStats stats = log.slowest(10).get(0);
+    assertEquals("select * from warehouse where businessUnitCode=?", stats.fingerprint);
+    assertEquals(2, stats.executions);
+  }
+
+  @Test
+  void fingerprintsBeyondTheMaximumShouldOnlyBeCounted() {
+    log.record("select 1", millis(1), 1);
+    log.record("select * from store", millis(1), 3);
+    log.record("select * from product", millis(1), 3);
+
+    assertEquals(2, log.slowest(10).size());
+    assertEquals(1.0, meterRegistry.counter("sql.statements.untracked").count());
+
+    log.reset();
+    assertEquals(List.of(), log.slowest(10));
+  }
+
+  private static long millis(long millis) {
+    return Duration.ofMillis(millis).toNanos();
+  }
+}
@@ -0,0 +1,62 @@
+package com.fulfilment.application.monolith.sql;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class SlowQueryResourceTest {
+
+  private static final String PATH = "admin/slow-queries";
+
+  @Test
+  public void testStatementsAreRecordedWithTheirEndpoint() {
+    given().when().delete(PATH).then().statusCode(204);
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"name\": \"SLOW-QUERY-PRODUCT\", \"stock\": 4}")
+        .when()
+        .post("product")
+        .then()
+        .statusCode(201);
+    given().when().get("fulfilment").then().statusCode(200);
+
+    List<QueryStats> slowest =
+        given().when().get(PATH + "?limit=1000").then().statusCode(200).extract()
+            .jsonPath().getList(".", QueryStats.class);
+
+    QueryStats insert = find(slowest, "insert into product");
+    assertEquals("POST /product", insert.slowestEndpoint);
+    assertEquals(1, insert.executions);
+    assertEquals(1, insert.rows);
+    QueryStats page = find(slowest, "from fulfilment_assignment");
+    assertEquals("GET /fulfilment", page.slowestEndpoint);
+    assertTrue(page.fingerprint.contains("fetch first ? rows only"), page.fingerprint);
+
+    for (int i = 1; i < slowest.size(); i++) {
+      assertTrue(slowest.get(i - 1).maxMs >= slowest.get(i).maxMs);
+    }
+  }
+
+  @Test
+  public void testLimitIsChecked() {
+    given().when().get(PATH + "?limit=0").then().statusCode(400);
+  }
+
+  private static QueryStats find(List<QueryStats> slowest, String text) {
+    return slowest.stream()
+        .filter(stats -> stats.fingerprint.toLowerCase().contains(text))
+        .findFirst()
+        .orElseThrow(
+            () ->
+                new AssertionError(
+                    "No fingerprint with " + text + " in "
+                        + slowest.stream().map(stats -> stats.fingerprint).toList()));
+  }
+}
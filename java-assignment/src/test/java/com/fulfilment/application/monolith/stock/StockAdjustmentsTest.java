@@ -0,0 +1,57 @@
+package com.fulfilment.application.monolith.stock;
+
+import jakarta.ws.rs.WebApplicationException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StockAdjustmentsTest {
+
+  @Test
+  void netShouldSumTheDeltasPerIdInOrderOfFirstAppearance() {
+    Map<Long, Long> deltas =
+        StockAdjustments.net(
+            List.of(
+                new StockAdjustment(2L, 5),
+                new StockAdjustment(1L, -1),
+                new StockAdjustment(2L, -7)));
+
+    assertEquals(List.of(2L, 1L), new ArrayList<>(deltas.keySet()));
+    assertEquals(-2L, deltas.get(2L));
+    assertEquals(-1L, deltas.get(1L));
+  }
+
+  @Test
+  void netShouldNotOverflowOnLargeDeltas() {
+    Map<Long, Long> deltas =
+        StockAdjustments.net(
+            List.of(
+                new StockAdjustment(1L, Integer.MAX_VALUE),
+                new StockAdjustment(1L, Integer.MAX_VALUE)));
+
+    assertEquals(2L * Integer.MAX_VALUE, deltas.get(1L));
+  }
+
+  @Test
+  void netShouldRejectEmptyAndOversizedBatches() {
+    assertEquals(400, status(() -> StockAdjustments.net(List.of())));
+    assertEquals(400, status(() -> StockAdjustments.net(null)));
+    assertEquals(400, status(() -> StockAdjustments.net(
+        Collections.nCopies(StockAdjustments.MAX_BATCH_SIZE + 1, new StockAdjustment(1L, 1)))));
+  }
+
+  @Test
+  void netShouldRejectAdjustmentsWithoutIdOrDelta() {
+    assertEquals(400, status(() -> StockAdjustments.net(List.of(new StockAdjustment(null, 1)))));
+    assertEquals(400, status(() -> StockAdjustments.net(List.of(new StockAdjustment(1L, null)))));
+    assertEquals(400, status(() -> StockAdjustments.net(Collections.singletonList(null))));
+  }
+
+  private static int status(Runnable call) {
+    return assertThrows(WebApplicationException.class, call::run).getResponse().getStatus();
+  }
+}
@@ -1,37 +1,102 @@
 package com.fulfilment.application.monolith.stores;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fulfilment.application.monolith.stores.journal.JournalRecord;
+import io.quarkus.runtime.configuration.MemorySize;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class LegacyStoreManagerGatewayTest {
 
-  private final LegacyStoreManagerGateway gateway = new LegacyStoreManagerGateway();
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @TempDir Path directory;
+
+  private StoreEventJournal journal;
+  private LegacyStoreManagerGateway gateway;
+
+  @BeforeEach
+  void setUp() {
+    journal = new StoreEventJournal(
+        directory.toString(), new MemorySize(BigInteger.valueOf(4096)), 1, Duration.ofSeconds(1));
+    journal.open();
+    gateway = new LegacyStoreManagerGateway(journal, objectMapper);
+  }
+
+  @AfterEach
+  void tearDown() {
+    journal.close();
+  }
 
   @Test
-  void onStoreEventShouldNotThrowForValidStore() {
+  void deliverShouldAppendCreatedEventToJournal() throws IOException {
     Store store = new Store("TONSTAD");
+    store.id = 1L;
     store.quantityProductsInStock = 5;
-    StoreEvent event = new StoreEvent(store, StoreEvent.Type.CREATED);
 
-    assertDoesNotThrow(() -> gateway.onStoreEvent(event));
+    gateway.deliver(List.of(new StoreEvent(store, StoreEvent.Type.CREATED)));
+
+    JsonNode record = onlyRecord();
+    assertEquals("CREATED", record.get("type").asText());
+    assertEquals(1L, record.get("storeId").asLong());
+    assertEquals("TONSTAD", record.get("name").asText());
+    assertEquals(5, record.get("quantityProductsInStock").asInt());
   }
 
   @Test
-  void onStoreEventShouldNotThrowForUpdatedEvent() {
+  void deliverShouldAppendUpdatedEventToJournal() throws IOException {
     Store store = new Store("KALLAX");
     store.quantityProductsInStock = 10;
-    StoreEvent event = new StoreEvent(store, StoreEvent.Type.UPDATED);
 
-    assertDoesNotThrow(() -> gateway.onStoreEvent(event));
+    gateway.deliver(List.of(new StoreEvent(store, StoreEvent.Type.UPDATED)));
+
+    JsonNode record = onlyRecord();
+    assertEquals("UPDATED", record.get("type").asText());
+    assertTrue(record.get("storeId").isNull());
   }
 
   @Test
-  void onStoreEventShouldNotThrowWhenStockIsZero() {
+  void deliverShouldKeepNonAsciiStoreNames() throws IOException {
     Store store = new Store("BESTÅ");
     store.quantityProductsInStock = 0;
-    StoreEvent event = new StoreEvent(store, StoreEvent.Type.CREATED);
 
-    assertDoesNotThrow(() -> gateway.onStoreEvent(event));
+    gateway.deliver(List.of(new StoreEvent(store, StoreEvent.Type.CREATED)));
+
+    assertEquals("BESTÅ", onlyRecord().get("name").asText());
+  }
+
+  @Test
+  void deliverShouldAppendABatchInOrder() throws IOException {
+    gateway.deliver(List.of(
+        new StoreEvent(new Store("TONSTAD"), StoreEvent.Type.CREATED),
+        new StoreEvent(new Store("KALLAX"), StoreEvent.Type.UPDATED)));
+
+    List<JournalRecord> records = journal.reader().read(0, 10);
+    assertEquals(2, records.size());
+    assertEquals("TONSTAD", objectMapper.readTree(records.get(0).payload).get("name").asText());
+    assertEquals("KALLAX", objectMapper.readTree(records.get(1).payload).get("name").asText());
+  }
+
+  @Test
+  void deliverShouldAcceptEmptyBatch() throws IOException {
+    assertDoesNotThrow(() -> gateway.deliver(List.of()));
+    assertTrue(journal.reader().read(0, 10).isEmpty());
+  }
+
+  private JsonNode onlyRecord() throws IOException {
+    List<JournalRecord> records = journal.reader().read(0, 10);
+    assertEquals(1, records.size());
+    return objectMapper.readTree(records.get(0).payload);
   }
 }
@@ -25,10 +25,11 @@ public class StoreEventTest {
   }
 
   @Test
-  void enumShouldHaveTwoValues() {
+  void enumShouldHaveThreeValues() {
     StoreEvent.Type[] values = StoreEvent.Type.values();
-    assertEquals(2, values.length);
+    assertEquals(3, values.length);
     assertEquals(StoreEvent.Type.CREATED, StoreEvent.Type.valueOf("CREATED"));
     assertEquals(StoreEvent.Type.UPDATED, StoreEvent.Type.valueOf("UPDATED"));
+    assertEquals(StoreEvent.Type.DELETED, StoreEvent.Type.valueOf("DELETED"));
   }
 }
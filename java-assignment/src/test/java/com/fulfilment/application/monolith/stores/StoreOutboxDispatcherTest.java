@@ -0,0 +1,165 @@
+package com.fulfilment.application.monolith.stores;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class StoreOutboxDispatcherTest {
+
+  private StoreOutboxRepository outboxRepository;
+  private LegacyStoreManagerGateway gateway;
+  private SimpleMeterRegistry meterRegistry;
+  private StoreOutboxDispatcher dispatcher;
+
+  @BeforeEach
+  void setUp() {
+    outboxRepository = mock(StoreOutboxRepository.class);
+    gateway = mock(LegacyStoreManagerGateway.class);
+    meterRegistry = new SimpleMeterRegistry();
+    dispatcher = new StoreOutboxDispatcher(
+        outboxRepository, gateway, meterRegistry, 50, 3, Duration.ofSeconds(1), Duration.ofSeconds(10));
+  }
+
+  @Test
+  void dispatchShouldDoNothingWhenOutboxIsEmpty() {
+    when(outboxRepository.findDue(any(), eq(3), eq(50))).thenReturn(List.of());
+
+    dispatcher.dispatch();
+
+    verifyNoInteractions(gateway);
+    verify(outboxRepository, never()).deleteDelivered(any());
+  }
+
+  @Test
+  void dispatchShouldDeliverBatchAndDeleteEntries() {
+    StoreOutboxEntry first = entry(1L, "TONSTAD");
+    StoreOutboxEntry second = entry(2L, "KALLAX");
+    when(outboxRepository.findDue(any(), eq(3), eq(50))).thenReturn(List.of(first, second));
+
+    dispatcher.dispatch();
+
+    verify(gateway).deliver(argThat(events -> events.size() == 2
+        && events.get(0).store.name.equals("TONSTAD")
+        && events.get(1).store.name.equals("KALLAX")));
+    verify(outboxRepository).deleteDelivered(List.of(1L, 2L));
+  }
+
+  @Test
+  void dispatchShouldDeleteEntriesOnlyAfterTheJournalIsForced() {
+    StoreEventJournal journal = mock(StoreEventJournal.class);
+    dispatcher = new StoreOutboxDispatcher(
+        outboxRepository, new LegacyStoreManagerGateway(journal, new ObjectMapper()), meterRegistry,
+        50, 3, Duration.ofSeconds(1), Duration.ofSeconds(10));
+    when(outboxRepository.findDue(any(), eq(3), eq(50)))
+        .thenReturn(List.of(entry(1L, "TONSTAD"), entry(2L, "KALLAX")));
+
+    dispatcher.dispatch();
+
+    InOrder inOrder = inOrder(journal, outboxRepository);
+    inOrder.verify(journal, times(2)).append(any());
+    inOrder.verify(journal).flush();
+    inOrder.verify(outboxRepository).deleteDelivered(List.of(1L, 2L));
+  }
+
+  @Test
+  void dispatchShouldKeepEntriesWhenTheJournalCannotBeForced() {
+    StoreEventJournal journal = mock(StoreEventJournal.class);
+    doThrow(new UncheckedIOException(new IOException("disk full"))).when(journal).flush();
+    dispatcher = new StoreOutboxDispatcher(
+        outboxRepository, new LegacyStoreManagerGateway(journal, new ObjectMapper()), meterRegistry,
+        50, 3, Duration.ofSeconds(1), Duration.ofSeconds(10));
+    StoreOutboxEntry entry = entry(1L, "TONSTAD");
+    when(outboxRepository.findDue(any(), eq(3), eq(50))).thenReturn(List.of(entry));
+
+    dispatcher.dispatch();
+
+    verify(outboxRepository, never()).deleteDelivered(any());
+    assertEquals(1, entry.attempts);
+  }
+
+  @Test
+  void dispatchShouldScheduleRetryWithBackoffWhenDeliveryFails() {
+    StoreOutboxEntry entry = entry(1L, "TONSTAD");
+    entry.attempts = 1;
+    when(outboxRepository.findDue(any(), eq(3), eq(50))).thenReturn(List.of(entry));
+    doThrow(new RuntimeException("legacy system down")).when(gateway).deliver(any());
+
+    LocalDateTime before = LocalDateTime.now();
+    dispatcher.dispatch();
+
+    assertEquals(2, entry.attempts);
+    assertEquals("legacy system down", entry.lastError);
+    assertFalse(entry.nextAttemptAt.isBefore(before.plusSeconds(2)));
+    verify(outboxRepository, never()).deleteDelivered(any());
+  }
+
+  @Test
+  void dispatchShouldRecordHowLongDeliveredEventsWaited() {
+    StoreOutboxEntry first = entry(1L, "TONSTAD");
+    first.createdAt = LocalDateTime.now().minusSeconds(30);
+    StoreOutboxEntry second = entry(2L, "KALLAX");
+    when(outboxRepository.findDue(any(), eq(3), eq(50))).thenReturn(List.of(first, second));
+
+    dispatcher.dispatch();
+
+    var lag = meterRegistry.find("store.outbox.dispatch.lag").timer();
+    assertEquals(2, lag.count());
+    assertTrue(lag.max(TimeUnit.SECONDS) >= 30);
+    assertEquals(0, meterRegistry.find("store.outbox.dispatch.failures").counter().count());
+  }
+
+  @Test
+  void dispatchShouldCountFailedBatches() {
+    when(outboxRepository.findDue(any(), eq(3), eq(50))).thenReturn(List.of(entry(1L, "TONSTAD")));
+    doThrow(new RuntimeException("legacy system down")).when(gateway).deliver(any());
+
+    dispatcher.dispatch();
+
+    assertEquals(1, meterRegistry.find("store.outbox.dispatch.failures").counter().count());
+    assertEquals(0, meterRegistry.find("store.outbox.dispatch.lag").timer().count());
+  }
+
+  @Test
+  void dispatchShouldTruncateLongErrors() {
+    StoreOutboxEntry entry = entry(1L, "TONSTAD");
+    when(outboxRepository.findDue(any(), eq(3), eq(50))).thenReturn(List.of(entry));
+    doThrow(new RuntimeException("x".repeat(600))).when(gateway).deliver(any());
+
+    dispatcher.dispatch();
+
+    assertEquals(500, entry.lastError.length());
+  }
+
+  @Test
+  void backoffShouldGrowExponentiallyUpToTheCap() {
+    assertEquals(Duration.ofSeconds(1), dispatcher.backoff(1));
+    assertEquals(Duration.ofSeconds(2), dispatcher.backoff(2));
+    assertEquals(Duration.ofSeconds(8), dispatcher.backoff(4));
+    assertEquals(Duration.ofSeconds(10), dispatcher.backoff(5));
+    assertEquals(Duration.ofSeconds(10), dispatcher.backoff(60));
+  }
+
+  private StoreOutboxEntry entry(Long id, String storeName) {
+    StoreOutboxEntry entry = new StoreOutboxEntry();
+    entry.id = id;
+    entry.type = StoreEvent.Type.CREATED;
+    entry.storeId = id;
+    entry.storeName = storeName;
+    entry.createdAt = LocalDateTime.now();
+    entry.nextAttemptAt = entry.createdAt;
+    return entry;
+  }
+}
@@ -0,0 +1,47 @@
+package com.fulfilment.application.monolith.stores;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StoreOutboxEntryTest {
+
+  @Test
+  void fromShouldSnapshotTheStore() {
+    Store store = new Store("TONSTAD");
+    store.id = 7L;
+    store.quantityProductsInStock = 12;
+    LocalDateTime now = LocalDateTime.now();
+
+    StoreOutboxEntry entry = StoreOutboxEntry.from(new StoreEvent(store, StoreEvent.Type.CREATED), now);
+    store.quantityProductsInStock = 99;
+
+    assertNull(entry.id);
+    assertEquals(StoreEvent.Type.CREATED, entry.type);
+    assertEquals(7L, entry.storeId);
+    assertEquals("TONSTAD", entry.storeName);
+    assertEquals(12, entry.quantityProductsInStock);
+    assertEquals(now, entry.createdAt);
+    assertEquals(now, entry.nextAttemptAt);
+    assertEquals(0, entry.attempts);
+    assertNull(entry.lastError);
+  }
+
+  @Test
+  void toStoreEventShouldRebuildTheEvent() {
+    StoreOutboxEntry entry = new StoreOutboxEntry();
+    entry.type = StoreEvent.Type.UPDATED;
+    entry.storeId = 3L;
+    entry.storeName = "BESTÅ";
+    entry.quantityProductsInStock = 4;
+
+    StoreEvent event = entry.toStoreEvent();
+
+    assertEquals(StoreEvent.Type.UPDATED, event.type);
+    assertEquals(3L, event.store.id);
+    assertEquals("BESTÅ", event.store.name);
+    assertEquals(4, event.store.quantityProductsInStock);
+  }
+}
@@ -0,0 +1,48 @@
+package com.fulfilment.application.monolith.stores;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class StoreOutboxTest {
+
+  private StoreOutboxRepository outboxRepository;
+  private StoreOutbox outbox;
+
+  @BeforeEach
+  void setUp() {
+    outboxRepository = mock(StoreOutboxRepository.class);
+    outbox = new StoreOutbox(outboxRepository);
+  }
+
+  @Test
+  void onStoreEventShouldPersistAnOutboxEntry() {
+    Store store = new Store("KALLAX");
+    store.id = 2L;
+    store.quantityProductsInStock = 5;
+
+    outbox.onStoreEvent(new StoreEvent(store, StoreEvent.Type.UPDATED));
+
+    ArgumentCaptor<StoreOutboxEntry> captor = ArgumentCaptor.forClass(StoreOutboxEntry.class);
+    verify(outboxRepository).persist(captor.capture());
+    StoreOutboxEntry entry = captor.getValue();
+    assertEquals(StoreEvent.Type.UPDATED, entry.type);
+    assertEquals(2L, entry.storeId);
+    assertEquals("KALLAX", entry.storeName);
+    assertEquals(5, entry.quantityProductsInStock);
+    assertNotNull(entry.nextAttemptAt);
+  }
+
+  @Test
+  void onStoreEventShouldNotRecordADeletion() {
+    Store store = new Store("KALLAX");
+    store.id = 2L;
+
+    outbox.onStoreEvent(new StoreEvent(store, StoreEvent.Type.DELETED));
+
+    verifyNoInteractions(outboxRepository);
+  }
+}
@@ -1,12 +1,18 @@
 package com.fulfilment.application.monolith.stores;
 
 import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.core.IsNot.not;
 
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -215,4 +221,260 @@ public class StoreResourceTest {
         .statusCode(200)
         .body(containsString("LEGACY-UPDATE"));
   }
+
+  // -------------------------
+  // GET /store — keyset pages and NDJSON stream
+  // -------------------------
+
+  @Test
+  @Order(13)
+  public void testListStoresIsPagedById() {
+    given()
+        .when()
+        .get("store?limit=2")
+        .then()
+        .statusCode(200)
+        .contentType(ContentType.JSON)
+        .body("size()", is(2), "[0].id", is(1), "[1].id", is(2));
+
+    given()
+        .when()
+        .get("store?after=1&limit=1")
+        .then()
+        .statusCode(200)
+        .body("size()", is(1), "[0].id", is(2));
+  }
+
+  @Test
+  @Order(14)
+  public void testListStoresWithInvalidLimitReturns400() {
+    given().when().get("store?limit=0").then().statusCode(400);
+  }
+
+  @Test
+  @Order(15)
+  public void testStreamStoresAsNdjson() {
+    int stores = given().when().get("store?limit=1000").then().extract().path("size()");
+
+    String body =
+        given()
+            .accept("application/x-ndjson")
+            .when()
+            .get("store")
+            .then()
+            .statusCode(200)
+            .contentType("application/x-ndjson")
+            .body(containsString("KALLAX"))
+            .extract()
+            .asString();
+
+    assertEquals(stores, body.lines().count());
+    assertTrue(body.lines().allMatch(line -> line.startsWith("{") && line.endsWith("}")));
+  }
+
+  // -------------------------
+  // Conditional requests — ETags from entity versions
+  // -------------------------
+
+  @Test
+  @Order(16)
+  public void testConditionalGetAndIfMatchOnASingleStore() {
+    int id =
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\": \"ETAG-STORE\", \"quantityProductsInStock\": 1}")
+            .when()
+            .post("store")
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+    String path = "store/" + id;
+
+    String etag = given().when().get(path).then().statusCode(200).extract().header("ETag");
+    assertNotNull(etag);
+    given().header("If-None-Match", etag).when().get(path).then().statusCode(304);
+
+    // a write based on an older read is refused, and changes nothing
+    given()
+        .contentType(ContentType.JSON)
+        .header("If-Match", "\"" + id + "-99\"")
+        .body("{\"name\": \"ETAG-LOST\", \"quantityProductsInStock\": 2}")
+        .when()
+        .put(path)
+        .then()
+        .statusCode(412);
+
+    String updated =
+        given()
+            .contentType(ContentType.JSON)
+            .header("If-Match", etag)
+            .body("{\"name\": \"ETAG-STORE\", \"quantityProductsInStock\": 2}")
+            .when()
+            .put(path)
+            .then()
+            .statusCode(200)
+            .body("quantityProductsInStock", is(2), "$", not(hasKey("version")))
+            .extract()
+            .header("ETag");
+    assertNotEquals(etag, updated);
+
+    given().header("If-None-Match", etag).when().get(path).then().statusCode(200);
+    given().header("If-None-Match", updated).when().get(path).then().statusCode(304);
+    given()
+        .contentType(ContentType.JSON)
+        .header("If-Match", etag)
+        .body("{\"name\": \"ETAG-PATCH\", \"quantityProductsInStock\": 3}")
+        .when()
+        .patch(path)
+        .then()
+        .statusCode(412);
+  }
+
+  @Test
+  @Order(17)
+  public void testConditionalGetOfAStorePage() {
+    String etag =
+        given().when().get("store?limit=1000").then().statusCode(200).extract().header("ETag");
+    given().header("If-None-Match", etag).when().get("store?limit=1000").then().statusCode(304);
+
+    // the page tag covers its rows and its membership, so another page has another tag
+    String first = given().when().get("store?limit=1").then().extract().header("ETag");
+    assertNotEquals(etag, first);
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"name\": \"ETAG-PAGE\", \"quantityProductsInStock\": 1}")
+        .when()
+        .post("store")
+        .then()
+        .statusCode(201);
+    given().header("If-None-Match", etag).when().get("store?limit=1000").then().statusCode(200)
+        .body(containsString("ETAG-PAGE"));
+  }
+
+  @Test
+  @Order(18)
+  public void testStockAdjustmentsOfStores() {
+    int id =
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\": \"ADJUST-STORE\", \"quantityProductsInStock\": 4}")
+            .when()
+            .post("store")
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+    String path = "store/" + id;
+    String etag = given().when().get(path).then().statusCode(200).extract().header("ETag");
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"delta\": -4}")
+        .when()
+        .post(path + "/stock/adjust")
+        .then()
+        .statusCode(200)
+        .body("stock", is(0));
+    given().header("If-None-Match", etag).when().get(path).then().statusCode(200)
+        .body("quantityProductsInStock", is(0));
+
+    // a PUT based on the read before the adjustment would overwrite it
+    given()
+        .contentType(ContentType.JSON)
+        .header("If-Match", etag)
+        .body("{\"name\": \"ADJUST-STORE\", \"quantityProductsInStock\": 4}")
+        .when()
+        .put(path)
+        .then()
+        .statusCode(412);
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("[{\"id\": " + id + ", \"delta\": -1}, {\"id\": " + id + ", \"delta\": 3}]")
+        .when()
+        .post("store/stock/adjust")
+        .then()
+        .statusCode(200)
+        .body("size()", is(1), "[0].status", is(200), "[0].stock", is(2));
+    given()
+        .contentType(ContentType.JSON)
+        .body("[{\"id\": " + id + ", \"delta\": -3}]")
+        .when()
+        .post("store/stock/adjust")
+        .then()
+        .statusCode(200)
+        .body("[0].status", is(409));
+    given().when().get(path).then().statusCode(200).body("quantityProductsInStock", is(2));
+  }
+
+  @Test
+  @Order(19)
+  public void testImportAndExportStores() {
+    given()
+        .contentType("text/csv")
+        .body("quantityProductsInStock,name\n12,IMPORT-STORE-1\nmany,IMPORT-STORE-2\n"
+            + "0,\"IMPORT-STORE-3, annex\"\n")
+        .when()
+        .post("store/import")
+        .then()
+        .statusCode(200)
+        .body(
+            "imported", is(2),
+            "rejected", is(1),
+            "errors[0].line", is(3),
+            "errors[0].error", containsString("not a whole number"));
+
+    given()
+        .contentType("application/x-ndjson")
+        .body(
+            "{\"name\": \"IMPORT-STORE-4\"}\n{\"name\": \"IMPORT-STORE-1\"}\n"
+                .getBytes(StandardCharsets.UTF_8))
+        .when()
+        .post("store/import")
+        .then()
+        .statusCode(200)
+        .body(
+            "imported", is(1),
+            "rejected", is(1),
+            "errors[0].error", is("Store with name IMPORT-STORE-1 already exists."));
+
+    String exported =
+        given().accept("text/csv").when().get("store/export").then().statusCode(200).extract()
+            .asString();
+    assertTrue(exported.startsWith("id,name,quantityProductsInStock\r\n"));
+    assertTrue(exported.contains(",IMPORT-STORE-1,12\r\n"));
+    assertTrue(exported.contains(",\"IMPORT-STORE-3, annex\",0\r\n"));
+    assertTrue(exported.contains(",IMPORT-STORE-4,0\r\n"));
+  }
+
+  @Test
+  @Order(20)
+  public void testImportAcceptsBodiesBeyondTheDefaultLimit() {
+    // 12 MB of rows that do not parse, beyond the 10 MB every other route accepts
+    String row = "IMPORT-STORE-OVERSIZED,many\n";
+    int rows = 12 * 1024 * 1024 / row.length();
+    byte[] body =
+        ("name,quantityProductsInStock\n" + row.repeat(rows)).getBytes(StandardCharsets.UTF_8);
+
+    given()
+        .contentType("text/csv")
+        .body(body)
+        .when()
+        .post("store/import")
+        .then()
+        .statusCode(200)
+        .body("imported", is(0), "rejected", is(rows));
+
+    // the body is refused before it is sent, instead of the connection being closed while it is
+    given()
+        .header("Expect", "100-continue")
+        .contentType(ContentType.JSON)
+        .body(body)
+        .when()
+        .post("store")
+        .then()
+        .statusCode(413);
+  }
 }
@@ -0,0 +1,164 @@
+package com.fulfilment.application.monolith.stores.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalTest {
+
+  private static final Duration NEVER = Duration.ofHours(1);
+
+  @TempDir Path directory;
+
+  @Test
+  void appendedRecordsShouldBeReadBackInOrder() throws IOException {
+    try (Journal journal = Journal.open(directory, 1024, 100, NEVER)) {
+      long first = journal.append(bytes("first"));
+      long second = journal.append(bytes("second"));
+
+      assertEquals(0, first);
+      assertEquals(Journal.HEADER_SIZE + 5, second);
+      assertEquals(second + Journal.HEADER_SIZE + 6, journal.endOffset());
+
+      List<JournalRecord> records = journal.reader().read(0, 10);
+      assertEquals(List.of("first", "second"), text(records));
+      assertEquals(first, records.get(0).offset);
+      assertEquals(second, records.get(0).nextOffset);
+      assertEquals(journal.endOffset(), records.get(1).nextOffset);
+    }
+  }
+
+  @Test
+  void readShouldResumeFromAnyRecordOffset() throws IOException {
+    try (Journal journal = Journal.open(directory, 1024, 100, NEVER)) {
+      journal.append(bytes("a"));
+      long second = journal.append(bytes("b"));
+      journal.append(bytes("c"));
+
+      assertEquals(List.of("b", "c"), text(journal.reader().read(second, 10)));
+      assertEquals(List.of("b"), text(journal.reader().read(second, 1)));
+      assertTrue(journal.reader().read(journal.endOffset(), 10).isEmpty());
+    }
+  }
+
+  @Test
+  void appendShouldRollToANewSegmentWhenFull() throws IOException {
+    try (Journal journal = Journal.open(directory, 64, 100, NEVER)) {
+      for (int i = 0; i < 10; i++) {
+        journal.append(bytes("record-" + i));
+      }
+
+      assertTrue(Journal.listSegments(directory).size() > 1);
+      List<JournalRecord> records = journal.reader().read(0, 100);
+      assertEquals(10, records.size());
+      assertEquals("record-9", text(records).get(9));
+
+      JournalRecord last = records.get(9);
+      assertEquals(64, Journal.listSegments(directory).higherKey(0L));
+      assertEquals(List.of("record-9"), text(journal.reader().read(last.offset, 100)));
+    }
+  }
+
+  @Test
+  void reopenShouldContinueAfterTheLastRecord() throws IOException {
+    long end;
+    try (Journal journal = Journal.open(directory, 64, 1, NEVER)) {
+      for (int i = 0; i < 5; i++) {
+        journal.append(bytes("before-" + i));
+      }
+      end = journal.endOffset();
+    }
+
+    try (Journal journal = Journal.open(directory, 64, 1, NEVER)) {
+      assertEquals(end, journal.endOffset());
+      assertEquals(end, journal.append(bytes("after")));
+      List<String> all = text(journal.reader().read(0, 100));
+      assertEquals(6, all.size());
+      assertEquals("after", all.get(5));
+    }
+  }
+
+  @Test
+  void reopenShouldDiscardATornRecord() throws IOException {
+    long end;
+    try (Journal journal = Journal.open(directory, 1024, 1, NEVER)) {
+      journal.append(bytes("complete"));
+      end = journal.endOffset();
+    }
+    // simulate a crash halfway through a record: length written, payload and checksum missing
+    try (RandomAccessFile file = new RandomAccessFile(Journal.segmentPath(directory, 0).toFile(), "rw")) {
+      file.seek(end);
+      file.writeInt(40);
+      file.write(bytes("partial"));
+    }
+
+    try (Journal journal = Journal.open(directory, 1024, 1, NEVER)) {
+      assertEquals(end, journal.endOffset());
+      journal.append(bytes("next"));
+      assertEquals(List.of("complete", "next"), text(journal.reader().read(0, 10)));
+    }
+  }
+
+  @Test
+  void readerShouldStopAtUnwrittenSpace() throws IOException {
+    try (Journal journal = Journal.open(directory, 1024, 100, NEVER)) {
+      assertTrue(journal.reader().read(0, 10).isEmpty());
+    }
+  }
+
+  @Test
+  void readerOnMissingDirectoryShouldReturnNothing() throws IOException {
+    assertTrue(new JournalReader(directory.resolve("missing")).read(0, 10).isEmpty());
+  }
+
+  @Test
+  void flushMethodsShouldNotLoseRecords() throws IOException {
+    try (Journal journal = Journal.open(directory, 1024, 100, Duration.ZERO)) {
+      journal.append(bytes("one"));
+      journal.flushIfDue();
+      journal.append(bytes("two"));
+      journal.flush();
+
+      assertEquals(List.of("one", "two"), text(journal.reader().read(0, 10)));
+    }
+  }
+
+  @Test
+  void appendShouldRejectEmptyAndOversizedRecords() throws IOException {
+    try (Journal journal = Journal.open(directory, 64, 100, NEVER)) {
+      assertThrows(IllegalArgumentException.class, () -> journal.append(new byte[0]));
+      assertThrows(IllegalArgumentException.class, () -> journal.append(new byte[57]));
+      assertDoesNotThrow(() -> journal.append(new byte[56]));
+    }
+  }
+
+  @Test
+  void appendAfterCloseShouldFail() throws IOException {
+    Journal journal = Journal.open(directory, 1024, 100, NEVER);
+    journal.close();
+    journal.close();
+
+    assertThrows(IllegalStateException.class, () -> journal.append(bytes("late")));
+  }
+
+  @Test
+  void openShouldRejectTinySegments() {
+    assertThrows(IllegalArgumentException.class, () -> Journal.open(directory, 8, 1, NEVER));
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static List<String> text(List<JournalRecord> records) {
+    return records.stream().map(r -> new String(r.payload, StandardCharsets.UTF_8)).toList();
+  }
+}
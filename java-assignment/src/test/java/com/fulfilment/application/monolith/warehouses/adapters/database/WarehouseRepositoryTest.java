@@ -0,0 +1,308 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUsage;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCapacity;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseConflictException;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.TestTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class WarehouseRepositoryTest {
+
+  @Inject WarehouseRepository repository;
+  @Inject SessionFactory sessionFactory;
+
+  @Test
+  @TestTransaction
+  void findActiveShouldSkipArchivedWarehouses() {
+    repository.create(warehouse("MWH.R01", "ZWOLLE-002", 20, 1, LocalDateTime.now()));
+
+    List<Warehouse> active = repository.findActive();
+
+    assertFalse(active.isEmpty());
+    assertTrue(active.stream().allMatch(w -> w.archivedAt == null));
+    assertTrue(active.stream().noneMatch(w -> w.businessUnitCode.equals("MWH.R01")));
+    assertEquals(active.stream().map(w -> w.id).sorted().toList(), active.stream().map(w -> w.id).toList());
+  }
+
+  @Test
+  @TestTransaction
+  void findActiveBusinessUnitCodesShouldSkipArchivedWarehouses() {
+    repository.create(warehouse("MWH.R16", "ZWOLLE-002", 20, 1, null));
+    repository.create(warehouse("MWH.R17", "ZWOLLE-002", 20, 1, LocalDateTime.now()));
+
+    Set<String> codes = repository.findActiveBusinessUnitCodes();
+
+    assertTrue(codes.contains("MWH.R16"));
+    assertFalse(codes.contains("MWH.R17"));
+  }
+
+  @Test
+  @TestTransaction
+  void findActiveCapacitiesShouldProjectActiveWarehouses() {
+    repository.create(warehouse("MWH.R04", "VETSBY-001", 25, 7, null));
+    repository.create(warehouse("MWH.R05", "VETSBY-001", 15, 3, LocalDateTime.now()));
+
+    List<WarehouseCapacity> capacities = repository.findActiveCapacities();
+
+    WarehouseCapacity vetsby = capacities.stream()
+        .filter(c -> c.location.equals("VETSBY-001"))
+        .findFirst()
+        .orElseThrow();
+    assertEquals("MWH.R04", vetsby.businessUnitCode);
+    assertEquals(25, vetsby.capacity);
+    assertEquals(7, vetsby.stock);
+    assertEquals(1, capacities.stream().filter(c -> c.location.equals("VETSBY-001")).count());
+    assertEquals(repository.findActive().size(), capacities.size());
+  }
+
+  @Test
+  @TestTransaction
+  void activeWarehouseIndexesShouldBePartial() {
+    @SuppressWarnings("unchecked")
+    List<String> definitions = repository.getEntityManager()
+        .createNativeQuery("select indexdef from pg_indexes where tablename = 'warehouse' and indexname like 'ix_warehouse_active_%'")
+        .getResultList();
+
+    assertEquals(2, definitions.size());
+    assertTrue(definitions.stream().allMatch(d -> d.contains("WHERE (archivedat IS NULL)")));
+  }
+
+  @Test
+  @TestTransaction
+  void createAllShouldAssignIdsAndUpdateAllShouldApplyChanges() {
+    Warehouse first = warehouse("MWH.R06", "ZWOLLE-002", 10, 1, null);
+    Warehouse second = warehouse("MWH.R07", "ZWOLLE-002", 15, 2, null);
+
+    repository.createAll(List.of(first, second));
+
+    assertNotNull(first.id);
+    assertNotNull(second.id);
+    first.archivedAt = LocalDateTime.now();
+    second.stock = 5;
+    repository.updateAll(List.of(first, second));
+    repository.flush();
+    repository.getEntityManager().clear();
+
+    assertNotNull(repository.findWarehouseById(first.id).archivedAt);
+    assertEquals(5, repository.findWarehouseById(second.id).stock);
+  }
+
+  @Test
+  @TestTransaction
+  void updateShouldOnlyApplyToTheVersionTheWarehouseWasReadWith() {
+    Warehouse warehouse = warehouse("MWH.R09", "ZWOLLE-002", 20, 1, null);
+    repository.create(warehouse);
+    assertEquals(0L, warehouse.version);
+    Warehouse stale = repository.findByBusinessUnitCode("MWH.R09");
+
+    warehouse.capacity = 25;
+    repository.update(warehouse);
+    assertEquals(1L, warehouse.version);
+
+    // the stale copy would undo the capacity change, so it is refused
+    stale.archivedAt = LocalDateTime.now();
+    assertThrows(WarehouseConflictException.class, () -> repository.update(stale));
+
+    // and the stored warehouse keeps the change that won
+    repository.getEntityManager().clear();
+    Warehouse current = repository.findWarehouseById(warehouse.id);
+    assertEquals(25, current.capacity);
+    assertNull(current.archivedAt);
+    assertEquals(1L, current.version);
+  }
+
+  @Test
+  @TestTransaction
+  void findByBusinessUnitCodesShouldPreferTheActiveWarehouse() {
+    repository.create(warehouse("MWH.R08", "ZWOLLE-002", 10, 1, null));
+    repository.create(warehouse("MWH.R08", "ZWOLLE-002", 10, 1, LocalDateTime.now()));
+
+    Map<String, Warehouse> found = repository.findByBusinessUnitCodes(List.of("MWH.R08", "MWH.UNKNOWN"));
+
+    assertEquals(1, found.size());
+    assertNull(found.get("MWH.R08").archivedAt);
+    assertTrue(repository.findByBusinessUnitCodes(List.of()).isEmpty());
+  }
+
+  @Test
+  @TestTransaction
+  void findByBusinessUnitCodeShouldReturnTheNewestGeneration() {
+    LocalDateTime now = LocalDateTime.now();
+    Warehouse active = warehouse("MWH.R12", "ZWOLLE-002", 10, 1, null);
+    Warehouse first = warehouse("MWH.R12", "ZWOLLE-002", 20, 1, now.minusDays(1));
+    first.createdAt = now.minusDays(2);
+    Warehouse second = warehouse("MWH.R12", "ZWOLLE-002", 30, 1, now);
+    second.createdAt = now.minusDays(1);
+    // stored out of order, so neither id nor insertion order gives the answer away
+    repository.create(active);
+    repository.create(second);
+    repository.create(first);
+
+    assertEquals(active.id, repository.findByBusinessUnitCode("MWH.R12").id);
+    assertEquals(
+        List.of(first.id, second.id, active.id),
+        repository.findHistory("MWH.R12").stream().map(w -> w.id).toList());
+    assertTrue(repository.findHistory("MWH.UNKNOWN").isEmpty());
+  }
+
+  @Test
+  @TestTransaction
+  void historyIndexShouldCoverTheLookups() {
+    @SuppressWarnings("unchecked")
+    List<String> definitions = repository.getEntityManager()
+        .createNativeQuery("select indexdef from pg_indexes where indexname = 'ix_warehouse_history'")
+        .getResultList();
+
+    assertEquals(1, definitions.size());
+    assertTrue(definitions.get(0).contains("(businessunitcode, createdat, id) INCLUDE (location, capacity, stock, archivedat)"));
+  }
+
+  @Test
+  @TestTransaction
+  void getLocationUsageShouldNotCountArchivedWarehouses() {
+    LocationUsage before = repository.getLocationUsage("ZWOLLE-002");
+    Warehouse kept = warehouse("MWH.R14", "ZWOLLE-002", 20, 1, null);
+    Warehouse archived = warehouse("MWH.R15", "ZWOLLE-002", 30, 1, null);
+    repository.create(kept);
+    repository.create(archived);
+    archived.archivedAt = LocalDateTime.now();
+    repository.update(archived);
+
+    LocationUsage usage = repository.getLocationUsage("ZWOLLE-002");
+
+    assertEquals(before.activeWarehouses + 1, usage.activeWarehouses);
+    assertEquals(before.totalCapacity + 20, usage.totalCapacity);
+  }
+
+  @Test
+  @TestTransaction
+  void getLocationUsagesShouldAggregateActiveWarehousesPerLocation() {
+    repository.create(warehouse("MWH.R09", "AMSTERDAM-002", 20, 1, null));
+    repository.create(warehouse("MWH.R10", "AMSTERDAM-002", 30, 1, null));
+    repository.create(warehouse("MWH.R11", "AMSTERDAM-002", 40, 1, LocalDateTime.now()));
+
+    Map<String, LocationUsage> usages = repository.getLocationUsages(List.of("AMSTERDAM-002", "EMPTY-001"));
+
+    assertEquals(2, usages.get("AMSTERDAM-002").activeWarehouses);
+    assertEquals(50, usages.get("AMSTERDAM-002").totalCapacity);
+    assertEquals(0, usages.get("EMPTY-001").activeWarehouses);
+    assertEquals(repository.getLocationUsage("AMSTERDAM-002").totalCapacity, usages.get("AMSTERDAM-002").totalCapacity);
+  }
+
+  @Test
+  void lockLocationsShouldOnlyBlockTransactionsOnTheSameLocation() throws Exception {
+    CountDownLatch locked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> QuarkusTransaction.requiringNew().run(() -> {
+      repository.lockLocations(List.of("TILBURG-001", "ZWOLLE-001"));
+      locked.countDown();
+      await(release);
+    }));
+    assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+    try {
+      // a different location is not held up
+      CompletableFuture<Void> other = CompletableFuture.runAsync(() -> QuarkusTransaction.requiringNew().run(
+          () -> repository.lockLocations(List.of("AMSTERDAM-001"))));
+      other.get(10, TimeUnit.SECONDS);
+
+      // the same location waits until the holder commits
+      CompletableFuture<Void> same = CompletableFuture.runAsync(() -> QuarkusTransaction.requiringNew().run(
+          () -> repository.lockLocations(List.of("ZWOLLE-001", "AMSTERDAM-001"))));
+      assertThrows(TimeoutException.class, () -> same.get(500, TimeUnit.MILLISECONDS));
+
+      release.countDown();
+      same.get(10, TimeUnit.SECONDS);
+    } finally {
+      release.countDown();
+      holder.get(10, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  @TestTransaction
+  void lockLocationsShouldAcceptEmptyAndRepeatedLocations() {
+    assertDoesNotThrow(() -> repository.lockLocations(List.of()));
+    assertDoesNotThrow(() -> repository.lockLocations(List.of("ZWOLLE-001", "ZWOLLE-001")));
+  }
+
+  @Test
+  void findByBusinessUnitCodeShouldBeServedFromTheQueryCacheUntilTheTableChanges() {
+    QuarkusTransaction.requiringNew().run(() -> assertNull(repository.findByBusinessUnitCode("MWH.R30")));
+    long hits = queryCacheHits();
+    QuarkusTransaction.requiringNew().run(() -> assertNull(repository.findByBusinessUnitCode("MWH.R30")));
+    assertEquals(hits + 1, queryCacheHits());
+
+    // archived from the start, so it takes no room at its location for the other tests
+    QuarkusTransaction.requiringNew()
+        .run(() -> repository.create(warehouse("MWH.R30", "VETSBY-001", 10, 1, LocalDateTime.now())));
+
+    Warehouse found =
+        QuarkusTransaction.requiringNew().call(() -> repository.findByBusinessUnitCode("MWH.R30"));
+    assertNotNull(found);
+    Warehouse byId = QuarkusTransaction.requiringNew().call(() -> repository.findWarehouseById(found.id));
+    assertEquals("MWH.R30", byId.businessUnitCode);
+  }
+
+  @Test
+  void updateShouldNotOverwriteAChangeCommittedSinceTheWarehouseWasRead() {
+    // archived from the start, so it takes no room at its location for the other tests
+    QuarkusTransaction.requiringNew()
+        .run(() -> repository.create(warehouse("MWH.R31", "VETSBY-001", 10, 1, LocalDateTime.now())));
+    Warehouse first = QuarkusTransaction.requiringNew().call(() -> repository.findByBusinessUnitCode("MWH.R31"));
+    Warehouse second = QuarkusTransaction.requiringNew().call(() -> repository.findByBusinessUnitCode("MWH.R31"));
+
+    second.stock = 5;
+    QuarkusTransaction.requiringNew().run(() -> repository.update(second));
+    first.capacity = 20;
+    assertThrows(WarehouseConflictException.class,
+        () -> QuarkusTransaction.requiringNew().run(() -> repository.update(first)));
+
+    Warehouse stored = QuarkusTransaction.requiringNew().call(() -> repository.findWarehouseById(first.id));
+    assertEquals(5, stored.stock);
+    assertEquals(10, stored.capacity);
+  }
+
+  private long queryCacheHits() {
+    return sessionFactory
+        .getStatistics()
+        .getQueryRegionStatistics(WarehouseRepository.QUERY_CACHE_REGION)
+        .getHitCount();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private Warehouse warehouse(String code, String location, int capacity, int stock, LocalDateTime archivedAt) {
+    Warehouse w = new Warehouse();
+    w.businessUnitCode = code;
+    w.location = location;
+    w.capacity = capacity;
+    w.stock = stock;
+    w.createdAt = LocalDateTime.now();
+    w.archivedAt = archivedAt;
+    return w;
+  }
+}
@@ -0,0 +1,93 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class ReactiveWarehouseResourceTest {
+
+  private static final String PATH = "reactive/warehouse";
+
+  @Test
+  public void testLifecycleIsSharedWithTheBlockingAdapter() {
+    String id =
+        given()
+            .contentType(ContentType.JSON)
+            .body(
+                "{\"businessUnitCode\": \"MWH.REACTIVE\", \"location\": \"HELMOND-001\","
+                    + " \"capacity\": 40, \"stock\": 5}")
+            .when()
+            .post(PATH)
+            .then()
+            .statusCode(201)
+            .body("businessUnitCode", is("MWH.REACTIVE"))
+            .extract()
+            .path("id");
+
+    // the same row is visible through the JDBC adapter, and the code stays unique across both
+    given().when().get("warehouse/" + id).then().statusCode(200).body(containsString("HELMOND-001"));
+    given()
+        .contentType(ContentType.JSON)
+        .body(
+            "{\"businessUnitCode\": \"MWH.REACTIVE\", \"location\": \"AMSTERDAM-001\","
+                + " \"capacity\": 10, \"stock\": 0}")
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(400);
+
+    // HELMOND-001 holds a single warehouse, so the replacement only fits once the old one is archived
+    String replacementId =
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"location\": \"HELMOND-001\", \"capacity\": 45, \"stock\": 5}")
+            .when()
+            .post(PATH + "/MWH.REACTIVE/replacement")
+            .then()
+            .statusCode(200)
+            .body("capacity", is(45))
+            .extract()
+            .path("id");
+
+    given().when().get(PATH).then().statusCode(200)
+        .body(containsString(replacementId), not(containsString("\"id\":\"" + id + "\"")));
+    given().when().get("warehouse/MWH.REACTIVE/history").then().statusCode(200)
+        .body("size()", is(2));
+
+    // loads the replacement into the JDBC adapter's second-level cache before archiving it here
+    given().when().get("warehouse/" + replacementId).then().statusCode(200);
+    given().when().delete(PATH + "/" + replacementId).then().statusCode(204);
+    given().when().delete("warehouse/" + replacementId).then().statusCode(400);
+  }
+
+  @Test
+  public void testRejectionsKeepTheStatusCodesOfTheBlockingApi() {
+    given().when().get(PATH + "/9999").then().statusCode(404);
+    given().when().delete(PATH + "/9999").then().statusCode(404);
+
+    given()
+        .contentType(ContentType.JSON)
+        .body(
+            "{\"businessUnitCode\": \"MWH.REACTIVE.BAD\", \"location\": \"NOWHERE-001\","
+                + " \"capacity\": 10, \"stock\": 0}")
+        .when()
+        .post(PATH)
+        .then()
+        .statusCode(400)
+        .body(containsString("NOWHERE-001"));
+
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"location\": \"ZWOLLE-001\", \"capacity\": 40, \"stock\": 99}")
+        .when()
+        .post(PATH + "/MWH.001/replacement")
+        .then()
+        .statusCode(400);
+  }
+}
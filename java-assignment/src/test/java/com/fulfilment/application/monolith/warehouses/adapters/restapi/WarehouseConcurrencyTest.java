@@ -0,0 +1,56 @@
+package com.fulfilment.application.monolith.warehouses.adapters.restapi;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class WarehouseConcurrencyTest {
+
+  @Test
+  public void testConcurrentCreatesCannotExceedLocationLimits() throws Exception {
+    // ZWOLLE-002 allows 2 warehouses; every request on its own would pass validation
+    int requests = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(requests);
+    List<Future<Response>> responses = new ArrayList<>();
+    try {
+      for (int i = 0; i < requests; i++) {
+        String body = "{\"businessUnitCode\": \"MWH.C0" + i
+            + "\", \"location\": \"ZWOLLE-002\", \"capacity\": 20, \"stock\": 0}";
+        Callable<Response> create = () ->
+            given().contentType(ContentType.JSON).body(body).when().post("warehouse");
+        responses.add(executor.submit(create));
+      }
+
+      List<String> createdIds = new ArrayList<>();
+      int rejected = 0;
+      for (Future<Response> future : responses) {
+        Response response = future.get();
+        if (response.statusCode() == 201) {
+          createdIds.add(response.path("id"));
+        } else {
+          assertEquals(400, response.statusCode());
+          rejected++;
+        }
+      }
+
+      assertEquals(2, createdIds.size());
+      assertEquals(requests - 2, rejected);
+
+      // leave the location as it was for other tests
+      createdIds.forEach(id -> given().when().delete("warehouse/" + id).then().statusCode(204));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
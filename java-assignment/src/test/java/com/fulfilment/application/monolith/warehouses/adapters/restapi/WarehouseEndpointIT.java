@@ -1,7 +1,12 @@
 package com.fulfilment.application.monolith.warehouses.adapters.restapi;
 
 import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.core.IsNot.not;
 
 import io.quarkus.test.junit.QuarkusTest;
@@ -186,4 +191,177 @@ public class WarehouseEndpointIT {
         .then()
         .statusCode(404);
   }
+
+  // -------------------------
+  // GET /warehouse — keyset pages and NDJSON stream
+  // -------------------------
+
+  @Test
+  @Order(11)
+  public void testListWarehousesIsPagedById() {
+    // ids 1 (archived) and 2 (replaced) are no longer active, so the first page starts at id=3
+    given()
+        .when()
+        .get("warehouse?limit=1")
+        .then()
+        .statusCode(200)
+        .contentType(ContentType.JSON)
+        .body("size()", is(1), "[0].businessUnitCode", is("MWH.023"));
+
+    given()
+        .when()
+        .get("warehouse?after=3&limit=1")
+        .then()
+        .statusCode(200)
+        .body("size()", is(1), "[0].businessUnitCode", is("MWH.NEW"));
+  }
+
+  @Test
+  @Order(12)
+  public void testListWarehousesWithInvalidLimitReturns400() {
+    given().when().get("warehouse?limit=0").then().statusCode(400);
+    given().when().get("warehouse?limit=1001").then().statusCode(400);
+  }
+
+  @Test
+  @Order(13)
+  public void testStreamWarehousesAsNdjson() {
+    int active = given().when().get("warehouse?limit=1000").then().extract().path("size()");
+
+    String body =
+        given()
+            .accept("application/x-ndjson")
+            .when()
+            .get("warehouse")
+            .then()
+            .statusCode(200)
+            .contentType("application/x-ndjson")
+            .body(containsString("MWH.023"), not(containsString("ZWOLLE-001")))
+            .extract()
+            .asString();
+
+    assertEquals(active, body.lines().count());
+  }
+
+  // -------------------------
+  // POST /warehouse/bulk and /warehouse/replacements/bulk
+  // -------------------------
+
+  @Test
+  @Order(14)
+  public void testCreateWarehousesInBulk() {
+    // VETSBY-001 allows 1 warehouse and EINDHOVEN-001 allows 2 with a capacity of 70
+    String body = "["
+        + "{\"businessUnitCode\": \"MWH.B01\", \"location\": \"EINDHOVEN-001\", \"capacity\": 40, \"stock\": 0},"
+        + "{\"businessUnitCode\": \"MWH.B02\", \"location\": \"EINDHOVEN-001\", \"capacity\": 40, \"stock\": 0},"
+        + "{\"businessUnitCode\": \"MWH.B03\", \"location\": \"VETSBY-001\", \"capacity\": 10, \"stock\": 0},"
+        + "{\"businessUnitCode\": \"MWH.023\", \"location\": \"VETSBY-001\", \"capacity\": 10, \"stock\": 0}"
+        + "]";
+
+    given()
+        .contentType(ContentType.JSON)
+        .body(body)
+        .when()
+        .post("warehouse/bulk")
+        .then()
+        .statusCode(200)
+        .body("size()", is(4),
+            "status", contains(201, 400, 201, 400),
+            "[0].warehouse.location", is("EINDHOVEN-001"),
+            "[1].error", containsString("capacity"));
+
+    given()
+        .when()
+        .get("warehouse?limit=1000")
+        .then()
+        .statusCode(200)
+        .body(containsString("MWH.B01"), not(containsString("MWH.B02")), containsString("MWH.B03"));
+  }
+
+  @Test
+  @Order(15)
+  public void testReplaceWarehousesInBulk() {
+    String body = "["
+        + "{\"businessUnitCode\": \"MWH.B01\", \"location\": \"EINDHOVEN-001\", \"capacity\": 30, \"stock\": 0},"
+        + "{\"businessUnitCode\": \"MWH.NONE\", \"location\": \"EINDHOVEN-001\", \"capacity\": 30, \"stock\": 0}"
+        + "]";
+
+    given()
+        .contentType(ContentType.JSON)
+        .body(body)
+        .when()
+        .post("warehouse/replacements/bulk")
+        .then()
+        .statusCode(200)
+        .body("status", contains(200, 404), "[0].warehouse.capacity", is(30));
+
+    given().contentType(ContentType.JSON).body("[]").when().post("warehouse/replacements/bulk")
+        .then().statusCode(400);
+  }
+
+  @Test
+  @Order(16)
+  public void testHistoryOfReplacedWarehouse() {
+    // MWH.B01 was created and then replaced by the bulk tests above
+    given()
+        .when()
+        .get("warehouse/MWH.B01/history")
+        .then()
+        .statusCode(200)
+        .body("size()", is(2),
+            "warehouse.capacity", contains(40, 30),
+            "[0].archivedAt", notNullValue(),
+            "[1].containsKey('archivedAt')", is(false));
+
+    given().when().get("warehouse/MWH.NONE/history").then().statusCode(404);
+  }
+
+  // -------------------------
+  // Conditional GET — ETags from warehouse versions
+  // -------------------------
+
+  @Test
+  @Order(17)
+  public void testConditionalGetOfWarehousesAndPages() {
+    String page = given().when().get("warehouse?limit=1000").then().extract().header("ETag");
+    assertNotNull(page);
+    given().header("If-None-Match", page).when().get("warehouse?limit=1000").then().statusCode(304);
+
+    // MWH.B03 was created by the bulk test above
+    String id =
+        given().when().get("warehouse?limit=1000").then()
+            .extract().path("find { it.businessUnitCode == 'MWH.B03' }.id");
+    String path = "warehouse/" + id;
+    String single = given().when().get(path).then().statusCode(200).extract().header("ETag");
+    given().header("If-None-Match", single).when().get(path).then().statusCode(304);
+
+    // archiving changes the warehouse, and takes it off the page
+    given().when().delete(path).then().statusCode(204);
+    given().header("If-None-Match", single).when().get(path).then().statusCode(200);
+    given().header("If-None-Match", page).when().get("warehouse?limit=1000").then().statusCode(200)
+        .body(not(containsString("MWH.B03")));
+  }
+
+  @Test
+  @Order(18)
+  public void testArchivingAReplacedGenerationLeavesItsReplacementActive() {
+    // MWH.B01 was replaced by the bulk test above; its first generation is archived
+    String replacedId =
+        given().when().get("warehouse/MWH.B01/history").then().statusCode(200)
+            .extract().path("[0].warehouse.id");
+
+    given()
+        .when()
+        .delete("warehouse/" + replacedId)
+        .then()
+        .statusCode(400)
+        .body(containsString("already archived"));
+
+    given()
+        .when()
+        .get("warehouse/MWH.B01/history")
+        .then()
+        .statusCode(200)
+        .body("size()", is(2), "[1].containsKey('archivedAt')", is(false));
+  }
 }
@@ -1,18 +1,25 @@
 package com.fulfilment.application.monolith.warehouses.adapters.restapi;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.BulkItemResult;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,6 +30,7 @@ public class WarehouseResourceImplTest {
   @Mock private CreateWarehouseOperation createWarehouseOperation;
   @Mock private ReplaceWarehouseOperation replaceWarehouseOperation;
   @Mock private ArchiveWarehouseOperation archiveWarehouseOperation;
+  @Mock private Request request;
 
   @InjectMocks private WarehouseResourceImpl resource;
 
@@ -34,34 +42,48 @@ public class WarehouseResourceImplTest {
   // --- listAllWarehousesUnits ---
 
   @Test
-  void listAllShouldReturnOnlyActiveWarehouses() {
-    Warehouse active = buildWarehouse(1L, "MWH.001", "AMSTERDAM-001", 100, 50, false);
-    Warehouse archived = buildWarehouse(2L, "MWH.002", "ZWOLLE-001", 40, 10, true);
-    when(warehouseStore.getAll()).thenReturn(List.of(active, archived));
+  void listAllShouldReturnActivePageFromStore() {
+    Warehouse first = buildWarehouse(2L, "MWH.012", "AMSTERDAM-001", 50, 5, false);
+    Warehouse second = buildWarehouse(3L, "MWH.023", "TILBURG-001", 30, 27, false);
+    when(warehouseStore.findActivePage(null, 100)).thenReturn(List.of(first, second));
 
-    var result = resource.listAllWarehousesUnits();
+    var result = page(resource.listAllWarehousesUnits(null, 100, request));
 
-    assertEquals(1, result.size());
-    assertEquals("MWH.001", result.get(0).getBusinessUnitCode());
+    assertEquals(2, result.size());
+    assertEquals("2", result.get(0).getId());
+    assertEquals("MWH.023", result.get(1).getBusinessUnitCode());
+    verify(warehouseStore, never()).getAll();
   }
 
   @Test
-  void listAllShouldReturnEmptyWhenNoActiveWarehouses() {
-    Warehouse archived = buildWarehouse(1L, "MWH.001", "AMSTERDAM-001", 100, 50, true);
-    when(warehouseStore.getAll()).thenReturn(List.of(archived));
+  void listAllShouldPassCursorAndLimitToStore() {
+    when(warehouseStore.findActivePage(2L, 1)).thenReturn(List.of());
 
-    var result = resource.listAllWarehousesUnits();
+    var result = page(resource.listAllWarehousesUnits(2L, 1, request));
 
     assertTrue(result.isEmpty());
+    verify(warehouseStore).findActivePageVersions(2L, 1);
+    verify(warehouseStore).findActivePage(2L, 1);
   }
 
   @Test
-  void listAllShouldReturnEmptyWhenStoreIsEmpty() {
-    when(warehouseStore.getAll()).thenReturn(List.of());
+  void listAllShouldAnswer304WithoutLoadingThePageWhenItsTagMatches() {
+    when(warehouseStore.findActivePageVersions(null, 100)).thenReturn(Map.of(2L, 0L));
+    when(request.evaluatePreconditions(any(EntityTag.class))).thenReturn(Response.notModified());
 
-    var result = resource.listAllWarehousesUnits();
+    var response = resource.listAllWarehousesUnits(null, 100, request);
 
-    assertTrue(result.isEmpty());
+    assertEquals(304, response.getStatus());
+    assertNotNull(response.getEntityTag());
+    verify(warehouseStore, never()).findActivePage(any(), anyInt());
+  }
+
+  @Test
+  void listAllShouldThrow400WhenLimitIsOutOfRange() {
+    WebApplicationException ex = assertThrows(WebApplicationException.class,
+        () -> resource.listAllWarehousesUnits(null, 1001, request));
+    assertEquals(400, ex.getResponse().getStatus());
+    verifyNoInteractions(warehouseStore);
   }
 
   // --- getAWarehouseUnitByID ---
@@ -71,7 +93,10 @@ public class WarehouseResourceImplTest {
     Warehouse warehouse = buildWarehouse(1L, "MWH.001", "AMSTERDAM-001", 100, 50, false);
     when(warehouseStore.findWarehouseById(1L)).thenReturn(warehouse);
 
-    var result = resource.getAWarehouseUnitByID("1");
+    var response = resource.getAWarehouseUnitByID("1", request);
+    var result = (com.warehouse.api.beans.Warehouse) response.getEntity();
+
+    assertEquals(new EntityTag("1-0"), response.getEntityTag());
 
     assertEquals("MWH.001", result.getBusinessUnitCode());
     assertEquals("AMSTERDAM-001", result.getLocation());
@@ -83,7 +108,7 @@ public class WarehouseResourceImplTest {
     when(warehouseStore.findWarehouseById(99L)).thenReturn(null);
 
     WebApplicationException ex = assertThrows(WebApplicationException.class,
-        () -> resource.getAWarehouseUnitByID("99"));
+        () -> resource.getAWarehouseUnitByID("99", request));
     assertEquals(404, ex.getResponse().getStatus());
   }
 
@@ -124,6 +149,33 @@ public class WarehouseResourceImplTest {
     assertEquals(404, ex.getResponse().getStatus());
   }
 
+  // --- getTheHistoryOfABusinessUnitCode ---
+
+  @Test
+  void historyShouldReturnEveryGenerationInOrder() {
+    Warehouse archived = buildWarehouse(1L, "MWH.001", "ZWOLLE-001", 100, 10, true);
+    Warehouse active = buildWarehouse(4L, "MWH.001", "ZWOLLE-002", 50, 10, false);
+    archived.createdAt = java.time.LocalDateTime.now().minusDays(2);
+    active.createdAt = java.time.LocalDateTime.now().minusDays(1);
+    when(warehouseStore.findHistory("MWH.001")).thenReturn(List.of(archived, active));
+
+    var result = resource.getTheHistoryOfABusinessUnitCode("MWH.001");
+
+    assertEquals(List.of("1", "4"), result.stream().map(g -> g.getWarehouse().getId()).toList());
+    assertNotNull(result.get(0).getArchivedAt());
+    assertNotNull(result.get(1).getCreatedAt());
+    assertNull(result.get(1).getArchivedAt());
+  }
+
+  @Test
+  void historyShouldReturn404ForUnknownCode() {
+    when(warehouseStore.findHistory("MWH.999")).thenReturn(List.of());
+
+    WebApplicationException ex = assertThrows(WebApplicationException.class,
+        () -> resource.getTheHistoryOfABusinessUnitCode("MWH.999"));
+    assertEquals(404, ex.getResponse().getStatus());
+  }
+
   // --- replaceTheCurrentActiveWarehouse ---
 
   @Test
@@ -139,7 +191,67 @@ public class WarehouseResourceImplTest {
     assertEquals("MWH.001", result.getBusinessUnitCode());
   }
 
-  // Helper
+  // --- bulk ---
+
+  @Test
+  void createInBulkShouldReturnOneResultPerItem() {
+    Warehouse created = buildWarehouse(7L, "MWH.A", "AMSTERDAM-001", 10, 0, false);
+    when(createWarehouseOperation.createAll(any())).thenReturn(List.of(
+        BulkItemResult.succeeded(0, 201, created),
+        BulkItemResult.failed(1, "MWH.001", 400, "already exists")));
+
+    var result = resource.createWarehouseUnitsInBulk(List.of(bean("MWH.A"), bean("MWH.001")));
+
+    assertEquals(2, result.size());
+    assertEquals(201, result.get(0).getStatus());
+    assertEquals("7", result.get(0).getWarehouse().getId());
+    assertNull(result.get(0).getError());
+    assertEquals(1, result.get(1).getIndex());
+    assertEquals("already exists", result.get(1).getError());
+    assertNull(result.get(1).getWarehouse());
+  }
+
+  @Test
+  void replaceInBulkShouldDelegateToUseCase() {
+    when(replaceWarehouseOperation.replaceAll(any())).thenReturn(List.of());
+
+    resource.replaceActiveWarehousesInBulk(List.of(bean("MWH.001")));
+
+    verify(replaceWarehouseOperation).replaceAll(argThat(list ->
+        list.size() == 1 && list.get(0).businessUnitCode.equals("MWH.001")));
+  }
+
+  @Test
+  void bulkShouldThrow400WhenBatchIsEmptyTooLargeOrHasNulls() {
+    List<com.warehouse.api.beans.Warehouse> tooLarge =
+        new ArrayList<>(Collections.nCopies(WarehouseResourceImpl.MAX_BULK_SIZE + 1, bean("MWH.X")));
+    List<com.warehouse.api.beans.Warehouse> withNull = new ArrayList<>();
+    withNull.add(null);
+
+    for (List<com.warehouse.api.beans.Warehouse> batch : List.of(List.<com.warehouse.api.beans.Warehouse>of(), tooLarge, withNull)) {
+      WebApplicationException ex = assertThrows(WebApplicationException.class,
+          () -> resource.createWarehouseUnitsInBulk(batch));
+      assertEquals(400, ex.getResponse().getStatus());
+    }
+    verifyNoInteractions(createWarehouseOperation);
+  }
+
+  private com.warehouse.api.beans.Warehouse bean(String code) {
+    com.warehouse.api.beans.Warehouse input = new com.warehouse.api.beans.Warehouse();
+    input.setBusinessUnitCode(code);
+    input.setLocation("AMSTERDAM-001");
+    input.setCapacity(10);
+    input.setStock(0);
+    return input;
+  }
+
+  // Helpers
+
+  @SuppressWarnings("unchecked")
+  private static List<com.warehouse.api.beans.Warehouse> page(Response response) {
+    assertEquals(200, response.getStatus());
+    return (List<com.warehouse.api.beans.Warehouse>) response.getEntity();
+  }
 
   private Warehouse buildWarehouse(Long id, String code, String location, int capacity, int stock, boolean archived) {
     Warehouse w = new Warehouse();
@@ -149,6 +261,7 @@ public class WarehouseResourceImplTest {
     w.capacity = capacity;
     w.stock = stock;
     w.archivedAt = archived ? java.time.LocalDateTime.now().minusDays(1) : null;
+    w.version = 0L;
     return w;
   }
 }
@@ -0,0 +1,94 @@
+package com.fulfilment.application.monolith.warehouses.analytics;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCapacity;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class UtilisationReadModelTest {
+
+  private WarehouseStore warehouseStore;
+  private UtilisationReadModel readModel;
+
+  @BeforeEach
+  void setUp() {
+    warehouseStore = mock(WarehouseStore.class);
+    readModel = new UtilisationReadModel(warehouseStore, 0.25);
+    readModel.load(
+        List.of(
+            new WarehouseCapacity("MWH.001", "ZWOLLE-001", 100, 10),
+            new WarehouseCapacity("MWH.012", "AMSTERDAM-001", 50, 5),
+            new WarehouseCapacity("MWH.023", "TILBURG-001", 30, 27)));
+  }
+
+  @Test
+  void shouldReportLoadedWarehouses() {
+    UtilisationReport report = readModel.report();
+
+    assertEquals(3, report.network.warehouses);
+    assertEquals(180, report.network.capacity);
+    assertEquals(42, report.network.stock);
+    assertEquals(42.0 / 180, report.network.utilisation, 1e-9);
+    assertEquals(
+        List.of("AMSTERDAM-001", "TILBURG-001", "ZWOLLE-001"),
+        report.locations.stream().map(l -> l.location).toList());
+    // 0.1 twice, tie broken by code; TILBURG-001 is at 0.9
+    assertEquals(
+        List.of("MWH.001", "MWH.012"), report.underused.stream().map(w -> w.businessUnitCode).toList());
+  }
+
+  @Test
+  void shouldApplyCreateReplaceAndArchive() {
+    readModel.apply(WarehouseEvent.created(warehouse("MWH.NEW", "ZWOLLE-001", 20, 20)));
+    readModel.apply(
+        WarehouseEvent.replaced(
+            warehouse("MWH.012", "AMSTERDAM-001", 50, 5), warehouse("MWH.012", "ZWOLLE-001", 10, 5)));
+    readModel.apply(WarehouseEvent.archived(warehouse("MWH.023", "TILBURG-001", 30, 27)));
+
+    UtilisationReport report = readModel.report();
+
+    assertEquals(3, report.network.warehouses);
+    assertEquals(130, report.network.capacity);
+    assertEquals(35, report.network.stock);
+    // AMSTERDAM-001 and TILBURG-001 have no active warehouse left
+    assertEquals(1, report.locations.size());
+    UtilisationTotals zwolle = report.locations.get(0);
+    assertEquals(3, zwolle.warehouses);
+    assertEquals(130, zwolle.capacity);
+    assertEquals(List.of("MWH.001"), report.underused.stream().map(w -> w.businessUnitCode).toList());
+  }
+
+  @Test
+  void shouldNotCountTheSameWarehouseTwice() {
+    readModel.apply(WarehouseEvent.created(warehouse("MWH.NEW", "ZWOLLE-001", 20, 0)));
+    readModel.apply(WarehouseEvent.created(warehouse("MWH.NEW", "ZWOLLE-001", 20, 0)));
+    readModel.apply(WarehouseEvent.archived(warehouse("MWH.UNKNOWN", "ZWOLLE-001", 20, 0)));
+
+    assertEquals(4, readModel.report().network.warehouses);
+  }
+
+  @Test
+  void shouldNotReadTheWarehouseTableForReports() {
+    readModel.report();
+    readModel.apply(WarehouseEvent.created(warehouse("MWH.NEW", "ZWOLLE-001", 20, 0)));
+    readModel.report();
+
+    verifyNoInteractions(warehouseStore);
+  }
+
+  private static Warehouse warehouse(String code, String location, int capacity, int stock) {
+    Warehouse w = new Warehouse();
+    w.businessUnitCode = code;
+    w.location = location;
+    w.capacity = capacity;
+    w.stock = stock;
+    return w;
+  }
+}
@@ -0,0 +1,93 @@
+package com.fulfilment.application.monolith.warehouses.analytics;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.everyItem;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasSize;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+@QuarkusTest
+public class UtilisationResourceTest {
+
+  private static final String PATH = "warehouse/analytics/utilisation";
+
+  @Inject UtilisationSnapshotRecorder recorder;
+
+  @Test
+  public void testReportFollowsCommittedChanges() {
+    int before = given().when().get(PATH).then().statusCode(200).extract().path("network.warehouses");
+
+    String id =
+        given()
+            .contentType(ContentType.JSON)
+            .body(
+                "{\"businessUnitCode\": \"MWH.ANALYTICS\", \"location\": \"HELMOND-001\","
+                    + " \"capacity\": 40, \"stock\": 1}")
+            .when()
+            .post("warehouse")
+            .then()
+            .statusCode(201)
+            .extract()
+            .path("id");
+
+    given()
+        .when()
+        .get(PATH)
+        .then()
+        .statusCode(200)
+        .body("network.warehouses", is(before + 1))
+        .body("locations.location", hasItem("HELMOND-001"))
+        .body("underused.businessUnitCode", hasItem("MWH.ANALYTICS"));
+
+    given().when().delete("warehouse/" + id).then().statusCode(204);
+
+    given().when().get(PATH).then().statusCode(200).body("network.warehouses", is(before));
+  }
+
+  @Test
+  public void testSnapshotsPerBucket() {
+    // far in the past so the scheduled recording cannot write to the same bucket
+    LocalDateTime time = LocalDateTime.parse("2020-01-01T10:15:00");
+    recorder.record(time);
+    recorder.record(time.plusMinutes(30));
+    recorder.record(time.plusHours(1));
+
+    given()
+        .queryParam("from", "2020-01-01T00:00:00")
+        .queryParam("to", "2020-01-02T00:00:00")
+        .when()
+        .get(PATH + "/snapshots")
+        .then()
+        .statusCode(200)
+        .body("$", hasSize(2))
+        .body("[0].bucketStart", is("2020-01-01T10:00:00"))
+        .body("[1].bucketStart", is("2020-01-01T11:00:00"));
+
+    String location = given().when().get(PATH).then().extract().path("locations[0].location");
+    given()
+        .queryParam("location", location)
+        .queryParam("from", "2020-01-01T00:00:00")
+        .queryParam("to", "2020-01-02T00:00:00")
+        .when()
+        .get(PATH + "/snapshots")
+        .then()
+        .statusCode(200)
+        .body("$", hasSize(2))
+        .body("location", everyItem(is(location)));
+
+    given()
+        .queryParam("from", "yesterday")
+        .when()
+        .get(PATH + "/snapshots")
+        .then()
+        .statusCode(400)
+        .body(containsString("date-time"));
+  }
+}
@@ -0,0 +1,33 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkItemResultTest {
+
+  @Test
+  void succeededShouldCarryTheWarehouse() {
+    Warehouse warehouse = new Warehouse();
+    warehouse.businessUnitCode = "MWH.001";
+
+    BulkItemResult result = BulkItemResult.succeeded(3, 201, warehouse);
+
+    assertEquals(3, result.index);
+    assertEquals("MWH.001", result.businessUnitCode);
+    assertEquals(201, result.status);
+    assertSame(warehouse, result.warehouse);
+    assertNull(result.error);
+    assertTrue(result.isSuccess());
+  }
+
+  @Test
+  void failedShouldCarryTheError() {
+    BulkItemResult result = BulkItemResult.failed(0, "MWH.001", 404, "does not exist");
+
+    assertEquals(404, result.status);
+    assertEquals("does not exist", result.error);
+    assertNull(result.warehouse);
+    assertFalse(result.isSuccess());
+  }
+}
@@ -0,0 +1,18 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WarehouseCapacityTest {
+
+  @Test
+  void constructorShouldSetAllFields() {
+    WarehouseCapacity capacity = new WarehouseCapacity("MWH.001", "ZWOLLE-001", 100, 10);
+
+    assertEquals("MWH.001", capacity.businessUnitCode);
+    assertEquals("ZWOLLE-001", capacity.location);
+    assertEquals(100, capacity.capacity);
+    assertEquals(10, capacity.stock);
+  }
+}
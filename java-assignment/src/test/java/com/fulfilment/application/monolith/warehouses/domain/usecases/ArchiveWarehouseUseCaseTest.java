@@ -1,11 +1,16 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseConflictException;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventPublisher;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.ws.rs.WebApplicationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -15,13 +20,31 @@ public class ArchiveWarehouseUseCaseTest {
 
   private WarehouseStore warehouseStore;
   private WarehouseValidator validator;
+  private WarehouseEventPublisher eventPublisher;
+  private SimpleMeterRegistry meterRegistry;
   private ArchiveWarehouseUseCase useCase;
+  // transactions the attempts ran in
+  private int transactions;
 
   @BeforeEach
   void setUp() {
     warehouseStore = mock(WarehouseStore.class);
     validator = mock(WarehouseValidator.class);
-    useCase = new ArchiveWarehouseUseCase(warehouseStore, validator);
+    eventPublisher = mock(WarehouseEventPublisher.class);
+    meterRegistry = new SimpleMeterRegistry();
+    useCase =
+        new ArchiveWarehouseUseCase(
+            warehouseStore,
+            validator,
+            eventPublisher,
+            new WarehouseConflictRetry(
+                meterRegistry,
+                3,
+                Duration.ofMillis(1),
+                work -> {
+                  transactions++;
+                  work.run();
+                }));
   }
 
   @Test
@@ -35,8 +58,11 @@ public class ArchiveWarehouseUseCaseTest {
 
     // then
     assertNotNull(warehouse.archivedAt);
+    verify(validator).validateCurrentGeneration(warehouse, warehouse);
     verify(validator).validateNotArchived(warehouse);
     verify(warehouseStore).update(warehouse);
+    verify(eventPublisher)
+        .publish(argThat(e -> e.type == WarehouseEvent.Type.ARCHIVED && e.warehouse == warehouse));
   }
 
   @Test
@@ -65,6 +91,54 @@ public class ArchiveWarehouseUseCaseTest {
         () -> useCase.archive(warehouse));
     assertEquals(400, ex.getResponse().getStatus());
     verify(warehouseStore, never()).update(any());
+    verify(eventPublisher, never()).publish(any());
+  }
+
+  @Test
+  void shouldReadAgainAndRetryWhenTheWarehouseChangedConcurrently() {
+    // given
+    Warehouse stale = buildActiveWarehouse("MWH.001");
+    Warehouse current = buildActiveWarehouse("MWH.001");
+    when(warehouseStore.findByBusinessUnitCode("MWH.001")).thenReturn(stale, current);
+    doThrow(new WarehouseConflictException("MWH.001")).when(warehouseStore).update(stale);
+
+    // when
+    useCase.archive(buildActiveWarehouse("MWH.001"));
+
+    // then
+    assertNotNull(current.archivedAt);
+    verify(warehouseStore).update(current);
+    verify(eventPublisher)
+        .publish(argThat(e -> e.type == WarehouseEvent.Type.ARCHIVED && e.warehouse == current));
+    assertEquals(1.0, conflicts("retried"));
+    // the conflicting attempt is not continued in the same transaction
+    assertEquals(2, transactions);
+  }
+
+  @Test
+  void shouldFailWith409AfterTheLastConflictingAttempt() {
+    // given
+    Warehouse warehouse = buildActiveWarehouse("MWH.001");
+    when(warehouseStore.findByBusinessUnitCode("MWH.001")).thenReturn(warehouse);
+    doThrow(new WarehouseConflictException("MWH.001")).when(warehouseStore).update(any());
+
+    // when / then
+    WebApplicationException ex = assertThrows(WebApplicationException.class,
+        () -> useCase.archive(warehouse));
+    assertEquals(409, ex.getResponse().getStatus());
+    verify(warehouseStore, times(3)).update(warehouse);
+    verify(eventPublisher, never()).publish(any());
+    assertEquals(2.0, conflicts("retried"));
+    assertEquals(1.0, conflicts("rejected"));
+    assertEquals(3, transactions);
+  }
+
+  private double conflicts(String outcome) {
+    return meterRegistry
+        .get(WarehouseConflictRetry.CONFLICTS_METRIC)
+        .tags("operation", "archive", "outcome", outcome)
+        .counter()
+        .count();
   }
 
   private Warehouse buildActiveWarehouse(String code) {
@@ -1,13 +1,23 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.BulkItemResult;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUsage;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventPublisher;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.ws.rs.WebApplicationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -16,13 +26,15 @@ public class CreateWarehouseUseCaseTest {
 
   private WarehouseStore warehouseStore;
   private WarehouseValidator validator;
+  private WarehouseEventPublisher eventPublisher;
   private CreateWarehouseUseCase useCase;
 
   @BeforeEach
   void setUp() {
     warehouseStore = mock(WarehouseStore.class);
     validator = mock(WarehouseValidator.class);
-    useCase = new CreateWarehouseUseCase(warehouseStore, validator);
+    eventPublisher = mock(WarehouseEventPublisher.class);
+    useCase = new CreateWarehouseUseCase(warehouseStore, validator, eventPublisher);
   }
 
   @Test
@@ -41,6 +53,8 @@ public class CreateWarehouseUseCaseTest {
     verify(validator).validateLocationExists("AMSTERDAM-001");
     verify(validator).validateLocationCapacity("AMSTERDAM-001", location, 20);
     verify(warehouseStore).create(warehouse);
+    verify(eventPublisher)
+        .publish(argThat(e -> e.type == WarehouseEvent.Type.CREATED && e.warehouse == warehouse));
     assertNotNull(warehouse.createdAt);
   }
 
@@ -56,6 +70,7 @@ public class CreateWarehouseUseCaseTest {
         () -> useCase.create(warehouse));
     assertEquals(400, ex.getResponse().getStatus());
     verify(warehouseStore, never()).create(any());
+    verify(eventPublisher, never()).publish(any());
   }
 
   @Test
@@ -106,6 +121,95 @@ public class CreateWarehouseUseCaseTest {
     verify(warehouseStore, never()).create(any());
   }
 
+  @Test
+  void shouldLockLocationBeforeCheckingItsCapacity() {
+    Warehouse warehouse = buildWarehouse("MWH.NEW", "AMSTERDAM-001", 20, 0);
+    Location location = new Location("AMSTERDAM-001", 5, 100);
+    when(validator.validateLocationExists("AMSTERDAM-001")).thenReturn(location);
+
+    useCase.create(warehouse);
+
+    InOrder inOrder = inOrder(warehouseStore, validator);
+    inOrder.verify(warehouseStore).lockLocations(List.of("AMSTERDAM-001"));
+    inOrder.verify(validator).validateLocationCapacity("AMSTERDAM-001", location, 20);
+    inOrder.verify(warehouseStore).create(warehouse);
+  }
+
+  @Test
+  void shouldNotLockWhenLocationDoesNotExist() {
+    Warehouse warehouse = buildWarehouse("MWH.NEW", "INVALID-999", 20, 0);
+    when(validator.validateLocationExists("INVALID-999")).thenThrow(new WebApplicationException(400));
+
+    assertThrows(WebApplicationException.class, () -> useCase.create(warehouse));
+    verify(warehouseStore, never()).lockLocations(any());
+  }
+
+  // --- createAll ---
+
+  @Test
+  void createAllShouldCountCapacityOfEarlierItemsInTheBatch() {
+    // given: AMSTERDAM-001 allows 3 warehouses and 100 capacity, 1 warehouse of 40 already there
+    CreateWarehouseUseCase bulkUseCase = useCaseWithRealValidator(
+        Map.of("AMSTERDAM-001", new Location("AMSTERDAM-001", 3, 100)),
+        Map.of("AMSTERDAM-001", new LocationUsage("AMSTERDAM-001", 1, 40)),
+        Map.of());
+    List<Warehouse> batch = List.of(
+        buildWarehouse("MWH.A", "AMSTERDAM-001", 30, 0),
+        buildWarehouse("MWH.B", "AMSTERDAM-001", 40, 0),
+        buildWarehouse("MWH.C", "AMSTERDAM-001", 30, 0));
+
+    // when
+    List<BulkItemResult> results = bulkUseCase.createAll(batch);
+
+    // then: MWH.B would exceed the capacity after MWH.A; MWH.C still fits in what is left
+    assertEquals(List.of(201, 400, 201), results.stream().map(r -> r.status).toList());
+    assertNotNull(results.get(1).error);
+    verify(warehouseStore).createAll(List.of(batch.get(0), batch.get(2)));
+    verify(eventPublisher, times(2)).publish(argThat(e -> e.type == WarehouseEvent.Type.CREATED));
+    InOrder inOrder = inOrder(warehouseStore);
+    inOrder.verify(warehouseStore).lockLocations(Set.of("AMSTERDAM-001"));
+    inOrder.verify(warehouseStore).getLocationUsages(any());
+    assertNotNull(batch.get(0).createdAt);
+    assertNull(batch.get(1).createdAt);
+  }
+
+  @Test
+  void createAllShouldRejectExistingAndRepeatedCodesAndUnknownLocations() {
+    CreateWarehouseUseCase bulkUseCase = useCaseWithRealValidator(
+        Map.of("AMSTERDAM-001", new Location("AMSTERDAM-001", 10, 1000)),
+        Map.of("AMSTERDAM-001", new LocationUsage("AMSTERDAM-001", 0, 0)),
+        Map.of("MWH.001", buildWarehouse("MWH.001", "ZWOLLE-001", 10, 0)));
+    Warehouse incomplete = buildWarehouse("MWH.D", "AMSTERDAM-001", 10, 0);
+    incomplete.stock = null;
+    List<Warehouse> batch = List.of(
+        buildWarehouse("MWH.001", "AMSTERDAM-001", 10, 0),
+        buildWarehouse("MWH.A", "AMSTERDAM-001", 10, 0),
+        buildWarehouse("MWH.A", "AMSTERDAM-001", 10, 0),
+        buildWarehouse("MWH.B", "INVALID-999", 10, 0),
+        incomplete);
+
+    List<BulkItemResult> results = bulkUseCase.createAll(batch);
+
+    assertEquals(List.of(400, 201, 400, 400, 400), results.stream().map(r -> r.status).toList());
+    assertEquals(List.of(0, 1, 2, 3, 4), results.stream().map(r -> r.index).toList());
+    assertTrue(results.get(1).isSuccess());
+    verify(warehouseStore).createAll(List.of(batch.get(1)));
+    verify(warehouseStore, never()).findByBusinessUnitCode(any());
+    verify(warehouseStore, never()).getLocationUsage(any());
+  }
+
+  private CreateWarehouseUseCase useCaseWithRealValidator(
+      Map<String, Location> locations, Map<String, LocationUsage> usages, Map<String, Warehouse> existing) {
+    LocationResolver locationResolver = mock(LocationResolver.class);
+    when(locationResolver.resolveAll(any())).thenReturn(locations);
+    when(warehouseStore.getLocationUsages(any())).thenReturn(new HashMap<>(usages));
+    when(warehouseStore.findByBusinessUnitCodes(any())).thenReturn(existing);
+    return new CreateWarehouseUseCase(
+        warehouseStore,
+        new WarehouseValidator(warehouseStore, locationResolver, new SimpleMeterRegistry()),
+        eventPublisher);
+  }
+
   private Warehouse buildWarehouse(String code, String location, int capacity, int stock) {
     Warehouse w = new Warehouse();
     w.businessUnitCode = code;
@@ -0,0 +1,198 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUsage;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.ReactiveWarehouseStore;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseConflictException;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.*;
+
+public class ReactiveWarehouseUseCaseTest {
+
+  private ReactiveWarehouseStore warehouseStore;
+  private ReactiveWarehouseStore.Transaction tx;
+  private WarehouseValidator validator;
+  private WarehouseEventPublisher eventPublisher;
+  private ReactiveWarehouseUseCase useCase;
+
+  @BeforeEach
+  void setUp() {
+    warehouseStore = mock(ReactiveWarehouseStore.class);
+    tx = mock(ReactiveWarehouseStore.Transaction.class);
+    validator = mock(WarehouseValidator.class);
+    eventPublisher = mock(WarehouseEventPublisher.class);
+    useCase =
+        new ReactiveWarehouseUseCase(
+            warehouseStore,
+            validator,
+            eventPublisher,
+            new WarehouseConflictRetry(
+                new SimpleMeterRegistry(), 3, Duration.ofMillis(1), Runnable::run));
+
+    when(warehouseStore.inTransaction(any()))
+        .thenAnswer(
+            invocation ->
+                invocation.<Function<ReactiveWarehouseStore.Transaction, Uni<?>>>getArgument(0)
+                    .apply(tx));
+    when(tx.lockLocations(any())).thenReturn(Uni.createFrom().voidItem());
+    when(tx.create(any())).thenReturn(Uni.createFrom().voidItem());
+    when(tx.update(any())).thenReturn(Uni.createFrom().voidItem());
+    when(tx.getLocationUsage(any()))
+        .thenAnswer(invocation -> Uni.createFrom().item(new LocationUsage(invocation.getArgument(0), 0, 0)));
+  }
+
+  @Test
+  void shouldCreateWarehouseAndPublishAfterCommit() {
+    // given
+    Warehouse warehouse = buildWarehouse("MWH.NEW", "AMSTERDAM-001", 50, 10);
+    Location location = new Location("AMSTERDAM-001", 5, 100);
+    when(tx.findByBusinessUnitCode("MWH.NEW")).thenReturn(Uni.createFrom().nullItem());
+    when(validator.validateLocationExists("AMSTERDAM-001")).thenReturn(location);
+
+    // when
+    useCase.create(warehouse).await().indefinitely();
+
+    // then
+    assertNotNull(warehouse.createdAt);
+    verify(tx).lockLocations(List.of("AMSTERDAM-001"));
+    verify(validator)
+        .validateLocationCapacity(eq("AMSTERDAM-001"), eq(location), any(LocationUsage.class), eq(50));
+    verify(tx).create(warehouse);
+    verify(eventPublisher)
+        .publish(argThat(e -> e.type == WarehouseEvent.Type.CREATED && e.warehouse == warehouse));
+  }
+
+  @Test
+  void shouldFailCreateWithoutStoringWhenTheCodeIsTaken() {
+    // given
+    Warehouse warehouse = buildWarehouse("MWH.001", "AMSTERDAM-001", 50, 10);
+    when(tx.findByBusinessUnitCode("MWH.001"))
+        .thenReturn(Uni.createFrom().item(buildWarehouse("MWH.001", "ZWOLLE-001", 40, 10)));
+    doThrow(new WebApplicationException(400))
+        .when(validator).validateBusinessUnitCodeIsUnique(eq("MWH.001"), anySet());
+
+    // when / then
+    WebApplicationException ex = assertThrows(WebApplicationException.class,
+        () -> useCase.create(warehouse).await().indefinitely());
+    assertEquals(400, ex.getResponse().getStatus());
+    verify(tx, never()).create(any());
+    verify(eventPublisher, never()).publish(any());
+  }
+
+  @Test
+  void shouldArchiveTheOldWarehouseBeforeCheckingCapacityOnReplace() {
+    // given
+    Warehouse existing = buildWarehouse("MWH.001", "ZWOLLE-001", 40, 10);
+    Warehouse replacement = buildWarehouse("MWH.001", "ZWOLLE-001", 30, 10);
+    Location location = new Location("ZWOLLE-001", 1, 40);
+    when(tx.findByBusinessUnitCode("MWH.001")).thenReturn(Uni.createFrom().item(existing));
+    when(validator.validateLocationExists("ZWOLLE-001")).thenReturn(location);
+
+    // when
+    useCase.replace(replacement).await().indefinitely();
+
+    // then
+    var order = inOrder(tx, validator);
+    order.verify(tx).update(existing);
+    order.verify(validator)
+        .validateLocationCapacity(eq("ZWOLLE-001"), eq(location), any(LocationUsage.class), eq(30));
+    order.verify(tx).create(replacement);
+    assertNotNull(existing.archivedAt);
+    verify(eventPublisher)
+        .publish(argThat(e -> e.type == WarehouseEvent.Type.REPLACED
+            && e.replaced == existing && e.warehouse == replacement));
+  }
+
+  @Test
+  void shouldRejectReplacementWithDifferentStock() {
+    // given
+    Warehouse existing = buildWarehouse("MWH.001", "ZWOLLE-001", 40, 10);
+    Warehouse replacement = buildWarehouse("MWH.001", "ZWOLLE-001", 40, 5);
+    when(tx.findByBusinessUnitCode("MWH.001")).thenReturn(Uni.createFrom().item(existing));
+
+    // when / then
+    WebApplicationException ex = assertThrows(WebApplicationException.class,
+        () -> useCase.replace(replacement).await().indefinitely());
+    assertEquals(400, ex.getResponse().getStatus());
+    verify(tx, never()).update(any());
+    verify(tx, never()).create(any());
+  }
+
+  @Test
+  void shouldRejectArchivingNonExistentWarehouse() {
+    // given
+    Warehouse warehouse = buildWarehouse("MWH.999", "AMSTERDAM-001", 50, 10);
+    when(tx.findByBusinessUnitCode("MWH.999")).thenReturn(Uni.createFrom().nullItem());
+
+    // when / then
+    WebApplicationException ex = assertThrows(WebApplicationException.class,
+        () -> useCase.archive(warehouse).await().indefinitely());
+    assertEquals(404, ex.getResponse().getStatus());
+    verify(tx, never()).update(any());
+    verify(eventPublisher, never()).publish(any());
+  }
+
+  @Test
+  void shouldArchiveWarehouse() {
+    // given
+    Warehouse warehouse = buildWarehouse("MWH.001", "AMSTERDAM-001", 50, 10);
+    when(tx.findByBusinessUnitCode("MWH.001")).thenReturn(Uni.createFrom().item(warehouse));
+
+    // when
+    useCase.archive(warehouse).await().indefinitely();
+
+    // then
+    assertNotNull(warehouse.archivedAt);
+    verify(validator).validateNotArchived(warehouse);
+    verify(tx).update(warehouse);
+    verify(eventPublisher)
+        .publish(argThat(e -> e.type == WarehouseEvent.Type.ARCHIVED && e.warehouse == warehouse));
+  }
+
+  @Test
+  void shouldRunTheTransactionAgainWhenTheWarehouseChangedConcurrently() {
+    // given
+    Warehouse stale = buildWarehouse("MWH.001", "AMSTERDAM-001", 50, 10);
+    Warehouse current = buildWarehouse("MWH.001", "AMSTERDAM-001", 50, 10);
+    when(tx.findByBusinessUnitCode("MWH.001"))
+        .thenReturn(Uni.createFrom().item(stale))
+        .thenReturn(Uni.createFrom().item(current));
+    when(tx.update(stale))
+        .thenReturn(Uni.createFrom().failure(new WarehouseConflictException("MWH.001")));
+
+    // when
+    useCase.archive(buildWarehouse("MWH.001", "AMSTERDAM-001", 50, 10)).await().indefinitely();
+
+    // then
+    verify(warehouseStore, times(2)).inTransaction(any());
+    verify(tx).update(current);
+    verify(eventPublisher)
+        .publish(argThat(e -> e.type == WarehouseEvent.Type.ARCHIVED && e.warehouse == current));
+  }
+
+  private Warehouse buildWarehouse(String code, String location, int capacity, int stock) {
+    Warehouse w = new Warehouse();
+    w.id = 1L;
+    w.businessUnitCode = code;
+    w.location = location;
+    w.capacity = capacity;
+    w.stock = stock;
+    w.createdAt = LocalDateTime.now().minusDays(1);
+    return w;
+  }
+}
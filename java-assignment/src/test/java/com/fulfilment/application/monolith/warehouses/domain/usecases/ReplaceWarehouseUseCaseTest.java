@@ -1,13 +1,27 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.BulkItemResult;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUsage;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseEvent;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseConflictException;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseEventPublisher;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.ws.rs.WebApplicationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -16,13 +30,15 @@ public class ReplaceWarehouseUseCaseTest {
 
   private WarehouseStore warehouseStore;
   private WarehouseValidator validator;
+  private WarehouseEventPublisher eventPublisher;
   private ReplaceWarehouseUseCase useCase;
 
   @BeforeEach
   void setUp() {
     warehouseStore = mock(WarehouseStore.class);
     validator = mock(WarehouseValidator.class);
-    useCase = new ReplaceWarehouseUseCase(warehouseStore, validator);
+    eventPublisher = mock(WarehouseEventPublisher.class);
+    useCase = new ReplaceWarehouseUseCase(warehouseStore, validator, eventPublisher, conflictRetry());
   }
 
   @Test
@@ -46,6 +62,34 @@ public class ReplaceWarehouseUseCaseTest {
     verify(validator).validateLocationCapacity("ZWOLLE-001", location, 50);
     verify(warehouseStore).update(existing);
     verify(warehouseStore).create(newWarehouse);
+    verify(eventPublisher)
+        .publish(
+            argThat(
+                e ->
+                    e.type == WarehouseEvent.Type.REPLACED
+                        && e.replaced == existing
+                        && e.warehouse == newWarehouse));
+  }
+
+  @Test
+  void shouldCheckTheReplacementAgainAgainstAConcurrentlyChangedWarehouse() {
+    // given - the stock changed between reading and archiving the existing warehouse
+    Warehouse stale = buildActiveWarehouse("MWH.001", "ZWOLLE-001", 100, 10);
+    Warehouse current = buildActiveWarehouse("MWH.001", "ZWOLLE-001", 100, 12);
+    Warehouse newWarehouse = buildActiveWarehouse("MWH.001", "ZWOLLE-001", 50, 10);
+    when(warehouseStore.findByBusinessUnitCode("MWH.001")).thenReturn(stale, current);
+    when(validator.validateLocationExists("ZWOLLE-001"))
+        .thenReturn(new Location("ZWOLLE-001", 2, 80));
+    doThrow(new WarehouseConflictException("MWH.001")).when(warehouseStore).update(stale);
+
+    // when / then - the retry sees the new stock, which the replacement no longer matches
+    WebApplicationException ex = assertThrows(WebApplicationException.class,
+        () -> useCase.replace(newWarehouse));
+    assertEquals(400, ex.getResponse().getStatus());
+    assertNull(current.archivedAt);
+    verify(warehouseStore, never()).update(current);
+    verify(warehouseStore, never()).create(any());
+    verify(eventPublisher, never()).publish(any());
   }
 
   @Test
@@ -67,6 +111,7 @@ public class ReplaceWarehouseUseCaseTest {
     // old warehouse is archived before capacity check, but new one must not be created
     verify(warehouseStore).update(existing);
     verify(warehouseStore, never()).create(any());
+    verify(eventPublisher, never()).publish(any());
   }
 
   @Test
@@ -166,6 +211,123 @@ public class ReplaceWarehouseUseCaseTest {
     verify(warehouseStore, never()).create(any());
   }
 
+  @Test
+  void shouldLockBothLocationsBeforeCheckingCapacity() {
+    Warehouse existing = buildActiveWarehouse("MWH.001", "ZWOLLE-001", 40, 10);
+    Warehouse newWarehouse = buildActiveWarehouse("MWH.001", "AMSTERDAM-001", 50, 10);
+    Location location = new Location("AMSTERDAM-001", 5, 100);
+    when(warehouseStore.findByBusinessUnitCode("MWH.001")).thenReturn(existing);
+    when(validator.validateLocationExists("AMSTERDAM-001")).thenReturn(location);
+
+    useCase.replace(newWarehouse);
+
+    InOrder inOrder = inOrder(warehouseStore, validator);
+    inOrder.verify(warehouseStore).lockLocations(List.of("ZWOLLE-001", "AMSTERDAM-001"));
+    inOrder.verify(warehouseStore).update(existing);
+    inOrder.verify(validator).validateLocationCapacity("AMSTERDAM-001", location, 50);
+  }
+
+  // --- replaceAll ---
+
+  @Test
+  void replaceAllShouldArchiveAndCreateValidItemsInOneGo() {
+    // given: ZWOLLE-001 holds one warehouse and allows one; replacing it in place must still fit
+    Warehouse existing = buildActiveWarehouse("MWH.001", "ZWOLLE-001", 40, 10);
+    existing.id = 1L;
+    ReplaceWarehouseUseCase bulkUseCase = useCaseWithRealValidator(
+        Map.of("ZWOLLE-001", new Location("ZWOLLE-001", 1, 40)),
+        Map.of("ZWOLLE-001", new LocationUsage("ZWOLLE-001", 1, 40)),
+        Map.of("MWH.001", existing));
+    List<Warehouse> batch = List.of(
+        buildActiveWarehouse("MWH.001", "ZWOLLE-001", 40, 10),
+        buildActiveWarehouse("MWH.999", "ZWOLLE-001", 40, 10));
+
+    // when
+    List<BulkItemResult> results = bulkUseCase.replaceAll(batch);
+
+    // then
+    assertEquals(List.of(200, 404), results.stream().map(r -> r.status).toList());
+    assertNotNull(existing.archivedAt);
+    verify(warehouseStore).updateAll(List.of(existing));
+    InOrder inOrder = inOrder(warehouseStore);
+    inOrder.verify(warehouseStore).lockLocations(Set.of("ZWOLLE-001"));
+    inOrder.verify(warehouseStore).getLocationUsages(Set.of("ZWOLLE-001"));
+    verify(warehouseStore).createAll(List.of(batch.get(0)));
+    verify(eventPublisher)
+        .publish(argThat(e -> e.replaced == existing && e.warehouse == batch.get(0)));
+    verify(warehouseStore, never()).update(any());
+  }
+
+  @Test
+  void replaceAllShouldRestoreLocationUsageWhenAnItemIsRejected() {
+    // given: moving MWH.001 to full AMSTERDAM-001 fails, so ZWOLLE-001 must keep counting it
+    Warehouse first = buildActiveWarehouse("MWH.001", "ZWOLLE-001", 40, 10);
+    Warehouse second = buildActiveWarehouse("MWH.002", "TILBURG-001", 40, 10);
+    ReplaceWarehouseUseCase bulkUseCase = useCaseWithRealValidator(
+        Map.of("AMSTERDAM-001", new Location("AMSTERDAM-001", 1, 100),
+            "ZWOLLE-001", new Location("ZWOLLE-001", 1, 40)),
+        Map.of("AMSTERDAM-001", new LocationUsage("AMSTERDAM-001", 1, 50),
+            "ZWOLLE-001", new LocationUsage("ZWOLLE-001", 1, 40),
+            "TILBURG-001", new LocationUsage("TILBURG-001", 1, 40)),
+        Map.of("MWH.001", first, "MWH.002", second));
+    List<Warehouse> batch = List.of(
+        buildActiveWarehouse("MWH.001", "AMSTERDAM-001", 40, 10),
+        buildActiveWarehouse("MWH.002", "ZWOLLE-001", 40, 10));
+
+    List<BulkItemResult> results = bulkUseCase.replaceAll(batch);
+
+    assertEquals(List.of(400, 400), results.stream().map(r -> r.status).toList());
+    assertNull(first.archivedAt);
+    verify(warehouseStore).createAll(List.of());
+  }
+
+  @Test
+  void replaceAllShouldRejectRepeatedArchivedAndMismatchedItems() {
+    Warehouse archived = buildActiveWarehouse("MWH.OLD", "ZWOLLE-001", 40, 10);
+    archived.archivedAt = LocalDateTime.now();
+    ReplaceWarehouseUseCase bulkUseCase = useCaseWithRealValidator(
+        Map.of("ZWOLLE-001", new Location("ZWOLLE-001", 5, 500)),
+        Map.of("ZWOLLE-001", new LocationUsage("ZWOLLE-001", 1, 40)),
+        Map.of("MWH.001", buildActiveWarehouse("MWH.001", "ZWOLLE-001", 40, 10),
+            "MWH.002", buildActiveWarehouse("MWH.002", "ZWOLLE-001", 40, 10),
+            "MWH.OLD", archived));
+    List<Warehouse> batch = List.of(
+        buildActiveWarehouse("MWH.001", "ZWOLLE-001", 40, 10),
+        buildActiveWarehouse("MWH.001", "ZWOLLE-001", 40, 10),
+        buildActiveWarehouse("MWH.OLD", "ZWOLLE-001", 40, 10),
+        buildActiveWarehouse("MWH.002", "ZWOLLE-001", 5, 10),
+        buildActiveWarehouse("MWH.002", "ZWOLLE-001", 40, 9));
+
+    List<BulkItemResult> results = bulkUseCase.replaceAll(batch);
+
+    assertEquals(List.of(200, 400, 400, 400, 400), results.stream().map(r -> r.status).toList());
+  }
+
+  private ReplaceWarehouseUseCase useCaseWithRealValidator(
+      Map<String, Location> locations, Map<String, LocationUsage> usages, Map<String, Warehouse> existing) {
+    LocationResolver locationResolver = mock(LocationResolver.class);
+    when(locationResolver.resolveAll(any())).thenAnswer(invocation -> {
+      Map<String, Location> resolved = new HashMap<>();
+      for (Object identifier : (Collection<?>) invocation.getArgument(0)) {
+        if (locations.containsKey(identifier)) {
+          resolved.put((String) identifier, locations.get(identifier));
+        }
+      }
+      return resolved;
+    });
+    when(warehouseStore.getLocationUsages(any())).thenReturn(new HashMap<>(usages));
+    when(warehouseStore.findByBusinessUnitCodes(any())).thenReturn(existing);
+    return new ReplaceWarehouseUseCase(
+        warehouseStore,
+        new WarehouseValidator(warehouseStore, locationResolver, new SimpleMeterRegistry()),
+        eventPublisher,
+        conflictRetry());
+  }
+
+  private static WarehouseConflictRetry conflictRetry() {
+    return new WarehouseConflictRetry(new SimpleMeterRegistry(), 3, Duration.ofMillis(1), Runnable::run);
+  }
+
   private Warehouse buildActiveWarehouse(String code, String location, int capacity, int stock) {
     Warehouse w = new Warehouse();
     w.businessUnitCode = code;
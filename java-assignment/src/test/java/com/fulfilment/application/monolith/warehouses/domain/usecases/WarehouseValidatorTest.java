@@ -1,15 +1,19 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationUsage;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.ws.rs.WebApplicationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,13 +22,15 @@ public class WarehouseValidatorTest {
 
   private WarehouseStore warehouseStore;
   private LocationResolver locationResolver;
+  private SimpleMeterRegistry meterRegistry;
   private WarehouseValidator validator;
 
   @BeforeEach
   void setUp() {
     warehouseStore = mock(WarehouseStore.class);
     locationResolver = mock(LocationResolver.class);
-    validator = new WarehouseValidator(warehouseStore, locationResolver);
+    meterRegistry = new SimpleMeterRegistry();
+    validator = new WarehouseValidator(warehouseStore, locationResolver, meterRegistry);
   }
 
   // --- validateBusinessUnitCodeIsUnique ---
@@ -82,12 +88,37 @@ public class WarehouseValidatorTest {
     assertEquals(400, ex.getResponse().getStatus());
   }
 
+  // --- validateCurrentGeneration ---
+
+  @Test
+  void shouldPassWhenTheAddressedWarehouseIsTheCurrentGeneration() {
+    Warehouse addressed = buildWarehouse("MWH.001", "ZWOLLE-001", 50, 10, null);
+    addressed.id = 1L;
+    Warehouse current = buildWarehouse("MWH.001", "ZWOLLE-001", 50, 10, null);
+    current.id = 1L;
+
+    assertDoesNotThrow(() -> validator.validateCurrentGeneration(addressed, current));
+  }
+
+  @Test
+  void shouldThrow400WhenTheAddressedWarehouseWasReplaced() {
+    Warehouse addressed = buildWarehouse("MWH.001", "ZWOLLE-001", 50, 10, LocalDateTime.now());
+    addressed.id = 1L;
+    Warehouse current = buildWarehouse("MWH.001", "ZWOLLE-001", 50, 10, null);
+    current.id = 2L;
+
+    WebApplicationException ex = assertThrows(WebApplicationException.class,
+        () -> validator.validateCurrentGeneration(addressed, current));
+    assertEquals(400, ex.getResponse().getStatus());
+    assertEquals("Warehouse with id 1 is already archived.", ex.getMessage());
+  }
+
   // --- validateLocationCapacity ---
 
   @Test
   void shouldPassWhenLocationHasCapacityAndSlots() {
     Location location = new Location("AMSTERDAM-001", 5, 100);
-    when(warehouseStore.getAll()).thenReturn(List.of());
+    when(warehouseStore.getLocationUsage("AMSTERDAM-001")).thenReturn(new LocationUsage("AMSTERDAM-001", 0, 0));
 
     assertDoesNotThrow(() -> validator.validateLocationCapacity("AMSTERDAM-001", location, 30));
   }
@@ -95,8 +126,7 @@ public class WarehouseValidatorTest {
   @Test
   void shouldThrow400WhenMaxWarehousesPerLocationReached() {
     Location location = new Location("ZWOLLE-001", 1, 40);
-    Warehouse existing = buildWarehouse("MWH.001", "ZWOLLE-001", 20, 5, null);
-    when(warehouseStore.getAll()).thenReturn(List.of(existing));
+    when(warehouseStore.getLocationUsage("ZWOLLE-001")).thenReturn(new LocationUsage("ZWOLLE-001", 1, 20));
 
     WebApplicationException ex = assertThrows(WebApplicationException.class,
         () -> validator.validateLocationCapacity("ZWOLLE-001", location, 10));
@@ -107,8 +137,7 @@ public class WarehouseValidatorTest {
   @Test
   void shouldThrow400WhenCapacityExceedsLocationMax() {
     Location location = new Location("AMSTERDAM-001", 5, 100);
-    Warehouse existing = buildWarehouse("MWH.001", "AMSTERDAM-001", 80, 10, null);
-    when(warehouseStore.getAll()).thenReturn(List.of(existing));
+    when(warehouseStore.getLocationUsage("AMSTERDAM-001")).thenReturn(new LocationUsage("AMSTERDAM-001", 1, 80));
 
     WebApplicationException ex = assertThrows(WebApplicationException.class,
         () -> validator.validateLocationCapacity("AMSTERDAM-001", location, 30));
@@ -117,15 +146,106 @@ public class WarehouseValidatorTest {
   }
 
   @Test
-  void shouldNotCountArchivedWarehousesInCapacityCheck() {
+  void shouldPassWhenCapacityExactlyReachesLocationMax() {
     Location location = new Location("AMSTERDAM-001", 5, 100);
-    Warehouse archived = buildWarehouse("MWH.001", "AMSTERDAM-001", 80, 10, LocalDateTime.now().minusDays(1));
-    when(warehouseStore.getAll()).thenReturn(List.of(archived));
+    when(warehouseStore.getLocationUsage("AMSTERDAM-001")).thenReturn(new LocationUsage("AMSTERDAM-001", 1, 80));
 
-    // archived warehouse's capacity should not count — 20 capacity should pass
     assertDoesNotThrow(() -> validator.validateLocationCapacity("AMSTERDAM-001", location, 20));
   }
 
+  @Test
+  void shouldUseLocationAggregateInsteadOfLoadingAllWarehouses() {
+    Location location = new Location("AMSTERDAM-001", 5, 100);
+    when(warehouseStore.getLocationUsage("AMSTERDAM-001")).thenReturn(new LocationUsage("AMSTERDAM-001", 2, 30));
+
+    validator.validateLocationCapacity("AMSTERDAM-001", location, 20);
+
+    verify(warehouseStore).getLocationUsage("AMSTERDAM-001");
+    verify(warehouseStore, never()).getAll();
+  }
+
+  // --- batch variants ---
+
+  @Test
+  void shouldThrow400WhenBusinessUnitCodeIsAmongTakenCodes() {
+    WebApplicationException ex = assertThrows(WebApplicationException.class,
+        () -> validator.validateBusinessUnitCodeIsUnique("MWH.001", Set.of("MWH.001")));
+    assertEquals(400, ex.getResponse().getStatus());
+    assertDoesNotThrow(() -> validator.validateBusinessUnitCodeIsUnique("MWH.NEW", Set.of("MWH.001")));
+    verifyNoInteractions(warehouseStore);
+  }
+
+  @Test
+  void shouldThrow400WhenBatchWarehouseIsIncomplete() {
+    Warehouse complete = buildWarehouse("MWH.001", "ZWOLLE-001", 50, 10, null);
+    Warehouse missingCapacity = buildWarehouse("MWH.002", "ZWOLLE-001", 50, 10, null);
+    missingCapacity.capacity = null;
+
+    assertDoesNotThrow(() -> validator.validateComplete(complete));
+    WebApplicationException ex = assertThrows(WebApplicationException.class,
+        () -> validator.validateComplete(missingCapacity));
+    assertEquals(400, ex.getResponse().getStatus());
+  }
+
+  @Test
+  void shouldResolveBatchLocationsInOneCall() {
+    Location zwolle = new Location("ZWOLLE-001", 1, 40);
+    when(locationResolver.resolveAll(List.of("ZWOLLE-001", "INVALID-999")))
+        .thenReturn(Map.of("ZWOLLE-001", zwolle));
+
+    Map<String, Location> resolved = validator.resolveLocations(List.of("ZWOLLE-001", "INVALID-999"));
+
+    assertSame(zwolle, validator.validateLocationExists("ZWOLLE-001", resolved));
+    WebApplicationException ex = assertThrows(WebApplicationException.class,
+        () -> validator.validateLocationExists("INVALID-999", resolved));
+    assertEquals(400, ex.getResponse().getStatus());
+    verify(locationResolver, never()).resolveByIdentifier(any());
+  }
+
+  @Test
+  void shouldValidateCapacityAgainstGivenUsageWithoutQuerying() {
+    Location location = new Location("AMSTERDAM-001", 5, 100);
+
+    assertDoesNotThrow(() -> validator.validateLocationCapacity(
+        "AMSTERDAM-001", location, new LocationUsage("AMSTERDAM-001", 4, 70), 30));
+    WebApplicationException ex = assertThrows(WebApplicationException.class,
+        () -> validator.validateLocationCapacity(
+            "AMSTERDAM-001", location, new LocationUsage("AMSTERDAM-001", 4, 71), 30));
+    assertEquals(400, ex.getResponse().getStatus());
+    verifyNoInteractions(warehouseStore);
+  }
+
+  // --- rejection metrics ---
+
+  @Test
+  void shouldCountRejectionsByRule() {
+    when(locationResolver.resolveByIdentifier("INVALID-999")).thenReturn(null);
+    Location location = new Location("ZWOLLE-001", 1, 40);
+
+    assertThrows(WebApplicationException.class, () -> validator.validateLocationExists("INVALID-999"));
+    assertThrows(WebApplicationException.class, () -> validator.validateLocationExists("INVALID-999"));
+    assertThrows(WebApplicationException.class,
+        () -> validator.validateLocationCapacity("ZWOLLE-001", location, new LocationUsage("ZWOLLE-001", 0, 30), 20));
+
+    assertEquals(2, rejections("unknown-location"));
+    assertEquals(1, rejections("location-capacity-limit"));
+    assertEquals(0, rejections("location-warehouse-limit"));
+  }
+
+  @Test
+  void shouldNotCountWhenValidationPasses() {
+    when(warehouseStore.findByBusinessUnitCode("MWH.NEW")).thenReturn(null);
+
+    validator.validateBusinessUnitCodeIsUnique("MWH.NEW");
+
+    assertTrue(meterRegistry.find(WarehouseValidator.REJECTIONS_METRIC).counters().isEmpty());
+  }
+
+  private double rejections(String rule) {
+    var counter = meterRegistry.find(WarehouseValidator.REJECTIONS_METRIC).tag("rule", rule).counter();
+    return counter == null ? 0 : counter.count();
+  }
+
   private Warehouse buildWarehouse(String code, String location, int capacity, int stock, LocalDateTime archivedAt) {
     Warehouse w = new Warehouse();
     w.businessUnitCode = code;